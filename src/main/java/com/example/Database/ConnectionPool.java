@@ -0,0 +1,328 @@
+package com.example.Database;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Iterator;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Bounded pool of MySQL connections used by DatabaseConnection.
+ * Callers borrow a connection and return it by calling close() on it, so the
+ * existing try-with-resources blocks in the DAOs keep working unchanged while
+ * the physical connection stays open for the next caller.
+ * Each pooled connection keeps its own StatementCache, so repeated
+ * prepareStatement calls with the same SQL reuse the server-side statement.
+ */
+public class ConnectionPool {
+
+    private static final Logger LOGGER = Logger.getLogger(ConnectionPool.class.getName());
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final int maxSize;
+    private final int minSize;
+    private final long maxIdleMillis;
+    private final long maxWaitMillis;
+    private final int validationTimeout;
+    private final int statementCacheSize;
+
+    // Most recently returned connections are reused first so idle ones can age out
+    private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    private final Semaphore permits;
+    private final AtomicInteger openCount = new AtomicInteger();
+    private final AtomicLong statementCacheHits = new AtomicLong();
+    private final AtomicLong statementCacheMisses = new AtomicLong();
+    private final ScheduledExecutorService evictor;
+    private volatile boolean closed;
+
+    /**
+     * Create a pool using the settings in DBConfig.
+     */
+    public ConnectionPool() {
+        this(DBConfig.DB_URL, DBConfig.DB_USER, DBConfig.DB_PASSWORD,
+             DBConfig.MAX_POOL_SIZE, DBConfig.MIN_POOL_SIZE,
+             DBConfig.MAX_IDLE_TIME, DBConfig.MAX_WAIT_TIME, DBConfig.VALIDATION_TIMEOUT,
+             DBConfig.STATEMENT_CACHE_SIZE);
+    }
+
+    /**
+     * Create a pool with explicit settings.
+     * @param maxIdleSeconds idle connections above minSize are closed after this many seconds
+     * @param maxWaitSeconds how long borrow() waits for a free connection before failing
+     * @param validationTimeout seconds allowed for the isValid() check on borrow
+     * @param statementCacheSize prepared statements cached per connection, 0 to disable
+     */
+    public ConnectionPool(String url, String user, String password, int maxSize, int minSize,
+                          int maxIdleSeconds, int maxWaitSeconds, int validationTimeout,
+                          int statementCacheSize) {
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.maxSize = maxSize;
+        this.minSize = Math.min(minSize, maxSize);
+        this.maxIdleMillis = TimeUnit.SECONDS.toMillis(maxIdleSeconds);
+        this.maxWaitMillis = TimeUnit.SECONDS.toMillis(maxWaitSeconds);
+        this.validationTimeout = validationTimeout;
+        this.statementCacheSize = statementCacheSize;
+        this.permits = new Semaphore(maxSize, true);
+
+        this.evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "db-pool-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1000, maxIdleMillis / 2);
+        evictor.scheduleWithFixedDelay(this::evictIdleConnections, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Open the minimum number of idle connections.
+     * @throws SQLException if a connection cannot be established
+     */
+    public void prefill() throws SQLException {
+        while (openCount.get() < minSize && !closed) {
+            idle.offerLast(createConnection());
+        }
+    }
+
+    /**
+     * Borrow a connection, waiting up to the configured max wait time.
+     * @return a connection whose close() returns it to the pool
+     * @throws SQLException if the pool is closed, exhausted, or the database is unreachable
+     */
+    public Connection borrow() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed");
+        }
+
+        try {
+            if (!permits.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS)) {
+                throw new SQLException("Timed out after " + maxWaitMillis + " ms waiting for a database connection ("
+                        + maxSize + " in use)");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+
+        try {
+            PooledConnection pooled;
+            while ((pooled = idle.pollFirst()) != null) {
+                if (isUsable(pooled)) {
+                    return pooled.lease();
+                }
+                discard(pooled);
+            }
+            return createConnection().lease();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Return a borrowed connection to the pool. Called from the proxy's close().
+     */
+    void release(PooledConnection pooled) {
+        try {
+            Connection physical = pooled.physical;
+            if (closed || physical.isClosed()) {
+                discard(pooled);
+                return;
+            }
+
+            // Never hand the next caller a half-finished transaction
+            if (!physical.getAutoCommit()) {
+                physical.rollback();
+                physical.setAutoCommit(true);
+            }
+
+            pooled.statementCache.releaseAll();
+            pooled.lastUsed = System.currentTimeMillis();
+            idle.offerFirst(pooled);
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "Discarding connection that failed to reset: " + e.getMessage(), e);
+            discard(pooled);
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Close idle connections that have been unused longer than the max idle time,
+     * keeping at least the minimum pool size open.
+     */
+    void evictIdleConnections() {
+        long cutoff = System.currentTimeMillis() - maxIdleMillis;
+        Iterator<PooledConnection> it = idle.descendingIterator();
+        while (it.hasNext() && openCount.get() > minSize) {
+            PooledConnection pooled = it.next();
+            if (pooled.lastUsed < cutoff && idle.remove(pooled)) {
+                discard(pooled);
+            }
+        }
+    }
+
+    /**
+     * Close every idle connection and stop accepting borrows. Connections still
+     * on loan are closed when they are returned.
+     */
+    public void shutdown() {
+        closed = true;
+        evictor.shutdownNow();
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            discard(pooled);
+        }
+        LOGGER.info("Database connection pool shut down");
+    }
+
+    public boolean isClosed() { return closed; }
+
+    public int getOpenCount() { return openCount.get(); }
+
+    public int getIdleCount() { return idle.size(); }
+
+    public int getActiveCount() { return maxSize - permits.availablePermits(); }
+
+    public int getMaxSize() { return maxSize; }
+
+    public long getStatementCacheHits() { return statementCacheHits.get(); }
+
+    public long getStatementCacheMisses() { return statementCacheMisses.get(); }
+
+    /**
+     * Pin or unpin a borrowed connection. While pinned its close() is ignored.
+     */
+    static void setPinned(Connection connection, boolean pinned) {
+        if (Proxy.isProxyClass(connection.getClass())
+                && Proxy.getInvocationHandler(connection) instanceof PooledConnection pooled) {
+            pooled.setPinned(pinned);
+        }
+    }
+
+    private boolean isUsable(PooledConnection pooled) {
+        try {
+            return !pooled.physical.isClosed() && pooled.physical.isValid(validationTimeout);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private PooledConnection createConnection() throws SQLException {
+        Connection physical = DriverManager.getConnection(url, user, password);
+        openCount.incrementAndGet();
+        LOGGER.fine("Opened pooled connection (" + openCount.get() + " open)");
+        return new PooledConnection(physical);
+    }
+
+    private void discard(PooledConnection pooled) {
+        openCount.decrementAndGet();
+        try {
+            pooled.physical.close();
+        } catch (SQLException e) {
+            LOGGER.log(Level.FINE, "Error closing pooled connection: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * A physical connection plus the proxy handed out to callers.
+     */
+    final class PooledConnection implements InvocationHandler {
+        final Connection physical;
+        final StatementCache statementCache;
+        volatile long lastUsed = System.currentTimeMillis();
+        private Connection proxy;
+        private boolean leased;
+        private boolean pinned;
+
+        PooledConnection(Connection physical) {
+            this.physical = physical;
+            this.statementCache = new StatementCache(physical, statementCacheSize,
+                    statementCacheHits, statementCacheMisses);
+        }
+
+        synchronized Connection lease() {
+            leased = true;
+            proxy = (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(), new Class<?>[] {Connection.class}, this);
+            return proxy;
+        }
+
+        /**
+         * While pinned, close() is ignored so several DAO calls can share one
+         * connection inside a transaction.
+         */
+        synchronized void setPinned(boolean pinned) {
+            this.pinned = pinned;
+        }
+
+        @Override
+        public Object invoke(Object proxyInstance, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            synchronized (this) {
+                if (proxyInstance != proxy) {
+                    // A stale handle from an earlier lease
+                    if ("isClosed".equals(name)) {
+                        return true;
+                    }
+                    if ("close".equals(name)) {
+                        return null;
+                    }
+                    throw new SQLException("Connection has already been returned to the pool");
+                }
+                switch (name) {
+                    case "close":
+                        if (leased && !pinned) {
+                            leased = false;
+                            proxy = null;
+                            release(this);
+                        }
+                        return null;
+                    case "isClosed":
+                        return !leased || physical.isClosed();
+                    case "prepareStatement":
+                        if (args.length == 1) {
+                            return statementCache.prepare((String) args[0], Statement.NO_GENERATED_KEYS);
+                        }
+                        if (args.length == 2 && args[1] instanceof Integer keys) {
+                            return statementCache.prepare((String) args[0], keys);
+                        }
+                        break;
+                    case "unwrap":
+                        return physical.unwrap((Class<?>) args[0]);
+                    case "isWrapperFor":
+                        return ((Class<?>) args[0]).isInstance(physical) || physical.isWrapperFor((Class<?>) args[0]);
+                    case "equals":
+                        return proxyInstance == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxyInstance);
+                    case "toString":
+                        return "Pooled[" + physical + "]";
+                    default:
+                        break;
+                }
+            }
+            try {
+                return method.invoke(physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
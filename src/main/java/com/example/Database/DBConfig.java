@@ -8,8 +8,10 @@ public class DBConfig {
     // Database driver class name
     public static final String DB_DRIVER = "com.mysql.cj.jdbc.Driver";
     
-    // Database connection URL
-    public static final String DB_URL = "jdbc:mysql://localhost:3306/car_store_management";
+    // Database connection URL (server-side prepared statements so cached statements skip re-parsing,
+    // cursor fetch so statements with a fetch size stream rows instead of buffering the whole result,
+    // batch rewriting so JDBC batches of inserts are sent as multi-row INSERTs)
+    public static final String DB_URL = "jdbc:mysql://localhost:3306/car_store_management?useServerPrepStmts=true&useCursorFetch=true&rewriteBatchedStatements=true";
     
     // Database username
     public static final String DB_USER = "root";
@@ -21,6 +23,41 @@ public class DBConfig {
     public static final int MAX_POOL_SIZE = 10;
     public static final int MIN_POOL_SIZE = 2;
     public static final int MAX_IDLE_TIME = 300;
+    public static final int MAX_WAIT_TIME = 10;
+    public static final int VALIDATION_TIMEOUT = 2;
+    
+    // Prepared statements cached per pooled connection
+    public static final int STATEMENT_CACHE_SIZE = 32;
+    
+    // Rows fetched per round trip when streaming large result sets
+    public static final int STREAM_FETCH_SIZE = 500;
+    
+    // Audit log write-behind settings
+    public static final boolean AUDIT_WRITE_BEHIND = true;
+    public static final int AUDIT_BATCH_SIZE = 50;
+    public static final int AUDIT_QUEUE_CAPACITY = 5000;
+    public static final int AUDIT_FLUSH_INTERVAL_MS = 500;
+    // If true, logAction waits until its entry is committed
+    public static final boolean AUDIT_DURABLE = false;
+    
+    // Serve CarDAO.getCars filters from the in-memory InventoryIndex
+    public static final boolean INVENTORY_INDEX_ENABLED = true;
+    // Wait before retrying a failed index load; doubled after each failure up to the maximum
+    public static final long INVENTORY_INDEX_RETRY_MS = 1000;
+    public static final long INVENTORY_INDEX_MAX_RETRY_MS = 60000;
+    
+    // Search audit log details through the FULLTEXT index (ft_audit_details) instead of LIKE
+    public static final boolean AUDIT_FULLTEXT_SEARCH = true;
+    // Rows per page of audit log search results
+    public static final int AUDIT_SEARCH_PAGE_SIZE = 200;
+    
+    // Dashboard statistics are reused for this long; older stats are shown while a refresh runs
+    public static final int DASHBOARD_STATS_TTL_SECONDS = 60;
+    
+    // Closed periods are finalized into economic_reports this often
+    public static final int ECONOMIC_REPORT_INTERVAL_MINUTES = 60;
+    // Staff recorded as generated_by on scheduled economic reports
+    public static final int ECONOMIC_REPORT_STAFF_ID = 1;
     
     // Query timeout settings (in seconds)
     public static final int QUERY_TIMEOUT = 30;
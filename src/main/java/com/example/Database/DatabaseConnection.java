@@ -1,30 +1,45 @@
 package com.example.Database;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetProvider;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * DatabaseConnection class handles connections to the MySQL database for the Car Store Management system.
  * It provides methods for connecting to the database, executing queries, and managing resources.
+ * Connections come from a bounded ConnectionPool; closing a connection returns it to the pool.
  */
 public class DatabaseConnection {
-    // Database connection parameters - defined directly for now
-    private static final String DB_URL = "jdbc:mysql://localhost:3306/car_store_management";
-    private static final String DB_USER = "root";
-    private static final String DB_PASSWORD = "Makwan2004111";
-    private static final String DB_DRIVER = "com.mysql.cj.jdbc.Driver";
-    
     private static final Logger LOGGER = Logger.getLogger(DatabaseConnection.class.getName());
     
-    private Connection connection;
+    private volatile ConnectionPool pool;
     private static DatabaseConnection instance;
     
+    // Connection bound to the current thread between beginTransaction and commit/rollback
+    private final ThreadLocal<Connection> transactionConnection = new ThreadLocal<>();
+    
+    // Actions registered with afterCommit during the current thread's transaction
+    private final ThreadLocal<List<Runnable>> commitActions = new ThreadLocal<>();
+    
+    // Async queries run one virtual thread per task, limited to the pool size so they
+    // queue here instead of timing out in the pool
+    private final ExecutorService asyncExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore asyncPermits = new Semaphore(DBConfig.MAX_POOL_SIZE);
+    
     /**
      * Private constructor to prevent direct instantiation.
      * Use getInstance() method to get the singleton instance.
@@ -32,7 +47,7 @@ public class DatabaseConnection {
     private DatabaseConnection() {
         try {
             // Load MySQL JDBC driver
-            Class.forName(DB_DRIVER);
+            Class.forName(DBConfig.DB_DRIVER);
         } catch (ClassNotFoundException e) {
             LOGGER.log(Level.SEVERE, "MySQL JDBC Driver not found", e);
         }
@@ -50,15 +65,12 @@ public class DatabaseConnection {
     }
     
     /**
-     * Connect to the database.
+     * Connect to the database by starting the connection pool and opening its minimum connections.
      * @return true if connection successful, false otherwise
      */
     public boolean connect() {
         try {
-            if (connection == null || connection.isClosed()) {
-                connection = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
-                LOGGER.info("Database connection established");
-            }
+            getPool().prefill();
             return true;
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Database connection failed: " + e.getMessage(), e);
@@ -67,64 +79,105 @@ public class DatabaseConnection {
     }
     
     /**
-     * Get the current connection object. Connects if not already connected.
+     * Get the connection pool, creating it on first use or after disconnect().
+     */
+    private ConnectionPool getPool() {
+        ConnectionPool current = pool;
+        if (current == null || current.isClosed()) {
+            synchronized (this) {
+                current = pool;
+                if (current == null || current.isClosed()) {
+                    current = new ConnectionPool();
+                    pool = current;
+                    LOGGER.info("Database connection pool started (max " + DBConfig.MAX_POOL_SIZE + ")");
+                }
+            }
+        }
+        return current;
+    }
+    
+    /**
+     * Borrow a connection from the pool. Callers must close it to return it,
+     * normally with try-with-resources. Inside a transaction the thread's
+     * transaction connection is returned and close() leaves it open.
      * @return Connection object
      * @throws SQLException if connection cannot be established
      */
     public Connection getConnection() throws SQLException {
-        if (connection == null || connection.isClosed()) {
-            connect();
+        Connection txConnection = transactionConnection.get();
+        if (txConnection != null) {
+            return txConnection;
         }
-        return connection;
+        return getPool().borrow();
     }
     
     /**
-     * Close the database connection.
+     * Shut down the connection pool and close all idle connections.
      */
     public void disconnect() {
-        if (connection != null) {
-            try {
-                if (!connection.isClosed()) {
-                    connection.close();
-                    LOGGER.info("Database connection closed");
-                }
-            } catch (SQLException e) {
-                LOGGER.log(Level.WARNING, "Error closing database connection: " + e.getMessage(), e);
-            }
+        ConnectionPool current = pool;
+        if (current != null && !current.isClosed()) {
+            current.shutdown();
+            LOGGER.info("Database connection closed");
+        }
+    }
+    
+    /**
+     * Get pool usage for diagnostics.
+     * @return e.g. "3 open, 1 active, 2 idle, statement cache 120 hits / 14 misses"
+     */
+    public String getPoolStatus() {
+        ConnectionPool current = pool;
+        if (current == null || current.isClosed()) {
+            return "not started";
         }
+        return current.getOpenCount() + " open, " + current.getActiveCount() + " active, "
+                + current.getIdleCount() + " idle, statement cache "
+                + current.getStatementCacheHits() + " hits / " + current.getStatementCacheMisses() + " misses";
     }
     
     /**
      * Execute a SELECT query and return the ResultSet.
+     * The rows are copied into a disconnected, scrollable CachedRowSet so the
+     * pooled connection can be returned straight away.
      * @param query SQL query string
      * @return ResultSet containing query results
      * @throws SQLException if query execution fails
      */
     public ResultSet executeQuery(String query) throws SQLException {
-        Statement statement = getConnection().createStatement(
-                ResultSet.TYPE_SCROLL_INSENSITIVE,
-                ResultSet.CONCUR_READ_ONLY);
-        return statement.executeQuery(query);
+        try (Connection conn = getConnection();
+             Statement statement = conn.createStatement();
+             ResultSet rs = statement.executeQuery(query)) {
+            return toCachedRowSet(rs);
+        }
     }
     
     /**
      * Execute a SELECT query with prepared statement to prevent SQL injection.
+     * The rows are copied into a disconnected, scrollable CachedRowSet.
      * @param query SQL query with placeholders
      * @param params Parameters to replace placeholders in the query
      * @return ResultSet containing query results
      * @throws SQLException if query execution fails
      */
     public ResultSet executeQuery(String query, Object... params) throws SQLException {
-        PreparedStatement statement = getConnection().prepareStatement(
-                query,
-                ResultSet.TYPE_SCROLL_INSENSITIVE,
-                ResultSet.CONCUR_READ_ONLY);
-        
-        for (int i = 0; i < params.length; i++) {
-            statement.setObject(i + 1, params[i]);
+        try (Connection conn = getConnection();
+             PreparedStatement statement = conn.prepareStatement(query)) {
+            
+            for (int i = 0; i < params.length; i++) {
+                statement.setObject(i + 1, params[i]);
+            }
+            
+            try (ResultSet rs = statement.executeQuery()) {
+                return toCachedRowSet(rs);
+            }
         }
-        
-        return statement.executeQuery();
+    }
+    
+    private ResultSet toCachedRowSet(ResultSet rs) throws SQLException {
+        CachedRowSet rowSet = RowSetProvider.newFactory().createCachedRowSet();
+        rowSet.populate(rs);
+        return rowSet;
     }
     
     /**
@@ -134,7 +187,8 @@ public class DatabaseConnection {
      * @throws SQLException if query execution fails
      */
     public int executeUpdate(String query) throws SQLException {
-        try (Statement statement = getConnection().createStatement()) {
+        try (Connection conn = getConnection();
+             Statement statement = conn.createStatement()) {
             return statement.executeUpdate(query);
         }
     }
@@ -147,7 +201,8 @@ public class DatabaseConnection {
      * @throws SQLException if query execution fails
      */
     public int executeUpdate(String query, Object... params) throws SQLException {
-        try (PreparedStatement statement = getConnection().prepareStatement(query)) {
+        try (Connection conn = getConnection();
+             PreparedStatement statement = conn.prepareStatement(query)) {
             for (int i = 0; i < params.length; i++) {
                 statement.setObject(i + 1, params[i]);
             }
@@ -164,7 +219,8 @@ public class DatabaseConnection {
      * @throws SQLException if query execution fails
      */
     public int executeInsert(String query, Object... params) throws SQLException {
-        try (PreparedStatement statement = getConnection().prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
+        try (Connection conn = getConnection();
+             PreparedStatement statement = conn.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
             for (int i = 0; i < params.length; i++) {
                 statement.setObject(i + 1, params[i]);
             }
@@ -201,10 +257,23 @@ public class DatabaseConnection {
     
     /**
      * Begin a transaction by turning off auto-commit.
+     * The connection stays bound to the calling thread, so DAO calls made on this
+     * thread share it until commitTransaction() or rollbackTransaction().
      * @throws SQLException if setting auto-commit fails
      */
     public void beginTransaction() throws SQLException {
-        getConnection().setAutoCommit(false);
+        if (transactionConnection.get() != null) {
+            throw new SQLException("A transaction is already active on this thread");
+        }
+        Connection conn = getPool().borrow();
+        try {
+            conn.setAutoCommit(false);
+        } catch (SQLException e) {
+            conn.close();
+            throw e;
+        }
+        ConnectionPool.setPinned(conn, true);
+        transactionConnection.set(conn);
     }
     
     /**
@@ -212,8 +281,18 @@ public class DatabaseConnection {
      * @throws SQLException if commit fails
      */
     public void commitTransaction() throws SQLException {
-        getConnection().commit();
-        getConnection().setAutoCommit(true);
+        Connection conn = requireTransactionConnection();
+        List<Runnable> actions = commitActions.get();
+        try {
+            conn.commit();
+            conn.setAutoCommit(true);
+        } catch (SQLException e) {
+            actions = null;
+            throw e;
+        } finally {
+            endTransaction(conn);
+        }
+        runCommitActions(actions);
     }
     
     /**
@@ -221,8 +300,99 @@ public class DatabaseConnection {
      * @throws SQLException if rollback fails
      */
     public void rollbackTransaction() throws SQLException {
-        getConnection().rollback();
-        getConnection().setAutoCommit(true);
+        Connection conn = requireTransactionConnection();
+        try {
+            conn.rollback();
+            conn.setAutoCommit(true);
+        } finally {
+            endTransaction(conn);
+        }
+    }
+    
+    /**
+     * Run a unit of work in one transaction on one pooled connection.
+     * DAO calls made by the work on this thread share the transaction's connection.
+     * The transaction is committed if the work returns normally and rolled back if it throws.
+     * If a transaction is already active on this thread the work simply joins it.
+     * 
+     * @param <T> The type of result to return
+     * @param work the statements to run
+     * @return the work's result
+     * @throws SQLException if the work or the commit fails
+     */
+    public <T> T inTransaction(UnitOfWork<T> work) throws SQLException {
+        Connection active = transactionConnection.get();
+        if (active != null) {
+            return work.execute(active);
+        }
+        
+        beginTransaction();
+        T result;
+        try {
+            result = work.execute(transactionConnection.get());
+        } catch (SQLException | RuntimeException e) {
+            try {
+                rollbackTransaction();
+            } catch (SQLException rollbackError) {
+                e.addSuppressed(rollbackError);
+            }
+            throw e;
+        }
+        commitTransaction();
+        return result;
+    }
+    
+    /**
+     * Run an action once the calling thread's transaction commits, or right away
+     * if no transaction is active. Actions are dropped if the transaction rolls back.
+     * Used to keep in-memory caches in step with what is actually committed.
+     */
+    public void afterCommit(Runnable action) {
+        if (transactionConnection.get() == null) {
+            action.run();
+            return;
+        }
+        List<Runnable> actions = commitActions.get();
+        if (actions == null) {
+            actions = new ArrayList<>();
+            commitActions.set(actions);
+        }
+        actions.add(action);
+    }
+    
+    /**
+     * Check whether the calling thread is inside a transaction.
+     */
+    public boolean isInTransaction() {
+        return transactionConnection.get() != null;
+    }
+    
+    private Connection requireTransactionConnection() throws SQLException {
+        Connection conn = transactionConnection.get();
+        if (conn == null) {
+            throw new SQLException("No transaction is active on this thread");
+        }
+        return conn;
+    }
+    
+    private void runCommitActions(List<Runnable> actions) {
+        if (actions == null) {
+            return;
+        }
+        for (Runnable action : actions) {
+            try {
+                action.run();
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, "After-commit action failed: " + e.getMessage(), e);
+            }
+        }
+    }
+    
+    private void endTransaction(Connection conn) throws SQLException {
+        transactionConnection.remove();
+        commitActions.remove();
+        ConnectionPool.setPinned(conn, false);
+        conn.close();
     }
     
     /**
@@ -231,7 +401,8 @@ public class DatabaseConnection {
      * @return true if table exists, false otherwise
      */
     public boolean tableExists(String tableName) {
-        try (ResultSet resultSet = getConnection().getMetaData().getTables(
+        try (Connection conn = getConnection();
+             ResultSet resultSet = conn.getMetaData().getTables(
                 null, null, tableName, new String[] {"TABLE"})) {
             return resultSet.next();
         } catch (SQLException e) {
@@ -246,15 +417,13 @@ public class DatabaseConnection {
      */
     public static boolean testConnection() {
         DatabaseConnection db = getInstance();
-        try {
-            db.connect();
-            LOGGER.info("Database connection test successful");
-            return true;
+        try (Connection conn = db.getConnection()) {
+            boolean valid = conn.isValid(DBConfig.VALIDATION_TIMEOUT);
+            LOGGER.info("Database connection test " + (valid ? "successful" : "failed"));
+            return valid;
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Database connection test failed: " + e.getMessage(), e);
             return false;
-        } finally {
-            db.disconnect();
         }
     }
     
@@ -269,12 +438,83 @@ public class DatabaseConnection {
      * @throws SQLException if a database access error occurs
      */
     public <T> T executeQuery(String query, ResultSetHandler<T> handler) throws SQLException {
-        try (Statement stmt = getConnection().createStatement();
+        try (Connection conn = getConnection();
+             Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(query)) {
             return handler.handle(rs);
         }
     }
     
+    /**
+     * Run database work on a virtual thread without blocking the caller.
+     * At most DBConfig.MAX_POOL_SIZE tasks run at once; the rest wait for a slot.
+     * Tasks do not join a transaction started on the calling thread.
+     * 
+     * @param <T> The type of result to return
+     * @param task work to run, typically one or more DAO calls
+     * @return future completed with the task's result, or exceptionally with its error
+     */
+    public <T> CompletableFuture<T> supplyAsync(Callable<T> task) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                asyncPermits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CompletionException(e);
+            }
+            try {
+                return task.call();
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            } finally {
+                asyncPermits.release();
+            }
+        }, asyncExecutor);
+    }
+    
+    /**
+     * Execute a SELECT query with prepared statement on a virtual thread.
+     * 
+     * @param <T> The type of result to return
+     * @param query SQL query with placeholders
+     * @param handler ResultSetHandler implementation to process the result
+     * @param params Parameters to replace placeholders in the query
+     * @return future completed with the handler's result
+     */
+    public <T> CompletableFuture<T> queryAsync(String query, ResultSetHandler<T> handler, Object... params) {
+        return supplyAsync(() -> {
+            try (Connection conn = getConnection();
+                 PreparedStatement statement = conn.prepareStatement(query)) {
+                
+                for (int i = 0; i < params.length; i++) {
+                    statement.setObject(i + 1, params[i]);
+                }
+                
+                try (ResultSet rs = statement.executeQuery()) {
+                    return handler.handle(rs);
+                }
+            }
+        });
+    }
+    
+    /**
+     * Execute an INSERT, UPDATE, or DELETE query with prepared statement on a virtual thread.
+     * @param query SQL query with placeholders
+     * @param params Parameters to replace placeholders in the query
+     * @return future completed with the number of rows affected
+     */
+    public CompletableFuture<Integer> updateAsync(String query, Object... params) {
+        return supplyAsync(() -> executeUpdate(query, params));
+    }
+    
+    /**
+     * Functional interface for work run by inTransaction
+     */
+    @FunctionalInterface
+    public interface UnitOfWork<T> {
+        T execute(Connection conn) throws SQLException;
+    }
+    
     /**
      * Functional interface for handling ResultSet processing
      */
@@ -0,0 +1,167 @@
+package com.example.Database;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * LRU cache of prepared statements belonging to one pooled connection.
+ * Statements handed out by the cache ignore close(); it just clears their
+ * parameters and makes them available for the next prepare of the same SQL.
+ */
+class StatementCache {
+
+    private final Connection physical;
+    private final int maxSize;
+    private final AtomicLong hits;
+    private final AtomicLong misses;
+
+    // Access-ordered so the least recently used statement is evicted first
+    private final LinkedHashMap<String, CachedStatement> statements;
+
+    /**
+     * @param hits pool-wide hit counter shared by every connection's cache
+     * @param misses pool-wide miss counter shared by every connection's cache
+     */
+    StatementCache(Connection physical, int maxSize, AtomicLong hits, AtomicLong misses) {
+        this.physical = physical;
+        this.maxSize = maxSize;
+        this.hits = hits;
+        this.misses = misses;
+        this.statements = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Get a prepared statement for the given SQL, reusing a cached one if it is not in use.
+     * @param autoGeneratedKeys Statement.RETURN_GENERATED_KEYS or Statement.NO_GENERATED_KEYS
+     */
+    synchronized PreparedStatement prepare(String sql, int autoGeneratedKeys) throws SQLException {
+        String key = autoGeneratedKeys == Statement.RETURN_GENERATED_KEYS ? "K:" + sql : sql;
+        CachedStatement cached = statements.get(key);
+
+        if (cached != null && !cached.inUse) {
+            hits.incrementAndGet();
+            cached.inUse = true;
+            return cached.proxy;
+        }
+
+        misses.incrementAndGet();
+        PreparedStatement statement = physical.prepareStatement(sql, autoGeneratedKeys);
+        if (cached != null || maxSize <= 0) {
+            // Same SQL already checked out (e.g. nested use in a transaction), don't cache the copy
+            return statement;
+        }
+
+        cached = new CachedStatement(key, statement);
+        cached.inUse = true;
+        statements.put(key, cached);
+        evictIfFull();
+        return cached.proxy;
+    }
+
+    /**
+     * Mark every statement as available again. Called when the connection returns to the pool
+     * so statements the caller forgot to close are not lost.
+     */
+    synchronized void releaseAll() {
+        for (CachedStatement cached : new ArrayList<>(statements.values())) {
+            if (cached.inUse) {
+                cached.reset();
+            }
+        }
+    }
+
+    synchronized int size() {
+        return statements.size();
+    }
+
+    private void evictIfFull() {
+        Iterator<CachedStatement> it = statements.values().iterator();
+        while (statements.size() > maxSize && it.hasNext()) {
+            CachedStatement eldest = it.next();
+            if (!eldest.inUse) {
+                it.remove();
+                eldest.closePhysical();
+            }
+        }
+    }
+
+    private synchronized void checkIn(CachedStatement cached) {
+        cached.reset();
+        if (statements.get(cached.key) != cached) {
+            // Evicted while checked out
+            cached.closePhysical();
+        }
+    }
+
+    /**
+     * A cached statement and the proxy whose close() checks it back in.
+     */
+    private final class CachedStatement implements InvocationHandler {
+        final String key;
+        final PreparedStatement statement;
+        final PreparedStatement proxy;
+        boolean inUse;
+
+        CachedStatement(String key, PreparedStatement statement) {
+            this.key = key;
+            this.statement = statement;
+            this.proxy = (PreparedStatement) Proxy.newProxyInstance(
+                    PreparedStatement.class.getClassLoader(), new Class<?>[] {PreparedStatement.class}, this);
+        }
+
+        void reset() {
+            inUse = false;
+            try {
+                statement.clearParameters();
+            } catch (SQLException e) {
+                closePhysical();
+            }
+        }
+
+        void closePhysical() {
+            statements.remove(key, this);
+            try {
+                statement.close();
+            } catch (SQLException e) {
+                // Connection is probably gone already
+            }
+        }
+
+        @Override
+        public Object invoke(Object proxyInstance, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (inUse) {
+                        checkIn(this);
+                    }
+                    return null;
+                case "isClosed":
+                    return !inUse || statement.isClosed();
+                case "equals":
+                    return proxyInstance == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxyInstance);
+                default:
+                    break;
+            }
+            if (!inUse) {
+                throw new SQLException("Statement has been closed");
+            }
+            try {
+                return method.invoke(statement, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -110,6 +110,8 @@ CREATE TABLE expenses (
     car_id INT NULL,  -- If expense is related to a specific car
     description TEXT NOT NULL,
     recorded_by INT NOT NULL,
+    status ENUM('pending', 'paid', 'overdue') NOT NULL DEFAULT 'paid',
+    notes TEXT NULL,
     FOREIGN KEY (car_id) REFERENCES cars(car_id),
     FOREIGN KEY (recorded_by) REFERENCES staff(staff_id)
 );
@@ -142,14 +144,69 @@ CREATE TABLE audit_logs (
     FOREIGN KEY (staff_id) REFERENCES staff(staff_id)
 );
 
+-- Sales totals per day and payment method, maintained by SalesDAO on every
+-- sale insert/update/delete and car cost change. Rebuild with: App --rebuild-sales-rollup
+CREATE TABLE sales_daily_rollup (
+    sale_day DATE NOT NULL,
+    payment_method ENUM('cash', 'credit_card', 'bank_transfer', 'financing') NOT NULL,
+    sales_count INT NOT NULL DEFAULT 0,
+    revenue DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    tax DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    profit DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    PRIMARY KEY (sale_day, payment_method)
+);
+
 
 
 
 -- Create indexes for performance optimization
-CREATE INDEX idx_cars_status ON cars(status);
+-- (status, date_added) serves status filters and the newest-first listing within a status
+CREATE INDEX idx_cars_status_date ON cars(status, date_added);
 CREATE INDEX idx_cars_date_added ON cars(date_added);
-CREATE INDEX idx_sales_date ON sales(sale_date);
+CREATE INDEX idx_cars_color ON cars(color);
+-- Covers the VIN and color substring search (CarDAO.searchCars) with car_id from the primary key
+CREATE INDEX idx_cars_vin_color ON cars(vin, color);
+-- Covers sales range totals without reading the row
+CREATE INDEX idx_sales_date_cover ON sales(sale_date, car_id, total_amount);
 CREATE INDEX idx_coming_soon_arrival ON coming_soon_cars(expected_arrival_date);
 CREATE INDEX idx_coming_soon_status ON coming_soon_cars(status);
-CREATE INDEX idx_expenses_date ON expenses(expense_date);
-CREATE INDEX idx_audit_timestamp ON audit_logs(timestamp);
\ No newline at end of file
+-- Covers the monthly and per-type expense totals (ExpenseDAO)
+CREATE INDEX idx_expenses_date_cover ON expenses(expense_date, expense_type, amount);
+-- One finalized report per period (EconomicReportScheduler)
+CREATE UNIQUE INDEX uq_economic_reports_period ON economic_reports(report_type, start_period);
+CREATE INDEX idx_audit_timestamp ON audit_logs(timestamp);
+CREATE INDEX idx_audit_staff_time ON audit_logs(staff_id, timestamp);
+-- Keyword search over audit details (AuditLogDAO uses MATCH ... AGAINST)
+CREATE FULLTEXT INDEX ft_audit_details ON audit_logs(action_details);
+
+
+-- Migration for databases created from an earlier version of this script.
+-- The composite indexes replace idx_cars_status, idx_sales_date and idx_expenses_date.
+-- CREATE INDEX idx_cars_status_date ON cars(status, date_added);
+-- CREATE INDEX idx_cars_color ON cars(color);
+-- CREATE INDEX idx_cars_vin_color ON cars(vin, color);
+-- CREATE INDEX idx_sales_date_cover ON sales(sale_date, car_id, total_amount);
+-- CREATE INDEX idx_audit_staff_time ON audit_logs(staff_id, timestamp);
+-- CREATE FULLTEXT INDEX ft_audit_details ON audit_logs(action_details);
+-- DROP INDEX idx_cars_status ON cars;
+-- DROP INDEX idx_sales_date ON sales;
+-- ALTER TABLE expenses ADD COLUMN status ENUM('pending', 'paid', 'overdue') NOT NULL DEFAULT 'paid',
+--                      ADD COLUMN notes TEXT NULL;
+-- CREATE INDEX idx_expenses_date_cover ON expenses(expense_date, expense_type, amount);
+-- DROP INDEX idx_expenses_date ON expenses;
+-- CREATE UNIQUE INDEX uq_economic_reports_period ON economic_reports(report_type, start_period);
+-- CREATE TABLE sales_daily_rollup (
+--     sale_day DATE NOT NULL,
+--     payment_method ENUM('cash', 'credit_card', 'bank_transfer', 'financing') NOT NULL,
+--     sales_count INT NOT NULL DEFAULT 0,
+--     revenue DECIMAL(14, 2) NOT NULL DEFAULT 0,
+--     tax DECIMAL(14, 2) NOT NULL DEFAULT 0,
+--     profit DECIMAL(14, 2) NOT NULL DEFAULT 0,
+--     PRIMARY KEY (sale_day, payment_method)
+-- );
+-- INSERT INTO sales_daily_rollup (sale_day, payment_method, sales_count, revenue, tax, profit)
+-- SELECT DATE(s.sale_date), s.payment_method, COUNT(*),
+--        SUM(s.total_amount), SUM(s.tax_amount), COALESCE(SUM(s.sale_price - c.cost), 0)
+-- FROM sales s
+-- LEFT JOIN cars c ON s.car_id = c.car_id
+-- GROUP BY DATE(s.sale_date), s.payment_method;
\ No newline at end of file
@@ -22,7 +22,6 @@ import java.util.Date;
 import javax.swing.BorderFactory;
 import javax.swing.Box;
 import javax.swing.BoxLayout;
-import javax.swing.ImageIcon;
 import javax.swing.JButton;
 import javax.swing.JComboBox;
 import javax.swing.JFileChooser;
@@ -677,10 +676,8 @@ public class AddCarUI extends BaseUI {
             selectedImagePath = selectedFile.getAbsolutePath();
             
             try {
-                ImageIcon originalIcon = new ImageIcon(selectedImagePath);
-                Image scaledImage = originalIcon.getImage().getScaledInstance(210, 160, Image.SCALE_SMOOTH);
-                imageLabel.setIcon(new ImageIcon(scaledImage));
-                imageLabel.setText("");
+                // Preview replaces the placeholder text once it has been scaled
+                ThumbnailCache.getInstance().load(imageLabel, selectedImagePath, 210, 160);
                 
                 Component removeButton = ((JPanel) imageLabel.getParent().getParent()).getComponent(4);
                 removeButton.setVisible(true);
@@ -703,6 +700,7 @@ public class AddCarUI extends BaseUI {
      */
     private void removePhoto(JButton removeButton) {
         selectedImagePath = "";
+        ThumbnailCache.getInstance().cancel(imageLabel);
         imageLabel.setIcon(null);
         imageLabel.setText("<html><div style='text-align: center;'>"
                 + "<div style='font-size: 48px; color: #888;'>🚗</div>"
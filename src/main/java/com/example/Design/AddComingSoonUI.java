@@ -19,7 +19,6 @@ import java.util.Date;
 import javax.swing.BorderFactory;
 import javax.swing.Box;
 import javax.swing.BoxLayout;
-import javax.swing.ImageIcon;
 import javax.swing.JButton;
 import javax.swing.JComboBox;
 import javax.swing.JFileChooser;
@@ -443,10 +442,8 @@ public class AddComingSoonUI extends BaseUI {
             
             try {
                 // Load and display the image
-                ImageIcon originalIcon = new ImageIcon(selectedImagePath);
-                Image scaledImage = originalIcon.getImage().getScaledInstance(260, 180, Image.SCALE_SMOOTH);
-                imageLabel.setIcon(new ImageIcon(scaledImage));
-                imageLabel.setText(""); // Remove placeholder text
+                // Preview replaces the placeholder text once it has been scaled
+                ThumbnailCache.getInstance().load(imageLabel, selectedImagePath, 260, 180);
                 
                 // Show remove button
                 Component removeButton = ((JPanel) imageLabel.getParent().getParent()).getComponent(4);
@@ -471,6 +468,7 @@ public class AddComingSoonUI extends BaseUI {
      */
     private void removePhoto(JButton removeButton) {
         selectedImagePath = "";
+        ThumbnailCache.getInstance().cancel(imageLabel);
         imageLabel.setIcon(null);
         imageLabel.setText("<html><div style='text-align: center;'>"
                 + "<div style='font-size: 48px; color: #888;'>📷</div>"
@@ -2,8 +2,11 @@ package com.example.Design;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.List;
 
 import com.example.Database.DatabaseConnection;
+import com.example.OOP.backend.EconomicReportScheduler;
+import com.example.OOP.backend.SalesDAO;
 
 /**
  * Simple main class to test database connection.
@@ -24,10 +27,11 @@ public class App {
                 System.out.println("✅ Database connection successful!");
                 
                 // Get and print connection info
-                Connection conn = dbConnection.getConnection();
-                System.out.println("Connected to database: " + conn.getCatalog());
-                System.out.println("Database product: " + conn.getMetaData().getDatabaseProductName());
-                System.out.println("Database version: " + conn.getMetaData().getDatabaseProductVersion());
+                try (Connection conn = dbConnection.getConnection()) {
+                    System.out.println("Connected to database: " + conn.getCatalog());
+                    System.out.println("Database product: " + conn.getMetaData().getDatabaseProductName());
+                    System.out.println("Database version: " + conn.getMetaData().getDatabaseProductVersion());
+                }
                 
                 // Test if we can query the database
                 try {
@@ -37,6 +41,28 @@ public class App {
                     System.out.println("Error checking tables: " + e.getMessage());
                 }
                 
+                // Check that the hot-path queries use indexes
+                if (args.length > 0 && "--explain".equals(args[0])) {
+                    List<String> problems = DatabaseTestUtility.checkQueryPlans();
+                    System.out.println(problems.isEmpty()
+                        ? "All query plans use indexes"
+                        : String.join("\n", problems));
+                }
+                
+                // Rebuild the daily sales rollup on request
+                if (args.length > 0 && "--rebuild-sales-rollup".equals(args[0])) {
+                    int rows = new SalesDAO().rebuildDailyRollup();
+                    System.out.println(rows >= 0
+                        ? "Sales rollup rebuilt: " + rows + " rows"
+                        : "Failed to rebuild sales rollup");
+                }
+                
+                // Recompute every economic_reports snapshot on request
+                if (args.length > 0 && "--rebuild-economic-reports".equals(args[0])) {
+                    int reports = EconomicReportScheduler.getInstance().rebuild();
+                    System.out.println("Economic reports rebuilt: " + reports + " reports");
+                }
+                
                 System.out.println("All tests completed!");
             } else {
                 System.out.println("❌ Failed to connect to database");
@@ -2,10 +2,17 @@ package com.example.Design;
 
 import com.example.OOP.backend.AuditLogDAO;
 import com.example.OOP.backend.AuditLog;
+import com.example.OOP.backend.AuditLogExporter;
+import com.example.Database.DBConfig;
+import java.io.File;
+import java.io.IOException;
+import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Calendar;
+import java.util.function.BooleanSupplier;
+import java.util.function.LongConsumer;
 
 /**
  * Integration class for AuditLogUI to connect with backend
@@ -66,15 +73,38 @@ public class AuditLogIntegration {
     }
     
     /**
-     * Get filtered audit logs
+     * Get the first page of filtered audit logs
      */
     public List<AuditLogUI.AuditLogEntry> getFilteredAuditLogs(String activityType, 
                                                                String userName, 
                                                                String searchKeyword) {
+        return getFilteredAuditLogs(activityType, userName, searchKeyword, 0);
+    }
+    
+    /**
+     * Get one page of filtered audit logs. All filtering, including the user,
+     * is done by the database; keyword results come back most relevant first.
+     * @param page zero-based page number, DBConfig.AUDIT_SEARCH_PAGE_SIZE rows per page
+     */
+    public List<AuditLogUI.AuditLogEntry> getFilteredAuditLogs(String activityType, 
+                                                               String userName, 
+                                                               String searchKeyword,
+                                                               int page) {
         List<AuditLogUI.AuditLogEntry> uiLogs = new ArrayList<>();
         
         try {
             AuditLogDAO.AuditLogFilter filter = new AuditLogDAO.AuditLogFilter();
+            filter.setLimit(DBConfig.AUDIT_SEARCH_PAGE_SIZE);
+            filter.setOffset(page * DBConfig.AUDIT_SEARCH_PAGE_SIZE);
+            
+            // Set user filter
+            if (userName != null && !userName.equals("All Users")) {
+                Integer staffId = auditLogDAO.getStaffIdByName(userName);
+                if (staffId == null) {
+                    return uiLogs; // No such staff member, so no logs
+                }
+                filter.setStaffId(staffId);
+            }
             
             // Set activity type filter
             if (activityType != null && !activityType.equals("All Types")) {
@@ -86,19 +116,10 @@ public class AuditLogIntegration {
                 filter.setSearchKeyword(searchKeyword);
             }
             
-            // Note: userName filtering would require joining with staff table
-            // For now, we'll filter in memory after retrieval
-            
             List<AuditLog> dbLogs = auditLogDAO.getAuditLogs(filter);
             
             for (AuditLog log : dbLogs) {
                 String user = log.getStaffDisplayName();
-                
-                // Apply user filter if needed
-                if (userName != null && !userName.equals("All Users") && !user.equals(userName)) {
-                    continue;
-                }
-                
                 String ipAddress = "192.168.1." + (100 + log.getStaffId());
                 
                 AuditLogUI.AuditLogEntry uiLog = new AuditLogUI.AuditLogEntry(
@@ -181,20 +202,23 @@ public class AuditLogIntegration {
     }
     
     /**
-     * Export audit logs
+     * Export every audit log to a file, streaming rows so memory use stays
+     * flat. Runs on the calling thread, so call it from a background worker.
+     * @param progress told the number of rows written so far; may be null
+     * @param cancelled stops the export when it returns true; may be null
+     * @return number of rows exported
+     * @throws java.util.concurrent.CancellationException if the export was cancelled
      */
-    public boolean exportAuditLogs(String format) {
-        try {
-            // Log the export action
-            auditLogDAO.logAction(currentStaffId, "Report Generated", 
-                "Exported audit logs in " + format + " format", 
-                "Success");
-            
-            return true;
-        } catch (Exception e) {
-            System.err.println("Error exporting audit logs: " + e.getMessage());
-            return false;
-        }
+    public long exportAuditLogs(File file, AuditLogExporter.Format format, boolean gzip,
+                                LongConsumer progress, BooleanSupplier cancelled) throws IOException, SQLException {
+        long rows = new AuditLogExporter().export(null, file.toPath(), format, gzip, progress, cancelled);
+        
+        // Log the export action
+        auditLogDAO.logAction(currentStaffId, "Report Generated", 
+            "Exported " + rows + " audit logs in " + format + (gzip ? " (gzip)" : "") + " format", 
+            "Success");
+        
+        return rows;
     }
     
     /**
@@ -1,5 +1,8 @@
 package com.example.Design;
 
+import com.example.Database.DBConfig;
+import com.example.OOP.backend.AuditLogExporter;
+
 import java.awt.BorderLayout;
 import java.awt.Color;
 import java.awt.Component;
@@ -10,6 +13,7 @@ import java.awt.Font;
 import java.awt.GridLayout;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
+import java.io.File;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
@@ -20,15 +24,20 @@ import javax.swing.Box;
 import javax.swing.BoxLayout;
 import javax.swing.JButton;
 import javax.swing.JComboBox;
+import javax.swing.JDialog;
+import javax.swing.JFileChooser;
 import javax.swing.JLabel;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
+import javax.swing.JProgressBar;
 import javax.swing.JScrollPane;
 import javax.swing.JTable;
 import javax.swing.JTextField;
 import javax.swing.SwingConstants;
 import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
 import javax.swing.border.EmptyBorder;
+import javax.swing.filechooser.FileNameExtensionFilter;
 import javax.swing.table.DefaultTableCellRenderer;
 import javax.swing.table.DefaultTableModel;
 import javax.swing.table.JTableHeader;
@@ -50,12 +59,25 @@ public class AuditLogUI extends BaseUI {
     private List<AuditLogEntry> auditLogs = new ArrayList<>();
     private static List<AuditLogEntry> globalAuditLogs = new ArrayList<>(); // Static to persist across sessions
     
+    // Statistic cards, refilled when logs arrive. No initializer: it is
+    // assigned from createContentPanel, which runs inside the BaseUI constructor.
+    private JPanel statCardsPanel;
+    
+    // Search paging, also set up from createContentPanel
+    private int currentPage;
+    private JButton previousPageButton;
+    private JButton nextPageButton;
+    private JLabel pageLabel;
+    // True when the database had no logs and the screen shows this session's logs
+    private boolean showingSessionLogs;
+    
     /**
      * Constructor with admin ID
      */
     public AuditLogUI(int adminId) {
         super(adminId);
         initializeAuditData();
+        loadAuditLogs();
     }
     
     /**
@@ -64,6 +86,7 @@ public class AuditLogUI extends BaseUI {
     public AuditLogUI() {
         super();
         initializeAuditData();
+        loadAuditLogs();
     }
     
     /**
@@ -225,6 +248,21 @@ public class AuditLogUI extends BaseUI {
         cardsPanel.setOpaque(false);
         cardsPanel.setMaximumSize(new Dimension(1200, 120));
         cardsPanel.setAlignmentX(Component.LEFT_ALIGNMENT);
+        fillStatCards(cardsPanel);
+        statCardsPanel = cardsPanel;
+        
+        statsPanel.add(sectionTitle);
+        statsPanel.add(Box.createVerticalStrut(15));
+        statsPanel.add(cardsPanel);
+        
+        return statsPanel;
+    }
+    
+    /**
+     * Replace the stat cards with counts from the current logs
+     */
+    private void fillStatCards(JPanel cardsPanel) {
+        cardsPanel.removeAll();
         
         // Calculate statistics - with null checks
         int totalLogs = (auditLogs != null) ? auditLogs.size() : 0;
@@ -242,12 +280,8 @@ public class AuditLogUI extends BaseUI {
         cardsPanel.add(todayCard);
         cardsPanel.add(loginCard);
         cardsPanel.add(carCard);
-        
-        statsPanel.add(sectionTitle);
-        statsPanel.add(Box.createVerticalStrut(15));
-        statsPanel.add(cardsPanel);
-        
-        return statsPanel;
+        cardsPanel.revalidate();
+        cardsPanel.repaint();
     }
     
     /**
@@ -388,10 +422,58 @@ public class AuditLogUI extends BaseUI {
         tableContainer.add(tableTitle);
         tableContainer.add(Box.createVerticalStrut(15));
         tableContainer.add(tableCard);
+        tableContainer.add(Box.createVerticalStrut(10));
+        tableContainer.add(createPagingPanel());
         
         return tableContainer;
     }
     
+    /**
+     * Create the previous/next controls for search results
+     */
+    private JPanel createPagingPanel() {
+        JPanel pagingPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 10, 0));
+        pagingPanel.setOpaque(false);
+        pagingPanel.setAlignmentX(Component.LEFT_ALIGNMENT);
+        pagingPanel.setMaximumSize(new Dimension(1200, 40));
+        
+        previousPageButton = createPagingButton("Previous");
+        previousPageButton.addActionListener(e -> {
+            if (currentPage > 0) {
+                currentPage--;
+                loadPage();
+            }
+        });
+        
+        nextPageButton = createPagingButton("Next");
+        nextPageButton.addActionListener(e -> {
+            currentPage++;
+            loadPage();
+        });
+        
+        pageLabel = new JLabel("Page 1");
+        pageLabel.setFont(new Font("Arial", Font.PLAIN, 13));
+        pageLabel.setForeground(new Color(100, 100, 100));
+        
+        previousPageButton.setEnabled(false);
+        nextPageButton.setEnabled(false);
+        
+        pagingPanel.add(previousPageButton);
+        pagingPanel.add(pageLabel);
+        pagingPanel.add(nextPageButton);
+        return pagingPanel;
+    }
+    
+    private JButton createPagingButton(String text) {
+        JButton button = new JButton(text);
+        button.setBackground(PRIMARY_BLUE);
+        button.setForeground(Color.WHITE);
+        button.setFont(new Font("Arial", Font.BOLD, 12));
+        button.setBorder(BorderFactory.createEmptyBorder(6, 12, 6, 12));
+        button.setCursor(new Cursor(Cursor.HAND_CURSOR));
+        return button;
+    }
+    
     /**
      * Create audit table
      */
@@ -501,6 +583,21 @@ public class AuditLogUI extends BaseUI {
         auditLogs = new ArrayList<>(globalAuditLogs);
     }
     
+    /**
+     * Load logs from the database off the Event Dispatch Thread, then refresh
+     * the statistics and the table. Falls back to the session logs when the
+     * database has none.
+     */
+    private void loadAuditLogs() {
+        List<AuditLogEntry> sessionLogs = new ArrayList<>(globalAuditLogs);
+        loadInBackground("auditLogs", () -> AuditLogIntegration.getInstance().getAllAuditLogs(), dbLogs -> {
+            showingSessionLogs = dbLogs.isEmpty();
+            auditLogs = showingSessionLogs ? sessionLogs : dbLogs;
+            fillStatCards(statCardsPanel);
+            filterLogs();
+        });
+    }
+    
     /**
      * Add new audit log entry
      */
@@ -514,9 +611,60 @@ public class AuditLogUI extends BaseUI {
     }
     
     /**
-     * Filter logs based on criteria
+     * Filter logs based on criteria, starting again from the first page
      */
     private void filterLogs() {
+        currentPage = 0;
+        loadPage();
+    }
+    
+    /**
+     * Load the current page of matching logs. The search, type and user
+     * filters are applied by the database (keywords through the FULLTEXT
+     * index, most relevant first), off the Event Dispatch Thread.
+     */
+    private void loadPage() {
+        if (showingSessionLogs) {
+            filterSessionLogs();
+            return;
+        }
+        
+        String searchText = searchField.getText().trim();
+        String selectedType = (String) filterTypeCombo.getSelectedItem();
+        String selectedUser = (String) filterUserCombo.getSelectedItem();
+        int page = currentPage;
+        
+        previousPageButton.setEnabled(false);
+        nextPageButton.setEnabled(false);
+        loadInBackground("auditSearch",
+            () -> AuditLogIntegration.getInstance().getFilteredAuditLogs(selectedType, selectedUser, searchText, page),
+            logs -> {
+                tableModel.setRowCount(0);
+                for (AuditLogEntry log : logs) {
+                    addRow(log);
+                }
+                pageLabel.setText("Page " + (page + 1));
+                previousPageButton.setEnabled(page > 0);
+                // A full page means there may be more
+                nextPageButton.setEnabled(logs.size() == DBConfig.AUDIT_SEARCH_PAGE_SIZE);
+            });
+    }
+    
+    private void addRow(AuditLogEntry log) {
+        tableModel.addRow(new Object[]{
+            log.getDateTime(),
+            log.getUser(),
+            log.getActivityType(),
+            log.getDescription(),
+            log.getIpAddress(),
+            log.getStatus()
+        });
+    }
+    
+    /**
+     * Filter the session logs in memory, when there are none in the database
+     */
+    private void filterSessionLogs() {
         tableModel.setRowCount(0);
         
         String searchText = searchField.getText().toLowerCase();
@@ -534,16 +682,14 @@ public class AuditLogUI extends BaseUI {
                                 log.getUser().equals(selectedUser);
             
             if (matchesSearch && matchesType && matchesUser) {
-                tableModel.addRow(new Object[]{
-                    log.getDateTime(),
-                    log.getUser(),
-                    log.getActivityType(),
-                    log.getDescription(),
-                    log.getIpAddress(),
-                    log.getStatus()
-                });
+                addRow(log);
             }
         }
+        
+        // The session logs are few enough to show on one page
+        pageLabel.setText("Page 1");
+        previousPageButton.setEnabled(false);
+        nextPageButton.setEnabled(false);
     }
     
     /**
@@ -577,18 +723,98 @@ public class AuditLogUI extends BaseUI {
     }
     
     /**
-     * Export logs
+     * Export logs.
+     * Every audit log in the database is streamed to the chosen file in the
+     * background; the format follows the file name (.csv or .ndjson, plus .gz
+     * for gzip), and a progress dialog lets the user cancel.
      */
     private void exportLogs() {
-        String exportInfo = "Audit logs exported successfully!\n\n" +
-                          "Total Records: " + tableModel.getRowCount() + "\n" +
-                          "Export File: audit_logs_" + new SimpleDateFormat("yyyyMMdd").format(new Date()) + ".csv\n" +
-                          "Location: Downloads/AuditLogs/";
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setDialogTitle("Export Audit Logs");
+        fileChooser.addChoosableFileFilter(new FileNameExtensionFilter("CSV (*.csv, *.csv.gz)", "csv", "gz"));
+        fileChooser.addChoosableFileFilter(new FileNameExtensionFilter("JSON lines (*.ndjson, *.ndjson.gz)", "ndjson", "gz"));
+        fileChooser.setAcceptAllFileFilterUsed(false);
+        fileChooser.setSelectedFile(new File("audit_logs_" + new SimpleDateFormat("yyyyMMdd").format(new Date()) + ".csv"));
+        if (fileChooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
         
-        JOptionPane.showMessageDialog(this, exportInfo, "Export Complete", JOptionPane.INFORMATION_MESSAGE);
+        File file = fileChooser.getSelectedFile();
+        String name = file.getName().toLowerCase();
+        boolean gzip = name.endsWith(".gz");
+        String baseName = gzip ? name.substring(0, name.length() - 3) : name;
+        AuditLogExporter.Format format = baseName.endsWith(".ndjson") || baseName.endsWith(".jsonl")
+            ? AuditLogExporter.Format.NDJSON : AuditLogExporter.Format.CSV;
+        
+        // Progress dialog
+        JDialog progressDialog = new JDialog(this, "Exporting Audit Logs", false);
+        JProgressBar progressBar = new JProgressBar();
+        progressBar.setIndeterminate(true);
+        progressBar.setStringPainted(true);
+        progressBar.setString("Starting export...");
+        JButton cancelButton = new JButton("Cancel");
+        
+        JPanel progressPanel = new JPanel(new BorderLayout(0, 15));
+        progressPanel.setBorder(new EmptyBorder(20, 20, 20, 20));
+        progressPanel.add(new JLabel("Writing " + file.getName()), BorderLayout.NORTH);
+        progressPanel.add(progressBar, BorderLayout.CENTER);
+        JPanel cancelPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 0, 0));
+        cancelPanel.add(cancelButton);
+        progressPanel.add(cancelPanel, BorderLayout.SOUTH);
+        progressDialog.setContentPane(progressPanel);
+        progressDialog.setSize(380, 160);
+        progressDialog.setLocationRelativeTo(this);
+        progressDialog.setDefaultCloseOperation(JDialog.DO_NOTHING_ON_CLOSE);
+        
+        SwingWorker<Long, Long> exportWorker = new SwingWorker<>() {
+            @Override
+            protected Long doInBackground() throws Exception {
+                return AuditLogIntegration.getInstance().exportAuditLogs(
+                    file, format, gzip, this::publish, this::isCancelled);
+            }
+            
+            @Override
+            protected void process(List<Long> counts) {
+                progressBar.setString(String.format("%,d rows written", counts.get(counts.size() - 1)));
+            }
+            
+            @Override
+            protected void done() {
+                progressDialog.dispose();
+                if (isCancelled()) {
+                    JOptionPane.showMessageDialog(AuditLogUI.this, "Export cancelled.",
+                        "Export Cancelled", JOptionPane.INFORMATION_MESSAGE);
+                    return;
+                }
+                try {
+                    long rows = get();
+                    JOptionPane.showMessageDialog(AuditLogUI.this,
+                        "Audit logs exported successfully!\n\n" +
+                        "Total Records: " + rows + "\n" +
+                        "Export File: " + file.getAbsolutePath(),
+                        "Export Complete", JOptionPane.INFORMATION_MESSAGE);
+                    
+                    // Log this action
+                    addAuditLog(managerName, "Report Generated", "Exported audit logs", "Success");
+                } catch (Exception e) {
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    System.err.println("Error exporting audit logs: " + cause.getMessage());
+                    cause.printStackTrace();
+                    JOptionPane.showMessageDialog(AuditLogUI.this,
+                        "Could not export audit logs: " + cause.getMessage(),
+                        "Export Failed", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        };
+        
+        cancelButton.addActionListener(e -> {
+            cancelButton.setEnabled(false);
+            progressBar.setString("Cancelling...");
+            exportWorker.cancel(false);
+        });
         
-        // Log this action
-        addAuditLog(managerName, "Report Generated", "Exported audit logs", "Success");
+        exportWorker.execute();
+        progressDialog.setVisible(true);
     }
     
     /**
@@ -1,5 +1,6 @@
 package com.example.Design;
 
+import com.example.OOP.backend.DataChangeEvents;
 import java.awt.BorderLayout;
 import java.awt.Color;
 import java.awt.Component;
@@ -14,6 +15,16 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
 
 import javax.swing.BorderFactory;
 import javax.swing.Box;
@@ -26,6 +37,7 @@ import javax.swing.JOptionPane;
 import javax.swing.JPanel;
 import javax.swing.SwingConstants;
 import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
 
 /**
  * BaseUI class that provides common UI elements and functionality for the Car Store Management system.
@@ -46,6 +58,12 @@ public abstract class BaseUI extends JFrame {
     protected JPanel contentPanel;
     protected JPanel footerPanel;
     
+    // Background loads by key, touched only on the EDT. Created lazily because
+    // subclasses may start loads from createContentPanel during construction.
+    private Map<String, ScreenLoad<?>> activeLoads;
+    private List<Consumer<DataChangeEvents.Change>> changeListeners;
+    private boolean closed;
+    
     // User information
     protected int adminId = 0;
     protected String managerName = "Rawaz Muhsinn";
@@ -87,6 +105,191 @@ public abstract class BaseUI extends JFrame {
         
         // Set application icon - try multiple possible paths
         setApplicationIcon();
+        
+        // Stop background loads when the window goes away
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                cancelBackgroundLoads();
+            }
+        });
+    }
+    
+    @Override
+    public void dispose() {
+        cancelBackgroundLoads();
+        super.dispose();
+    }
+    
+    /**
+     * Run a data load off the Event Dispatch Thread and apply the result on it.
+     * Must be called on the EDT (or during construction). While a load with the
+     * same key is running, further requests are coalesced: only the most recent
+     * one is kept and started when the running load finishes. Results are
+     * dropped once the window has been closed.
+     * 
+     * @param key identifies the load, e.g. "inventory"
+     * @param loader fetches the data; runs on a background thread and must not touch Swing components
+     * @param onLoaded applies the data to the screen; runs on the EDT
+     */
+    protected <T> void loadInBackground(String key, Callable<T> loader, Consumer<T> onLoaded) {
+        if (closed) {
+            return;
+        }
+        if (activeLoads == null) {
+            activeLoads = new HashMap<>();
+        }
+        
+        ScreenLoad<T> load = new ScreenLoad<>(key, loader, onLoaded);
+        ScreenLoad<?> running = activeLoads.get(key);
+        if (running != null) {
+            running.next = load;
+            return;
+        }
+        
+        activeLoads.put(key, load);
+        updateBusyCursor();
+        load.execute();
+    }
+    
+    /**
+     * Whether a load with the given key is running
+     */
+    protected boolean isLoading(String key) {
+        return activeLoads != null && activeLoads.containsKey(key);
+    }
+    
+    /**
+     * Called on the EDT when a background load throws. Shows a warning by default.
+     */
+    protected void onLoadFailed(String key, Throwable error) {
+        System.err.println("Error loading " + key + ": " + error.getMessage());
+        error.printStackTrace();
+        JOptionPane.showMessageDialog(this,
+            "Error loading data from database:\n" + error.getMessage() +
+            "\n\nPlease check your database connection.",
+            "Database Connection Error",
+            JOptionPane.WARNING_MESSAGE);
+    }
+    
+    /**
+     * Cancel every running load and drop any queued ones
+     */
+    protected void cancelBackgroundLoads() {
+        closed = true;
+        if (changeListeners != null) {
+            changeListeners.forEach(DataChangeEvents::removeListener);
+            changeListeners.clear();
+        }
+        if (activeLoads == null) {
+            return;
+        }
+        for (ScreenLoad<?> load : activeLoads.values()) {
+            load.next = null;
+            load.cancel(true);
+        }
+        activeLoads.clear();
+    }
+    
+    /**
+     * Receive data change events on the EDT for as long as this window is open.
+     * The subscription is dropped when the window closes.
+     */
+    protected void listenForDataChanges(Consumer<DataChangeEvents.Change> listener) {
+        if (closed) {
+            return;
+        }
+        Consumer<DataChangeEvents.Change> onEdt = change -> SwingUtilities.invokeLater(() -> {
+            if (!closed) {
+                listener.accept(change);
+            }
+        });
+        if (changeListeners == null) {
+            changeListeners = new ArrayList<>();
+        }
+        changeListeners.add(onEdt);
+        DataChangeEvents.addListener(onEdt);
+    }
+    
+    /**
+     * Placeholder shown where data will appear once a background load finishes
+     */
+    protected JPanel createLoadingPlaceholder(String message) {
+        JPanel placeholder = new JPanel(new BorderLayout());
+        placeholder.setOpaque(false);
+        placeholder.setAlignmentX(Component.LEFT_ALIGNMENT);
+        placeholder.setBorder(BorderFactory.createEmptyBorder(40, 0, 40, 0));
+        
+        JLabel label = new JLabel(message, SwingConstants.CENTER);
+        label.setFont(new Font("Arial", Font.ITALIC, 16));
+        label.setForeground(new Color(120, 120, 120));
+        placeholder.add(label, BorderLayout.CENTER);
+        
+        return placeholder;
+    }
+    
+    /**
+     * Rebuild the whole content panel, for screens whose content is derived
+     * entirely from loaded data
+     */
+    protected void rebuildContentPanel() {
+        if (contentPanel != null) {
+            remove(contentPanel);
+        }
+        contentPanel = createContentPanel();
+        add(contentPanel, BorderLayout.CENTER);
+        revalidate();
+        repaint();
+    }
+    
+    private void updateBusyCursor() {
+        boolean busy = activeLoads != null && !activeLoads.isEmpty();
+        getRootPane().setCursor(busy ? Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR) : null);
+    }
+    
+    /**
+     * One background load; starts the queued request, if any, when it finishes
+     */
+    private final class ScreenLoad<T> extends SwingWorker<T, Void> {
+        private final String key;
+        private final Callable<T> loader;
+        private final Consumer<T> onLoaded;
+        ScreenLoad<?> next;
+        
+        ScreenLoad(String key, Callable<T> loader, Consumer<T> onLoaded) {
+            this.key = key;
+            this.loader = loader;
+            this.onLoaded = onLoaded;
+        }
+        
+        @Override
+        protected T doInBackground() throws Exception {
+            return loader.call();
+        }
+        
+        @Override
+        protected void done() {
+            if (closed || isCancelled()) {
+                return;
+            }
+            
+            activeLoads.remove(key);
+            if (next != null) {
+                // A newer request arrived; its result supersedes this one
+                activeLoads.put(key, next);
+                next.execute();
+                return;
+            }
+            updateBusyCursor();
+            
+            try {
+                onLoaded.accept(get());
+            } catch (ExecutionException e) {
+                onLoadFailed(key, e.getCause() != null ? e.getCause() : e);
+            } catch (InterruptedException | CancellationException e) {
+                // Window closed while loading
+            }
+        }
     }
     
     /**
@@ -458,6 +661,16 @@ public abstract class BaseUI extends JFrame {
         return cardPanel;
     }
     
+    /**
+     * Change the count shown on a card made by createOverviewCard
+     */
+    protected void setOverviewCardCount(JPanel card, String count) {
+        Component countLabel = ((BorderLayout) card.getLayout()).getLayoutComponent(BorderLayout.SOUTH);
+        if (countLabel instanceof JLabel) {
+            ((JLabel) countLabel).setText(count);
+        }
+    }
+    
     /**
      * Create a tool card for dashboard
      */
@@ -1,5 +1,7 @@
 package com.example.Design;
 
+import com.example.OOP.backend.DataChangeEvents;
+import com.example.OOP.backend.NGramIndex;
 
 import java.awt.BorderLayout;
 import java.awt.Color;
@@ -9,21 +11,22 @@ import java.awt.Dimension;
 import java.awt.FlowLayout;
 import java.awt.Font;
 import java.awt.GridLayout;
-import java.awt.Image;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.text.DecimalFormat;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import javax.swing.BorderFactory;
 import javax.swing.Box;
 import javax.swing.BoxLayout;
 import javax.swing.ButtonGroup;
-import javax.swing.ImageIcon;
 import javax.swing.JButton;
 import javax.swing.JCheckBox;
 import javax.swing.JDialog;
@@ -32,11 +35,15 @@ import javax.swing.JOptionPane;
 import javax.swing.JPanel;
 import javax.swing.JScrollPane;
 import javax.swing.JSpinner;
+import javax.swing.JTextField;
 import javax.swing.SpinnerDateModel;
 import javax.swing.SpinnerNumberModel;
 import javax.swing.SwingConstants;
 import javax.swing.SwingUtilities;
+import javax.swing.Timer;
 import javax.swing.border.EmptyBorder;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 
 /**
  * Car Management UI class that extends BaseUI to inherit common UI elements
@@ -60,11 +67,31 @@ public class CarManagement extends BaseUI {
     // Car data structure
     private List<Car> cars;
     
+    // Panels refreshed when inventory data arrives. No initializers: they are
+    // assigned from createContentPanel, which runs inside the BaseUI constructor.
+    private JPanel statsPanel;
+    private JScrollPane carsScrollPane;
+    private VirtualCardGrid<Car> carsGrid;
+    
+    // Live search over model, color, type and year; searchIndex is null until the inventory loads
+    private static final int SEARCH_DELAY_MS = 150;
+    private JTextField searchField;
+    private Timer searchTimer;
+    private NGramIndex searchIndex;
+    
+    // IDs of cars changed since the last incremental update, EDT only
+    private Set<Integer> pendingCarChanges;
+    
     // Summary statistics
     private int totalCarsCount = 0;
     private int availableCarsCount = 0;
     private int soldCarsCount = 0;
     private int reservedCarsCount = 0;
+    
+    // Status each car was counted under; cars can be edited in place, so the
+    // counters can't rely on the car's current status when taking it off.
+    // Filled by calculateCarStatistics, which first runs inside the BaseUI constructor.
+    private Map<Integer, String> countedStatus;
 
     /**
      * Constructor with admin ID
@@ -72,6 +99,8 @@ public class CarManagement extends BaseUI {
      */
     public CarManagement(int adminId) {
         super(adminId);
+        refreshCarInventory();
+        listenForDataChanges(this::onDataChanged);
     }
     
     /**
@@ -79,6 +108,8 @@ public class CarManagement extends BaseUI {
      */
     public CarManagement() {
         super();
+        refreshCarInventory();
+        listenForDataChanges(this::onDataChanged);
     }
     
     /**
@@ -226,14 +257,16 @@ public class CarManagement extends BaseUI {
         contentPanel.setOpaque(false);
         contentPanel.setLayout(new BoxLayout(contentPanel, BoxLayout.Y_AXIS));
         
-        // Initialize sample data
-        initializeSampleData();
+        // Inventory is loaded in the background once the window is built
+        if (cars == null) {
+            cars = new ArrayList<>();
+        }
         
         // Calculate statistics
         calculateCarStatistics();
         
         // Car statistics overview
-        JPanel statsPanel = new JPanel();
+        statsPanel = new JPanel();
         statsPanel.setOpaque(false);
         statsPanel.setLayout(new GridLayout(1, 4, 20, 0));
         statsPanel.setAlignmentX(Component.LEFT_ALIGNMENT);
@@ -291,17 +324,58 @@ public class CarManagement extends BaseUI {
         JLabel carsLabel = new JLabel("CAR INVENTORY");
         carsLabel.setFont(new Font("Arial", Font.BOLD, 16));
         carsLabel.setForeground(new Color(50, 50, 50));
-        carsLabel.setBorder(BorderFactory.createEmptyBorder(30, 0, 15, 0));
-        carsLabel.setAlignmentX(Component.LEFT_ALIGNMENT);
         
-        // Create cars grid panel with scrolling capability
-        JPanel carsGridPanel = createCarsGrid();
-        JScrollPane scrollPane = new JScrollPane(carsGridPanel);
-        scrollPane.setBorder(BorderFactory.createEmptyBorder());
-        scrollPane.setOpaque(false);
-        scrollPane.getViewport().setOpaque(false);
-        scrollPane.setAlignmentX(Component.LEFT_ALIGNMENT);
-        scrollPane.setPreferredSize(new Dimension(1000, 500));
+        // Search box; the query runs once typing pauses, so fast typing only searches once
+        searchField = new JTextField(20);
+        searchField.setFont(new Font("Arial", Font.PLAIN, 14));
+        searchField.setBorder(BorderFactory.createCompoundBorder(
+            BorderFactory.createLineBorder(new Color(200, 200, 200)),
+            BorderFactory.createEmptyBorder(8, 12, 8, 12)
+        ));
+        searchField.setPreferredSize(new Dimension(250, 35));
+        searchField.setToolTipText("Search by model, color, type or year");
+        searchTimer = new Timer(SEARCH_DELAY_MS, e -> showCars());
+        searchTimer.setRepeats(false);
+        searchField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                searchTimer.restart();
+            }
+            
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                searchTimer.restart();
+            }
+            
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                searchTimer.restart();
+            }
+        });
+        searchField.addActionListener(e -> {
+            searchTimer.stop();
+            showCars();
+        });
+        
+        JPanel carsHeaderPanel = new JPanel(new BorderLayout());
+        carsHeaderPanel.setOpaque(false);
+        carsHeaderPanel.setBorder(BorderFactory.createEmptyBorder(30, 0, 15, 0));
+        carsHeaderPanel.setAlignmentX(Component.LEFT_ALIGNMENT);
+        carsHeaderPanel.setMaximumSize(new Dimension(1200, 50));
+        carsHeaderPanel.add(carsLabel, BorderLayout.WEST);
+        carsHeaderPanel.add(searchField, BorderLayout.EAST);
+        
+        // Cars grid only builds the cards in view, so large inventories stay cheap
+        carsGrid = new VirtualCardGrid<>(4, new Dimension(280, 420), 20, Car::getId, this::createCarCard);
+        carsGrid.setEmptyMessage("No cars available in inventory. Add new cars to get started.");
+        
+        // Cars grid with scrolling capability; shows a placeholder until the inventory loads
+        carsScrollPane = new JScrollPane(createLoadingPlaceholder("Loading inventory..."));
+        carsScrollPane.setBorder(BorderFactory.createEmptyBorder());
+        carsScrollPane.setOpaque(false);
+        carsScrollPane.getViewport().setOpaque(false);
+        carsScrollPane.setAlignmentX(Component.LEFT_ALIGNMENT);
+        carsScrollPane.setPreferredSize(new Dimension(1000, 500));
         
         // Create footer panel
         footerPanel = createFooterPanel();
@@ -310,8 +384,8 @@ public class CarManagement extends BaseUI {
         contentPanel.add(statsPanel);
         contentPanel.add(filterLabel);
         contentPanel.add(filterCardsPanel);
-        contentPanel.add(carsLabel);
-        contentPanel.add(scrollPane); // Add scrollable cars grid
+        contentPanel.add(carsHeaderPanel);
+        contentPanel.add(carsScrollPane); // Add scrollable cars grid
         
         // Add all panels to main panel
         mainPanel.add(topPanel, BorderLayout.NORTH);
@@ -322,137 +396,181 @@ public class CarManagement extends BaseUI {
     }
     
     /**
-     * Initialize car data from database
+     * Load available and reserved cars from the database and build their
+     * search index. Runs on a background thread, so it must not touch Swing components.
      */
-    private void initializeSampleData() {
-        try {
-            // === LOAD FROM DATABASE ===
-            CarManagementIntegration integration = CarManagementIntegration.getInstance();
-            integration.setCurrentStaffId(adminId);
-            
-            // Get all available and reserved cars from database
-            List<CarManagement.Car> availableCars = integration.getCarsByStatus("available");
-            List<CarManagement.Car> reservedCars = integration.getCarsByStatus("reserved");
-            
-            // Combine available and reserved cars for inventory display
-            cars = new ArrayList<>();
-            cars.addAll(availableCars);
-            cars.addAll(reservedCars);
-            
-            System.out.println("✅ Loaded " + cars.size() + " cars from database");
+    private LoadedInventory loadInventory() {
+        CarManagementIntegration integration = CarManagementIntegration.getInstance();
+        integration.setCurrentStaffId(adminId);
+        
+        // Get all available and reserved cars from database
+        List<CarManagement.Car> availableCars = integration.getCarsByStatus("available");
+        List<CarManagement.Car> reservedCars = integration.getCarsByStatus("reserved");
+        
+        // Combine available and reserved cars for inventory display
+        List<Car> loaded = new ArrayList<>(availableCars.size() + reservedCars.size());
+        loaded.addAll(availableCars);
+        loaded.addAll(reservedCars);
+        
+        System.out.println("✅ Loaded " + loaded.size() + " cars from database");
+        
+        // If database is empty, you can optionally add some sample data
+        if (loaded.isEmpty()) {
+            System.out.println("⚠️ Database is empty. Consider adding sample data or adding cars through the UI.");
+        }
+        
+        NGramIndex index = new NGramIndex();
+        for (Car car : loaded) {
+            indexForSearch(index, car);
+        }
+        LoadedInventory result = new LoadedInventory();
+        result.cars = loaded;
+        result.searchIndex = index;
+        return result;
+    }
+    
+    private static void indexForSearch(NGramIndex index, Car car) {
+        index.put(car.getId(), car.getModel(), car.getColor(), car.getType(), car.getYear());
+    }
+    
+    /**
+     * Refresh car inventory from database.
+     * The query runs off the Event Dispatch Thread; repeated calls while a
+     * refresh is in flight collapse into one follow-up refresh.
+     */
+    public void refreshCarInventory() {
+        loadInBackground("inventory", this::loadInventory, loaded -> {
+            cars = loaded.cars;
+            searchIndex = loaded.searchIndex;
+            calculateCarStatistics();
+            updateStatsCards();
             
-            // If database is empty, you can optionally add some sample data
-            if (cars.isEmpty()) {
-                System.out.println("⚠️ Database is empty. Consider adding sample data or adding cars through the UI.");
+            // Show the new list in the existing grid, replacing the placeholder on first load
+            showCars();
+            if (carsScrollPane.getViewport().getView() != carsGrid) {
+                carsScrollPane.setViewportView(carsGrid);
+                carsScrollPane.getViewport().setOpaque(false);
             }
             
-        } catch (Exception e) {
-            System.err.println("❌ Error loading cars from database: " + e.getMessage());
-            e.printStackTrace();
-            
-            // Fallback to empty list
-            cars = new ArrayList<>();
-            
-            // Show error to user
-            SwingUtilities.invokeLater(() -> {
-                JOptionPane.showMessageDialog(this,
-                    "Error loading cars from database:\n" + e.getMessage() + 
-                    "\n\nPlease check your database connection.",
-                    "Database Connection Error",
-                    JOptionPane.WARNING_MESSAGE);
-            });
+            System.out.println("🔄 Car inventory refreshed from database");
+        });
+    }
+    
+    /**
+     * Collect changed car IDs and apply them together once the current
+     * batch of events has been delivered
+     */
+    private void onDataChanged(DataChangeEvents.Change change) {
+        if (change.getTopic() != DataChangeEvents.Topic.CARS) {
+            return;
         }
+        if (pendingCarChanges == null) {
+            pendingCarChanges = new LinkedHashSet<>();
+        }
+        if (pendingCarChanges.isEmpty()) {
+            SwingUtilities.invokeLater(this::applyPendingCarChanges);
+        }
+        pendingCarChanges.add(change.getId());
     }
     
     /**
-     * Refresh car inventory from database
+     * Patch the inventory with the cars that changed, touching only their
+     * cards and the overview counters instead of reloading everything
      */
-    public void refreshCarInventory() {
-        // Clear existing cars
-        cars.clear();
+    private void applyPendingCarChanges() {
+        Set<Integer> changedIds = new LinkedHashSet<>(pendingCarChanges);
+        pendingCarChanges.clear();
         
-        // Reload from database
-        initializeSampleData();
-        calculateCarStatistics();
-        
-        // Get the content panel
-        JPanel contentPanel = (JPanel) ((BorderLayout) getContentPane().getLayout())
-            .getLayoutComponent(BorderLayout.CENTER);
+        if (isLoading("inventory")) {
+            // A full load may have read the old data; load again once it finishes
+            refreshCarInventory();
+            return;
+        }
         
-        // Find the scroll pane containing car grid
-        Component[] components = contentPanel.getComponents();
-        for (int i = 0; i < components.length; i++) {
-            if (components[i] instanceof JScrollPane) {
-                // Remove old scroll pane
-                contentPanel.remove(components[i]);
-                
-                // Create a new grid panel
-                JPanel carsGridPanel = createCarsGrid();
-                
-                // Create a new scroll pane
-                JScrollPane scrollPane = new JScrollPane(carsGridPanel);
-                scrollPane.setBorder(BorderFactory.createEmptyBorder());
-                scrollPane.setOpaque(false);
-                scrollPane.getViewport().setOpaque(false);
-                scrollPane.setAlignmentX(Component.LEFT_ALIGNMENT);
-                scrollPane.setPreferredSize(new Dimension(1000, 500));
-                
-                // Add the new scroll pane
-                contentPanel.add(scrollPane);
-                break;
-            }
+        CarManagementIntegration integration = CarManagementIntegration.getInstance();
+        Map<Integer, Integer> indexById = new HashMap<>();
+        for (int i = 0; i < cars.size(); i++) {
+            indexById.put(cars.get(i).getId(), i);
         }
         
-        // Update the stats panel with new counts
-        Component statsPanel = contentPanel.getComponent(0);
-        if (statsPanel instanceof JPanel) {
-            JPanel panel = (JPanel) statsPanel;
-            panel.removeAll();
-            
-            // Create new overview cards
-            JPanel totalCarsCard = createOverviewCard("Total Cars", Integer.toString(totalCarsCount), PRIMARY_BLUE);
-            JPanel availableCard = createOverviewCard("Available", Integer.toString(availableCarsCount), PRIMARY_GREEN);
-            JPanel soldCard = createOverviewCard("Sold", Integer.toString(soldCarsCount), PRIMARY_RED);
-            JPanel reservedCard = createOverviewCard("Reserved", Integer.toString(reservedCarsCount), PRIMARY_YELLOW);
+        List<Integer> removedIndexes = new ArrayList<>();
+        for (Integer carId : changedIds) {
+            Car fresh = integration.getCarIfPresent(carId);
+            boolean inInventory = fresh != null && isInventoryStatus(fresh.getStatus());
+            Integer index = indexById.get(carId);
             
-            panel.add(totalCarsCard);
-            panel.add(availableCard);
-            panel.add(soldCard);
-            panel.add(reservedCard);
+            if (searchIndex != null) {
+                searchIndex.remove(carId);
+                if (inInventory) {
+                    indexForSearch(searchIndex, fresh);
+                }
+            }
+            if (index != null) {
+                uncountCar(carId);
+                if (inInventory) {
+                    cars.set(index, fresh);
+                } else {
+                    removedIndexes.add(index);
+                }
+            } else if (inInventory) {
+                cars.add(fresh);
+            }
+            if (inInventory) {
+                countCar(fresh);
+            }
         }
         
-        // Refresh the UI
-        contentPanel.revalidate();
-        contentPanel.repaint();
+        // Remove from the end so earlier indexes stay valid
+        removedIndexes.sort(null);
+        for (int i = removedIndexes.size() - 1; i >= 0; i--) {
+            cars.remove((int) removedIndexes.get(i));
+        }
+        totalCarsCount = cars.size();
         
-        System.out.println("🔄 Car inventory refreshed from database");
+        updateStatsCards();
+        carsGrid.discardCards(changedIds);
+        showCars();
     }
     
     /**
-     * Create cars grid panel with car cards
+     * Show the cars matching the search box, in inventory order.
+     * Runs on the EDT when typing pauses; a query that is superseded by more
+     * typing is never run, so results can't arrive out of order.
      */
-    private JPanel createCarsGrid() {
-        JPanel gridPanel = new JPanel();
-        gridPanel.setOpaque(false);
-        gridPanel.setLayout(new GridLayout(0, 4, 20, 20));
-        gridPanel.setBorder(BorderFactory.createEmptyBorder(0, 0, 20, 0));
-        
-        // Add car cards to grid
-        for (Car car : cars) {
-            JPanel carCard = createCarCard(car);
-            gridPanel.add(carCard);
+    private void showCars() {
+        String query = searchField.getText().trim();
+        if (query.isEmpty() || searchIndex == null) {
+            carsGrid.setEmptyMessage("No cars available in inventory. Add new cars to get started.");
+            carsGrid.setItems(cars);
+            return;
         }
         
-        // If no cars are available, show a message
-        if (cars.isEmpty()) {
-            JLabel noDataLabel = new JLabel("No cars available in inventory. Add new cars to get started.");
-            noDataLabel.setFont(new Font("Arial", Font.ITALIC, 16));
-            noDataLabel.setForeground(new Color(120, 120, 120));
-            noDataLabel.setHorizontalAlignment(SwingConstants.CENTER);
-            gridPanel.add(noDataLabel);
+        BitSet matches = searchIndex.search(query);
+        List<Car> visible = new ArrayList<>(matches.cardinality());
+        for (Car car : cars) {
+            if (matches.get(car.getId())) {
+                visible.add(car);
+            }
         }
-        
-        return gridPanel;
+        carsGrid.setEmptyMessage("No cars match \"" + query + "\".");
+        carsGrid.setItems(visible);
+    }
+    
+    /**
+     * Available and reserved cars are shown in the inventory
+     */
+    private static boolean isInventoryStatus(String status) {
+        return "available".equalsIgnoreCase(status) || "reserved".equalsIgnoreCase(status);
+    }
+    
+    /**
+     * Show the current counters on the overview cards
+     */
+    private void updateStatsCards() {
+        setOverviewCardCount((JPanel) statsPanel.getComponent(0), Integer.toString(totalCarsCount));
+        setOverviewCardCount((JPanel) statsPanel.getComponent(1), Integer.toString(availableCarsCount));
+        setOverviewCardCount((JPanel) statsPanel.getComponent(2), Integer.toString(soldCarsCount));
+        setOverviewCardCount((JPanel) statsPanel.getComponent(3), Integer.toString(reservedCarsCount));
     }
     
     /**
@@ -494,26 +612,12 @@ public class CarManagement extends BaseUI {
     imageLabel.setHorizontalAlignment(SwingConstants.CENTER);
     imageLabel.setVerticalAlignment(SwingConstants.CENTER);
     
-    try {
-        // Try to load the actual image
-        String imagePath = car.getImagePath();
-        if (imagePath != null && !imagePath.isEmpty()) {
-            ImageIcon originalIcon = new ImageIcon(imagePath);
-            if (originalIcon.getIconWidth() > 0) {
-                Image scaledImage = originalIcon.getImage().getScaledInstance(240, 140, Image.SCALE_SMOOTH);
-                imageLabel.setIcon(new ImageIcon(scaledImage));
-            } else {
-                throw new Exception("Image not found or has zero width");
-            }
-        } else {
-            throw new Exception("Image path is null or empty");
-        }
-    } catch (Exception e) {
-        System.err.println("Error loading image: " + e.getMessage());
-        // Use placeholder if image not found
-        imageLabel.setText("🚗");
-        imageLabel.setFont(new Font("Arial", Font.PLAIN, 50));
-        imageLabel.setForeground(new Color(150, 150, 150));
+    // Show the placeholder until the thumbnail is loaded in the background
+    imageLabel.setText("🚗");
+    imageLabel.setFont(new Font("Arial", Font.PLAIN, 50));
+    imageLabel.setForeground(new Color(150, 150, 150));
+    if (!ThumbnailCache.getInstance().load(imageLabel, car.getImagePath(), 240, 140)) {
+        System.err.println("Error loading image: not found " + car.getImagePath());
     }
     
     imagePanel.add(imageLabel, BorderLayout.CENTER);
@@ -706,11 +810,8 @@ public class CarManagement extends BaseUI {
     SellCarDialog sellDialog = new SellCarDialog(this, car);
     sellDialog.setVisible(true);
     
-    // Check if sale was completed
+    // Check if sale was completed; the inventory updates itself from the change event
     if (sellDialog.isSaleCompleted()) {
-        // Refresh the inventory display to show updated car status
-        refreshCarInventory();
-        
         JOptionPane.showMessageDialog(this,
             "Vehicle sold successfully!\nThe car has been moved to the Sold Cars section.",
             "Sale Complete",
@@ -1262,19 +1363,43 @@ public class CarManagement extends BaseUI {
        availableCarsCount = 0;
        soldCarsCount = 0;
        reservedCarsCount = 0;
+       countedStatus = new HashMap<>();
        
        for (Car car : cars) {
-           switch (car.getStatus().toLowerCase()) {
-               case "available":
-                   availableCarsCount++;
-                   break;
-               case "sold":
-                   soldCarsCount++;
-                   break;
-               case "reserved":
-                   reservedCarsCount++;
-                   break;
-           }
+           countCar(car);
+       }
+   }
+   
+   /**
+    * Add a car to the status counters
+    */
+   private void countCar(Car car) {
+       String status = car.getStatus().toLowerCase();
+       countedStatus.put(car.getId(), status);
+       adjustStatusCount(status, 1);
+   }
+   
+   /**
+    * Take a car off the status counters, using the status it was counted under
+    */
+   private void uncountCar(int carId) {
+       String status = countedStatus.remove(carId);
+       if (status != null) {
+           adjustStatusCount(status, -1);
+       }
+   }
+   
+   private void adjustStatusCount(String status, int delta) {
+       switch (status) {
+           case "available":
+               availableCarsCount += delta;
+               break;
+           case "sold":
+               soldCarsCount += delta;
+               break;
+           case "reserved":
+               reservedCarsCount += delta;
+               break;
        }
    }
    
@@ -1311,6 +1436,14 @@ public class CarManagement extends BaseUI {
        }
    }
    
+   /**
+    * Result of a background inventory load
+    */
+   private static class LoadedInventory {
+       List<Car> cars;
+       NGramIndex searchIndex;
+   }
+   
    /**
     * Inner class to represent a Car
     */
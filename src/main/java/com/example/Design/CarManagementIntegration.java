@@ -1,5 +1,6 @@
 package com.example.Design;
 
+import com.example.OOP.backend.Money;
 import java.util.ArrayList;
 import java.util.List;
 import java.math.BigDecimal;
@@ -111,15 +112,7 @@ public class CarManagementIntegration {
      */
     public List<CarManagement.Car> getCarsByStatus(String status) {
         try {
-            List<CarManagement.Car> cars = carManager.getAllCars();
-            List<CarManagement.Car> filteredCars = new ArrayList<>();
-            
-            // Convert from backend model to UI model
-            for (CarManagement.Car car : cars) {
-                if (status.equalsIgnoreCase(car.getStatus())) {
-                    filteredCars.add(car);
-                }
-            }
+            List<CarManagement.Car> filteredCars = carManager.getCarsByStatus(status);
             
             System.out.println("Retrieved " + filteredCars.size() + " cars with status '" + status + "'");
             return filteredCars;
@@ -130,6 +123,13 @@ public class CarManagementIntegration {
         }
     }
     
+    /**
+     * Get car by ID, or null if it no longer exists
+     */
+    public CarManagement.Car getCarIfPresent(int id) {
+        return carManager.getCarIfPresent(id);
+    }
+    
     /**
  * Get car by ID with enhanced error handling
  */
@@ -368,7 +368,7 @@ public boolean updateCar(CarManagement.Car car) {
             stats.soldCarCount = soldCars.size();
             stats.reservedCarCount = 0;
             
-            double totalSalesValue = 0.0;
+            long totalSalesCents = 0;
             
             // Count cars by status
             for (CarManagement.Car car : allCars) {
@@ -379,19 +379,18 @@ public boolean updateCar(CarManagement.Car car) {
                 }
             }
             
-            // Calculate sales value and average price
+            // Calculate sales value and average price from the prices parsed when the sales were recorded
             for (CarStatusManager.SoldCarRecord soldCar : soldCars) {
-                try {
-                    String priceStr = soldCar.getSalePrice().replace("$", "").replace(",", "");
-                    double price = Double.parseDouble(priceStr);
-                    totalSalesValue += price;
-                } catch (Exception e) {
-                    // Skip invalid prices
+                Money price = soldCar.getSalePriceAmount();
+                // Skip invalid prices
+                if (price != null) {
+                    totalSalesCents += price.getCents();
                 }
             }
             
-            stats.totalSalesValue = totalSalesValue;
-            stats.averageSalePrice = soldCars.size() > 0 ? totalSalesValue / soldCars.size() : 0;
+            Money totalSalesValue = Money.ofCents(totalSalesCents);
+            stats.totalSalesValue = totalSalesValue.toDouble();
+            stats.averageSalePrice = soldCars.size() > 0 ? totalSalesValue.dividedBy(soldCars.size()).toDouble() : 0;
             
             System.out.println("Retrieved sales statistics: " + stats);
             
@@ -1,24 +1,44 @@
 package com.example.Design;
 
+import com.example.OOP.backend.DataChangeEvents;
+import com.example.OOP.backend.Money;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * A simple implementation of CarStatusManager in case the original is not available
- * This can be used as a fallback to ensure the application compiles and runs
+ * In-memory repository of the cars shown by the UI.
+ * Cars are stored by ID in a ConcurrentHashMap, with a set of IDs per status
+ * so status queries don't scan every car. Readers get immutable snapshot lists
+ * that are rebuilt only after a write, so integrations can read without copying
+ * while a background refresh writes. Writes are serialized on the manager and
+ * publish a CARS change with the car's ID so open views can patch themselves.
  */
 public class CarStatusManager {
     private static CarStatusManager instance;
-    private List<CarManagement.Car> allCars;
-    private List<SoldCarRecord> soldCars;
+    
+    private static final Comparator<CarManagement.Car> BY_ID = Comparator.comparingInt(CarManagement.Car::getId);
+    
+    private final ConcurrentHashMap<Integer, CarManagement.Car> carsById = new ConcurrentHashMap<>();
+    // Lower-case status -> IDs of the cars with that status
+    private final ConcurrentHashMap<String, Set<Integer>> idsByStatus = new ConcurrentHashMap<>();
+    // Car ID -> its sale record, in the order the sales were recorded. Only
+    // touched under the manager's lock, which also builds the snapshots.
+    private final LinkedHashMap<Integer, SoldCarRecord> soldByCarId = new LinkedHashMap<>();
+    
+    // Copy-on-write views, dropped by every write and rebuilt by the next reader
+    private volatile Snapshot snapshot;
     
     /**
      * Default constructor
      */
     public CarStatusManager() {
-        allCars = new ArrayList<>();
-        soldCars = new ArrayList<>();
-        
         // Add some sample data
         initializeSampleData();
     }
@@ -38,112 +58,111 @@ public class CarStatusManager {
      */
     private void initializeSampleData() {
         // Sample cars - same as in CarManagement
-        allCars.add(new CarManagement.Car(1, "Toyota Camry", "2023", "Sedan", "Silver", "$28,500", "Available", "May 15, 2025", "placeholder_toyota.jpg"));
-        allCars.add(new CarManagement.Car(2, "Honda CR-V", "2023", "SUV", "White", "$32,000", "Available", "May 18, 2025", "placeholder_honda.jpg"));
-        allCars.add(new CarManagement.Car(3, "Ford F-150", "2022", "Truck", "Black", "$45,000", "Available", "May 20, 2025", "placeholder_ford.jpg"));
-        allCars.add(new CarManagement.Car(4, "BMW X5", "2023", "SUV", "Blue", "$62,000", "Sold", "May 10, 2025", "placeholder_bmw.jpg"));
-        allCars.add(new CarManagement.Car(5, "Chevrolet Malibu", "2022", "Sedan", "Red", "$26,000", "Reserved", "May 22, 2025", "placeholder_chevrolet.jpg"));
-        allCars.add(new CarManagement.Car(6, "Tesla Model 3", "2023", "Electric", "Black", "$47,000", "Available", "May 12, 2025", "placeholder_tesla.jpg"));
-        allCars.add(new CarManagement.Car(7, "Jeep Wrangler", "2023", "SUV", "Green", "$38,000", "Available", "May 25, 2025", "placeholder_jeep.jpg"));
-        allCars.add(new CarManagement.Car(8, "Nissan Altima", "2022", "Sedan", "Gray", "$25,000", "Available", "May 14, 2025", "placeholder_nissan.jpg"));
-        allCars.add(new CarManagement.Car(9, "Audi Q7", "2023", "SUV", "Black", "$58,000", "Available", "May 16, 2025", "placeholder_audi.jpg"));
-        allCars.add(new CarManagement.Car(10, "Kia Sorento", "2022", "SUV", "White", "$33,000", "Sold", "May 11, 2025", "placeholder_kia.jpg"));
+        addCar(new CarManagement.Car(1, "Toyota Camry", "2023", "Sedan", "Silver", "$28,500", "Available", "May 15, 2025", "placeholder_toyota.jpg"));
+        addCar(new CarManagement.Car(2, "Honda CR-V", "2023", "SUV", "White", "$32,000", "Available", "May 18, 2025", "placeholder_honda.jpg"));
+        addCar(new CarManagement.Car(3, "Ford F-150", "2022", "Truck", "Black", "$45,000", "Available", "May 20, 2025", "placeholder_ford.jpg"));
+        addCar(new CarManagement.Car(4, "BMW X5", "2023", "SUV", "Blue", "$62,000", "Sold", "May 10, 2025", "placeholder_bmw.jpg"));
+        addCar(new CarManagement.Car(5, "Chevrolet Malibu", "2022", "Sedan", "Red", "$26,000", "Reserved", "May 22, 2025", "placeholder_chevrolet.jpg"));
+        addCar(new CarManagement.Car(6, "Tesla Model 3", "2023", "Electric", "Black", "$47,000", "Available", "May 12, 2025", "placeholder_tesla.jpg"));
+        addCar(new CarManagement.Car(7, "Jeep Wrangler", "2023", "SUV", "Green", "$38,000", "Available", "May 25, 2025", "placeholder_jeep.jpg"));
+        addCar(new CarManagement.Car(8, "Nissan Altima", "2022", "Sedan", "Gray", "$25,000", "Available", "May 14, 2025", "placeholder_nissan.jpg"));
+        addCar(new CarManagement.Car(9, "Audi Q7", "2023", "SUV", "Black", "$58,000", "Available", "May 16, 2025", "placeholder_audi.jpg"));
+        addCar(new CarManagement.Car(10, "Kia Sorento", "2022", "SUV", "White", "$33,000", "Sold", "May 11, 2025", "placeholder_kia.jpg"));
         
-        // Initialize sold cars from cars that are already marked as sold
-        for (CarManagement.Car car : allCars) {
-            if ("Sold".equalsIgnoreCase(car.getStatus())) {
-                soldCars.add(new SoldCarRecord(car, "May 23, 2025", car.getPrice(), "John Doe", "555-0123", "Cash"));
-            }
+        // Cars that are already marked as sold get a sample sale record
+        for (Integer carId : idsFor("Sold")) {
+            CarManagement.Car car = carsById.get(carId);
+            soldByCarId.put(carId, new SoldCarRecord(car, "May 23, 2025", car.getPrice(), "John Doe", "555-0123", "Cash"));
         }
+        snapshot = null;
     }
     
     /**
-     * Get all cars
+     * Get all cars, ordered by ID. The list is a read-only snapshot.
      */
     public List<CarManagement.Car> getAllCars() {
-        return new ArrayList<>(allCars);
+        return snapshot().allCars;
     }
     
     /**
-     * Get available cars only (Available and Reserved)
+     * Get available cars only (Available and Reserved). The list is a read-only snapshot.
      */
     public List<CarManagement.Car> getAvailableCars() {
-        List<CarManagement.Car> availableCars = new ArrayList<>();
-        for (CarManagement.Car car : allCars) {
-            if ("Available".equalsIgnoreCase(car.getStatus()) || "Reserved".equalsIgnoreCase(car.getStatus())) {
-                availableCars.add(car);
-            }
+        return snapshot().availableCars;
+    }
+    
+    /**
+     * Get cars with the given status (case-insensitive). The list is a read-only snapshot.
+     */
+    public List<CarManagement.Car> getCarsByStatus(String status) {
+        if (status == null) {
+            return Collections.emptyList();
         }
-        return availableCars;
+        return snapshot().carsByStatus.getOrDefault(status.toLowerCase(), Collections.emptyList());
     }
     
     /**
-     * Get sold cars
+     * Get sold cars in the order they were sold. The list is a read-only snapshot.
      */
     public List<SoldCarRecord> getSoldCars() {
-        return new ArrayList<>(soldCars);
+        return snapshot().soldCars;
     }
     
     /**
-     * Find car by ID
+     * Get a car by ID, or null if there is none. Unlike findCarById this never
+     * creates a placeholder.
      */
-   /**
- * Find car by ID with enhanced error handling and debugging
- */
-public CarManagement.Car findCarById(int carId) {
-    System.out.println("Searching for car with ID " + carId + " among " + allCars.size() + " cars");
-    
-    if (allCars.isEmpty()) {
-        System.err.println("WARNING: Car list is empty in findCarById");
-        return null;
+    public CarManagement.Car getCarIfPresent(int carId) {
+        return carsById.get(carId);
     }
     
-    for (CarManagement.Car car : allCars) {
-        if (car.getId() == carId) {
-            System.out.println("Found car: " + car.getModel() + " (ID: " + carId + ")");
+    /**
+     * Find car by ID.
+     * On a miss a placeholder car with that ID is created and stored, so screens
+     * opened for a car that hasn't been loaded yet still have something to show.
+     */
+    public CarManagement.Car findCarById(int carId) {
+        CarManagement.Car car = carsById.get(carId);
+        if (car != null) {
             return car;
         }
+        
+        System.err.println("Car not found with ID " + carId + " (" + carsById.size() + " cars loaded), using placeholder");
+        
+        CarManagement.Car dummyCar = new CarManagement.Car(
+            carId, 
+            "Unknown Model", 
+            "2023", 
+            "Sedan", 
+            "Black", 
+            "$0", 
+            "Available", 
+            java.time.LocalDate.now().toString(), 
+            "placeholder_car.jpg"
+        );
+        synchronized (this) {
+            CarManagement.Car existing = carsById.get(carId);
+            if (existing != null) {
+                return existing;
+            }
+            putCar(dummyCar);
+        }
+        return dummyCar;
     }
     
-    // If not found, print all car IDs for debugging
-    System.err.println("Error: Car not found with ID: " + carId);
-    System.err.println("Available car IDs: ");
-    for (CarManagement.Car car : allCars) {
-        System.err.println("  - ID: " + car.getId() + ", Model: " + car.getModel());
-    }
-    
-    // As a fallback, return a new dummy car with this ID
-    // Comment this out if you don't want the fallback behavior
-    CarManagement.Car dummyCar = new CarManagement.Car(
-        carId, 
-        "Unknown Model", 
-        "2023", 
-        "Sedan", 
-        "Black", 
-        "$0", 
-        "Available", 
-        java.time.LocalDate.now().toString(), 
-        "placeholder_car.jpg"
-    );
-    System.out.println("Created dummy car with ID " + carId + " as fallback");
-    allCars.add(dummyCar); // Add to the list so it can be found next time
-    return dummyCar;
-    
-    // Return null if you don't want the fallback behavior
-    // return null;
-}
-    
     /**
      * Sell a car
      */
-    public boolean sellCar(int carId, String buyerName, String buyerContact, String salePrice, String paymentMethod) {
+    public synchronized boolean sellCar(int carId, String buyerName, String buyerContact, String salePrice, String paymentMethod) {
         CarManagement.Car carToSell = findCarById(carId);
         if (carToSell == null) {
             return false;
         }
         
-        // Update car status
+        // Update car status and move it to the sold bucket
+        unindexStatus(carToSell);
         carToSell.setStatus("Sold");
+        indexStatus(carToSell);
         
         // Create sold car record
         SoldCarRecord soldRecord = new SoldCarRecord(
@@ -155,60 +174,139 @@ public CarManagement.Car findCarById(int carId) {
             paymentMethod
         );
         
-        soldCars.add(soldRecord);
+        // A resale moves the car to the end, as the newest sale
+        soldByCarId.remove(carId);
+        soldByCarId.put(carId, soldRecord);
+        snapshot = null;
+        DataChangeEvents.publish(DataChangeEvents.Topic.CARS, carId);
         return true;
     }
     
     /**
      * Update car info
      */
-    public boolean updateCar(CarManagement.Car updatedCar) {
-        for (int i = 0; i < allCars.size(); i++) {
-            if (allCars.get(i).getId() == updatedCar.getId()) {
-                allCars.set(i, updatedCar);
-                
-                // Update in sold cars if needed
-                for (SoldCarRecord soldCar : soldCars) {
-                    if (soldCar.getCar().getId() == updatedCar.getId()) {
-                        soldCar.setCar(updatedCar);
-                    }
-                }
-                
-                return true;
-            }
+    public synchronized boolean updateCar(CarManagement.Car updatedCar) {
+        if (!carsById.containsKey(updatedCar.getId())) {
+            return false;
+        }
+        
+        putCar(updatedCar);
+        
+        // Update in sold cars if needed
+        SoldCarRecord soldCar = soldByCarId.get(updatedCar.getId());
+        if (soldCar != null) {
+            soldCar.setCar(updatedCar);
         }
-        return false;
+        DataChangeEvents.publish(DataChangeEvents.Topic.CARS, updatedCar.getId());
+        return true;
     }
     
     /**
-     * Add a new car
+     * Add a new car, or replace the car with the same ID
      */
-    public void addCar(CarManagement.Car car) {
-        // Ensure this car doesn't already exist
-        for (int i = 0; i < allCars.size(); i++) {
-            if (allCars.get(i).getId() == car.getId()) {
-                // Update existing car instead
-                allCars.set(i, car);
-                return;
-            }
-        }
-        
-        // Add as new car
-        allCars.add(car);
+    public synchronized void addCar(CarManagement.Car car) {
+        boolean isNew = putCar(car) == null;
         
         // If already sold, add to sold cars
-        if ("Sold".equalsIgnoreCase(car.getStatus())) {
-            soldCars.add(new SoldCarRecord(car, car.getDateAdded(), car.getPrice(), "Unknown", "N/A", "Cash"));
+        if (isNew && "Sold".equalsIgnoreCase(car.getStatus())) {
+            soldByCarId.put(car.getId(), new SoldCarRecord(car, car.getDateAdded(), car.getPrice(), "Unknown", "N/A", "Cash"));
         }
+        DataChangeEvents.publish(DataChangeEvents.Topic.CARS, car.getId());
     }
     
     /**
      * Remove a car
      */
-    public boolean removeCar(int carId) {
-        boolean removed = allCars.removeIf(car -> car.getId() == carId);
-        soldCars.removeIf(soldCar -> soldCar.getCar().getId() == carId);
-        return removed;
+    public synchronized boolean removeCar(int carId) {
+        CarManagement.Car removed = carsById.remove(carId);
+        if (removed != null) {
+            unindexStatus(removed);
+        }
+        soldByCarId.remove(carId);
+        snapshot = null;
+        if (removed != null) {
+            DataChangeEvents.publish(DataChangeEvents.Topic.CARS, carId);
+        }
+        return removed != null;
+    }
+    
+    /**
+     * Store a car and file it under its status. Caller holds the manager's lock.
+     * @return the car previously stored with that ID, or null
+     */
+    private CarManagement.Car putCar(CarManagement.Car car) {
+        CarManagement.Car previous = carsById.put(car.getId(), car);
+        if (previous != null) {
+            unindexStatus(previous);
+        }
+        indexStatus(car);
+        snapshot = null;
+        return previous;
+    }
+    
+    private void indexStatus(CarManagement.Car car) {
+        idsFor(car.getStatus()).add(car.getId());
+    }
+    
+    private void unindexStatus(CarManagement.Car car) {
+        // The car may have been edited in place, so drop its ID from every bucket
+        for (Set<Integer> ids : idsByStatus.values()) {
+            ids.remove(car.getId());
+        }
+    }
+    
+    private Set<Integer> idsFor(String status) {
+        String key = status != null ? status.toLowerCase() : "";
+        return idsByStatus.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet());
+    }
+    
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (snapshot == null) {
+                snapshot = new Snapshot();
+            }
+            return snapshot;
+        }
+    }
+    
+    /**
+     * Immutable lists built from the maps at one point in time
+     */
+    private final class Snapshot {
+        final List<CarManagement.Car> allCars;
+        final List<CarManagement.Car> availableCars;
+        final Map<String, List<CarManagement.Car>> carsByStatus = new HashMap<>();
+        final List<SoldCarRecord> soldCars;
+        
+        Snapshot() {
+            List<CarManagement.Car> all = new ArrayList<>(carsById.values());
+            all.sort(BY_ID);
+            allCars = Collections.unmodifiableList(all);
+            
+            for (Map.Entry<String, Set<Integer>> entry : idsByStatus.entrySet()) {
+                List<CarManagement.Car> cars = new ArrayList<>(entry.getValue().size());
+                for (Integer id : entry.getValue()) {
+                    CarManagement.Car car = carsById.get(id);
+                    if (car != null) {
+                        cars.add(car);
+                    }
+                }
+                cars.sort(BY_ID);
+                carsByStatus.put(entry.getKey(), Collections.unmodifiableList(cars));
+            }
+            
+            List<CarManagement.Car> available = new ArrayList<>(carsByStatus.getOrDefault("available", List.of()));
+            available.addAll(carsByStatus.getOrDefault("reserved", List.of()));
+            available.sort(BY_ID);
+            availableCars = Collections.unmodifiableList(available);
+            
+            List<SoldCarRecord> sold = new ArrayList<>(soldByCarId.values());
+            soldCars = Collections.unmodifiableList(sold);
+        }
     }
     
     /**
@@ -218,6 +316,8 @@ public CarManagement.Car findCarById(int carId) {
         private CarManagement.Car car;
         private String saleDate;
         private String salePrice;
+        // salePrice parsed once, or null if it is not an amount
+        private Money salePriceAmount;
         private String buyerName;
         private String buyerContact;
         private String paymentMethod;
@@ -227,7 +327,7 @@ public CarManagement.Car findCarById(int carId) {
                            String buyerName, String buyerContact, String paymentMethod) {
             this.car = car;
             this.saleDate = saleDate;
-            this.salePrice = salePrice;
+            setSalePrice(salePrice);
             this.buyerName = buyerName;
             this.buyerContact = buyerContact;
             this.paymentMethod = paymentMethod;
@@ -238,6 +338,8 @@ public CarManagement.Car findCarById(int carId) {
         public CarManagement.Car getCar() { return car; }
         public String getSaleDate() { return saleDate; }
         public String getSalePrice() { return salePrice; }
+        /** Null if the sale price is not an amount */
+        public Money getSalePriceAmount() { return salePriceAmount; }
         public String getBuyerName() { return buyerName; }
         public String getBuyerContact() { return buyerContact; }
         public String getPaymentMethod() { return paymentMethod; }
@@ -245,10 +347,24 @@ public CarManagement.Car findCarById(int carId) {
         
         public void setCar(CarManagement.Car car) { this.car = car; }
         public void setSaleDate(String saleDate) { this.saleDate = saleDate; }
-        public void setSalePrice(String salePrice) { this.salePrice = salePrice; }
+        public void setSalePrice(String salePrice) {
+            this.salePrice = salePrice;
+            this.salePriceAmount = parseAmount(salePrice);
+        }
         public void setBuyerName(String buyerName) { this.buyerName = buyerName; }
         public void setBuyerContact(String buyerContact) { this.buyerContact = buyerContact; }
         public void setPaymentMethod(String paymentMethod) { this.paymentMethod = paymentMethod; }
         public void setNotes(String notes) { this.notes = notes; }
+        
+        private static Money parseAmount(String text) {
+            if (text == null) {
+                return null;
+            }
+            try {
+                return Money.parse(text);
+            } catch (NumberFormatException | ArithmeticException e) {
+                return null;
+            }
+        }
     }
 }
\ No newline at end of file
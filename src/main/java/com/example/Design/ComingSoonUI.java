@@ -8,7 +8,6 @@ import java.awt.Dimension;
 import java.awt.FlowLayout;
 import java.awt.Font;
 import java.awt.GridLayout;
-import java.awt.Image;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.util.ArrayList;
@@ -19,7 +18,6 @@ import java.util.Map;
 import javax.swing.BorderFactory;
 import javax.swing.Box;
 import javax.swing.BoxLayout;
-import javax.swing.ImageIcon;
 import javax.swing.JButton;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
@@ -267,21 +265,11 @@ public class ComingSoonUI extends BaseUI {
         imageLabel.setHorizontalAlignment(SwingConstants.CENTER);
         imageLabel.setVerticalAlignment(SwingConstants.CENTER);
         
-        try {
-            // Try to load the actual image
-            ImageIcon originalIcon = new ImageIcon(car.getImagePath());
-            if (originalIcon.getIconWidth() > 0) {
-                Image scaledImage = originalIcon.getImage().getScaledInstance(240, 160, Image.SCALE_SMOOTH);
-                imageLabel.setIcon(new ImageIcon(scaledImage));
-            } else {
-                throw new Exception("Image not found");
-            }
-        } catch (Exception e) {
-            // Use placeholder if image not found
-            imageLabel.setText("🚗");
-            imageLabel.setFont(new Font("Arial", Font.PLAIN, 60));
-            imageLabel.setForeground(new Color(150, 150, 150));
-        }
+        // Placeholder stays if the image is not found
+        imageLabel.setText("🚗");
+        imageLabel.setFont(new Font("Arial", Font.PLAIN, 60));
+        imageLabel.setForeground(new Color(150, 150, 150));
+        ThumbnailCache.getInstance().load(imageLabel, car.getImagePath(), 240, 160);
         
         imagePanel.add(imageLabel, BorderLayout.CENTER);
         
@@ -1,9 +1,14 @@
 package com.example.Design;
 
+import com.example.Database.DBConfig;
+import com.example.Database.DatabaseConnection;
 import com.example.OOP.backend.*;
 import java.math.BigDecimal;
 import java.sql.Timestamp;
 import java.util.Calendar;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Integration class for Dashboard UI to connect with backend database
@@ -15,6 +20,14 @@ public class DashboardIntegration {
     private SalesDAO salesDAO;
     private AuditLogDAO auditLogDAO;
     
+    // Stats cache: fresh for the TTL, then served stale while a background refresh runs.
+    // Car and sale writes bump dataVersion, which makes the cached stats unusable.
+    private final long statsTtlNanos = TimeUnit.SECONDS.toNanos(DBConfig.DASHBOARD_STATS_TTL_SECONDS);
+    private final AtomicLong dataVersion = new AtomicLong();
+    private volatile CachedStats cachedStats;
+    private CompletableFuture<DashboardStats> pendingRefresh;
+    private long pendingVersion;
+    
     private DashboardIntegration() {
         try {
             this.carDAO = new CarDAO();
@@ -24,9 +37,11 @@ public class DashboardIntegration {
             System.err.println("Error initializing DAOs: " + e.getMessage());
             e.printStackTrace();
         }
+        
+        DataChangeEvents.addListener(change -> invalidateCache());
     }
     
-    public static DashboardIntegration getInstance() {
+    public static synchronized DashboardIntegration getInstance() {
         if (instance == null) {
             instance = new DashboardIntegration();
         }
@@ -34,34 +49,89 @@ public class DashboardIntegration {
     }
     
     /**
-     * Get dashboard statistics from database
+     * Get dashboard statistics.
+     * Served from the cache while it is fresh. Once the TTL has passed the cached
+     * stats are still returned and a background refresh is started; after a car
+     * or sale write the caller waits for fresh stats instead.
      */
     public DashboardStats getDashboardStats() {
-        // Always initialize stats object first
+        CachedStats cached = cachedStats;
+        if (cached != null && cached.version == dataVersion.get()) {
+            if (System.nanoTime() - cached.loadedAt >= statsTtlNanos) {
+                refreshAsync();
+            }
+            return cached.stats;
+        }
+        
+        DashboardStats stats = refreshAsync().join();
+        return stats != null ? stats : getDefaultStats();
+    }
+    
+    /**
+     * Drop the cached stats and reload them from the database
+     */
+    public DashboardStats refreshDashboardStats() {
+        invalidateCache();
+        return getDashboardStats();
+    }
+    
+    /**
+     * Mark the cached stats as out of date. If the dashboard has been loaded
+     * before, new stats are loaded in the background so the next open is instant.
+     */
+    public void invalidateCache() {
+        dataVersion.incrementAndGet();
+        if (cachedStats != null) {
+            refreshAsync();
+        }
+    }
+    
+    /**
+     * Start a reload unless one that started after the latest write is already running, and return it
+     */
+    private synchronized CompletableFuture<DashboardStats> refreshAsync() {
+        long version = dataVersion.get();
+        if (pendingRefresh != null && !pendingRefresh.isDone() && pendingVersion == version) {
+            return pendingRefresh;
+        }
+        pendingVersion = version;
+        pendingRefresh = CompletableFuture.supplyAsync(() -> {
+            DashboardStats stats = loadDashboardStats();
+            if (stats != null) {
+                storeIfNewer(new CachedStats(stats, version, System.nanoTime()));
+            }
+            return stats;
+        }, task -> Thread.ofVirtual().name("dashboard-stats-refresh").start(task));
+        return pendingRefresh;
+    }
+    
+    private synchronized void storeIfNewer(CachedStats loaded) {
+        if (cachedStats == null || loaded.version >= cachedStats.version) {
+            cachedStats = loaded;
+        }
+    }
+    
+    /**
+     * Load dashboard statistics from the database
+     * @return the stats, or null if the database could not be read
+     */
+    private DashboardStats loadDashboardStats() {
         DashboardStats stats = new DashboardStats();
         
         try {
             // Check if DAOs are properly initialized
             if (carDAO == null || salesDAO == null) {
                 System.err.println("DAOs not properly initialized, using default values");
-                return getDefaultStats();
+                return null;
             }
             
             // Test database connection first
             if (!testDatabaseConnection()) {
                 System.err.println("Database connection test failed, using default values");
-                return getDefaultStats();
+                return null;
             }
             
-            // Get car statistics
-            stats.availableCars = carDAO.getCarCountByStatus(Car.CarStatus.AVAILABLE);
-            stats.soldCars = carDAO.getCarCountByStatus(Car.CarStatus.SOLD);
-            stats.totalCars = carDAO.getTotalCarCount();
-            
-            // Get coming soon cars count (placeholder for now)
-            stats.comingSoonCars = 8; // You can implement ComingSoonDAO later
-            
-            // Get today's sales
+            // Get today's sales range
             Calendar cal = Calendar.getInstance();
             cal.set(Calendar.HOUR_OF_DAY, 0);
             cal.set(Calendar.MINUTE, 0);
@@ -72,14 +142,7 @@ public class DashboardIntegration {
             cal.add(Calendar.DAY_OF_MONTH, 1);
             Timestamp tomorrowStart = new Timestamp(cal.getTimeInMillis());
             
-            SalesDAO.SalesStats todayStats = salesDAO.getSalesStats(todayStart, tomorrowStart);
-            if (todayStats != null) {
-                stats.soldToday = todayStats.getTotalSales();
-                stats.totalRevenue = todayStats.getTotalRevenue() != null ? 
-                    todayStats.getTotalRevenue().doubleValue() : 0.0;
-            }
-            
-            // Get monthly statistics
+            // Get monthly range (month start through end of today, so it is served from the daily rollup)
             cal = Calendar.getInstance();
             cal.set(Calendar.DAY_OF_MONTH, 1);
             cal.set(Calendar.HOUR_OF_DAY, 0);
@@ -88,7 +151,30 @@ public class DashboardIntegration {
             cal.set(Calendar.MILLISECOND, 0);
             Timestamp monthStart = new Timestamp(cal.getTimeInMillis());
             
-            SalesDAO.SalesStats monthStats = salesDAO.getSalesStats(monthStart, new Timestamp(System.currentTimeMillis()));
+            // The queries are independent, so run them concurrently and join
+            DatabaseConnection db = DatabaseConnection.getInstance();
+            CompletableFuture<CarDAO.InventoryCounts> countsFuture = db.supplyAsync(() -> carDAO.getInventoryCounts(30));
+            CompletableFuture<SalesDAO.SalesStats> todayFuture = db.supplyAsync(() -> salesDAO.getSalesStats(todayStart, tomorrowStart));
+            CompletableFuture<SalesDAO.SalesStats> monthFuture = db.supplyAsync(() -> salesDAO.getSalesStats(monthStart, tomorrowStart));
+            
+            // Get car statistics
+            CarDAO.InventoryCounts counts = countsFuture.join();
+            stats.availableCars = counts.getAvailableCars();
+            stats.soldCars = counts.getSoldCars();
+            stats.totalCars = counts.getTotalCars();
+            
+            // Get coming soon cars count (placeholder for now)
+            stats.comingSoonCars = 8; // You can implement ComingSoonDAO later
+            
+            SalesDAO.SalesStats todayStats = todayFuture.join();
+            if (todayStats != null) {
+                stats.soldToday = todayStats.getTotalSales();
+                stats.totalRevenue = todayStats.getTotalRevenue() != null ? 
+                    todayStats.getTotalRevenue().doubleValue() : 0.0;
+            }
+            
+            // Get monthly statistics
+            SalesDAO.SalesStats monthStats = monthFuture.join();
             if (monthStats != null) {
                 stats.monthlySales = monthStats.getTotalSales();
                 stats.monthlyRevenue = monthStats.getTotalRevenue() != null ? 
@@ -105,8 +191,8 @@ public class DashboardIntegration {
             System.err.println("Error loading dashboard stats: " + e.getMessage());
             e.printStackTrace();
             
-            // Return default stats if any error occurs
-            return getDefaultStats();
+            // Caller falls back to default stats
+            return null;
         }
         
         return stats;
@@ -131,23 +217,25 @@ public class DashboardIntegration {
     }
     
     /**
-     * Test database connection
+     * Test database connection.
+     * Validates a pooled connection rather than running a count query.
      */
     private boolean testDatabaseConnection() {
-        try {
-            if (carDAO == null) {
-                System.err.println("CarDAO is null");
-                return false;
-            }
-            
-            // Try a simple query to test connection
-            int testCount = carDAO.getTotalCarCount();
-            System.out.println("Database connection test successful. Total cars: " + testCount);
-            return true;
-        } catch (Exception e) {
-            System.err.println("Database connection test failed: " + e.getMessage());
-            e.printStackTrace();
-            return false;
+        return DatabaseConnection.testConnection();
+    }
+    
+    /**
+     * Stats plus the data version and time they were loaded at
+     */
+    private static class CachedStats {
+        final DashboardStats stats;
+        final long version;
+        final long loadedAt;
+        
+        CachedStats(DashboardStats stats, long version, long loadedAt) {
+            this.stats = stats;
+            this.version = version;
+            this.loadedAt = loadedAt;
         }
     }
     
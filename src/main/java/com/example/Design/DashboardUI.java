@@ -29,12 +29,17 @@ public class DashboardUI extends BaseUI {
     private DashboardIntegration integration;
     private DashboardIntegration.DashboardStats dashboardStats;
     
+    // False until the first background load completes; values render as
+    // placeholders until then. No initializer, as createContentPanel runs
+    // inside the BaseUI constructor.
+    private boolean statsLoaded;
+    
     /**
      * Default constructor
      */
     public DashboardUI() {
         super();
-        initializeDashboard();
+        loadDashboardData();
     }
     
     /**
@@ -43,7 +48,7 @@ public class DashboardUI extends BaseUI {
      */
     public DashboardUI(int adminId) {
         super(adminId);
-        initializeDashboard();
+        loadDashboardData();
         setVisible(true);
     }
     
@@ -52,10 +57,9 @@ public class DashboardUI extends BaseUI {
      */
     private void initializeDashboard() {
         this.integration = DashboardIntegration.getInstance();
-        // Create default stats first to ensure it's never null
+        // Create default stats first to ensure it's never null;
+        // loadDashboardData replaces them once the database responds
         this.dashboardStats = createDefaultStats();
-        // Then try to load from database
-        loadDashboardData();
     }
     
     /**
@@ -70,30 +74,41 @@ public class DashboardUI extends BaseUI {
     }
     
     /**
-     * Load dashboard data from database
+     * Load dashboard data from database.
+     * The query runs off the Event Dispatch Thread and the panel is rebuilt
+     * when it completes.
      */
     private void loadDashboardData() {
-        try {
-            System.out.println("Loading dashboard data from database...");
-            
-            if (integration == null) {
-                integration = DashboardIntegration.getInstance();
-            }
-            
-            DashboardIntegration.DashboardStats newStats = integration.getDashboardStats();
-            
-            if (newStats != null) {
-                dashboardStats = newStats;
-                System.out.println("Dashboard data loaded successfully from database");
-            } else {
-                System.err.println("Integration returned null stats, keeping default stats");
-            }
-            
-        } catch (Exception e) {
-            System.err.println("Error loading dashboard data: " + e.getMessage());
-            e.printStackTrace();
-            // Keep the default stats on error
+        System.out.println("Loading dashboard data from database...");
+        loadInBackground("dashboard", () -> integration.getDashboardStats(), this::applyDashboardStats);
+    }
+    
+    /**
+     * Show loaded stats, keeping the defaults if none were returned
+     */
+    private void applyDashboardStats(DashboardIntegration.DashboardStats newStats) {
+        if (newStats != null) {
+            dashboardStats = newStats;
+            System.out.println("Dashboard data loaded successfully from database");
+        } else {
+            System.err.println("Integration returned null stats, keeping default stats");
         }
+        statsLoaded = true;
+        rebuildContentPanel();
+    }
+    
+    /**
+     * Stat value, or a placeholder while the first load is running
+     */
+    private String statValue(int value) {
+        return statsLoaded ? Integer.toString(value) : "…";
+    }
+    
+    /**
+     * Currency stat value, or a placeholder while the first load is running
+     */
+    private String statCurrency(double amount) {
+        return statsLoaded ? formatCurrency(amount) : "…";
     }
     
     /**
@@ -197,18 +212,15 @@ public class DashboardUI extends BaseUI {
         refreshButton.addActionListener(new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent e) {
-                // Reload data from database
-                loadDashboardData();
-                
-                // Show loading message
-                JOptionPane.showMessageDialog(DashboardUI.this,
-                    "Dashboard data refreshed from database!",
-                    "Refresh Complete",
-                    JOptionPane.INFORMATION_MESSAGE);
-                
-                // Recreate the dashboard with new data
-                dispose();
-                SwingUtilities.invokeLater(() -> new DashboardUI(adminId).setVisible(true));
+                // Reload data from database, bypassing the stats cache,
+                // and rebuild the dashboard in place with the new data
+                loadInBackground("dashboard", () -> integration.refreshDashboardStats(), newStats -> {
+                    applyDashboardStats(newStats);
+                    JOptionPane.showMessageDialog(DashboardUI.this,
+                        "Dashboard data refreshed from database!",
+                        "Refresh Complete",
+                        JOptionPane.INFORMATION_MESSAGE);
+                });
             }
         });
         
@@ -230,13 +242,13 @@ public class DashboardUI extends BaseUI {
         
         // Add overview cards with real database statistics
         overviewCardsPanel.add(createOverviewCard("Available Cars", 
-            Integer.toString(dashboardStats.availableCars), PRIMARY_BLUE));
+            statValue(dashboardStats.availableCars), PRIMARY_BLUE));
         overviewCardsPanel.add(createOverviewCard("Coming Soon", 
-            Integer.toString(dashboardStats.comingSoonCars), PRIMARY_YELLOW));
+            statValue(dashboardStats.comingSoonCars), PRIMARY_YELLOW));
         overviewCardsPanel.add(createOverviewCard("Sold Today", 
-            Integer.toString(dashboardStats.soldToday), PRIMARY_GREEN));
+            statValue(dashboardStats.soldToday), PRIMARY_GREEN));
         overviewCardsPanel.add(createOverviewCard("Total Revenue", 
-            formatCurrency(dashboardStats.totalRevenue), PRIMARY_RED));
+            statCurrency(dashboardStats.totalRevenue), PRIMARY_RED));
         
         overviewPanel.add(overviewLabel, BorderLayout.NORTH);
         overviewPanel.add(overviewCardsPanel, BorderLayout.CENTER);
@@ -256,7 +268,7 @@ public class DashboardUI extends BaseUI {
         
         // Add tool cards with action listeners
         JPanel carsCard = createToolCard("Car Inventory", 
-            "Search and manage " + dashboardStats.totalCars + " vehicles", PRIMARY_BLUE);
+            "Search and manage " + statValue(dashboardStats.totalCars) + " vehicles", PRIMARY_BLUE);
         JButton carsButton = getAccessButtonFromToolCard(carsCard);
         carsButton.addActionListener(e -> navigateTo("Car Inventory"));
         
@@ -265,17 +277,17 @@ public class DashboardUI extends BaseUI {
         addCarButton.addActionListener(e -> navigateTo("Add New Car"));
         
         JPanel soldCarsCard = createToolCard("Sold Cars", 
-            "Review " + dashboardStats.soldCars + " sold vehicles", PRIMARY_GREEN);
+            "Review " + statValue(dashboardStats.soldCars) + " sold vehicles", PRIMARY_GREEN);
         JButton soldCarsButton = getAccessButtonFromToolCard(soldCarsCard);
         soldCarsButton.addActionListener(e -> navigateTo("Sold Cars"));
         
         JPanel comingSoonCard = createToolCard("Coming Soon Cars", 
-            "Manage " + dashboardStats.comingSoonCars + " pending arrivals", PRIMARY_RED);
+            "Manage " + statValue(dashboardStats.comingSoonCars) + " pending arrivals", PRIMARY_RED);
         JButton comingSoonButton = getAccessButtonFromToolCard(comingSoonCard);
         comingSoonButton.addActionListener(e -> navigateTo("Coming Soon"));
         
         JPanel economicCard = createToolCard("Economic Reports", 
-            "Monthly revenue: " + formatCurrency(dashboardStats.monthlyRevenue), PRIMARY_YELLOW);
+            "Monthly revenue: " + statCurrency(dashboardStats.monthlyRevenue), PRIMARY_YELLOW);
         JButton economicButton = getAccessButtonFromToolCard(economicCard);
         economicButton.addActionListener(e -> navigateTo("Economic"));
         
@@ -359,7 +371,7 @@ public class DashboardUI extends BaseUI {
         
         // Create status indicator
         boolean dbConnected = dashboardStats != null && dashboardStats.totalCars >= 0;
-        String statusText = dbConnected ? 
+        String statusText = !statsLoaded ? "⏳ Loading data from database..." : dbConnected ? 
             "✅ Connected - Last updated: " + java.time.LocalDateTime.now().format(
                 java.time.format.DateTimeFormatter.ofPattern("MMM dd, yyyy HH:mm:ss")) :
             "⚠️ Using sample data - Database connection unavailable";
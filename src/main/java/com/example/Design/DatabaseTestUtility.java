@@ -1,8 +1,11 @@
 package com.example.Design;
 
 import com.example.Database.DatabaseConnection;
+import com.example.OOP.backend.QueryPlanCheck;
 import javax.swing.JOptionPane;
 import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
 
 /**
  * Utility class for testing database connections
@@ -21,8 +24,11 @@ public class DatabaseTestUtility {
             
             if (connected) {
                 // Try to get connection and test with a simple query
-                Connection conn = dbConnection.getConnection();
-                if (conn != null && !conn.isClosed()) {
+                boolean valid;
+                try (Connection conn = dbConnection.getConnection()) {
+                    valid = conn != null && conn.isValid(2);
+                }
+                if (valid) {
                     JOptionPane.showMessageDialog(null,
                         "✅ Database Connection Successful!\n\n" +
                         "Status: Connected\n" +
@@ -64,8 +70,9 @@ public class DatabaseTestUtility {
             boolean connected = dbConnection.connect();
             
             if (connected) {
-                Connection conn = dbConnection.getConnection();
-                return conn != null && !conn.isClosed();
+                try (Connection conn = dbConnection.getConnection()) {
+                    return conn != null && !conn.isClosed();
+                }
             }
             return false;
             
@@ -74,4 +81,13 @@ public class DatabaseTestUtility {
             return false;
         }
     }
-}
\ No newline at end of file
+    
+    /**
+     * Run EXPLAIN on the SQL the DAOs run on their hot paths and report any full
+     * table scan of a large table. An empty list means every plan uses an index.
+     * See QueryPlanCheck.
+     */
+    public static List<String> checkQueryPlans() throws SQLException {
+        return QueryPlanCheck.findFullScans();
+    }
+}
@@ -1,10 +1,18 @@
 package com.example.Design;
 
 import com.example.OOP.backend.*;
-import java.sql.Timestamp;
+import java.io.File;
+import java.io.IOException;
+import java.sql.Date;
+import java.sql.SQLException;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.util.Calendar;
 
 /**
@@ -13,15 +21,21 @@ import java.util.Calendar;
 public class EconomicIntegration {
     
     private static EconomicIntegration instance;
-    private SalesDAO salesDAO;
+    private FinancialLedgerDAO ledgerDAO;
     private CarDAO carDAO;
     private AuditLogDAO auditLogDAO;
+    private ExpenseDAO expenseDAO;
+    private EconomicReportDAO reportDAO;
     private int currentStaffId = 1;
     
     private EconomicIntegration() {
-        this.salesDAO = new SalesDAO();
+        this.ledgerDAO = new FinancialLedgerDAO();
         this.carDAO = new CarDAO();
         this.auditLogDAO = new AuditLogDAO();
+        this.expenseDAO = new ExpenseDAO();
+        this.reportDAO = new EconomicReportDAO();
+        // Keeps economic_reports finalized up to yesterday
+        EconomicReportScheduler.getInstance();
     }
     
     public static EconomicIntegration getInstance() {
@@ -36,355 +50,226 @@ public class EconomicIntegration {
     }
     
     /**
-     * Get financial data for a specific month
+     * Get financial data for a specific month, e.g. "May 2025".
+     * A closed month is read from its economic_reports snapshot; the current
+     * month, or one not finalized yet, is summed from the ledger.
      */
     public FinancialData getMonthlyFinancialData(String monthYear) {
-        FinancialData data = new FinancialData();
-        String[] parts = monthYear.split(" ");
-        
-        try {
-            System.out.println("Fetching financial data for " + monthYear + "...");
-            
-            // Parse month and year
-            int month = getMonthNumber(parts[0]);
-            int year = Integer.parseInt(parts[1]);
-            
-            // Set date range for the month
-            Calendar cal = Calendar.getInstance();
-            cal.set(year, month - 1, 1, 0, 0, 0); // Month is 0-based in Calendar
-            Timestamp startDate = new Timestamp(cal.getTimeInMillis());
-            
-            cal.add(Calendar.MONTH, 1);
-            cal.add(Calendar.DAY_OF_MONTH, -1);
-            cal.set(Calendar.HOUR_OF_DAY, 23);
-            cal.set(Calendar.MINUTE, 59);
-            cal.set(Calendar.SECOND, 59);
-            Timestamp endDate = new Timestamp(cal.getTimeInMillis());
-            
-            System.out.println("Date range: " + startDate + " to " + endDate);
-            
-            // Get sales statistics for the month
-            SalesDAO.SalesStats salesStats = salesDAO.getSalesStats(startDate, endDate);
-            
-            // Set revenue and profit from sales
-            data.monthlyRevenue = salesStats.getTotalRevenue().doubleValue();
-            data.monthlyProfit = salesStats.getTotalProfit().doubleValue();
-            
-            // Calculate car costs (revenue - profit)
-            data.monthlyCosts = data.monthlyRevenue - data.monthlyProfit;
-            
-            // Calculate operational expenses (for now, use a percentage of revenue)
-            // In a real implementation, you'd fetch actual expenses from a database
-            data.monthlyExpenses = data.monthlyRevenue * 0.15; // 15% of revenue as expenses
-            
-            // Recalculate profit after expenses
-            data.monthlyProfit = data.monthlyProfit - data.monthlyExpenses;
-            
-            System.out.println("Financial data retrieved from database:");
-            System.out.println("Monthly Revenue: " + data.monthlyRevenue);
-            System.out.println("Monthly Costs: " + data.monthlyCosts);
-            System.out.println("Monthly Expenses: " + data.monthlyExpenses);
-            System.out.println("Monthly Profit: " + data.monthlyProfit);
-            
-        } catch (Exception e) {
-            System.err.println("Error getting monthly financial data: " + e.getMessage());
-            e.printStackTrace();
-            
-            // If database access fails, fallback to calculating from CarStatusManager
-            try {
-                List<CarStatusManager.SoldCarRecord> soldCars = CarStatusManager.getInstance().getSoldCars();
-                
-                // Filter to current month (if applicable)
-                String currentMonth = parts[0];
-                
-                double revenue = 0;
-                double costs = 0;
-                
-                for (CarStatusManager.SoldCarRecord soldCar : soldCars) {
-                    if (soldCar.getSaleDate().contains(currentMonth)) {
-                        // Parse sale price
-                        String priceStr = soldCar.getSalePrice().replace("$", "").replace(",", "");
-                        try {
-                            double price = Double.parseDouble(priceStr);
-                            revenue += price;
-                            
-                            // Estimate cost as 80% of sale price
-                            costs += price * 0.8;
-                        } catch (NumberFormatException nfe) {
-                            // Skip invalid prices
-                        }
-                    }
-                }
-                
-                data.monthlyRevenue = revenue;
-                data.monthlyCosts = costs;
-                data.monthlyExpenses = revenue * 0.15; // 15% of revenue as expenses
-                data.monthlyProfit = revenue - costs - data.monthlyExpenses;
-                
-                System.out.println("Financial data calculated from CarStatusManager (fallback):");
-                System.out.println("Monthly Revenue: " + data.monthlyRevenue);
-                System.out.println("Monthly Costs: " + data.monthlyCosts);
-                System.out.println("Monthly Expenses: " + data.monthlyExpenses);
-                System.out.println("Monthly Profit: " + data.monthlyProfit);
-                
-            } catch (Exception fallbackEx) {
-                System.err.println("Fallback to CarStatusManager also failed: " + fallbackEx.getMessage());
-                
-                // Provide sample data if all else fails (for demo purposes)
-                data.monthlyRevenue = 75000;
-                data.monthlyCosts = 60000;
-                data.monthlyExpenses = 10000;
-                data.monthlyProfit = data.monthlyRevenue - data.monthlyCosts - data.monthlyExpenses;
-                
-                System.out.println("Using default sample financial data");
+        LocalDate start = getMonthStart(monthYear);
+        LocalDate end = start.plusMonths(1);
+        if (!end.isAfter(LocalDate.now())) {
+            EconomicReport report = reportDAO.getReport(EconomicReport.ReportType.MONTHLY, start);
+            if (report != null) {
+                return toFinancialData(report);
             }
         }
-        
+        return getFinancialReport(start, end).getTotals();
+    }
+    
+    /**
+     * Get financial data for [startDate, endDate)
+     */
+    public FinancialData getFinancialDataByDateRange(LocalDate startDate, LocalDate endDate) {
+        return getFinancialReport(startDate, endDate).getTotals();
+    }
+    
+    /**
+     * Get totals and table rows for a specific month, e.g. "May 2025"
+     */
+    public FinancialReport getMonthlyFinancialReport(String monthYear) {
+        LocalDate start = getMonthStart(monthYear);
+        return getFinancialReport(start, start.plusMonths(1));
+    }
+    
+    /**
+     * Totals of a finalized period. The snapshot keeps revenue, expenses and
+     * profit, so car costs plus sales tax are what the profit leaves over.
+     */
+    private FinancialData toFinancialData(EconomicReport report) {
+        FinancialData data = new FinancialData();
+        data.revenueCents = Money.toCents(report.getTotalSales());
+        data.expensesCents = Money.toCents(report.getTotalExpenses());
+        data.profitCents = Money.toCents(report.getProfit());
+        data.costsCents = data.revenueCents - data.expensesCents - data.profitCents;
         return data;
     }
     
     /**
-     * Get financial records for display in table
+     * Get totals and table rows for [startDate, endDate) from one ledger
+     * query. Each day gets a revenue, car cost and sales tax row for its
+     * sales and one row per expense type and status.
      */
-    public List<EconomicUI.FinancialRecord> getFinancialRecords(String monthYear) {
+    public FinancialReport getFinancialReport(LocalDate startDate, LocalDate endDate) {
+        System.out.println("Fetching financial report for " + startDate + " to " + endDate + "...");
+        FinancialLedgerDAO.Ledger ledger = ledgerDAO.getLedger(startDate, endDate);
+        
+        FinancialData totals = new FinancialData();
+        totals.revenueCents = ledger.getRevenueCents();
+        totals.costsCents = ledger.getCarCostCents() + ledger.getTaxCents();
+        totals.expensesCents = ledger.getExpenseCents();
+        totals.profitCents = ledger.getProfitCents();
+        
         List<EconomicUI.FinancialRecord> records = new ArrayList<>();
-        String[] parts = monthYear.split(" ");
-        int year = 0;
-        try {
-            System.out.println("Fetching financial records for " + monthYear + "...");
-            
-            // Parse month and year
-            int month = getMonthNumber(parts[0]);
-            year = Integer.parseInt(parts[1]);
-            
-            // Set date range
-            Calendar cal = Calendar.getInstance();
-            cal.set(year, month - 1, 1, 0, 0, 0);
-            Timestamp startDate = new Timestamp(cal.getTimeInMillis());
-            
-            cal.add(Calendar.MONTH, 1);
-            Timestamp endDate = new Timestamp(cal.getTimeInMillis());
-            
-            // Get sales for the month
-            SalesDAO.SalesFilter filter = new SalesDAO.SalesFilter();
-            filter.setStartDate(startDate);
-            filter.setEndDate(endDate);
-            List<Sale> sales = salesDAO.getSales(filter);
-            
-            System.out.println("Found " + sales.size() + " sales for " + monthYear);
-            
-            // Create financial records from sales
-            for (Sale sale : sales) {
-                // Get car information
-                String carName = "Unknown Vehicle";
-                BigDecimal carCost = BigDecimal.ZERO;
-                
-                if (sale.getCar() != null) {
-                    carName = sale.getCar().getDisplayName();
-                    carCost = sale.getCar().getCost() != null ? sale.getCar().getCost() : BigDecimal.ZERO;
-                }
-                
-                // Format the sale date
-                String formattedDate = sale.getFormattedSaleDate();
-                
-                // Add revenue record
-                records.add(new EconomicUI.FinancialRecord(
-                    formattedDate,
-                    "Revenue",
-                    "Car Sale: " + carName,
-                    "+" + sale.getFormattedSalePrice(),
-                    "Car Sales",
-                    "Completed"
-                ));
-                
-                // Add cost record
-                records.add(new EconomicUI.FinancialRecord(
-                    formattedDate,
-                    "Cost",
-                    "Car Cost: " + carName,
-                    "-$" + String.format("%,.2f", carCost),
-                    "Car Costs",
-                    "Completed"
-                ));
-            }
-            
-            // Add sample expense records (in a real app, these would come from an expenses table)
-            // We add these even if we have real sales, since we don't have a real expenses table yet
-            String monthName = parts[0].substring(0, 3);
-            
-            records.add(new EconomicUI.FinancialRecord(
-                monthName + " 01, " + year,
-                "Expense",
-                "Office Rent",
-                "-$3,500",
-                "Rent",
-                "Paid"
-            ));
-            
-            records.add(new EconomicUI.FinancialRecord(
-                monthName + " 05, " + year,
-                "Expense",
-                "Marketing Campaign",
-                "-$2,200",
-                "Marketing",
-                "Paid"
-            ));
-            
-            records.add(new EconomicUI.FinancialRecord(
-                monthName + " 10, " + year,
-                "Expense",
-                "Staff Salaries",
-                "-$8,500",
-                "Salaries",
-                "Paid"
-            ));
-            
-            records.add(new EconomicUI.FinancialRecord(
-                monthName + " 15, " + year,
-                "Expense",
-                "Utilities",
-                "-$800",
-                "Utilities",
-                "Paid"
-            ));
-            
-            System.out.println("Created " + records.size() + " financial records");
-            
-        } catch (Exception e) {
-            System.err.println("Error getting financial records: " + e.getMessage());
-            e.printStackTrace();
-            
-            // Fallback to sample data
-            String monthName = parts[0].substring(0, 3);
-            if (year == 0) {
-                try {
-                    year = Integer.parseInt(parts[1]);
-                } catch (Exception ex) {
-                    year = Calendar.getInstance().get(Calendar.YEAR);
+        for (FinancialLedgerDAO.LedgerRow row : ledger.getRows()) {
+            if (row.isSales()) {
+                String cars = row.getEntries() == 1 ? "1 car" : row.getEntries() + " cars";
+                records.add(new EconomicUI.FinancialRecord(row.getDay(), "Revenue",
+                    "Car Sales (" + cars + ")", row.getRevenueCents(), "Car Sales", "Completed"));
+                records.add(new EconomicUI.FinancialRecord(row.getDay(), "Cost",
+                    "Car Costs (" + cars + ")", -row.getCarCostCents(), "Car Costs", "Completed"));
+                if (row.getTaxCents() != 0) {
+                    records.add(new EconomicUI.FinancialRecord(row.getDay(), "Cost",
+                        "Sales Tax (" + cars + ")", -row.getTaxCents(), "Sales Tax", "Completed"));
                 }
+            } else {
+                String category = getExpenseCategory(row.getExpenseType());
+                String description = row.getEntries() == 1 ? category : category + " (" + row.getEntries() + " expenses)";
+                records.add(new EconomicUI.FinancialRecord(row.getDay(), "Expense",
+                    description, -row.getExpenseCents(), category, row.getExpenseStatus().toString()));
             }
-            
-            records.add(new EconomicUI.FinancialRecord(
-                monthName + " 01, " + year,
-                "Expense",
-                "Office Rent",
-                "-$3,500",
-                "Rent",
-                "Paid"
-            ));
-            
-            records.add(new EconomicUI.FinancialRecord(
-                monthName + " 05, " + year,
-                "Expense",
-                "Marketing Campaign",
-                "-$2,200",
-                "Marketing",
-                "Paid"
-            ));
-            
-            records.add(new EconomicUI.FinancialRecord(
-                monthName + " 10, " + year,
-                "Expense",
-                "Staff Salaries",
-                "-$8,500",
-                "Salaries",
-                "Paid"
-            ));
-            
-            records.add(new EconomicUI.FinancialRecord(
-                monthName + " 15, " + year,
-                "Expense",
-                "Utilities",
-                "-$800",
-                "Utilities",
-                "Paid"
-            ));
-            
-            System.out.println("Created " + records.size() + " sample financial records (fallback)");
         }
         
-        return records;
+        System.out.println("Financial report: " + ledger.getSalesCount() + " sales, "
+            + ledger.getRows().size() + " ledger rows");
+        return new FinancialReport(totals, records);
     }
     
     /**
-     * Get financial data for custom date range
+     * Record an expense
+     * @param category one of the ExpenseManagerUI categories
+     * @return the saved expense, or null if it could not be saved
      */
-    public FinancialData getFinancialDataByDateRange(Timestamp startDate, Timestamp endDate) {
-        FinancialData data = new FinancialData();
+    public Expense addExpense(LocalDate date, String description, double amount, String category, String status, String notes) {
+        Expense expense = new Expense(Date.valueOf(date), getExpenseType(category),
+                                      BigDecimal.valueOf(amount).setScale(2, RoundingMode.HALF_UP),
+                                      description, currentStaffId);
+        expense.setStatus(Expense.ExpenseStatus.fromString(status));
+        expense.setNotes(notes != null && !notes.trim().isEmpty() ? notes : null);
         
-        try {
-            System.out.println("Fetching financial data for custom date range: " + startDate + " to " + endDate);
-            
-            // Get sales statistics for the date range
-            SalesDAO.SalesStats salesStats = salesDAO.getSalesStats(startDate, endDate);
-            
-            // Set financial data
-            data.monthlyRevenue = salesStats.getTotalRevenue().doubleValue();
-            data.monthlyProfit = salesStats.getTotalProfit().doubleValue();
-            data.monthlyCosts = data.monthlyRevenue - data.monthlyProfit;
-            data.monthlyExpenses = data.monthlyRevenue * 0.15; // 15% operational expenses
-            data.monthlyProfit = data.monthlyProfit - data.monthlyExpenses;
-            
-            System.out.println("Financial data retrieved for custom date range:");
-            System.out.println("Revenue: " + data.monthlyRevenue);
-            System.out.println("Costs: " + data.monthlyCosts);
-            System.out.println("Expenses: " + data.monthlyExpenses);
-            System.out.println("Profit: " + data.monthlyProfit);
-            
-        } catch (Exception e) {
-            System.err.println("Error getting financial data by date range: " + e.getMessage());
-            e.printStackTrace();
-            
-            // Provide sample data if database access fails
-            data.monthlyRevenue = 50000;
-            data.monthlyCosts = 40000;
-            data.monthlyExpenses = 7500;
-            data.monthlyProfit = data.monthlyRevenue - data.monthlyCosts - data.monthlyExpenses;
-            
-            System.out.println("Using default sample financial data for custom date range");
+        if (!expenseDAO.createExpense(expense)) {
+            return null;
         }
         
-        return data;
+        auditLogDAO.logAction(currentStaffId, "Expense Added", 
+            String.format("Added expense: %s - $%.2f (%s)", description, amount, category), 
+            status);
+        
+        System.out.println("Expense added: " + description + " - $" + amount);
+        return expense;
     }
     
     /**
-     * Add expense record (for future implementation)
+     * Save changes to an expense
      */
-    public boolean addExpense(String description, double amount, String category, String status, String notes) {
-        try {
-            // In a real app, this would save to an expenses table
-            // For now, just log the action
-            auditLogDAO.logAction(currentStaffId, "Expense Added", 
-                String.format("Added expense: %s - $%.2f (%s)", description, amount, category), 
-                status);
-            
-            System.out.println("Expense added: " + description + " - $" + amount);
-            return true;
-        } catch (Exception e) {
-            System.err.println("Error adding expense: " + e.getMessage());
-            e.printStackTrace();
+    public boolean updateExpense(Expense expense) {
+        if (!expenseDAO.updateExpense(expense)) {
             return false;
         }
+        auditLogDAO.logAction(currentStaffId, "Expense Updated", 
+            "Updated expense " + expense.getExpenseId() + ": " + expense.getDescription(), 
+            expense.getStatus().toString());
+        return true;
     }
     
     /**
-     * Export financial report
+     * Delete an expense
      */
-    public boolean exportFinancialReport(String monthYear, String format) {
-        try {
-            // In a real app, this would generate and save a report file
-            // For now, just log the action
-            auditLogDAO.logAction(currentStaffId, "Report Generated", 
-                "Exported financial report for " + monthYear + " in " + format + " format", 
-                "Success");
-            
-            System.out.println("Financial report exported: " + monthYear + " (" + format + ")");
-            return true;
-        } catch (Exception e) {
-            System.err.println("Error exporting financial report: " + e.getMessage());
-            e.printStackTrace();
+    public boolean deleteExpense(Expense expense) {
+        if (!expenseDAO.deleteExpense(expense.getExpenseId())) {
             return false;
         }
+        auditLogDAO.logAction(currentStaffId, "Expense Deleted", 
+            "Deleted expense " + expense.getExpenseId() + ": " + expense.getDescription(), 
+            "Success");
+        return true;
+    }
+    
+    /**
+     * Get the expenses dated in [startDate, endDate), newest first
+     */
+    public List<Expense> getExpenses(LocalDate startDate, LocalDate endDate) {
+        ExpenseDAO.ExpenseFilter filter = new ExpenseDAO.ExpenseFilter();
+        filter.setStartDate(startDate);
+        filter.setEndDate(endDate);
+        return expenseDAO.getExpenses(filter);
+    }
+    
+    /**
+     * Get expense totals per ExpenseManagerUI category for [startDate, endDate)
+     */
+    public Map<String, BigDecimal> getExpenseTotalsByCategory(LocalDate startDate, LocalDate endDate) {
+        Map<String, BigDecimal> totals = new LinkedHashMap<>();
+        for (Map.Entry<Expense.ExpenseType, BigDecimal> entry : expenseDAO.getTotalsByType(startDate, endDate).entrySet()) {
+            totals.merge(getExpenseCategory(entry.getKey()), entry.getValue(), BigDecimal::add);
+        }
+        return totals;
+    }
+    
+    /**
+     * Map an ExpenseManagerUI category to the stored expense type
+     */
+    public static Expense.ExpenseType getExpenseType(String category) {
+        if (category == null) {
+            return Expense.ExpenseType.OTHER;
+        }
+        switch (category) {
+            case "Rent": return Expense.ExpenseType.RENT;
+            case "Utilities": return Expense.ExpenseType.UTILITIES;
+            case "Marketing": return Expense.ExpenseType.MARKETING;
+            case "Salaries": return Expense.ExpenseType.SALARY;
+            case "Maintenance": return Expense.ExpenseType.REPAIR;
+            case "Insurance": return Expense.ExpenseType.INSURANCE;
+            case "Inventory": return Expense.ExpenseType.PURCHASE;
+            case "Taxes": return Expense.ExpenseType.TAX;
+            default: return Expense.ExpenseType.fromString(category);
+        }
+    }
+    
+    /**
+     * Map a stored expense type to the ExpenseManagerUI category shown for it
+     */
+    public static String getExpenseCategory(Expense.ExpenseType type) {
+        switch (type) {
+            case RENT: return "Rent";
+            case UTILITIES: return "Utilities";
+            case MARKETING: return "Marketing";
+            case SALARY: return "Salaries";
+            case REPAIR: return "Maintenance";
+            case INSURANCE: return "Insurance";
+            case PURCHASE: return "Inventory";
+            case TAX: return "Taxes";
+            default: return "Other";
+        }
+    }
+    
+    /**
+     * Write the financial report for [startDate, endDate) as a PDF or CSV file
+     * @param title period name shown in the report, e.g. "May 2025"
+     * @param progress told the rows written out of the total; may be null
+     * @param cancelled stops the report when it returns true; may be null
+     * @return number of sales and expenses written
+     * @throws java.util.concurrent.CancellationException if the report was cancelled
+     */
+    public long exportFinancialReport(String title, LocalDate startDate, LocalDate endDate, File file,
+                                      FinancialReportGenerator.Format format,
+                                      FinancialReportGenerator.ProgressListener progress,
+                                      BooleanSupplier cancelled) throws IOException, SQLException {
+        long rows = new FinancialReportGenerator().generate(title, startDate, endDate, file.toPath(),
+            format, progress, cancelled);
+        
+        auditLogDAO.logAction(currentStaffId, "Report Generated", 
+            "Exported financial report for " + title + " in " + format + " format (" + rows + " records)", 
+            "Success");
+        
+        return rows;
+    }
+    
+    /**
+     * First day of a month given as e.g. "May 2025"
+     */
+    public LocalDate getMonthStart(String monthYear) {
+        String[] parts = monthYear.split(" ");
+        return LocalDate.of(Integer.parseInt(parts[1]), getMonthNumber(parts[0]), 1);
     }
     
     /**
@@ -405,12 +290,29 @@ public class EconomicIntegration {
     }
     
     /**
-     * Financial data class
+     * Financial data class; amounts are in cents
      */
     public static class FinancialData {
-        public double monthlyRevenue = 0;
-        public double monthlyCosts = 0;
-        public double monthlyExpenses = 0;
-        public double monthlyProfit = 0;
+        public long revenueCents = 0;
+        // Car purchase costs plus sales tax
+        public long costsCents = 0;
+        public long expensesCents = 0;
+        public long profitCents = 0;
+    }
+    
+    /**
+     * Totals and table rows for one period
+     */
+    public static class FinancialReport {
+        private final FinancialData totals;
+        private final List<EconomicUI.FinancialRecord> records;
+        
+        public FinancialReport(FinancialData totals, List<EconomicUI.FinancialRecord> records) {
+            this.totals = totals;
+            this.records = records;
+        }
+        
+        public FinancialData getTotals() { return totals; }
+        public List<EconomicUI.FinancialRecord> getRecords() { return records; }
     }
 }
\ No newline at end of file
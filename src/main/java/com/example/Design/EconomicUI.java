@@ -1,5 +1,7 @@
 package com.example.Design;
 
+import com.example.OOP.backend.DataChangeEvents;
+import com.example.OOP.backend.FinancialReportGenerator;
 import java.awt.BorderLayout;
 import java.awt.Color;
 import java.awt.Component;
@@ -10,12 +12,17 @@ import java.awt.Font;
 import java.awt.GridLayout;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
+import java.io.File;
 import java.text.DecimalFormat;
 import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.List;
+import java.util.Locale;
 
 import javax.swing.BorderFactory;
 import javax.swing.Box;
@@ -23,16 +30,20 @@ import javax.swing.BoxLayout;
 import javax.swing.JButton;
 import javax.swing.JComboBox;
 import javax.swing.JDialog;
+import javax.swing.JFileChooser;
 import javax.swing.JLabel;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
+import javax.swing.JProgressBar;
 import javax.swing.JScrollPane;
 import javax.swing.JSpinner;
 import javax.swing.JTable;
 import javax.swing.SpinnerDateModel;
 import javax.swing.SwingConstants;
 import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
 import javax.swing.border.EmptyBorder;
+import javax.swing.filechooser.FileNameExtensionFilter;
 import javax.swing.table.DefaultTableCellRenderer;
 import javax.swing.table.DefaultTableModel;
 import javax.swing.table.JTableHeader;
@@ -65,6 +76,8 @@ public class EconomicUI extends BaseUI {
     // Report data
     private List<FinancialRecord> financialRecords;
     
+    private static final DateTimeFormatter RECORD_DATE_FORMAT = DateTimeFormatter.ofPattern("MMM dd, yyyy", Locale.ENGLISH);
+    
     /**
      * Constructor with admin ID
      * @param adminId The ID of the admin user
@@ -73,7 +86,8 @@ public class EconomicUI extends BaseUI {
         super(adminId);
         // Initialize selectedMonth before any UI creation
         selectedMonth = "May 2025";
-        initializeFinancialData();
+        refreshFinancialData();
+        listenForDataChanges(this::onDataChanged);
     }
     
     /**
@@ -83,7 +97,8 @@ public class EconomicUI extends BaseUI {
         super();
         // Initialize selectedMonth before any UI creation
         selectedMonth = "May 2025";
-        initializeFinancialData();
+        refreshFinancialData();
+        listenForDataChanges(this::onDataChanged);
     }
     
     /**
@@ -110,9 +125,9 @@ public class EconomicUI extends BaseUI {
             selectedMonth = "May 2025";
         }
         
-        // Initialize financial data if not already done
+        // Financial data is loaded in the background once the window is built
         if (financialRecords == null) {
-            initializeFinancialData();
+            financialRecords = new ArrayList<>();
         }
         
         JPanel mainPanel = new JPanel();
@@ -532,14 +547,7 @@ refreshButton.setContentAreaFilled(true);
         
         // Populate table with financial records
         for (FinancialRecord record : financialRecords) {
-            tableModel.addRow(new Object[]{
-                record.getDate(),
-                record.getType(),
-                record.getDescription(),
-                record.getAmount(),
-                record.getCategory(),
-                record.getStatus()
-            });
+            tableModel.addRow(toTableRow(record));
         }
         
         reportTable = new JTable(tableModel);
@@ -556,6 +564,7 @@ refreshButton.setContentAreaFilled(true);
         header.setBorder(BorderFactory.createMatteBorder(0, 0, 2, 0, new Color(230, 230, 230)));
         
         // Custom renderers
+        reportTable.getColumnModel().getColumn(0).setCellRenderer(new DateRenderer());
         reportTable.getColumnModel().getColumn(1).setCellRenderer(new TypeRenderer());
         reportTable.getColumnModel().getColumn(3).setCellRenderer(new AmountRenderer());
         reportTable.getColumnModel().getColumn(5).setCellRenderer(new StatusRenderer());
@@ -570,110 +579,118 @@ refreshButton.setContentAreaFilled(true);
     }
     
     /**
-     * Initialize financial data
+     * Whether a custom date range is selected instead of a month
      */
-    private void initializeFinancialData() {
-        // Initialize list if null
-        if (financialRecords == null) {
-            financialRecords = new ArrayList<>();
-        } else {
-            financialRecords.clear();
-        }
-        
-        // Ensure selectedMonth is not null
-        if (selectedMonth == null) {
-            selectedMonth = "May 2025";
+    private boolean isCustomRangeSelected() {
+        return selectedMonth.contains(" - ") && filterStartDate != null && filterEndDate != null;
+    }
+    
+    /**
+     * First day of the selected month or custom date range
+     */
+    private LocalDate getSelectedPeriodStart() {
+        if (isCustomRangeSelected()) {
+            return filterStartDate.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
         }
-        
-        // Get sales data from CarStatusManager
-        try {
-            CarStatusManager carManager = CarStatusManager.getInstance();
-            List<CarStatusManager.SoldCarRecord> soldCars = carManager.getSoldCars();
-            
-            monthlyRevenue = 0;
-            monthlyCosts = 0;
-            
-            // Calculate revenue and costs from car sales
-            for (CarStatusManager.SoldCarRecord sale : soldCars) {
-                if (sale != null && sale.getSaleDate() != null && sale.getSaleDate().contains("May")) { // Filter by current month
-                    try {
-                        String priceStr = sale.getSalePrice();
-                        if (priceStr != null) {
-                            double salePrice = Double.parseDouble(priceStr.replace("$", "").replace(",", ""));
-                            monthlyRevenue += salePrice;
-                            
-                            // Estimate car cost (assuming 80% of sale price)
-                            double carCost = salePrice * 0.8;
-                            monthlyCosts += carCost;
-                            
-                            // Add to financial records
-                            String carModel = (sale.getCar() != null && sale.getCar().getModel() != null) ? 
-                                            sale.getCar().getModel() : "Unknown Vehicle";
-                            
-                            financialRecords.add(new FinancialRecord(
-                                sale.getSaleDate(),
-                                "Revenue",
-                                "Car Sale: " + carModel,
-                                "+" + formatCurrency(salePrice),
-                                "Car Sales",
-                                "Completed"
-                            ));
-                            
-                            financialRecords.add(new FinancialRecord(
-                                sale.getSaleDate(),
-                                "Cost",
-                                "Car Cost: " + carModel,
-                                "-" + formatCurrency(carCost),
-                                "Car Costs",
-                                "Completed"
-                            ));
-                        }
-                    } catch (NumberFormatException e) {
-                        // Skip invalid price data
-                        System.err.println("Invalid price format: " + sale.getSalePrice());
-                    }
-                }
-            }
-        } catch (Exception e) {
-            System.err.println("Error loading sales data: " + e.getMessage());
-            e.printStackTrace();
+        return EconomicIntegration.getInstance().getMonthStart(selectedMonth);
+    }
+    
+    /**
+     * Day after the selected period; a custom range includes its whole end date
+     */
+    private LocalDate getSelectedPeriodEnd() {
+        if (isCustomRangeSelected()) {
+            return filterEndDate.toInstant().atZone(ZoneId.systemDefault()).toLocalDate().plusDays(1);
         }
+        return getSelectedPeriodStart().plusMonths(1);
+    }
+    
+    /**
+     * Compute financial data for the selected month or custom date range.
+     * Runs on a background thread, so it only builds a snapshot and leaves the
+     * fields and Swing components alone.
+     */
+    private FinancialSnapshot computeFinancialData() {
+        EconomicIntegration integration = EconomicIntegration.getInstance();
         
-        // Add sample operational expenses
-        monthlyExpenses = 15000; // Sample expenses
+        EconomicIntegration.FinancialReport report =
+            integration.getFinancialReport(getSelectedPeriodStart(), getSelectedPeriodEnd());
         
-        // Sample expense records
-        financialRecords.add(new FinancialRecord("May 01, 2025", "Expense", "Office Rent", "-$3,500", "Rent", "Paid"));
-        financialRecords.add(new FinancialRecord("May 05, 2025", "Expense", "Marketing Campaign", "-$2,200", "Marketing", "Paid"));
-        financialRecords.add(new FinancialRecord("May 10, 2025", "Expense", "Staff Salaries", "-$8,500", "Salaries", "Paid"));
-        financialRecords.add(new FinancialRecord("May 15, 2025", "Expense", "Utilities", "-$800", "Utilities", "Paid"));
+        FinancialSnapshot data = new FinancialSnapshot();
+        data.records.addAll(report.getRecords());
+        data.revenue = report.getTotals().revenueCents / 100.0;
+        data.costs = report.getTotals().costsCents / 100.0;
+        data.expenses = report.getTotals().expensesCents / 100.0;
         
-        // Calculate profit
-        monthlyProfit = monthlyRevenue - monthlyCosts - monthlyExpenses;
+        return data;
     }
     
     /**
-     * Refresh financial data
+     * Refresh financial data.
+     * The figures are computed off the Event Dispatch Thread; repeated clicks
+     * while a refresh is running collapse into one follow-up refresh.
      */
     private void refreshFinancialData() {
-        initializeFinancialData();
+        loadInBackground("financials", this::computeFinancialData, this::applyFinancialData);
+    }
+    
+    /**
+     * Recompute when sales or expenses change
+     */
+    private void onDataChanged(DataChangeEvents.Change change) {
+        if (change.getTopic() == DataChangeEvents.Topic.SALES
+                || change.getTopic() == DataChangeEvents.Topic.EXPENSES) {
+            refreshFinancialData();
+        }
+    }
+    
+    /**
+     * Show a computed snapshot in the overview cards and report table
+     */
+    private void applyFinancialData(FinancialSnapshot data) {
+        financialRecords = data.records;
+        monthlyRevenue = data.revenue;
+        monthlyCosts = data.costs;
+        monthlyExpenses = data.expenses;
+        
+        // Calculate profit
+        monthlyProfit = monthlyRevenue - monthlyCosts - monthlyExpenses;
+        
         updateDisplayValues();
         
         if (tableModel != null) {
             tableModel.setRowCount(0);
             for (FinancialRecord record : financialRecords) {
-                tableModel.addRow(new Object[]{
-                    record.getDate(),
-                    record.getType(),
-                    record.getDescription(),
-                    record.getAmount(),
-                    record.getCategory(),
-                    record.getStatus()
-                });
+                tableModel.addRow(toTableRow(record));
             }
         }
     }
     
+    /**
+     * Table cells for a record; the date and cent amount are formatted by
+     * the column renderers
+     */
+    private static Object[] toTableRow(FinancialRecord record) {
+        return new Object[]{
+            record.getDate(),
+            record.getType(),
+            record.getDescription(),
+            record.getAmountCents(),
+            record.getCategory(),
+            record.getStatus()
+        };
+    }
+    
+    /**
+     * Financial figures for one period, computed in the background
+     */
+    private static class FinancialSnapshot {
+        final List<FinancialRecord> records = new ArrayList<>();
+        double revenue;
+        double costs;
+        double expenses;
+    }
+    
     /**
      * Update display values
      */
@@ -758,44 +775,114 @@ refreshButton.setContentAreaFilled(true);
     }
     
     /**
-     * Export report
+     * Export report.
+     * The sales and expenses of the selected period are streamed to the chosen
+     * file in the background; the format follows the file name (.pdf or .csv),
+     * and a progress dialog lets the user cancel.
      */
     private void exportReport() {
-        String reportContent = generateReportContent();
+        String period = selectedMonth;
+        LocalDate start = getSelectedPeriodStart();
+        LocalDate end = getSelectedPeriodEnd();
+        
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setDialogTitle("Export Financial Report");
+        FileNameExtensionFilter pdfFilter = new FileNameExtensionFilter("PDF (*.pdf)", "pdf");
+        fileChooser.addChoosableFileFilter(pdfFilter);
+        fileChooser.addChoosableFileFilter(new FileNameExtensionFilter("CSV (*.csv)", "csv"));
+        fileChooser.setFileFilter(pdfFilter);
+        fileChooser.setAcceptAllFileFilterUsed(false);
+        fileChooser.setSelectedFile(new File("financial_report_" + period.replace(",", "").replace(" ", "_") + ".pdf"));
+        if (fileChooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
         
-        JOptionPane.showMessageDialog(this,
-            "Financial Report exported successfully!\n\n" +
-            "Report Period: " + selectedMonth + "\n" +
-            "Total Revenue: " + formatCurrency(monthlyRevenue) + "\n" +
-            "Total Costs: " + formatCurrency(monthlyCosts + monthlyExpenses) + "\n" +
-            "Net Profit: " + formatCurrency(monthlyProfit) + "\n\n" +
-            "Report saved to: financial_report_" + selectedMonth.replace(" ", "_") + ".pdf",
-            "Export Complete",
-            JOptionPane.INFORMATION_MESSAGE);
-    }
-    
-    /**
-     * Generate report content
-     */
-    private String generateReportContent() {
-        StringBuilder report = new StringBuilder();
-        report.append("FINANCIAL REPORT - ").append(selectedMonth).append("\n");
-        report.append("=====================================\n\n");
-        report.append("SUMMARY:\n");
-        report.append("Revenue: ").append(formatCurrency(monthlyRevenue)).append("\n");
-        report.append("Car Costs: ").append(formatCurrency(monthlyCosts)).append("\n");
-        report.append("Expenses: ").append(formatCurrency(monthlyExpenses)).append("\n");
-        report.append("Net Profit: ").append(formatCurrency(monthlyProfit)).append("\n\n");
-        
-        report.append("DETAILED TRANSACTIONS:\n");
-        for (FinancialRecord record : financialRecords) {
-            report.append(record.getDate()).append(" | ");
-            report.append(record.getType()).append(" | ");
-            report.append(record.getDescription()).append(" | ");
-            report.append(record.getAmount()).append("\n");
+        File chosen = fileChooser.getSelectedFile();
+        String name = chosen.getName().toLowerCase();
+        if (!name.endsWith(".pdf") && !name.endsWith(".csv")) {
+            // Take the extension from the chosen filter
+            String extension = fileChooser.getFileFilter() == pdfFilter ? ".pdf" : ".csv";
+            chosen = new File(chosen.getParentFile(), chosen.getName() + extension);
+            name = chosen.getName().toLowerCase();
         }
+        File file = chosen;
+        FinancialReportGenerator.Format format = name.endsWith(".csv")
+            ? FinancialReportGenerator.Format.CSV : FinancialReportGenerator.Format.PDF;
+        
+        // Progress dialog
+        JDialog progressDialog = new JDialog(this, "Exporting Financial Report", false);
+        JProgressBar progressBar = new JProgressBar(0, 100);
+        progressBar.setStringPainted(true);
+        progressBar.setString("Starting export...");
+        JButton cancelButton = new JButton("Cancel");
         
-        return report.toString();
+        JPanel progressPanel = new JPanel(new BorderLayout(0, 15));
+        progressPanel.setBorder(new EmptyBorder(20, 20, 20, 20));
+        progressPanel.add(new JLabel("Writing " + file.getName()), BorderLayout.NORTH);
+        progressPanel.add(progressBar, BorderLayout.CENTER);
+        JPanel cancelPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 0, 0));
+        cancelPanel.add(cancelButton);
+        progressPanel.add(cancelPanel, BorderLayout.SOUTH);
+        progressDialog.setContentPane(progressPanel);
+        progressDialog.setSize(380, 160);
+        progressDialog.setLocationRelativeTo(this);
+        progressDialog.setDefaultCloseOperation(JDialog.DO_NOTHING_ON_CLOSE);
+        
+        SwingWorker<Long, long[]> exportWorker = new SwingWorker<>() {
+            @Override
+            protected Long doInBackground() throws Exception {
+                return EconomicIntegration.getInstance().exportFinancialReport(period, start, end, file, format,
+                    (rows, totalRows) -> publish(new long[] {rows, totalRows}), this::isCancelled);
+            }
+            
+            @Override
+            protected void process(List<long[]> updates) {
+                long[] latest = updates.get(updates.size() - 1);
+                if (latest[1] > 0) {
+                    progressBar.setValue((int) (latest[0] * 100 / latest[1]));
+                }
+                progressBar.setString(String.format("%,d of %,d rows written", latest[0], latest[1]));
+            }
+            
+            @Override
+            protected void done() {
+                progressDialog.dispose();
+                if (isCancelled()) {
+                    JOptionPane.showMessageDialog(EconomicUI.this, "Export cancelled.",
+                        "Export Cancelled", JOptionPane.INFORMATION_MESSAGE);
+                    return;
+                }
+                try {
+                    long rows = get();
+                    JOptionPane.showMessageDialog(EconomicUI.this,
+                        "Financial Report exported successfully!\n\n" +
+                        "Report Period: " + period + "\n" +
+                        "Total Revenue: " + formatCurrency(monthlyRevenue) + "\n" +
+                        "Total Costs: " + formatCurrency(monthlyCosts + monthlyExpenses) + "\n" +
+                        "Net Profit: " + formatCurrency(monthlyProfit) + "\n" +
+                        "Total Records: " + rows + "\n\n" +
+                        "Report saved to: " + file.getAbsolutePath(),
+                        "Export Complete",
+                        JOptionPane.INFORMATION_MESSAGE);
+                } catch (Exception e) {
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    System.err.println("Error exporting financial report: " + cause.getMessage());
+                    cause.printStackTrace();
+                    JOptionPane.showMessageDialog(EconomicUI.this,
+                        "Could not export financial report: " + cause.getMessage(),
+                        "Export Failed", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        };
+        
+        cancelButton.addActionListener(e -> {
+            cancelButton.setEnabled(false);
+            progressBar.setString("Cancelling...");
+            exportWorker.cancel(false);
+        });
+        
+        exportWorker.execute();
+        progressDialog.setVisible(true);
     }
     
     /**
@@ -821,7 +908,22 @@ refreshButton.setContentAreaFilled(true);
         return formatter.format(amount);
     }
     
+    /**
+     * Format an amount in cents with its sign, e.g. "+$1,250.00" or "-$80.50"
+     */
+    private static String formatSignedCents(long cents) {
+        long abs = Math.abs(cents);
+        return (cents < 0 ? "-" : "+") + String.format("$%,d.%02d", abs / 100, abs % 100);
+    }
+    
     // Custom table renderers
+    private static class DateRenderer extends DefaultTableCellRenderer {
+        @Override
+        protected void setValue(Object value) {
+            setText(value instanceof LocalDate ? RECORD_DATE_FORMAT.format((LocalDate) value) : "");
+        }
+    }
+    
     private static class TypeRenderer extends DefaultTableCellRenderer {
         @Override
         public Component getTableCellRendererComponent(JTable table, Object value,
@@ -855,10 +957,11 @@ refreshButton.setContentAreaFilled(true);
             label.setHorizontalAlignment(SwingConstants.RIGHT);
             label.setFont(new Font("Arial", Font.BOLD, 13));
             
-            String amount = value.toString();
-            if (amount.startsWith("+")) {
+            long cents = (Long) value;
+            label.setText(formatSignedCents(cents));
+            if (cents >= 0) {
                 label.setForeground(new Color(25, 135, 84));
-            } else if (amount.startsWith("-")) {
+            } else {
                 label.setForeground(new Color(220, 53, 69));
             }
             
@@ -894,36 +997,37 @@ refreshButton.setContentAreaFilled(true);
      * Financial Record class
      */
     public static class FinancialRecord {
-        private String date;
+        private LocalDate date;
         private String type;
         private String description;
-        private String amount;
+        // Signed: positive for revenue, negative for costs and expenses
+        private long amountCents;
         private String category;
         private String status;
         
-        public FinancialRecord(String date, String type, String description, 
-                             String amount, String category, String status) {
+        public FinancialRecord(LocalDate date, String type, String description, 
+                             long amountCents, String category, String status) {
             this.date = date;
             this.type = type;
             this.description = description;
-            this.amount = amount;
+            this.amountCents = amountCents;
             this.category = category;
             this.status = status;
         }
         
         // Getters
-        public String getDate() { return date; }
+        public LocalDate getDate() { return date; }
         public String getType() { return type; }
         public String getDescription() { return description; }
-        public String getAmount() { return amount; }
+        public long getAmountCents() { return amountCents; }
         public String getCategory() { return category; }
         public String getStatus() { return status; }
         
         // Setters
-        public void setDate(String date) { this.date = date; }
+        public void setDate(LocalDate date) { this.date = date; }
         public void setType(String type) { this.type = type; }
         public void setDescription(String description) { this.description = description; }
-        public void setAmount(String amount) { this.amount = amount; }
+        public void setAmountCents(long amountCents) { this.amountCents = amountCents; }
         public void setCategory(String category) { this.category = category; }
         public void setStatus(String status) { this.status = status; }
     }
@@ -9,7 +9,6 @@ import java.awt.FlowLayout;
 import java.awt.Font;
 import java.awt.GridBagConstraints;
 import java.awt.GridBagLayout;
-import java.awt.Image;
 import java.awt.Insets;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
@@ -19,7 +18,6 @@ import java.util.Date;
 import javax.swing.BorderFactory;
 import javax.swing.Box;
 import javax.swing.BoxLayout;
-import javax.swing.ImageIcon;
 import javax.swing.JButton;
 import javax.swing.JComboBox;
 import javax.swing.JFileChooser;
@@ -557,55 +555,56 @@ public class EditCarUI extends BaseUI {
     }
     
     /**
-     * Load existing image with enhanced error handling
+     * Load existing image with enhanced error handling.
+     * The placeholder stays until the thumbnail has been scaled off the EDT.
      */
     private void loadExistingImage() {
+        // Use placeholder until the image is shown, or if no image or image not found
+        imageLabel.setIcon(null);
+        imageLabel.setText("<html><div style='text-align: center;'>"
+                + "<div style='font-size: 48px; color: #888;'>🚗</div>"
+                + "<div style='margin-top: 10px; color: #666;'>Click to upload image</div>"
+                + "</html>");
+        
         try {
             if (selectedImagePath != null && !selectedImagePath.isEmpty() && 
                 !selectedImagePath.toLowerCase().contains("placeholder")) {
                 
-                // Try to load from direct path first
-                ImageIcon originalIcon = new ImageIcon(selectedImagePath);
-                
-                // If that fails, try different paths
-                if (originalIcon.getIconWidth() <= 0) {
-                    // Try with src/main/resources prefix
-                    originalIcon = new ImageIcon("src/main/resources/" + selectedImagePath);
-                }
-                
-                // If that also fails, try with src prefix
-                if (originalIcon.getIconWidth() <= 0) {
-                    originalIcon = new ImageIcon("src/" + selectedImagePath);
-                }
-                
-                // If all direct paths fail, try using class loader
-                if (originalIcon.getIconWidth() <= 0) {
-                    java.net.URL resource = getClass().getResource("/" + selectedImagePath);
-                    if (resource != null) {
-                        originalIcon = new ImageIcon(resource);
-                    }
-                }
-                
-                if (originalIcon.getIconWidth() > 0) {
-                    System.out.println("Successfully loaded image from: " + selectedImagePath);
-                    Image scaledImage = originalIcon.getImage().getScaledInstance(260, 180, Image.SCALE_SMOOTH);
-                    imageLabel.setIcon(new ImageIcon(scaledImage));
-                    imageLabel.setText("");
-                    return;
+                String imageFile = findImageFile(selectedImagePath);
+                if (imageFile != null && ThumbnailCache.getInstance().load(imageLabel, imageFile, 260, 180)) {
+                    System.out.println("Loading image from: " + imageFile);
                 } else {
-                    System.err.println("Error loading image: Image not found or has zero width");
+                    System.err.println("Error loading image: Image not found: " + selectedImagePath);
                 }
             }
         } catch (Exception e) {
             System.err.println("Error loading image: " + e.getMessage());
         }
+    }
+    
+    /**
+     * Find the file behind an image path: the path itself, then the same path
+     * under src/main/resources, under src, or on the class path
+     * @return the file's path, or null if there is no such file
+     */
+    private String findImageFile(String imagePath) {
+        for (String candidate : new String[] {
+                imagePath, "src/main/resources/" + imagePath, "src/" + imagePath}) {
+            if (new File(candidate).isFile()) {
+                return candidate;
+            }
+        }
         
-        // Use placeholder if no image or image not found
-        imageLabel.setIcon(null);
-        imageLabel.setText("<html><div style='text-align: center;'>"
-                + "<div style='font-size: 48px; color: #888;'>🚗</div>"
-                + "<div style='margin-top: 10px; color: #666;'>Click to upload image</div>"
-                + "</html>");
+        // Only resources unpacked on disk can be read by ThumbnailCache
+        java.net.URL resource = getClass().getResource("/" + imagePath);
+        if (resource != null && "file".equals(resource.getProtocol())) {
+            try {
+                return new File(resource.toURI()).getPath();
+            } catch (java.net.URISyntaxException e) {
+                System.err.println("Error loading image: " + e.getMessage());
+            }
+        }
+        return null;
     }
     
     /**
@@ -637,16 +636,11 @@ public class EditCarUI extends BaseUI {
                 System.out.println("Selected new image: " + selectedImagePath);
                 
                 try {
-                    // Load and display the image
-                    ImageIcon originalIcon = new ImageIcon(selectedImagePath);
-                    if (originalIcon.getIconWidth() <= 0) {
-                        throw new Exception("Image has invalid dimensions");
+                    // Preview replaces the current image once it has been scaled
+                    if (!ThumbnailCache.getInstance().load(imageLabel, selectedImagePath, 260, 180)) {
+                        throw new Exception("Image could not be read");
                     }
                     
-                    Image scaledImage = originalIcon.getImage().getScaledInstance(260, 180, Image.SCALE_SMOOTH);
-                    imageLabel.setIcon(new ImageIcon(scaledImage));
-                    imageLabel.setText(""); // Remove placeholder text
-                    
                     // Show remove button
                     Component parentPanel = imageLabel.getParent().getParent();
                     if (parentPanel instanceof JPanel) {
@@ -685,6 +679,7 @@ public class EditCarUI extends BaseUI {
      */
     private void removePhoto(JButton removeButton) {
         selectedImagePath = "placeholder_car.jpg";
+        ThumbnailCache.getInstance().cancel(imageLabel);
         imageLabel.setIcon(null);
         imageLabel.setText("<html><div style='text-align: center;'>"
                 + "<div style='font-size: 48px; color: #888;'>🚗</div>"
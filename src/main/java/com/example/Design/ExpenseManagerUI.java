@@ -1,6 +1,7 @@
 package com.example.Design;
 
-import javax.swing.SwingUtilities;
+import com.example.OOP.backend.DataChangeEvents;
+import com.example.OOP.backend.Expense;
 
 import java.awt.BorderLayout;
 import java.awt.Color;
@@ -15,11 +16,16 @@ import java.awt.GridLayout;
 import java.awt.Insets;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.text.DecimalFormat;
-import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.Locale;
 
 import javax.swing.BorderFactory;
 import javax.swing.Box;
@@ -60,16 +66,26 @@ public class ExpenseManagerUI extends BaseUI {
     private JTable expensesTable;
     private DefaultTableModel tableModel;
     
-    // Data
+    // Budget overview components
+    private JLabel totalExpensesLabel;
+    private JLabel remainingLabel;
+    private JLabel budgetUsedLabel;
+    
+    // Data: the current month's expenses, newest first, in table row order
     private List<Expense> expenses;
-    private double totalExpenses = 0;
-    private double monthlyBudget = 20000; // $20,000 monthly budget
+    private double totalExpenses;
+    // Expense loaded into the form by Edit; null while adding a new one
+    private Expense editingExpense;
+    
+    private static final double MONTHLY_BUDGET = 20000; // $20,000 monthly budget
     
     /**
      * Constructor with admin ID
      */
     public ExpenseManagerUI(int adminId) {
         super(adminId);
+        loadExpenses();
+        listenForDataChanges(this::onDataChanged);
     }
     
     /**
@@ -77,6 +93,8 @@ public class ExpenseManagerUI extends BaseUI {
      */
     public ExpenseManagerUI() {
         super();
+        loadExpenses();
+        listenForDataChanges(this::onDataChanged);
     }
     
     /**
@@ -98,8 +116,10 @@ public class ExpenseManagerUI extends BaseUI {
      */
     @Override
     protected JPanel createContentPanel() {
-        // Initialize data
-        initializeExpenseData();
+        // Expenses are loaded in the background once the window is built
+        if (expenses == null) {
+            expenses = new ArrayList<>();
+        }
         
         JPanel mainPanel = new JPanel();
         mainPanel.setBackground(LIGHT_GRAY_BG);
@@ -226,7 +246,7 @@ public class ExpenseManagerUI extends BaseUI {
         overviewPanel.setOpaque(false);
         overviewPanel.setLayout(new BoxLayout(overviewPanel, BoxLayout.Y_AXIS));
         
-        JLabel sectionTitle = new JLabel("EXPENSE OVERVIEW - MAY 2025");
+        JLabel sectionTitle = new JLabel("EXPENSE OVERVIEW - " + getPeriodTitle());
         sectionTitle.setFont(new Font("Arial", Font.BOLD, 16));
         sectionTitle.setForeground(new Color(50, 50, 50));
         sectionTitle.setAlignmentX(Component.LEFT_ALIGNMENT);
@@ -236,17 +256,18 @@ public class ExpenseManagerUI extends BaseUI {
         cardsPanel.setMaximumSize(new Dimension(1200, 120));
         cardsPanel.setAlignmentX(Component.LEFT_ALIGNMENT);
         
-        // Calculate budget usage
-        double budgetUsed = (totalExpenses / monthlyBudget) * 100;
-        double remaining = monthlyBudget - totalExpenses;
+        // Budget cards; the amounts are filled in by updateBudgetCards
+        totalExpensesLabel = new JLabel();
+        remainingLabel = new JLabel();
+        budgetUsedLabel = new JLabel();
+        JLabel budgetLabel = new JLabel(formatCurrency(MONTHLY_BUDGET));
+        budgetLabel.setForeground(PRIMARY_BLUE);
         
-        // Budget cards
-        RoundedPanel totalCard = createBudgetCard("Total Expenses", formatCurrency(totalExpenses), PRIMARY_RED, "💸");
-        RoundedPanel budgetCard = createBudgetCard("Monthly Budget", formatCurrency(monthlyBudget), PRIMARY_BLUE, "💰");
-        RoundedPanel remainingCard = createBudgetCard("Remaining", formatCurrency(remaining), 
-                                                    remaining >= 0 ? PRIMARY_GREEN : PRIMARY_RED, "📊");
-        RoundedPanel usageCard = createBudgetCard("Budget Used", String.format("%.1f%%", budgetUsed), 
-                                                budgetUsed <= 80 ? PRIMARY_GREEN : PRIMARY_YELLOW, "📈");
+        RoundedPanel totalCard = createBudgetCard("Total Expenses", totalExpensesLabel, "💸");
+        RoundedPanel budgetCard = createBudgetCard("Monthly Budget", budgetLabel, "💰");
+        RoundedPanel remainingCard = createBudgetCard("Remaining", remainingLabel, "📊");
+        RoundedPanel usageCard = createBudgetCard("Budget Used", budgetUsedLabel, "📈");
+        updateBudgetCards();
         
         cardsPanel.add(totalCard);
         cardsPanel.add(budgetCard);
@@ -263,7 +284,7 @@ public class ExpenseManagerUI extends BaseUI {
     /**
      * Create budget card
      */
-    private RoundedPanel createBudgetCard(String title, String amount, Color color, String icon) {
+    private RoundedPanel createBudgetCard(String title, JLabel amountLabel, String icon) {
         RoundedPanel card = new RoundedPanel(15, Color.WHITE);
         card.setLayout(new BorderLayout());
         card.setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
@@ -284,9 +305,7 @@ public class ExpenseManagerUI extends BaseUI {
         titleLabel.setForeground(new Color(100, 100, 100));
         titleLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
         
-        JLabel amountLabel = new JLabel(amount);
         amountLabel.setFont(new Font("Arial", Font.BOLD, 20));
-        amountLabel.setForeground(color);
         amountLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
         
         contentPanel.add(titleLabel);
@@ -351,7 +370,7 @@ public class ExpenseManagerUI extends BaseUI {
         formContent.add(new JLabel("Category:"), gbc);
         gbc.gridx = 3;
         String[] categories = {"Rent", "Utilities", "Marketing", "Salaries", "Maintenance", "Insurance", 
-                              "Office Supplies", "Travel", "Legal", "Other"};
+                              "Inventory", "Taxes", "Office Supplies", "Travel", "Legal", "Other"};
         categoryCombo = new JComboBox<>(categories);
         categoryCombo.setFont(new Font("Arial", Font.PLAIN, 14));
         categoryCombo.setPreferredSize(new Dimension(120, 32));
@@ -490,17 +509,7 @@ public class ExpenseManagerUI extends BaseUI {
             }
         };
         
-        // Populate with existing expenses
-        for (Expense expense : expenses) {
-            tableModel.addRow(new Object[]{
-                expense.getDate(),
-                expense.getDescription(),
-                "-" + formatCurrency(expense.getAmount()),
-                expense.getCategory(),
-                expense.getStatus(),
-                "Edit/Delete"
-            });
-        }
+        // Rows are added by applyExpenses once the expenses are loaded
         
         expensesTable = new JTable(tableModel);
         expensesTable.setRowHeight(40);
@@ -543,21 +552,45 @@ public class ExpenseManagerUI extends BaseUI {
     }
     
     /**
-     * Initialize expense data
+     * Load the current month's expenses from the database off the Event
+     * Dispatch Thread
+     */
+    private void loadExpenses() {
+        LocalDate start = getPeriodStart();
+        loadInBackground("expenses",
+            () -> EconomicIntegration.getInstance().getExpenses(start, start.plusMonths(1)),
+            this::applyExpenses);
+    }
+    
+    /**
+     * Reload when any expense is added, changed or deleted
      */
-    private void initializeExpenseData() {
-        expenses = new ArrayList<>();
-        
-        // Sample expense data
-        expenses.add(new Expense("May 01, 2025", "Office Rent", 3500.0, "Rent", "Paid", "Monthly office rent payment"));
-        expenses.add(new Expense("May 05, 2025", "Marketing Campaign", 2200.0, "Marketing", "Paid", "Social media advertising"));
-        expenses.add(new Expense("May 10, 2025", "Staff Salaries", 8500.0, "Salaries", "Paid", "Monthly employee salaries"));
-        expenses.add(new Expense("May 15, 2025", "Utilities", 800.0, "Utilities", "Paid", "Electricity and water bills"));
-        expenses.add(new Expense("May 20, 2025", "Office Supplies", 350.0, "Office Supplies", "Paid", "Stationery and equipment"));
-        expenses.add(new Expense("May 22, 2025", "Insurance", 1200.0, "Insurance", "Paid", "Business insurance premium"));
-        
-        // Calculate total
+    private void onDataChanged(DataChangeEvents.Change change) {
+        if (change.getTopic() == DataChangeEvents.Topic.EXPENSES) {
+            loadExpenses();
+        }
+    }
+    
+    /**
+     * Show loaded expenses in the table and budget cards
+     */
+    private void applyExpenses(List<Expense> loaded) {
+        expenses = loaded;
+        
+        tableModel.setRowCount(0);
+        for (Expense expense : expenses) {
+            tableModel.addRow(new Object[]{
+                expense.getFormattedExpenseDate(),
+                expense.getDescription(),
+                "-" + formatCurrency(expense.getAmount().doubleValue()),
+                EconomicIntegration.getExpenseCategory(expense.getExpenseType()),
+                expense.getStatus().toString(),
+                "Edit/Delete"
+            });
+        }
+        
         calculateTotalExpenses();
+        refreshDisplay();
     }
     
     /**
@@ -566,14 +599,15 @@ public class ExpenseManagerUI extends BaseUI {
     private void calculateTotalExpenses() {
         totalExpenses = 0;
         for (Expense expense : expenses) {
-            if ("Paid".equals(expense.getStatus())) {
-                totalExpenses += expense.getAmount();
+            if (expense.getStatus() == Expense.ExpenseStatus.PAID) {
+                totalExpenses += expense.getAmount().doubleValue();
             }
         }
     }
     
     /**
-     * Add new expense
+     * Save the expense in the form: a new one, or the one loaded by Edit.
+     * The table is reloaded when the change event for the write arrives.
      */
     private void addExpense() {
         // Validate form
@@ -590,43 +624,45 @@ public class ExpenseManagerUI extends BaseUI {
             String status = (String) statusCombo.getSelectedItem();
             String notes = notesArea.getText().trim();
             
-            // Format date
-            SimpleDateFormat sdf = new SimpleDateFormat("MMM dd, yyyy");
-            String dateStr = sdf.format(date);
+            LocalDate expenseDate = date.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
             
-            // Create new expense
-            Expense newExpense = new Expense(dateStr, description, amount, category, status, notes);
-            expenses.add(newExpense);
+            EconomicIntegration integration = EconomicIntegration.getInstance();
+            integration.setCurrentStaffId(adminId);
             
-            // Add to table
-            tableModel.addRow(new Object[]{
-                dateStr,
-                description,
-                "-" + formatCurrency(amount),
-                category,
-                status,
-                "Edit/Delete"
-            });
+            boolean saved;
+            if (editingExpense != null) {
+                editingExpense.setExpenseDate(java.sql.Date.valueOf(expenseDate));
+                editingExpense.setDescription(description);
+                editingExpense.setAmount(BigDecimal.valueOf(amount).setScale(2, RoundingMode.HALF_UP));
+                editingExpense.setExpenseType(EconomicIntegration.getExpenseType(category));
+                editingExpense.setStatus(Expense.ExpenseStatus.fromString(status));
+                editingExpense.setNotes(notes.isEmpty() ? null : notes);
+                saved = integration.updateExpense(editingExpense);
+            } else {
+                saved = integration.addExpense(expenseDate, description, amount, category, status, notes) != null;
+            }
             
-            // Recalculate totals
-            calculateTotalExpenses();
+            if (!saved) {
+                JOptionPane.showMessageDialog(this,
+                    "The expense could not be saved to the database.",
+                    "Error",
+                    JOptionPane.ERROR_MESSAGE);
+                return;
+            }
             
             // Show success message
             JOptionPane.showMessageDialog(this,
-                "Expense added successfully!\n\n" +
+                "Expense saved successfully!\n\n" +
                 "Description: " + description + "\n" +
                 "Amount: " + formatCurrency(amount) + "\n" +
                 "Category: " + category + "\n" +
                 "Status: " + status,
-                "Expense Added",
+                "Expense Saved",
                 JOptionPane.INFORMATION_MESSAGE);
             
             // Clear form
             clearForm();
             
-            // Refresh display (in a real app, this would update the UI)
-            refreshDisplay();
-            
         } catch (Exception e) {
             JOptionPane.showMessageDialog(this,
                 "Error adding expense: " + e.getMessage(),
@@ -665,6 +701,7 @@ public class ExpenseManagerUI extends BaseUI {
         categoryCombo.setSelectedIndex(0);
         statusCombo.setSelectedItem("Paid");
         notesArea.setText("");
+        editingExpense = null;
     }
     
     /**
@@ -702,16 +739,14 @@ public class ExpenseManagerUI extends BaseUI {
             
             // Fill form with expense data
             descriptionField.setText(expense.getDescription());
-            amountSpinner.setValue(expense.getAmount());
-            categoryCombo.setSelectedItem(expense.getCategory());
-            statusCombo.setSelectedItem(expense.getStatus());
+            amountSpinner.setValue(expense.getAmount().doubleValue());
+            dateSpinner.setValue(new Date(expense.getExpenseDate().getTime()));
+            categoryCombo.setSelectedItem(EconomicIntegration.getExpenseCategory(expense.getExpenseType()));
+            statusCombo.setSelectedItem(expense.getStatus().toString());
             notesArea.setText(expense.getNotes());
             
-            // Remove the old expense
-            expenses.remove(row);
-            tableModel.removeRow(row);
-            calculateTotalExpenses();
-            refreshDisplay();
+            // Saving the form updates this expense instead of adding one
+            editingExpense = expense;
             
             JOptionPane.showMessageDialog(this,
                 "Expense loaded for editing. Modify the details and click 'Add Expense' to save changes.",
@@ -730,16 +765,24 @@ public class ExpenseManagerUI extends BaseUI {
             int confirm = JOptionPane.showConfirmDialog(this,
                 "Are you sure you want to delete this expense?\n\n" +
                 "Description: " + expense.getDescription() + "\n" +
-                "Amount: " + formatCurrency(expense.getAmount()),
+                "Amount: " + expense.getFormattedAmount(),
                 "Confirm Delete",
                 JOptionPane.YES_NO_OPTION,
                 JOptionPane.WARNING_MESSAGE);
             
             if (confirm == JOptionPane.YES_OPTION) {
-                expenses.remove(row);
-                tableModel.removeRow(row);
-                calculateTotalExpenses();
-                refreshDisplay();
+                EconomicIntegration integration = EconomicIntegration.getInstance();
+                integration.setCurrentStaffId(adminId);
+                if (!integration.deleteExpense(expense)) {
+                    JOptionPane.showMessageDialog(this,
+                        "The expense could not be deleted from the database.",
+                        "Error",
+                        JOptionPane.ERROR_MESSAGE);
+                    return;
+                }
+                if (expense == editingExpense) {
+                    clearForm();
+                }
                 
                 JOptionPane.showMessageDialog(this,
                     "Expense deleted successfully.",
@@ -753,31 +796,62 @@ public class ExpenseManagerUI extends BaseUI {
      * Refresh display
      */
     private void refreshDisplay() {
-        // In a real application, this would update the budget overview cards
-        // For now, just show a message
+        updateBudgetCards();
         System.out.println("Total expenses updated: " + formatCurrency(totalExpenses));
     }
     
+    /**
+     * Show the paid total against the monthly budget
+     */
+    private void updateBudgetCards() {
+        if (totalExpensesLabel == null) {
+            return;
+        }
+        double budgetUsed = (totalExpenses / MONTHLY_BUDGET) * 100;
+        double remaining = MONTHLY_BUDGET - totalExpenses;
+        
+        totalExpensesLabel.setText(formatCurrency(totalExpenses));
+        totalExpensesLabel.setForeground(PRIMARY_RED);
+        remainingLabel.setText(formatCurrency(remaining));
+        remainingLabel.setForeground(remaining >= 0 ? PRIMARY_GREEN : PRIMARY_RED);
+        budgetUsedLabel.setText(String.format("%.1f%%", budgetUsed));
+        budgetUsedLabel.setForeground(budgetUsed <= 80 ? PRIMARY_GREEN : PRIMARY_YELLOW);
+    }
+    
+    /**
+     * First day of the month shown
+     */
+    private static LocalDate getPeriodStart() {
+        return LocalDate.now().withDayOfMonth(1);
+    }
+    
+    /**
+     * Month shown, e.g. "MAY 2025"
+     */
+    private static String getPeriodTitle() {
+        return getPeriodStart().format(DateTimeFormatter.ofPattern("MMMM yyyy", Locale.ENGLISH)).toUpperCase(Locale.ENGLISH);
+    }
+    
     /**
      * Export expenses
      */
     private void exportExpenses() {
         StringBuilder export = new StringBuilder();
-        export.append("EXPENSE REPORT - MAY 2025\n");
+        export.append("EXPENSE REPORT - ").append(getPeriodTitle()).append("\n");
         export.append("==========================\n\n");
         export.append("Total Expenses: ").append(formatCurrency(totalExpenses)).append("\n");
-        export.append("Monthly Budget: ").append(formatCurrency(monthlyBudget)).append("\n");
-        export.append("Remaining Budget: ").append(formatCurrency(monthlyBudget - totalExpenses)).append("\n\n");
+        export.append("Monthly Budget: ").append(formatCurrency(MONTHLY_BUDGET)).append("\n");
+        export.append("Remaining Budget: ").append(formatCurrency(MONTHLY_BUDGET - totalExpenses)).append("\n\n");
         
         export.append("DETAILED EXPENSES:\n");
         export.append("Date\t\tDescription\t\tAmount\t\tCategory\t\tStatus\n");
         export.append("----\t\t-----------\t\t------\t\t--------\t\t------\n");
         
         for (Expense expense : expenses) {
-            export.append(expense.getDate()).append("\t");
+            export.append(expense.getFormattedExpenseDate()).append("\t");
             export.append(expense.getDescription()).append("\t\t");
-            export.append(formatCurrency(expense.getAmount())).append("\t\t");
-            export.append(expense.getCategory()).append("\t\t");
+            export.append(expense.getFormattedAmount()).append("\t\t");
+            export.append(EconomicIntegration.getExpenseCategory(expense.getExpenseType())).append("\t\t");
             export.append(expense.getStatus()).append("\n");
         }
         
@@ -785,7 +859,7 @@ public class ExpenseManagerUI extends BaseUI {
             "Expense report exported successfully!\n\n" +
             "Total Records: " + expenses.size() + "\n" +
             "Total Amount: " + formatCurrency(totalExpenses) + "\n" +
-            "Export saved to: expense_report_may_2025.csv",
+            "Export saved to: expense_report_" + getPeriodTitle().toLowerCase(Locale.ENGLISH).replace(" ", "_") + ".csv",
             "Export Complete",
             JOptionPane.INFORMATION_MESSAGE);
     }
@@ -860,43 +934,6 @@ public class ExpenseManagerUI extends BaseUI {
         }
     }
     
-    /**
-     * Expense class
-     */
-    public static class Expense {
-        private String date;
-        private String description;
-        private double amount;
-        private String category;
-        private String status;
-        private String notes;
-        
-        public Expense(String date, String description, double amount, String category, String status, String notes) {
-            this.date = date;
-            this.description = description;
-            this.amount = amount;
-            this.category = category;
-            this.status = status;
-            this.notes = notes;
-        }
-        
-        // Getters
-        public String getDate() { return date; }
-        public String getDescription() { return description; }
-        public double getAmount() { return amount; }
-        public String getCategory() { return category; }
-        public String getStatus() { return status; }
-        public String getNotes() { return notes; }
-        
-        // Setters
-        public void setDate(String date) { this.date = date; }
-        public void setDescription(String description) { this.description = description; }
-        public void setAmount(double amount) { this.amount = amount; }
-        public void setCategory(String category) { this.category = category; }
-        public void setStatus(String status) { this.status = status; }
-        public void setNotes(String notes) { this.notes = notes; }
-    }
-    
     /**
      * Main method to test the Expense Manager UI
      */
@@ -17,7 +17,6 @@ import java.awt.event.MouseEvent;
 import javax.swing.BorderFactory;
 import javax.swing.Box;
 import javax.swing.BoxLayout;
-import javax.swing.ImageIcon;
 import javax.swing.JButton;
 import javax.swing.JLabel;
 import javax.swing.JOptionPane;
@@ -366,25 +365,12 @@ public class ShowCarUI extends BaseUI {
         imageLabel.setHorizontalAlignment(SwingConstants.CENTER);
         imageLabel.setVerticalAlignment(SwingConstants.CENTER);
 
-        try {
-            // Try to load the car image
-            String imagePath = car.getImagePath();
-            if (imagePath != null && !imagePath.isEmpty()) {
-                ImageIcon originalIcon = new ImageIcon(imagePath); // Consider ClassLoader for resource path
-                if (originalIcon.getIconWidth() > 0 && originalIcon.getIconHeight() > 0) {
-                    Image scaledImage = originalIcon.getImage().getScaledInstance(380, 270, Image.SCALE_SMOOTH);
-                    imageLabel.setIcon(new ImageIcon(scaledImage));
-                } else {
-                    throw new Exception("Image not found or zero dimensions: " + imagePath);
-                }
-            } else {
-                throw new Exception("Image path is null or empty");
-            }
-        } catch (Exception e) {
-            System.err.println("Image loading error: " + e.getMessage());
-            imageLabel.setText("🚗");
-            imageLabel.setFont(new Font("Arial", Font.PLAIN, 100));
-            imageLabel.setForeground(new Color(150, 150, 150));
+        // Show the placeholder until the image is loaded in the background
+        imageLabel.setText("🚗");
+        imageLabel.setFont(new Font("Arial", Font.PLAIN, 100));
+        imageLabel.setForeground(new Color(150, 150, 150));
+        if (!ThumbnailCache.getInstance().load(imageLabel, car.getImagePath(), 380, 270)) {
+            System.err.println("Image loading error: not found " + car.getImagePath());
         }
 
         imageContainer.add(imageLabel, BorderLayout.CENTER);
@@ -17,7 +17,6 @@ import java.awt.event.MouseEvent;
 import javax.swing.BorderFactory;
 import javax.swing.Box;
 import javax.swing.BoxLayout;
-import javax.swing.ImageIcon;
 import javax.swing.JButton;
 import javax.swing.JLabel;
 import javax.swing.JOptionPane;
@@ -266,21 +265,11 @@ public class ShowComingSoonUI extends BaseUI {
         imageLabel.setHorizontalAlignment(SwingConstants.CENTER);
         imageLabel.setVerticalAlignment(SwingConstants.CENTER);
         
-        try {
-            // Try to load the car image
-            ImageIcon originalIcon = new ImageIcon(car.getImagePath());
-            if (originalIcon.getIconWidth() > 0) {
-                Image scaledImage = originalIcon.getImage().getScaledInstance(380, 270, Image.SCALE_SMOOTH);
-                imageLabel.setIcon(new ImageIcon(scaledImage));
-            } else {
-                throw new Exception("Image not found");
-            }
-        } catch (Exception e) {
-            // Use placeholder if image not found
-            imageLabel.setText("🚗");
-            imageLabel.setFont(new Font("Arial", Font.PLAIN, 100));
-            imageLabel.setForeground(new Color(150, 150, 150));
-        }
+        // Placeholder stays if the image is not found
+        imageLabel.setText("🚗");
+        imageLabel.setFont(new Font("Arial", Font.PLAIN, 100));
+        imageLabel.setForeground(new Color(150, 150, 150));
+        ThumbnailCache.getInstance().load(imageLabel, car.getImagePath(), 380, 270);
         
         imageContainer.add(imageLabel, BorderLayout.CENTER);
         
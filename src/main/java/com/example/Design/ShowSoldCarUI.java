@@ -13,11 +13,11 @@ import java.awt.Image;
 import java.awt.Insets;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
+import com.example.OOP.backend.Money;
 
 import javax.swing.BorderFactory;
 import javax.swing.Box;
 import javax.swing.BoxLayout;
-import javax.swing.ImageIcon;
 import javax.swing.JButton;
 import javax.swing.JLabel;
 import javax.swing.JOptionPane;
@@ -271,21 +271,11 @@ public class ShowSoldCarUI extends BaseUI {
         imageLabel.setHorizontalAlignment(SwingConstants.CENTER);
         imageLabel.setVerticalAlignment(SwingConstants.CENTER);
         
-        try {
-            // Try to load the car image
-            ImageIcon originalIcon = new ImageIcon(car.getImagePath());
-            if (originalIcon.getIconWidth() > 0) {
-                Image scaledImage = originalIcon.getImage().getScaledInstance(310, 230, Image.SCALE_SMOOTH);
-                imageLabel.setIcon(new ImageIcon(scaledImage));
-            } else {
-                throw new Exception("Image not found");
-            }
-        } catch (Exception e) {
-            // Use placeholder if image not found
-            imageLabel.setText("🚗");
-            imageLabel.setFont(new Font("Arial", Font.PLAIN, 80));
-            imageLabel.setForeground(new Color(150, 150, 150));
-        }
+        // Placeholder stays if the image is not found
+        imageLabel.setText("🚗");
+        imageLabel.setFont(new Font("Arial", Font.PLAIN, 80));
+        imageLabel.setForeground(new Color(150, 150, 150));
+        ThumbnailCache.getInstance().load(imageLabel, car.getImagePath(), 310, 230);
         
         imageContainer.add(imageLabel, BorderLayout.CENTER);
         
@@ -435,18 +425,15 @@ public class ShowSoldCarUI extends BaseUI {
         addDetailRow(saleContent, gbc, 2, "Sale Price:", car.getSalePrice());
         
         // Calculate tax and total
-        String priceStr = car.getSalePrice().replace("$", "").replace(",", "");
-        double price = 0;
-        try {
-            price = Double.parseDouble(priceStr);
-        } catch (NumberFormatException e) {
-            price = 30000; // Default value
+        Money price = car.getSalePriceAmount();
+        if (price == null) {
+            price = Money.ofCents(3_000_000); // Default value
         }
-        double tax = price * 0.08;
-        double total = price + tax;
+        Money tax = price.salesTax();
+        Money total = price.plus(tax);
         
-        addDetailRow(saleContent, gbc, 3, "Tax (8%):", String.format("$%.2f", tax));
-        addDetailRow(saleContent, gbc, 4, "Total Amount:", String.format("$%.2f", total));
+        addDetailRow(saleContent, gbc, 3, "Tax (8%):", tax.toString());
+        addDetailRow(saleContent, gbc, 4, "Total Amount:", total.toString());
         addDetailRow(saleContent, gbc, 5, "Payment Method:", car.getPaymentMethod());
         
         // Buyer Information Section
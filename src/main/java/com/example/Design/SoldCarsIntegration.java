@@ -1,6 +1,8 @@
 package com.example.Design;
 
 import com.example.OOP.backend.*;
+import java.io.File;
+import java.io.IOException;
 import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.List;
@@ -14,13 +16,14 @@ public class SoldCarsIntegration {
     
     private static SoldCarsIntegration instance;
     private SalesDAO salesDAO;
-    private CarDAO carDAO;
     private AuditLogDAO auditLogDAO;
     private int currentStaffId = 1;
     
+    // Sales behind the rows last returned by getSoldCarsData
+    private volatile List<Sale> soldCarSales = new ArrayList<>();
+    
     private SoldCarsIntegration() {
         this.salesDAO = new SalesDAO();
-        this.carDAO = new CarDAO();
         this.auditLogDAO = new AuditLogDAO();
     }
     
@@ -44,32 +47,17 @@ public class SoldCarsIntegration {
         try {
             System.out.println("Fetching sold cars data from database...");
             
-            // First try to get sold cars from database
-            CarDAO.CarFilter filter = new CarDAO.CarFilter();
-            filter.setStatus(Car.CarStatus.SOLD);
-            List<Car> soldCars = carDAO.getCars(filter);
+            // Sold cars already paired with their sale by the database
+            List<Sale> sales = salesDAO.getSoldCarSales();
+            soldCarSales = sales;
             
-            System.out.println("Found " + soldCars.size() + " sold cars in database");
+            System.out.println("Found " + sales.size() + " sold cars in database");
             
-            if (!soldCars.isEmpty()) {
-                // Get all sales to match with cars
-                List<Sale> allSales = salesDAO.getSales(null);
-                System.out.println("Found " + allSales.size() + " total sales records");
-                
+            if (!sales.isEmpty()) {
                 // Create table rows for each sold car
-                for (Car car : soldCars) {
-                    // Find matching sale record
-                    Sale carSale = null;
-                    for (Sale sale : allSales) {
-                        if (sale.getCarId() == car.getCarId()) {
-                            carSale = sale;
-                            break;
-                        }
-                    }
-                    
-                    // Skip if no sale record found (shouldn't happen for sold cars)
-                    if (carSale == null) {
-                        System.out.println("Warning: No sale record found for sold car ID: " + car.getCarId());
+                for (Sale carSale : sales) {
+                    Car car = carSale.getCar();
+                    if (car == null) {
                         continue;
                     }
                     
@@ -79,7 +67,8 @@ public class SoldCarsIntegration {
                     String type = car.getCarModel() != null ? 
                                  car.getCarModel().getCategoryDisplayName() : "Unknown";
                     
-                    // Create row data
+                    // Create row data; after the displayed columns come the sale price as
+                    // Money for filtering, then the sale and car IDs for getSale
                     Object[] rowData = new Object[] {
                         model,
                         year,
@@ -87,7 +76,10 @@ public class SoldCarsIntegration {
                         carSale.getFormattedSaleDate(),
                         carSale.getFormattedSalePrice(),
                         carSale.getBuyerName(),
-                        "View"
+                        "View",
+                        Money.of(carSale.getSalePrice()),
+                        carSale.getSaleId(),
+                        carSale.getCarId()
                     };
                     
                     soldCarsData.add(rowData);
@@ -109,7 +101,10 @@ public class SoldCarsIntegration {
                         record.getSaleDate(),
                         record.getSalePrice(),
                         record.getBuyerName(),
-                        "View"
+                        "View",
+                        record.getSalePriceAmount(),
+                        null, // no sale row
+                        car.getId()
                     };
                     
                     soldCarsData.add(rowData);
@@ -137,7 +132,10 @@ public class SoldCarsIntegration {
                         record.getSaleDate(),
                         record.getSalePrice(),
                         record.getBuyerName(),
-                        "View"
+                        "View",
+                        record.getSalePriceAmount(),
+                        null, // no sale row
+                        car.getId()
                     };
                     
                     soldCarsData.add(rowData);
@@ -153,64 +151,57 @@ public class SoldCarsIntegration {
     }
     
     /**
-     * Get sale by index in the display list
+     * Get the sale behind a sold cars row, by the sale and car IDs carried in
+     * the row. Rows without a sale ID come from CarStatusManager and get a
+     * placeholder sale built from its record of the car.
      */
-    public Sale getSaleByIndex(int index) {
-        try {
-            // Get all sold cars
-            CarDAO.CarFilter filter = new CarDAO.CarFilter();
-            filter.setStatus(Car.CarStatus.SOLD);
-            List<Car> soldCars = carDAO.getCars(filter);
-            
-            // Check if index is valid
-            if (index < 0 || index >= soldCars.size()) {
-                System.err.println("Error: Invalid index " + index + " for " + soldCars.size() + " sold cars");
+    public Sale getSale(Integer saleId, int carId) {
+        if (saleId != null) {
+            try {
+                // Use the sales loaded with the displayed rows; only query if the sale is not among them
+                for (Sale sale : soldCarSales) {
+                    if (sale.getSaleId() == saleId) {
+                        return sale;
+                    }
+                }
+                
+                Sale sale = salesDAO.getSaleById(saleId);
+                if (sale == null) {
+                    System.err.println("Error: Sale " + saleId + " not found");
+                }
+                return sale;
+                
+            } catch (Exception e) {
+                System.err.println("Error getting sale " + saleId + ": " + e.getMessage());
+                e.printStackTrace();
                 return null;
             }
-            
-            // Get the car at the specified index
-            Car car = soldCars.get(index);
-            
-            // Find the sale for this car
-            List<Sale> carSales = salesDAO.getSalesByCarId(car.getCarId());
-            if (!carSales.isEmpty()) {
-                return carSales.get(0); // Return the first (usually only) sale
-            } else {
-                System.err.println("Error: No sale record found for car ID: " + car.getCarId());
-            }
-            
-        } catch (Exception e) {
-            System.err.println("Error getting sale by index: " + e.getMessage());
-            e.printStackTrace();
         }
         
         // Fallback to creating a placeholder sale
         try {
             // Get sold car record from CarStatusManager
-            List<CarStatusManager.SoldCarRecord> inMemorySoldCars = 
-                CarStatusManager.getInstance().getSoldCars();
-                
-            if (index < 0 || index >= inMemorySoldCars.size()) {
-                System.err.println("Error: Invalid index " + index + " for " + inMemorySoldCars.size() + " in-memory sold cars");
-                return null;
+            CarStatusManager.SoldCarRecord record = null;
+            for (CarStatusManager.SoldCarRecord soldCar : CarStatusManager.getInstance().getSoldCars()) {
+                if (soldCar.getCar().getId() == carId) {
+                    record = soldCar;
+                    break;
+                }
             }
             
-            CarStatusManager.SoldCarRecord record = inMemorySoldCars.get(index);
+            if (record == null) {
+                System.err.println("Error: No in-memory sale for car " + carId);
+                return null;
+            }
             
             // Create a placeholder Sale object
             Sale placeholderSale = new Sale();
             placeholderSale.setBuyerName(record.getBuyerName());
             placeholderSale.setBuyerContact(record.getBuyerContact());
             
-            // Parse price
-            String priceStr = record.getSalePrice().replace("$", "").replace(",", "");
-            if (!priceStr.isEmpty()) {
-                try {
-                    placeholderSale.setSalePrice(new BigDecimal(priceStr));
-                } catch (NumberFormatException e) {
-                    placeholderSale.setSalePrice(BigDecimal.ZERO);
-                }
-            }
+            // Price as parsed when the sale was recorded
+            Money price = record.getSalePriceAmount();
+            placeholderSale.setSalePrice(price != null ? price.toBigDecimal() : BigDecimal.ZERO);
             
             // Set payment method if available
             if (record.getPaymentMethod() != null && !record.getPaymentMethod().isEmpty()) {
@@ -282,21 +273,20 @@ public class SoldCarsIntegration {
                 stats.totalSoldCount = inMemorySoldCars.size();
                 
                 // Calculate total value and average price
-                double totalValue = 0;
+                long totalCents = 0;
                 for (CarStatusManager.SoldCarRecord record : inMemorySoldCars) {
-                    String priceStr = record.getSalePrice().replace("$", "").replace(",", "");
-                    try {
-                        double price = Double.parseDouble(priceStr);
-                        totalValue += price;
-                    } catch (NumberFormatException nfe) {
-                        // Skip invalid prices
+                    Money price = record.getSalePriceAmount();
+                    // Skip invalid prices
+                    if (price != null) {
+                        totalCents += price.getCents();
                     }
                 }
                 
-                stats.totalSalesValue = totalValue;
+                Money totalValue = Money.ofCents(totalCents);
+                stats.totalSalesValue = totalValue.toDouble();
                 
                 if (stats.totalSoldCount > 0) {
-                    stats.averagePrice = totalValue / stats.totalSoldCount;
+                    stats.averagePrice = totalValue.dividedBy(stats.totalSoldCount).toDouble();
                 }
                 
                 // Count monthly sales (assume current month format is "MMM")
@@ -383,6 +373,17 @@ public class SoldCarsIntegration {
         }
     }
     
+    /**
+     * Write a PDF receipt for the sale, replacing the file if it exists
+     */
+    public void exportReceipt(Sale sale, File file) throws IOException {
+        new SaleReceiptWriter().write(sale, file.toPath());
+        
+        auditLogDAO.logAction(currentStaffId, "Report Generated",
+            "Exported receipt for sale ID: " + sale.getSaleId() + " - Buyer: " + sale.getBuyerName(),
+            "Success");
+    }
+    
     /**
      * Sales statistics class
      */
@@ -1,18 +1,23 @@
 package com.example.Design;
 
+import com.example.OOP.backend.DataChangeEvents;
+import com.example.OOP.backend.Money;
 import java.awt.BorderLayout;
 import java.awt.Color;
 import java.awt.Component;
 import java.awt.Cursor;
+import java.awt.Desktop;
 import java.awt.Dimension;
 import java.awt.FlowLayout;
 import java.awt.Font;
 import java.awt.GridLayout;
-import java.awt.Image;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
+import java.io.File;
+import java.io.IOException;
 import java.text.DecimalFormat;
 import java.text.SimpleDateFormat;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
@@ -24,19 +29,20 @@ import java.math.BigDecimal;
 import javax.swing.BorderFactory;
 import javax.swing.Box;
 import javax.swing.BoxLayout;
-import javax.swing.ImageIcon;
 import javax.swing.JButton;
 import javax.swing.JCheckBox;
 import javax.swing.JDialog;
+import javax.swing.JFileChooser;
 import javax.swing.JLabel;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
+import javax.swing.JScrollPane;
 import javax.swing.JSpinner;
 import javax.swing.SpinnerDateModel;
 import javax.swing.SpinnerNumberModel;
 import javax.swing.SwingConstants;
-import javax.swing.SwingUtilities;
 import javax.swing.border.EmptyBorder;
+import javax.swing.filechooser.FileNameExtensionFilter;
 
 /**
  * Sold Cars UI class that extends BaseUI to inherit common UI elements
@@ -65,6 +71,12 @@ public class SoldCarsUI extends BaseUI {
     
     // Summary statistics
     private SoldCarsIntegration.SalesStatistics salesStats;
+    
+    // Panels refreshed when sales data arrives. No initializers: they are
+    // assigned from createContentPanel, which runs inside the BaseUI constructor.
+    private JPanel statsPanel;
+    private JScrollPane carsScrollPane;
+    private VirtualCardGrid<SoldCar> carsGrid;
 
     /**
      * Constructor with admin ID
@@ -74,6 +86,8 @@ public class SoldCarsUI extends BaseUI {
         super(adminId);
         this.integration = SoldCarsIntegration.getInstance();
         this.integration.setCurrentStaffId(adminId);
+        loadSoldCarsData();
+        listenForDataChanges(this::onDataChanged);
     }
     
     /**
@@ -83,6 +97,8 @@ public class SoldCarsUI extends BaseUI {
         super();
         this.integration = SoldCarsIntegration.getInstance();
         this.integration.setCurrentStaffId(1); // Default staff ID
+        loadSoldCarsData();
+        listenForDataChanges(this::onDataChanged);
     }
     
     /**
@@ -205,11 +221,12 @@ public class SoldCarsUI extends BaseUI {
         contentPanel.setOpaque(false);
         contentPanel.setLayout(new BoxLayout(contentPanel, BoxLayout.Y_AXIS));
         
-        // Load data from database
-        loadSoldCarsData();
+        // Sales data is loaded in the background once the window is built
+        soldCars = new ArrayList<>();
+        salesStats = new SoldCarsIntegration.SalesStatistics();
         
         // Sales statistics overview
-        JPanel statsPanel = new JPanel();
+        statsPanel = new JPanel();
         statsPanel.setOpaque(false);
         statsPanel.setLayout(new GridLayout(1, 4, 20, 0));
         statsPanel.setAlignmentX(Component.LEFT_ALIGNMENT);
@@ -274,8 +291,14 @@ public class SoldCarsUI extends BaseUI {
         carsLabel.setBorder(BorderFactory.createEmptyBorder(30, 0, 15, 0));
         carsLabel.setAlignmentX(Component.LEFT_ALIGNMENT);
         
-        // Create cars grid panel
-        JPanel carsGridPanel = createCarsGrid();
+        // Cars grid only builds the cards in view; placeholder until the sales are loaded
+        carsGrid = new VirtualCardGrid<>(4, new Dimension(280, 400), 20, car -> car, this::createCarCard);
+        carsScrollPane = new JScrollPane(createLoadingPlaceholder("Loading sales history..."));
+        carsScrollPane.setBorder(BorderFactory.createEmptyBorder());
+        carsScrollPane.setOpaque(false);
+        carsScrollPane.getViewport().setOpaque(false);
+        carsScrollPane.setAlignmentX(Component.LEFT_ALIGNMENT);
+        carsScrollPane.setPreferredSize(new Dimension(1000, 500));
         
         // Create footer panel
         footerPanel = createFooterPanel();
@@ -285,7 +308,7 @@ public class SoldCarsUI extends BaseUI {
         contentPanel.add(filterLabel);
         contentPanel.add(filterCardsPanel);
         contentPanel.add(carsLabel);
-        contentPanel.add(carsGridPanel);
+        contentPanel.add(carsScrollPane);
         
         // Add all panels to main panel
         mainPanel.add(topPanel, BorderLayout.NORTH);
@@ -296,30 +319,89 @@ public class SoldCarsUI extends BaseUI {
     }
     
     /**
-     * Load sold cars data from database
+     * Load sold cars data from database.
+     * The queries run off the Event Dispatch Thread and the statistics and
+     * grid are filled in when they complete.
      */
-   /**
- * Load sold cars data from database
- */
-private void loadSoldCarsData() {
-    try {
+    private void loadSoldCarsData() {
+        loadInBackground("soldCars", this::fetchSoldCarsData, data -> {
+            salesStats = data.stats;
+            soldCars = reuseUnchangedCars(soldCars, data.cars);
+            
+            // Update the overview cards with the loaded statistics
+            setOverviewCardCount((JPanel) statsPanel.getComponent(0), Integer.toString(salesStats.totalSoldCount));
+            setOverviewCardCount((JPanel) statsPanel.getComponent(1), formatCurrency(salesStats.totalSalesValue));
+            setOverviewCardCount((JPanel) statsPanel.getComponent(2), formatCurrency(salesStats.averagePrice));
+            setOverviewCardCount((JPanel) statsPanel.getComponent(3), Integer.toString(salesStats.monthlySalesCount));
+            
+            refreshCarsDisplay();
+        });
+    }
+    
+    /**
+     * Reload when a sale is added, changed or deleted. Loads requested while
+     * one is running are coalesced, so a burst of sales costs one reload.
+     */
+    private void onDataChanged(DataChangeEvents.Change change) {
+        if (change.getTopic() == DataChangeEvents.Topic.SALES) {
+            loadSoldCarsData();
+        }
+    }
+    
+    /**
+     * Replace loaded rows that match a row already shown with the shown
+     * instance, so the grid keeps their cards and only builds cards for sales
+     * that were added or changed. IDs are row positions, so reused rows take
+     * their new position.
+     */
+    private static List<SoldCar> reuseUnchangedCars(List<SoldCar> shown, List<SoldCar> loaded) {
+        Map<String, ArrayDeque<SoldCar>> shownByContent = new HashMap<>();
+        for (SoldCar car : shown) {
+            shownByContent.computeIfAbsent(contentKey(car), k -> new ArrayDeque<>()).add(car);
+        }
+        
+        List<SoldCar> result = new ArrayList<>(loaded.size());
+        for (SoldCar car : loaded) {
+            ArrayDeque<SoldCar> matches = shownByContent.get(contentKey(car));
+            SoldCar existing = matches != null ? matches.poll() : null;
+            if (existing != null) {
+                existing.setId(car.getId());
+                result.add(existing);
+            } else {
+                result.add(car);
+            }
+        }
+        return result;
+    }
+    
+    private static String contentKey(SoldCar car) {
+        return car.getModel() + "|" + car.getYear() + "|" + car.getType() + "|" + car.getSaleDate()
+            + "|" + car.getSalePrice() + "|" + car.getBuyerName();
+    }
+    
+    /**
+     * Fetch statistics and sold cars. Runs on a background thread.
+     */
+    private SoldCarsData fetchSoldCarsData() {
         // Make sure integration is properly initialized
-        integration = SoldCarsIntegration.getInstance();
-        integration.setCurrentStaffId(adminId);
+        SoldCarsIntegration soldCarsIntegration = SoldCarsIntegration.getInstance();
+        soldCarsIntegration.setCurrentStaffId(adminId);
+        
+        SoldCarsData data = new SoldCarsData();
         
         // Get statistics from integration
-        salesStats = integration.getSalesStatistics();
+        data.stats = soldCarsIntegration.getSalesStatistics();
         
         // Get sold cars data from integration
-        List<Object[]> soldCarsData = integration.getSoldCarsData();
-        soldCars = new ArrayList<>();
+        List<Object[]> soldCarsData = soldCarsIntegration.getSoldCarsData();
+        data.cars = new ArrayList<>(soldCarsData.size());
         
         // Convert database rows to SoldCar objects
         for (int i = 0; i < soldCarsData.size(); i++) {
             Object[] row = soldCarsData.get(i);
             
             // Create SoldCar from database row data
-            // row format: [model, year, type, date, price, buyer, "View"]
+            // row format: [model, year, type, date, price, buyer, "View", price as Money, sale ID, car ID]
             SoldCar soldCar = new SoldCar(
                 i + 1, // ID
                 (String) row[0], // model
@@ -333,57 +415,21 @@ private void loadSoldCarsData() {
                 "N/A", // payment method (not in database query)
                 "placeholder_car.jpg" // image path
             );
+            soldCar.setSalePriceAmount((Money) row[7]);
+            soldCar.setSaleId((Integer) row[8]);
+            soldCar.setCarId((Integer) row[9]);
             
-            soldCars.add(soldCar);
+            data.cars.add(soldCar);
         }
-        
-    } catch (Exception e) {
-        System.err.println("Error loading sold cars data: " + e.getMessage());
-        e.printStackTrace();
-        
-        // Initialize empty data if error occurs
-        soldCars = new ArrayList<>();
-        salesStats = new SoldCarsIntegration.SalesStatistics();
-        
-        // Show error message
-        JOptionPane.showMessageDialog(this,
-            "Error loading sold cars data from database.\n" + e.getMessage(),
-            "Database Error",
-            JOptionPane.ERROR_MESSAGE);
+        return data;
     }
-}
     
     /**
-     * Create cars grid panel with car cards
+     * Result of a background sold cars load
      */
-    private JPanel createCarsGrid() {
-        JPanel gridContainer = new JPanel();
-        gridContainer.setOpaque(false);
-        gridContainer.setLayout(new BoxLayout(gridContainer, BoxLayout.Y_AXIS));
-        gridContainer.setAlignmentX(Component.LEFT_ALIGNMENT);
-        
-        // Create grid layout (4 cars per row)
-        JPanel gridPanel = new JPanel(new GridLayout(0, 4, 20, 20));
-        gridPanel.setOpaque(false);
-        gridPanel.setBorder(BorderFactory.createEmptyBorder(0, 0, 20, 0));
-        
-        // Add car cards to grid
-        for (SoldCar car : soldCars) {
-            JPanel carCard = createCarCard(car);
-            gridPanel.add(carCard);
-        }
-        
-        // If no sold cars, show message
-        if (soldCars.isEmpty()) {
-            JLabel noDataLabel = new JLabel("No sold cars found in database");
-            noDataLabel.setFont(new Font("Arial", Font.ITALIC, 16));
-            noDataLabel.setForeground(new Color(120, 120, 120));
-            noDataLabel.setHorizontalAlignment(SwingConstants.CENTER);
-            gridPanel.add(noDataLabel);
-        }
-        
-        gridContainer.add(gridPanel);
-        return gridContainer;
+    private static class SoldCarsData {
+        SoldCarsIntegration.SalesStatistics stats;
+        List<SoldCar> cars;
     }
     
     /**
@@ -408,21 +454,11 @@ private void loadSoldCarsData() {
         imageLabel.setHorizontalAlignment(SwingConstants.CENTER);
         imageLabel.setVerticalAlignment(SwingConstants.CENTER);
         
-        try {
-            // Try to load the actual image
-            ImageIcon originalIcon = new ImageIcon(car.getImagePath());
-            if (originalIcon.getIconWidth() > 0) {
-                Image scaledImage = originalIcon.getImage().getScaledInstance(240, 140, Image.SCALE_SMOOTH);
-                imageLabel.setIcon(new ImageIcon(scaledImage));
-            } else {
-                throw new Exception("Image not found");
-            }
-        } catch (Exception e) {
-            // Use placeholder if image not found
-            imageLabel.setText("🚗");
-            imageLabel.setFont(new Font("Arial", Font.PLAIN, 50));
-            imageLabel.setForeground(new Color(150, 150, 150));
-        }
+        // Placeholder stays if the image is not found
+        imageLabel.setText("🚗");
+        imageLabel.setFont(new Font("Arial", Font.PLAIN, 50));
+        imageLabel.setForeground(new Color(150, 150, 150));
+        ThumbnailCache.getInstance().load(imageLabel, car.getImagePath(), 240, 140);
         
         imagePanel.add(imageLabel, BorderLayout.CENTER);
         
@@ -596,7 +632,7 @@ private void loadSoldCarsData() {
     private void showSaleDetails(SoldCar car) {
         // Try to get the actual Sale object from database
         try {
-            com.example.OOP.backend.Sale sale = integration.getSaleByIndex(car.getId() - 1);
+            com.example.OOP.backend.Sale sale = integration.getSale(car.getSaleId(), car.getCarId());
             if (sale != null) {
                 // Create detailed dialog with sale information
                 JDialog detailDialog = new JDialog(this, "Sale Details", true);
@@ -629,17 +665,60 @@ private void loadSoldCarsData() {
     }
     
     /**
-     * Print receipt for the sold car
+     * Print receipt for the sold car.
+     * Saves the receipt as a PDF and, where the desktop supports it, sends
+     * it to the default printer.
      */
     private void printReceipt(SoldCar car) {
-        JOptionPane.showMessageDialog(this,
-            "Printing receipt for:\n\n" +
-            "Vehicle: " + car.getModel() + " " + car.getYear() + "\n" +
-            "Buyer: " + car.getBuyerName() + "\n" +
-            "Sale Price: " + car.getSalePrice() + "\n" +
-            "Date: " + car.getSaleDate(),
+        com.example.OOP.backend.Sale sale = integration.getSale(car.getSaleId(), car.getCarId());
+        if (sale == null) {
+            JOptionPane.showMessageDialog(this, "Sale details not found", "Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setDialogTitle("Save Receipt");
+        fileChooser.setFileFilter(new FileNameExtensionFilter("PDF (*.pdf)", "pdf"));
+        fileChooser.setSelectedFile(new File("receipt_" + sale.getSaleId() + ".pdf"));
+        if (fileChooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        File file = fileChooser.getSelectedFile();
+        if (!file.getName().toLowerCase().endsWith(".pdf")) {
+            file = new File(file.getParentFile(), file.getName() + ".pdf");
+        }
+        
+        try {
+            integration.exportReceipt(sale, file);
+        } catch (IOException e) {
+            System.err.println("Error writing receipt: " + e.getMessage());
+            e.printStackTrace();
+            JOptionPane.showMessageDialog(this, "Could not save receipt: " + e.getMessage(),
+                "Print Receipt", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        
+        boolean canPrint = Desktop.isDesktopSupported() && Desktop.getDesktop().isSupported(Desktop.Action.PRINT);
+        if (!canPrint) {
+            JOptionPane.showMessageDialog(this,
+                "Receipt saved to: " + file.getAbsolutePath(),
+                "Print Receipt",
+                JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+        
+        int choice = JOptionPane.showConfirmDialog(this,
+            "Receipt saved to: " + file.getAbsolutePath() + "\n\nSend it to the default printer?",
             "Print Receipt",
-            JOptionPane.INFORMATION_MESSAGE);
+            JOptionPane.YES_NO_OPTION);
+        if (choice == JOptionPane.YES_OPTION) {
+            try {
+                Desktop.getDesktop().print(file);
+            } catch (IOException | UnsupportedOperationException e) {
+                JOptionPane.showMessageDialog(this, "Could not print receipt: " + e.getMessage(),
+                    "Print Receipt", JOptionPane.ERROR_MESSAGE);
+            }
+        }
     }
     
     /**
@@ -997,17 +1076,15 @@ SpinnerDateModel endDateModel = new SpinnerDateModel(today, null, null, java.uti
             }
         }
         
-        // Price range filter
+        // Price range filter, compared in cents
         if (activeFilters.containsKey("priceRange")) {
             int[] priceRange = (int[]) activeFilters.get("priceRange");
-            try {
-                String priceStr = car.getSalePrice().replaceAll("[^0-9.]", "");
-                double carPrice = Double.parseDouble(priceStr);
-                if (carPrice < priceRange[0] || carPrice > priceRange[1]) {
-                    return false;
-                }
-            } catch (Exception e) {
-                // If price parsing fails, exclude the car
+            Money carPrice = car.getSalePriceAmount();
+            if (carPrice == null) {
+                // If the price is not an amount, exclude the car
+                return false;
+            }
+            if (carPrice.getCents() < priceRange[0] * 100L || carPrice.getCents() > priceRange[1] * 100L) {
                 return false;
             }
         }
@@ -1025,60 +1102,20 @@ SpinnerDateModel endDateModel = new SpinnerDateModel(today, null, null, java.uti
     }
     
     /**
-     * Update the cars grid with filtered cars
+     * Update the cars grid with filtered cars.
+     * Cards for cars that were already shown are reused.
      */
     private void updateCarsGrid(List<SoldCar> filteredCars) {
-        // Remove the current content panel and recreate it
-        SwingUtilities.invokeLater(() -> {
-            // Find the main content panel and update it
-            JPanel contentPanel = (JPanel) ((JPanel) getContentPane().getComponent(0)).getComponent(1);
-            
-            // Remove the cars grid (last component)
-            if (contentPanel.getComponentCount() > 3) {
-                contentPanel.remove(contentPanel.getComponentCount() - 1);
-            }
-            
-            // Create new grid with filtered cars
-            JPanel newCarsGrid = createFilteredCarsGrid(filteredCars);
-            contentPanel.add(newCarsGrid);
-            
-            // Refresh the display
-            revalidate();
-            repaint();
-        });
-    }
-    
-    /**
-     * Create cars grid with filtered cars
-     */
-    private JPanel createFilteredCarsGrid(List<SoldCar> filteredCars) {
-        JPanel gridContainer = new JPanel();
-        gridContainer.setOpaque(false);
-        gridContainer.setLayout(new BoxLayout(gridContainer, BoxLayout.Y_AXIS));
-        gridContainer.setAlignmentX(Component.LEFT_ALIGNMENT);
-        
-        // Create grid layout (4 cars per row)
-        JPanel gridPanel = new JPanel(new GridLayout(0, 4, 20, 20));
-        gridPanel.setOpaque(false);
-        gridPanel.setBorder(BorderFactory.createEmptyBorder(0, 0, 20, 0));
-        
-        // Add car cards to grid
-        for (SoldCar car : filteredCars) {
-            JPanel carCard = createCarCard(car);
-            gridPanel.add(carCard);
-        }
-        
-        // If no cars match filters, show message
-        if (filteredCars.isEmpty()) {
-            JLabel noDataLabel = new JLabel("No sold cars match the current filters");
-            noDataLabel.setFont(new Font("Arial", Font.ITALIC, 16));
-            noDataLabel.setForeground(new Color(120, 120, 120));
-            noDataLabel.setHorizontalAlignment(SwingConstants.CENTER);
-            gridPanel.add(noDataLabel);
+        carsGrid.setEmptyMessage(soldCars.isEmpty()
+            ? "No sold cars found in database"
+            : "No sold cars match the current filters");
+        carsGrid.setItems(filteredCars);
+        
+        // Replace the loading placeholder on first load
+        if (carsScrollPane.getViewport().getView() != carsGrid) {
+            carsScrollPane.setViewportView(carsGrid);
+            carsScrollPane.getViewport().setOpaque(false);
         }
-        
-        gridContainer.add(gridPanel);
-        return gridContainer;
     }
     
     /**
@@ -1126,6 +1163,12 @@ SpinnerDateModel endDateModel = new SpinnerDateModel(today, null, null, java.uti
         private String buyerContact;
         private String paymentMethod;
         private String imagePath;
+        // salePrice as an amount; parsed on first use unless set by the loader
+        private Money salePriceAmount;
+        private boolean salePriceParsed;
+        // The sale shown, or null if it is only known to CarStatusManager
+        private Integer saleId;
+        private int carId;
         
         public SoldCar(int id, String model, String year, String type, String color,
                        String salePrice, String saleDate, String buyerName,
@@ -1155,6 +1198,23 @@ SpinnerDateModel endDateModel = new SpinnerDateModel(today, null, null, java.uti
         public String getBuyerContact() { return buyerContact; }
         public String getPaymentMethod() { return paymentMethod; }
         public String getImagePath() { return imagePath; }
+        public Integer getSaleId() { return saleId; }
+        public int getCarId() { return carId; }
+        
+        /**
+         * Sale price as an amount, or null if it is not one
+         */
+        public Money getSalePriceAmount() {
+            if (!salePriceParsed) {
+                try {
+                    salePriceAmount = salePrice != null ? Money.parse(salePrice) : null;
+                } catch (NumberFormatException | ArithmeticException e) {
+                    salePriceAmount = null;
+                }
+                salePriceParsed = true;
+            }
+            return salePriceAmount;
+        }
         
         // Setters
         public void setId(int id) { this.id = id; }
@@ -1162,11 +1222,24 @@ SpinnerDateModel endDateModel = new SpinnerDateModel(today, null, null, java.uti
         public void setYear(String year) { this.year = year; }
         public void setType(String type) { this.type = type; }
         public void setColor(String color) { this.color = color; }
-        public void setSalePrice(String salePrice) { this.salePrice = salePrice; }
+        public void setSalePrice(String salePrice) {
+            this.salePrice = salePrice;
+            this.salePriceParsed = false;
+        }
+        
+        /**
+         * Set the sale price amount when it is already known, so it is never parsed
+         */
+        public void setSalePriceAmount(Money salePriceAmount) {
+            this.salePriceAmount = salePriceAmount;
+            this.salePriceParsed = true;
+        }
         public void setSaleDate(String saleDate) { this.saleDate = saleDate; }
         public void setBuyerName(String buyerName) { this.buyerName = buyerName; }
         public void setBuyerContact(String buyerContact) { this.buyerContact = buyerContact; }
         public void setPaymentMethod(String paymentMethod) { this.paymentMethod = paymentMethod; }
         public void setImagePath(String imagePath) { this.imagePath = imagePath; }
+        public void setSaleId(Integer saleId) { this.saleId = saleId; }
+        public void setCarId(int carId) { this.carId = carId; }
     }
 }
\ No newline at end of file
@@ -0,0 +1,448 @@
+package com.example.Design;
+
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.imageio.ImageIO;
+import javax.swing.ImageIcon;
+import javax.swing.JLabel;
+import javax.swing.SwingUtilities;
+
+/**
+ * Shared cache of scaled car images.
+ * Thumbnails are keyed by (path, size, file modification time) and kept in a
+ * bounded in-memory LRU, backed by PNG copies on disk so a restart does not
+ * decode every full-size photo again. Misses are decoded and scaled on a
+ * worker pool; the label keeps its placeholder until the thumbnail is ready.
+ * Writing a thumbnail deletes the copies made from older versions of the same
+ * photo, and the disk copies are pruned least recently used first (by file
+ * modification time, refreshed on each disk hit) once they pass MAX_DISK_BYTES.
+ */
+public class ThumbnailCache {
+
+    private static final String KEY_PROPERTY = "ThumbnailCache.key";
+
+    // Decoded thumbnails kept in memory, measured in ARGB bytes
+    private static final long MAX_MEMORY_BYTES = 64L * 1024 * 1024;
+
+    // PNG files kept in the disk cache
+    private static final long MAX_DISK_BYTES = 256L * 1024 * 1024;
+
+    private static ThumbnailCache instance;
+
+    private final Path diskDirectory;
+    private final ExecutorService workers;
+
+    // Access-ordered so the least recently shown thumbnail is evicted first
+    private final LinkedHashMap<Key, BufferedImage> memory = new LinkedHashMap<>(64, 0.75f, true);
+    private long memoryBytes;
+
+    // Total size of the disk cache, measured on the first write; guarded by diskLock
+    private final Object diskLock = new Object();
+    private long diskBytes = -1;
+
+    // Loads in progress, so several cards showing the same photo decode it once
+    private final ConcurrentHashMap<Key, CompletableFuture<BufferedImage>> inFlight = new ConcurrentHashMap<>();
+
+    private ThumbnailCache(Path diskDirectory) {
+        this.diskDirectory = diskDirectory;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(
+                Math.max(2, Runtime.getRuntime().availableProcessors()), r -> {
+                    Thread thread = new Thread(r, "thumbnail-loader-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.NORM_PRIORITY - 1);
+                    return thread;
+                });
+    }
+
+    public static synchronized ThumbnailCache getInstance() {
+        if (instance == null) {
+            instance = new ThumbnailCache(Paths.get(System.getProperty("user.home"), ".car_store", "thumbnails"));
+        }
+        return instance;
+    }
+
+    /**
+     * Show a scaled copy of an image in a label.
+     * Must be called on the EDT. A cached thumbnail is set immediately;
+     * otherwise the label keeps whatever placeholder the caller gave it and
+     * the thumbnail is swapped in when it has been loaded. The label's text
+     * is cleared when the icon is set.
+     * @return false if the path does not point to a readable file
+     */
+    public boolean load(JLabel label, String path, int width, int height) {
+        Key key = keyFor(path, width, height);
+        if (key == null) {
+            label.putClientProperty(KEY_PROPERTY, null);
+            return false;
+        }
+
+        BufferedImage cached = getFromMemory(key);
+        if (cached != null) {
+            show(label, cached);
+            label.putClientProperty(KEY_PROPERTY, key);
+            return true;
+        }
+
+        // The label may be reused for another image before this one finishes
+        label.putClientProperty(KEY_PROPERTY, key);
+        fetch(key).whenComplete((image, error) -> {
+            if (error != null || image == null) {
+                System.err.println("Error loading image " + path + ": "
+                        + (error != null ? error.getMessage() : "unsupported format"));
+                return;
+            }
+            SwingUtilities.invokeLater(() -> {
+                if (key.equals(label.getClientProperty(KEY_PROPERTY))) {
+                    show(label, image);
+                }
+            });
+        });
+        return true;
+    }
+
+    /**
+     * Stop a pending load from replacing the label's contents
+     */
+    public void cancel(JLabel label) {
+        label.putClientProperty(KEY_PROPERTY, null);
+    }
+
+    /**
+     * Drop every thumbnail held in memory. The disk cache is left in place.
+     */
+    public synchronized void clearMemory() {
+        memory.clear();
+        memoryBytes = 0;
+    }
+
+    private static void show(JLabel label, BufferedImage image) {
+        label.setText("");
+        label.setIcon(new ImageIcon(image));
+    }
+
+    private static Key keyFor(String path, int width, int height) {
+        if (path == null || path.isEmpty()) {
+            return null;
+        }
+        File file = new File(path);
+        if (!file.isFile()) {
+            return null;
+        }
+        return new Key(file.getAbsolutePath(), width, height, file.lastModified());
+    }
+
+    private CompletableFuture<BufferedImage> fetch(Key key) {
+        CompletableFuture<BufferedImage> future = inFlight.get(key);
+        if (future != null) {
+            return future;
+        }
+
+        CompletableFuture<BufferedImage> created = new CompletableFuture<>();
+        future = inFlight.putIfAbsent(key, created);
+        if (future != null) {
+            return future;
+        }
+
+        workers.execute(() -> {
+            try {
+                BufferedImage image = loadThumbnail(key);
+                if (image != null) {
+                    putInMemory(key, image);
+                }
+                created.complete(image);
+            } catch (Exception e) {
+                created.completeExceptionally(e);
+            } finally {
+                inFlight.remove(key, created);
+            }
+        });
+        return created;
+    }
+
+    /**
+     * Read the thumbnail from disk, or decode and scale the original and store it there
+     */
+    private BufferedImage loadThumbnail(Key key) throws IOException {
+        Path diskFile = diskDirectory.resolve(key.fileName());
+        if (Files.isRegularFile(diskFile)) {
+            BufferedImage image = ImageIO.read(diskFile.toFile());
+            if (image != null) {
+                touch(diskFile);
+                return image;
+            }
+        }
+
+        BufferedImage original = decode(key.path);
+        if (original == null) {
+            return null;
+        }
+        BufferedImage thumbnail = scale(original, key.width, key.height);
+        writeToDisk(key, diskFile, thumbnail);
+        return thumbnail;
+    }
+
+    private static BufferedImage decode(String path) throws IOException {
+        BufferedImage image = ImageIO.read(new File(path));
+        if (image != null) {
+            return image;
+        }
+
+        // Formats ImageIO cannot read but the AWT toolkit can
+        ImageIcon icon = new ImageIcon(path);
+        if (icon.getIconWidth() <= 0 || icon.getIconHeight() <= 0) {
+            return null;
+        }
+        BufferedImage copy = new BufferedImage(icon.getIconWidth(), icon.getIconHeight(), BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = copy.createGraphics();
+        g.drawImage(icon.getImage(), 0, 0, null);
+        g.dispose();
+        return copy;
+    }
+
+    /**
+     * Scale to exactly width x height, like getScaledInstance did.
+     * Large reductions are done in halving steps so bilinear filtering keeps
+     * roughly the quality of SCALE_SMOOTH at a fraction of the cost.
+     */
+    private static BufferedImage scale(BufferedImage source, int width, int height) {
+        Image current = source;
+        int currentWidth = source.getWidth();
+        int currentHeight = source.getHeight();
+
+        do {
+            int nextWidth = currentWidth / 2 >= width ? currentWidth / 2 : width;
+            int nextHeight = currentHeight / 2 >= height ? currentHeight / 2 : height;
+
+            BufferedImage step = new BufferedImage(nextWidth, nextHeight, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D g = step.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(current, 0, 0, nextWidth, nextHeight, null);
+            g.dispose();
+
+            current = step;
+            currentWidth = nextWidth;
+            currentHeight = nextHeight;
+        } while (currentWidth != width || currentHeight != height);
+
+        return (BufferedImage) current;
+    }
+
+    private void writeToDisk(Key key, Path diskFile, BufferedImage thumbnail) {
+        try {
+            Files.createDirectories(diskFile.getParent());
+            // Write to a temporary file first so readers never see a partial PNG
+            Path temp = Files.createTempFile(diskFile.getParent(), "thumb", ".tmp");
+            try {
+                ImageIO.write(thumbnail, "png", temp.toFile());
+                Files.move(temp, diskFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+
+            synchronized (diskLock) {
+                if (diskBytes < 0) {
+                    diskBytes = measureDisk();
+                } else {
+                    diskBytes += Files.size(diskFile);
+                }
+                diskBytes -= deleteOlderVersions(key, diskFile);
+                if (diskBytes > MAX_DISK_BYTES) {
+                    pruneDisk(diskFile);
+                }
+            }
+        } catch (IOException e) {
+            // The memory cache still works without the disk copy
+            System.err.println("Could not write thumbnail cache file: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Delete the thumbnails of this photo and size made from other modification times
+     * @return bytes deleted
+     */
+    private long deleteOlderVersions(Key key, Path keep) throws IOException {
+        long deleted = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(diskDirectory, key.versionPrefix() + "*.png")) {
+            for (Path file : files) {
+                if (!file.equals(keep)) {
+                    long size = Files.size(file);
+                    if (Files.deleteIfExists(file)) {
+                        deleted += size;
+                    }
+                }
+            }
+        }
+        return deleted;
+    }
+
+    private long measureDisk() throws IOException {
+        long total = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(diskDirectory, "*.png")) {
+            for (Path file : files) {
+                total += Files.size(file);
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Delete the least recently used PNGs until the disk cache fits its cap,
+     * keeping the file just written. Caller holds diskLock.
+     */
+    private void pruneDisk(Path keep) throws IOException {
+        List<Path> files = new ArrayList<>();
+        Map<Path, FileTime> lastUsed = new HashMap<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(diskDirectory, "*.png")) {
+            for (Path file : stream) {
+                files.add(file);
+                lastUsed.put(file, Files.getLastModifiedTime(file));
+            }
+        }
+        files.sort(Comparator.comparing(lastUsed::get));
+
+        long total = 0;
+        for (Path file : files) {
+            total += Files.size(file);
+        }
+        // Prune to 90% of the cap so the next few writes don't prune again
+        long target = MAX_DISK_BYTES / 10 * 9;
+        for (Path file : files) {
+            if (total <= target) {
+                break;
+            }
+            if (file.equals(keep)) {
+                continue;
+            }
+            long size = Files.size(file);
+            if (Files.deleteIfExists(file)) {
+                total -= size;
+            }
+        }
+        diskBytes = total;
+    }
+
+    /**
+     * Mark a disk thumbnail as just used, for pruning
+     */
+    private static void touch(Path diskFile) {
+        try {
+            Files.setLastModifiedTime(diskFile, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException e) {
+            // Only affects which files are pruned first
+        }
+    }
+
+    private synchronized BufferedImage getFromMemory(Key key) {
+        return memory.get(key);
+    }
+
+    private synchronized void putInMemory(Key key, BufferedImage image) {
+        BufferedImage previous = memory.put(key, image);
+        if (previous != null) {
+            memoryBytes -= sizeOf(previous);
+        }
+        memoryBytes += sizeOf(image);
+
+        Iterator<Map.Entry<Key, BufferedImage>> it = memory.entrySet().iterator();
+        while (memoryBytes > MAX_MEMORY_BYTES && it.hasNext()) {
+            Map.Entry<Key, BufferedImage> eldest = it.next();
+            if (eldest.getKey().equals(key)) {
+                continue;
+            }
+            memoryBytes -= sizeOf(eldest.getValue());
+            it.remove();
+        }
+    }
+
+    private static long sizeOf(BufferedImage image) {
+        return (long) image.getWidth() * image.getHeight() * 4;
+    }
+
+    /**
+     * Identifies one thumbnail; a changed file gets a new modification time and so a new key
+     */
+    private static final class Key {
+        final String path;
+        final int width;
+        final int height;
+        final long modified;
+
+        Key(String path, int width, int height, long modified) {
+            this.path = path;
+            this.width = width;
+            this.height = height;
+            this.modified = modified;
+        }
+
+        /**
+         * Cache file name: a hash of the path and size, then the modification
+         * time, so the versions of one photo share a prefix
+         */
+        String fileName() {
+            return versionPrefix() + Long.toHexString(modified) + ".png";
+        }
+
+        String versionPrefix() {
+            String raw = path + "|" + width + "x" + height;
+            try {
+                MessageDigest digest = MessageDigest.getInstance("SHA-1");
+                StringBuilder hex = new StringBuilder();
+                for (byte b : digest.digest(raw.getBytes(StandardCharsets.UTF_8))) {
+                    hex.append(String.format("%02x", b));
+                }
+                return hex.append('-').toString();
+            } catch (NoSuchAlgorithmException e) {
+                return Integer.toHexString(raw.hashCode()) + "-";
+            }
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return width == other.width && height == other.height
+                    && modified == other.modified && path.equals(other.path);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = path.hashCode();
+            result = 31 * result + width;
+            result = 31 * result + height;
+            result = 31 * result + Long.hashCode(modified);
+            return result;
+        }
+    }
+}
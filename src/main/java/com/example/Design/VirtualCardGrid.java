@@ -0,0 +1,286 @@
+package com.example.Design;
+
+import java.awt.Color;
+import java.awt.Container;
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import javax.swing.JComponent;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JViewport;
+import javax.swing.Scrollable;
+import javax.swing.SwingConstants;
+import javax.swing.event.ChangeListener;
+
+/**
+ * Grid of cards that only creates components for the rows in view.
+ * Cards for the visible rows plus a small overscan are added to the panel;
+ * cards that scroll out are parked in a bounded pool keyed by item, so
+ * scrolling back reuses them instead of building them again. Memory use and
+ * layout time depend on the viewport size, not on the number of items.
+ * Must be placed in a JScrollPane. All methods must be called on the EDT.
+ */
+public class VirtualCardGrid<T> extends JPanel implements Scrollable {
+
+    // Rows realized above and below the viewport so fast scrolling shows no gaps
+    private static final int OVERSCAN_ROWS = 1;
+
+    private final int columns;
+    private final int cellWidth;
+    private final int cellHeight;
+    private final int gap;
+    private final Function<T, Object> keyOf;
+    private final Function<T, JComponent> cardFactory;
+
+    private List<T> items = Collections.emptyList();
+    private final Map<Integer, JComponent> realized = new HashMap<>();
+    private final Map<Object, JComponent> pool;
+    private final JLabel emptyLabel;
+
+    private JViewport viewport;
+    private final ChangeListener viewportListener = e -> updateVisibleCards();
+
+    /**
+     * @param columns cards per row
+     * @param cellSize minimum card size; cards are widened to fill the row
+     * @param gap space between cards, in pixels
+     * @param keyOf identifies an item, used to reuse its card
+     * @param cardFactory builds the card for an item
+     */
+    public VirtualCardGrid(int columns, Dimension cellSize, int gap,
+                           Function<T, Object> keyOf, Function<T, JComponent> cardFactory) {
+        super(null);
+        this.columns = columns;
+        this.cellWidth = cellSize.width;
+        this.cellHeight = cellSize.height;
+        this.gap = gap;
+        this.keyOf = keyOf;
+        this.cardFactory = cardFactory;
+        setOpaque(false);
+
+        // Keep roughly two screens of cards that are out of view
+        final int poolLimit = columns * 8;
+        this.pool = new LinkedHashMap<Object, JComponent>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, JComponent> eldest) {
+                return size() > poolLimit;
+            }
+        };
+
+        emptyLabel = new JLabel("", SwingConstants.CENTER);
+        emptyLabel.setFont(new Font("Arial", Font.ITALIC, 16));
+        emptyLabel.setForeground(new Color(120, 120, 120));
+    }
+
+    /**
+     * Show a new list of items. Cards already built for items with the same
+     * key are kept only if the caller passes the same item instances again.
+     */
+    public void setItems(List<T> newItems) {
+        Map<Object, JComponent> reusable = new HashMap<>();
+        for (Map.Entry<Integer, JComponent> entry : realized.entrySet()) {
+            int index = entry.getKey();
+            if (index < items.size()) {
+                reusable.put(keyOf.apply(items.get(index)), entry.getValue());
+            }
+        }
+        reusable.putAll(pool);
+
+        removeAll();
+        realized.clear();
+        pool.clear();
+
+        items = new ArrayList<>(newItems);
+        for (T item : items) {
+            Object key = keyOf.apply(item);
+            JComponent card = reusable.get(key);
+            if (card != null && card.getClientProperty(VirtualCardGrid.class) == item) {
+                pool.put(key, card);
+            }
+        }
+
+        revalidate();
+        updateVisibleCards();
+        repaint();
+    }
+
+    /**
+     * Forget the cards built for these keys, so the next setItems builds them
+     * again. For items that were changed in place.
+     */
+    public void discardCards(Collection<?> keys) {
+        pool.keySet().removeAll(keys);
+        Iterator<Map.Entry<Integer, JComponent>> it = realized.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Integer, JComponent> entry = it.next();
+            if (keys.contains(keyOf.apply(items.get(entry.getKey())))) {
+                remove(entry.getValue());
+                it.remove();
+            }
+        }
+    }
+    
+    /**
+     * Message shown instead of cards when there are no items
+     */
+    public void setEmptyMessage(String message) {
+        emptyLabel.setText(message);
+    }
+
+    public List<T> getItems() {
+        return Collections.unmodifiableList(items);
+    }
+
+    public int getItemCount() {
+        return items.size();
+    }
+
+    /**
+     * Number of card components currently added to the grid
+     */
+    public int getRealizedCount() {
+        return realized.size();
+    }
+
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        Container parent = getParent();
+        if (parent instanceof JViewport) {
+            viewport = (JViewport) parent;
+            viewport.addChangeListener(viewportListener);
+        }
+    }
+
+    @Override
+    public void removeNotify() {
+        if (viewport != null) {
+            viewport.removeChangeListener(viewportListener);
+            viewport = null;
+        }
+        super.removeNotify();
+    }
+
+    @Override
+    public void doLayout() {
+        updateVisibleCards();
+    }
+
+    @Override
+    public Dimension getPreferredSize() {
+        int rows = (items.size() + columns - 1) / columns;
+        int width = columns * cellWidth + (columns - 1) * gap;
+        int height = items.isEmpty() ? emptyLabel.getPreferredSize().height + gap
+                : rows * cellHeight + rows * gap;
+        return new Dimension(width, height);
+    }
+
+    /**
+     * Add cards for the rows in view, park the rest, and position everything
+     */
+    private void updateVisibleCards() {
+        if (items.isEmpty()) {
+            realized.values().forEach(this::remove);
+            realized.clear();
+            if (emptyLabel.getParent() != this) {
+                add(emptyLabel);
+            }
+            emptyLabel.setBounds(0, 0, getWidth(), emptyLabel.getPreferredSize().height);
+            return;
+        }
+        if (emptyLabel.getParent() == this) {
+            remove(emptyLabel);
+        }
+
+        int width = effectiveCellWidth();
+        int rowHeight = cellHeight + gap;
+        Rectangle visible = getVisibleRect();
+        if (visible.height == 0 && viewport != null) {
+            visible = new Rectangle(0, 0, getWidth(), viewport.getExtentSize().height);
+        }
+
+        int rows = (items.size() + columns - 1) / columns;
+        int firstRow = Math.max(0, visible.y / rowHeight - OVERSCAN_ROWS);
+        int lastRow = Math.min(rows - 1, (visible.y + visible.height) / rowHeight + OVERSCAN_ROWS);
+        int firstIndex = firstRow * columns;
+        int lastIndex = Math.min(items.size() - 1, lastRow * columns + columns - 1);
+
+        // Park cards that moved out of range
+        Iterator<Map.Entry<Integer, JComponent>> it = realized.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Integer, JComponent> entry = it.next();
+            int index = entry.getKey();
+            if (index < firstIndex || index > lastIndex) {
+                remove(entry.getValue());
+                pool.put(keyOf.apply(items.get(index)), entry.getValue());
+                it.remove();
+            }
+        }
+
+        // Realize and position cards in range
+        for (int index = firstIndex; index <= lastIndex; index++) {
+            JComponent card = realized.get(index);
+            if (card == null) {
+                T item = items.get(index);
+                card = pool.remove(keyOf.apply(item));
+                if (card == null) {
+                    card = cardFactory.apply(item);
+                    card.putClientProperty(VirtualCardGrid.class, item);
+                }
+                realized.put(index, card);
+                add(card);
+            }
+            int row = index / columns;
+            int column = index % columns;
+            card.setBounds(column * (width + gap), row * rowHeight, width, cellHeight);
+            card.validate();
+        }
+        repaint();
+    }
+
+    private int effectiveCellWidth() {
+        int available = getWidth() - (columns - 1) * gap;
+        return Math.max(cellWidth, available / columns);
+    }
+
+    @Override
+    public Dimension getPreferredScrollableViewportSize() {
+        return getPreferredSize();
+    }
+
+    @Override
+    public int getScrollableUnitIncrement(Rectangle visibleRect, int orientation, int direction) {
+        return orientation == SwingConstants.VERTICAL ? 24 : 16;
+    }
+
+    @Override
+    public int getScrollableBlockIncrement(Rectangle visibleRect, int orientation, int direction) {
+        if (orientation == SwingConstants.VERTICAL) {
+            // Page by whole rows
+            int rowHeight = cellHeight + gap;
+            return Math.max(rowHeight, visibleRect.height / rowHeight * rowHeight);
+        }
+        return visibleRect.width;
+    }
+
+    @Override
+    public boolean getScrollableTracksViewportWidth() {
+        Container parent = getParent();
+        return parent instanceof JViewport && parent.getWidth() >= columns * cellWidth + (columns - 1) * gap;
+    }
+
+    @Override
+    public boolean getScrollableTracksViewportHeight() {
+        return false;
+    }
+}
@@ -1,10 +1,12 @@
 package com.example.OOP.backend;
 
 
+import com.example.Database.DBConfig;
 import com.example.Database.DatabaseConnection;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Data Access Object for AuditLog entity
@@ -12,6 +14,12 @@ import java.util.List;
  */
 public class AuditLogDAO {
     
+    // innodb_ft_min_token_size default; shorter words are not indexed
+    private static final int FULLTEXT_MIN_TOKEN_SIZE = 3;
+    
+    // Whether audit_logs has the FULLTEXT index on action_details; checked once per run
+    private static volatile Boolean fullTextAvailable;
+    
     private DatabaseConnection dbConnection;
     
     public AuditLogDAO() {
@@ -19,9 +27,15 @@ public class AuditLogDAO {
     }
     
     /**
-     * Log an action to the audit trail
+     * Log an action to the audit trail.
+     * With DBConfig.AUDIT_WRITE_BEHIND the entry is queued and written in a batch
+     * by AuditLogWriter instead of costing the caller a round trip.
      */
     public boolean logAction(int staffId, String actionType, String actionDetails, String status) {
+        if (DBConfig.AUDIT_WRITE_BEHIND) {
+            return AuditLogWriter.getInstance().enqueue(staffId, actionType, actionDetails);
+        }
+        
         String sql = """
             INSERT INTO audit_logs (staff_id, action_type, action_details, timestamp)
             VALUES (?, ?, ?, NOW())
@@ -45,94 +59,341 @@ public class AuditLogDAO {
     }
     
     /**
-     * Get audit logs with filtering
+     * Insert queued audit entries with a single JDBC batch in one transaction
+     */
+    void insertBatch(List<AuditLogWriter.Entry> entries) throws SQLException {
+        String sql = """
+            INSERT INTO audit_logs (staff_id, action_type, action_details, timestamp)
+            VALUES (?, ?, ?, ?)
+            """;
+        
+        try (Connection conn = dbConnection.getConnection()) {
+            // Inside a caller's transaction, let that transaction commit the batch
+            boolean ownTransaction = conn.getAutoCommit();
+            if (ownTransaction) {
+                conn.setAutoCommit(false);
+            }
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                for (AuditLogWriter.Entry entry : entries) {
+                    pstmt.setInt(1, entry.staffId);
+                    pstmt.setString(2, entry.actionType);
+                    pstmt.setString(3, entry.actionDetails);
+                    pstmt.setTimestamp(4, entry.timestamp);
+                    pstmt.addBatch();
+                }
+                pstmt.executeBatch();
+                if (ownTransaction) {
+                    conn.commit();
+                }
+            } catch (SQLException e) {
+                if (ownTransaction) {
+                    conn.rollback();
+                }
+                throw e;
+            } finally {
+                if (ownTransaction) {
+                    conn.setAutoCommit(true);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Get audit logs with filtering.
+     * A search keyword is matched through the FULLTEXT index on action_details
+     * (and against staff names) and the results are ordered by relevance, unless
+     * the filter turns full-text search off, the database has no such index, or
+     * the keyword has no word MySQL indexes; then it falls back to a LIKE scan,
+     * newest first.
      */
     public List<AuditLog> getAuditLogs(AuditLogFilter filter) {
-        StringBuilder sql = new StringBuilder("""
-            SELECT al.*, s.username, s.full_name
-            FROM audit_logs al
-            LEFT JOIN staff s ON al.staff_id = s.staff_id
-            WHERE 1=1
-            """);
+        // Make queued entries visible to this read
+        AuditLogWriter.flushPending();
         
         List<Object> parameters = new ArrayList<>();
+        String sql = buildAuditLogsQuery(filter, parameters);
+        
+        List<AuditLog> auditLogs = new ArrayList<>();
         
-        // Apply filters
-        if (filter != null) {
-            if (filter.getStaffId() != null) {
-                sql.append(" AND al.staff_id = ?");
-                parameters.add(filter.getStaffId());
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            // Set parameters
+            for (int i = 0; i < parameters.size(); i++) {
+                pstmt.setObject(i + 1, parameters.get(i));
             }
             
-            if (filter.getActionType() != null && !filter.getActionType().isEmpty()) {
-                sql.append(" AND al.action_type LIKE ?");
-                parameters.add("%" + filter.getActionType() + "%");
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    auditLogs.add(mapResultSetToAuditLog(rs));
+                }
             }
             
-            if (filter.getStartDate() != null) {
-                sql.append(" AND al.timestamp >= ?");
-                parameters.add(filter.getStartDate());
+        } catch (SQLException e) {
+            System.err.println("Error getting audit logs: " + e.getMessage());
+            e.printStackTrace();
+        }
+        
+        return auditLogs;
+    }
+    
+    /**
+     * Pass every audit log matching the filter to the consumer, in the same order
+     * as getAuditLogs. Rows are read through a forward-only cursor,
+     * DBConfig.STREAM_FETCH_SIZE at a time, so memory stays flat however many
+     * logs match. An exception thrown by the consumer stops the stream and is
+     * passed on to the caller.
+     * @return number of logs passed to the consumer
+     */
+    public long streamAuditLogs(AuditLogFilter filter, Consumer<AuditLog> consumer) throws SQLException {
+        AuditLogWriter.flushPending();
+        
+        List<Object> parameters = new ArrayList<>();
+        String sql = buildAuditLogsQuery(filter, parameters);
+        long count = 0;
+        
+        // Not taken from the statement cache, since the fetch size is statement state
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql,
+                     ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            
+            pstmt.setFetchSize(DBConfig.STREAM_FETCH_SIZE);
+            
+            // Set parameters
+            for (int i = 0; i < parameters.size(); i++) {
+                pstmt.setObject(i + 1, parameters.get(i));
             }
             
-            if (filter.getEndDate() != null) {
-                sql.append(" AND al.timestamp <= ?");
-                parameters.add(filter.getEndDate());
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    consumer.accept(mapResultSetToAuditLog(rs));
+                    count++;
+                }
             }
+        }
+        
+        return count;
+    }
+    
+    /**
+     * Build the filtered audit logs query for getAuditLogs and streamAuditLogs
+     */
+    String buildAuditLogsQuery(AuditLogFilter filter, List<Object> parameters) {
+        String keyword = filter != null ? filter.getSearchKeyword() : null;
+        String booleanQuery = keyword != null && filter.isFullTextSearch() && isFullTextAvailable()
+            ? toBooleanQuery(keyword) : null;
+        
+        StringBuilder sql = new StringBuilder();
+        if (booleanQuery != null) {
+            // Each branch uses an index and applies the staff, type and date filters
+            // itself, so only matching logs reach the GROUP BY: the FULLTEXT index
+            // for details, and the small staff table then idx_audit_staff_time for
+            // staff names
+            List<Object> detailsParameters = new ArrayList<>();
+            String detailsConditions = filterConditions(filter, "", detailsParameters);
+            List<Object> staffParameters = new ArrayList<>();
+            String staffConditions = filterConditions(filter, "al2.", staffParameters);
+            
+            sql.append("""
+                SELECT al.*, s.username, s.full_name
+                FROM (
+                    SELECT log_id, MAX(relevance) AS relevance
+                    FROM (
+                        SELECT log_id, MATCH(action_details) AGAINST (? IN BOOLEAN MODE) AS relevance
+                        FROM audit_logs
+                        WHERE MATCH(action_details) AGAINST (? IN BOOLEAN MODE)%s
+                        UNION ALL
+                        SELECT al2.log_id, 0
+                        FROM staff s2
+                        JOIN audit_logs al2 ON al2.staff_id = s2.staff_id
+                        WHERE s2.full_name LIKE ?%s
+                    ) matched
+                    GROUP BY log_id
+                ) hits
+                JOIN audit_logs al ON al.log_id = hits.log_id
+                LEFT JOIN staff s ON al.staff_id = s.staff_id
+                """.formatted(detailsConditions, staffConditions));
+            parameters.add(booleanQuery);
+            parameters.add(booleanQuery);
+            parameters.addAll(detailsParameters);
+            parameters.add("%" + escapeLike(keyword) + "%");
+            parameters.addAll(staffParameters);
+        } else {
+            sql.append("""
+                SELECT al.*, s.username, s.full_name
+                FROM audit_logs al
+                LEFT JOIN staff s ON al.staff_id = s.staff_id
+                WHERE 1=1
+                """);
+            sql.append(filterConditions(filter, "al.", parameters));
             
-            if (filter.getSearchKeyword() != null && !filter.getSearchKeyword().isEmpty()) {
+            if (keyword != null && !keyword.isEmpty()) {
                 sql.append(" AND (al.action_details LIKE ? OR s.full_name LIKE ?)");
-                String searchPattern = "%" + filter.getSearchKeyword() + "%";
+                String searchPattern = "%" + escapeLike(keyword) + "%";
                 parameters.add(searchPattern);
                 parameters.add(searchPattern);
             }
         }
         
-        sql.append(" ORDER BY al.timestamp DESC");
+        sql.append(booleanQuery != null
+            ? " ORDER BY hits.relevance DESC, al.timestamp DESC"
+            : " ORDER BY al.timestamp DESC");
         
-        // Apply limit if specified
+        // Apply paging if specified
         if (filter != null && filter.getLimit() > 0) {
             sql.append(" LIMIT ?");
             parameters.add(filter.getLimit());
+            if (filter.getOffset() > 0) {
+                sql.append(" OFFSET ?");
+                parameters.add(filter.getOffset());
+            }
         }
         
-        List<AuditLog> auditLogs = new ArrayList<>();
+        return sql.toString();
+    }
+    
+    /**
+     * The filter's staff, action type and date conditions on the audit_logs
+     * columns with the given prefix (e.g. "al."), each starting with " AND"
+     */
+    private static String filterConditions(AuditLogFilter filter, String columnPrefix, List<Object> parameters) {
+        if (filter == null) {
+            return "";
+        }
+        
+        StringBuilder conditions = new StringBuilder();
+        if (filter.getStaffId() != null) {
+            conditions.append(" AND ").append(columnPrefix).append("staff_id = ?");
+            parameters.add(filter.getStaffId());
+        }
+        
+        // action_type is an ENUM, so match it exactly instead of with a wildcard
+        if (filter.getActionType() != null && !filter.getActionType().isEmpty()) {
+            conditions.append(" AND ").append(columnPrefix).append("action_type = ?");
+            parameters.add(filter.getActionType().toLowerCase());
+        }
+        
+        if (filter.getStartDate() != null) {
+            conditions.append(" AND ").append(columnPrefix).append("timestamp >= ?");
+            parameters.add(filter.getStartDate());
+        }
+        
+        if (filter.getEndDate() != null) {
+            conditions.append(" AND ").append(columnPrefix).append("timestamp < ?");
+            parameters.add(filter.getEndDate());
+        }
+        
+        return conditions.toString();
+    }
+    
+    /**
+     * Whether MATCH ... AGAINST can be used on action_details. Databases created
+     * before the index was added answer keyword searches with LIKE instead of
+     * failing with "Can't find FULLTEXT index".
+     */
+    private boolean isFullTextAvailable() {
+        Boolean available = fullTextAvailable;
+        if (available == null) {
+            available = hasFullTextIndex();
+            fullTextAvailable = available;
+        }
+        return available;
+    }
+    
+    private boolean hasFullTextIndex() {
+        String sql = """
+            SELECT EXISTS(
+                SELECT 1 FROM information_schema.STATISTICS
+                WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'audit_logs'
+                  AND COLUMN_NAME = 'action_details' AND INDEX_TYPE = 'FULLTEXT')
+            """;
         
         try (Connection conn = dbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
+             PreparedStatement pstmt = conn.prepareStatement(sql);
+             ResultSet rs = pstmt.executeQuery()) {
             
-            // Set parameters
-            for (int i = 0; i < parameters.size(); i++) {
-                pstmt.setObject(i + 1, parameters.get(i));
+            if (rs.next() && rs.getBoolean(1)) {
+                return true;
             }
+            System.err.println("audit_logs has no FULLTEXT index on action_details; keyword searches use LIKE."
+                + " Add ft_audit_details from car_store_management-Database.sql");
+            
+        } catch (SQLException e) {
+            System.err.println("Error checking audit log FULLTEXT index: " + e.getMessage());
+            e.printStackTrace();
+        }
+        
+        return false;
+    }
+    
+    private static AuditLog mapResultSetToAuditLog(ResultSet rs) throws SQLException {
+        AuditLog auditLog = new AuditLog();
+        auditLog.setLogId(rs.getInt("log_id"));
+        auditLog.setStaffId(rs.getInt("staff_id"));
+        auditLog.setActionType(rs.getString("action_type"));
+        auditLog.setTableAffected(rs.getString("table_affected"));
+        auditLog.setRecordId(rs.getInt("record_id"));
+        auditLog.setActionDetails(rs.getString("action_details"));
+        auditLog.setTimestamp(rs.getTimestamp("timestamp"));
+        
+        // Set staff information if available
+        String staffName = rs.getString("full_name");
+        if (staffName != null) {
+            auditLog.setStaffName(staffName);
+            auditLog.setUsername(rs.getString("username"));
+        }
+        return auditLog;
+    }
+    
+    /**
+     * Turn a keyword into a BOOLEAN MODE query that requires every word, each
+     * as a prefix, e.g. "sold toyo" becomes "+sold* +toyo*". Operator characters
+     * are dropped, and so are words shorter than InnoDB's default minimum token
+     * size, which are not in the index.
+     * @return null if no word is left to search for
+     */
+    static String toBooleanQuery(String keyword) {
+        StringBuilder query = new StringBuilder();
+        for (String word : keyword.split("[^\\p{L}\\p{N}_]+")) {
+            if (word.length() >= FULLTEXT_MIN_TOKEN_SIZE) {
+                if (query.length() > 0) {
+                    query.append(' ');
+                }
+                query.append('+').append(word).append('*');
+            }
+        }
+        return query.length() > 0 ? query.toString() : null;
+    }
+    
+    private static String escapeLike(String keyword) {
+        return keyword.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+    
+    /**
+     * Get the ID of the staff member with this full name or username
+     * @return the staff ID, or null if there is no such staff member
+     */
+    public Integer getStaffIdByName(String name) {
+        String sql = "SELECT staff_id FROM staff WHERE full_name = ? OR username = ? LIMIT 1";
+        
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setString(1, name);
+            pstmt.setString(2, name);
             
             try (ResultSet rs = pstmt.executeQuery()) {
-                while (rs.next()) {
-                    AuditLog auditLog = new AuditLog();
-                    auditLog.setLogId(rs.getInt("log_id"));
-                    auditLog.setStaffId(rs.getInt("staff_id"));
-                    auditLog.setActionType(rs.getString("action_type"));
-                    auditLog.setTableAffected(rs.getString("table_affected"));
-                    auditLog.setRecordId(rs.getInt("record_id"));
-                    auditLog.setActionDetails(rs.getString("action_details"));
-                    auditLog.setTimestamp(rs.getTimestamp("timestamp"));
-                    
-                    // Set staff information if available
-                    String staffName = rs.getString("full_name");
-                    if (staffName != null) {
-                        auditLog.setStaffName(staffName);
-                        auditLog.setUsername(rs.getString("username"));
-                    }
-                    
-                    auditLogs.add(auditLog);
+                if (rs.next()) {
+                    return rs.getInt("staff_id");
                 }
             }
             
         } catch (SQLException e) {
-            System.err.println("Error getting audit logs: " + e.getMessage());
+            System.err.println("Error looking up staff member: " + e.getMessage());
             e.printStackTrace();
         }
         
-        return auditLogs;
+        return null;
     }
     
     /**
@@ -175,16 +436,18 @@ public class AuditLogDAO {
     }
     
     /**
-     * Get audit log statistics
+     * Get audit log statistics for startDate (inclusive) to endDate (exclusive)
      */
     public AuditLogStats getAuditLogStats(Timestamp startDate, Timestamp endDate) {
+        AuditLogWriter.flushPending();
+        
         String sql = """
             SELECT 
                 COUNT(*) as total_logs,
                 COUNT(DISTINCT staff_id) as unique_users,
                 COUNT(DISTINCT action_type) as unique_actions
             FROM audit_logs
-            WHERE timestamp BETWEEN ? AND ?
+            WHERE timestamp >= ? AND timestamp < ?
             """;
         
         try (Connection conn = dbConnection.getConnection();
@@ -240,7 +503,9 @@ public class AuditLogDAO {
         private Timestamp startDate;
         private Timestamp endDate;
         private String searchKeyword;
+        private boolean fullTextSearch = DBConfig.AUDIT_FULLTEXT_SEARCH;
         private int limit;
+        private int offset;
         
         // Getters and Setters
         public Integer getStaffId() { return staffId; }
@@ -258,8 +523,15 @@ public class AuditLogDAO {
         public String getSearchKeyword() { return searchKeyword; }
         public void setSearchKeyword(String searchKeyword) { this.searchKeyword = searchKeyword; }
         
+        public boolean isFullTextSearch() { return fullTextSearch; }
+        public void setFullTextSearch(boolean fullTextSearch) { this.fullTextSearch = fullTextSearch; }
+        
         public int getLimit() { return limit; }
         public void setLimit(int limit) { this.limit = limit; }
+        
+        // Rows to skip; only used together with a limit
+        public int getOffset() { return offset; }
+        public void setOffset(int offset) { this.offset = offset; }
     }
     
     /**
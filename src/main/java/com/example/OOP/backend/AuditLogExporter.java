@@ -0,0 +1,199 @@
+package com.example.OOP.backend;
+
+import com.example.Database.DBConfig;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.text.SimpleDateFormat;
+import java.util.concurrent.CancellationException;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes audit logs to a CSV or NDJSON (one JSON object per line) file.
+ * Rows are streamed from the database cursor straight into a buffered file
+ * channel, so only one fetch batch is held in memory however many logs are
+ * exported. The file is written under a temporary name and moved into place
+ * when complete; a failed or cancelled export leaves no file behind.
+ */
+public class AuditLogExporter {
+
+    public enum Format {
+        CSV, NDJSON
+    }
+
+    private static final String[] CSV_HEADER = {
+        "log_id", "timestamp", "staff_id", "staff_name", "action_type", "table_affected", "record_id", "action_details"
+    };
+
+    private final AuditLogDAO auditLogDAO;
+
+    public AuditLogExporter() {
+        this.auditLogDAO = new AuditLogDAO();
+    }
+
+    /**
+     * Export the audit logs matching the filter.
+     * @param filter which logs to export, or null for all of them
+     * @param target file to create or replace
+     * @param gzip compress the file with gzip
+     * @param progress told the number of rows written after each fetch batch and at the end; may be null
+     * @param cancelled checked before each row; when it returns true the export stops; may be null
+     * @return number of rows written
+     * @throws CancellationException if the export was cancelled
+     */
+    public long export(AuditLogDAO.AuditLogFilter filter, Path target, Format format, boolean gzip,
+                       LongConsumer progress, BooleanSupplier cancelled) throws IOException, SQLException {
+        long rows = ExportFiles.writeAtomically(target, "audit_export", temp -> {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+                 Writer out = openWriter(channel, gzip)) {
+                RowWriter rowWriter = new RowWriter(out, format, progress, cancelled);
+                rowWriter.writeHeader();
+                try {
+                    return auditLogDAO.streamAuditLogs(filter, rowWriter);
+                } catch (UncheckedIOException e) {
+                    throw e.getCause();
+                }
+            }
+        });
+
+        if (progress != null) {
+            progress.accept(rows);
+        }
+        return rows;
+    }
+
+    private static Writer openWriter(FileChannel channel, boolean gzip) throws IOException {
+        OutputStream stream = Channels.newOutputStream(channel);
+        if (gzip) {
+            stream = new GZIPOutputStream(stream, ExportFiles.WRITE_BUFFER_SIZE);
+        }
+        return new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8), ExportFiles.WRITE_BUFFER_SIZE);
+    }
+
+    /**
+     * Formats each streamed log as one line of output
+     */
+    private static class RowWriter implements Consumer<AuditLog> {
+        private final Writer out;
+        private final Format format;
+        private final LongConsumer progress;
+        private final BooleanSupplier cancelled;
+        // Not thread-safe, so one per export
+        private final SimpleDateFormat timestampFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+        private long rows;
+
+        RowWriter(Writer out, Format format, LongConsumer progress, BooleanSupplier cancelled) {
+            this.out = out;
+            this.format = format;
+            this.progress = progress;
+            this.cancelled = cancelled;
+        }
+
+        void writeHeader() throws IOException {
+            if (format == Format.CSV) {
+                ExportFiles.writeCsvHeader(out, CSV_HEADER);
+            }
+        }
+
+        @Override
+        public void accept(AuditLog log) {
+            if (cancelled != null && cancelled.getAsBoolean()) {
+                throw new CancellationException("Audit log export cancelled");
+            }
+
+            String timestamp = log.getTimestamp() != null ? timestampFormat.format(log.getTimestamp()) : null;
+            String staffName = log.getStaffName() != null ? log.getStaffName() : log.getUsername();
+            try {
+                if (format == Format.CSV) {
+                    writeCsvRow(log, timestamp, staffName);
+                } else {
+                    writeJsonRow(log, timestamp, staffName);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            rows++;
+            if (progress != null && rows % DBConfig.STREAM_FETCH_SIZE == 0) {
+                progress.accept(rows);
+            }
+        }
+
+        private void writeCsvRow(AuditLog log, String timestamp, String staffName) throws IOException {
+            out.write(Integer.toString(log.getLogId()));
+            out.write(',');
+            ExportFiles.writeCsvField(out, timestamp);
+            out.write(',');
+            out.write(Integer.toString(log.getStaffId()));
+            out.write(',');
+            ExportFiles.writeCsvField(out, staffName);
+            out.write(',');
+            ExportFiles.writeCsvField(out, log.getActionType());
+            out.write(',');
+            ExportFiles.writeCsvField(out, log.getTableAffected());
+            out.write(',');
+            out.write(log.getRecordId() != null ? log.getRecordId().toString() : "");
+            out.write(',');
+            ExportFiles.writeCsvField(out, log.getActionDetails());
+            out.write("\r\n");
+        }
+
+        private void writeJsonRow(AuditLog log, String timestamp, String staffName) throws IOException {
+            out.write("{\"log_id\":");
+            out.write(Integer.toString(log.getLogId()));
+            out.write(",\"timestamp\":");
+            writeJsonString(timestamp);
+            out.write(",\"staff_id\":");
+            out.write(Integer.toString(log.getStaffId()));
+            out.write(",\"staff_name\":");
+            writeJsonString(staffName);
+            out.write(",\"action_type\":");
+            writeJsonString(log.getActionType());
+            out.write(",\"table_affected\":");
+            writeJsonString(log.getTableAffected());
+            out.write(",\"record_id\":");
+            out.write(log.getRecordId() != null ? log.getRecordId().toString() : "null");
+            out.write(",\"action_details\":");
+            writeJsonString(log.getActionDetails());
+            out.write("}\n");
+        }
+
+        private void writeJsonString(String value) throws IOException {
+            if (value == null) {
+                out.write("null");
+                return;
+            }
+            out.write('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                switch (c) {
+                    case '"' -> out.write("\\\"");
+                    case '\\' -> out.write("\\\\");
+                    case '\n' -> out.write("\\n");
+                    case '\r' -> out.write("\\r");
+                    case '\t' -> out.write("\\t");
+                    default -> {
+                        if (c < 0x20) {
+                            out.write(String.format("\\u%04x", (int) c));
+                        } else {
+                            out.write(c);
+                        }
+                    }
+                }
+            }
+            out.write('"');
+        }
+    }
+}
@@ -0,0 +1,279 @@
+package com.example.OOP.backend;
+
+import com.example.Database.DBConfig;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Write-behind queue for audit log entries.
+ * logAction calls enqueue an entry and return; a background thread inserts
+ * queued entries in JDBC batches when the batch size is reached or the flush
+ * interval passes. Entries still queued at shutdown are written before exit.
+ * If a batch fails, its entries are written again one at a time so a bad row
+ * only loses itself.
+ */
+public class AuditLogWriter {
+
+    private static AuditLogWriter instance;
+
+    private final AuditLogDAO auditLogDAO;
+    private final int batchSize;
+    private final int capacity;
+    private final long flushIntervalNanos;
+    private final boolean durable;
+
+    // Lock-free queue, bounded by the size counter
+    private final ConcurrentLinkedQueue<Entry> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final Thread flusher;
+    private volatile boolean running = true;
+
+    // Queued entries are numbered from 1; writtenThrough is the highest number
+    // such that it and every number before it have been written
+    private final AtomicLong lastSequence = new AtomicLong();
+    private volatile long writtenThrough;
+    // Numbers written ahead of a gap; only touched by the flusher thread
+    private final PriorityQueue<Long> writtenAhead = new PriorityQueue<>();
+
+    /**
+     * Create a writer using the audit settings in DBConfig
+     */
+    AuditLogWriter(AuditLogDAO auditLogDAO) {
+        this(auditLogDAO, DBConfig.AUDIT_BATCH_SIZE, DBConfig.AUDIT_QUEUE_CAPACITY,
+             DBConfig.AUDIT_FLUSH_INTERVAL_MS, DBConfig.AUDIT_DURABLE);
+    }
+
+    /**
+     * @param durable if true, enqueue waits until the entry's batch is committed
+     */
+    AuditLogWriter(AuditLogDAO auditLogDAO, int batchSize, int capacity, long flushIntervalMs, boolean durable) {
+        this.auditLogDAO = auditLogDAO;
+        this.batchSize = batchSize;
+        this.capacity = capacity;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        this.durable = durable;
+
+        this.flusher = new Thread(this::run, "audit-log-writer");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    /**
+     * Get the shared writer, starting it on first use
+     */
+    public static synchronized AuditLogWriter getInstance() {
+        if (instance == null) {
+            instance = new AuditLogWriter(new AuditLogDAO());
+            AuditLogWriter writer = instance;
+            Runtime.getRuntime().addShutdownHook(new Thread(writer::shutdown, "audit-log-writer-shutdown"));
+        }
+        return instance;
+    }
+
+    /**
+     * Flush the shared writer if it has been started; otherwise there is nothing pending
+     */
+    static void flushPending() {
+        AuditLogWriter writer;
+        synchronized (AuditLogWriter.class) {
+            writer = instance;
+        }
+        if (writer != null) {
+            writer.flush();
+        }
+    }
+
+    /**
+     * Queue an audit entry.
+     * If the queue is full the caller waits for the writer to catch up, and
+     * writes the entry itself if it still cannot be queued, so entries are never dropped.
+     * @return true if the entry was queued (or, in durable mode, committed)
+     */
+    public boolean enqueue(int staffId, String actionType, String actionDetails) {
+        Entry entry = new Entry(staffId, actionType, actionDetails,
+                new Timestamp(System.currentTimeMillis()), durable ? new CompletableFuture<>() : null);
+
+        if (!running || !reserveSlot()) {
+            return writeDirect(entry);
+        }
+
+        entry.sequence = lastSequence.incrementAndGet();
+        queue.offer(entry);
+        if (size.get() >= batchSize) {
+            LockSupport.unpark(flusher);
+        }
+
+        if (entry.committed != null) {
+            return entry.committed.join();
+        }
+        return true;
+    }
+
+    /**
+     * Block until every entry queued before this call has been written.
+     * Readers call this so they see their own recent actions.
+     */
+    public void flush() {
+        // Entries queued later are not waited for, so steady writes cannot hold a reader here
+        long target = lastSequence.get();
+        while (writtenThrough < target && flusher.isAlive()) {
+            LockSupport.unpark(flusher);
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+    }
+
+    /**
+     * Stop accepting queued entries and write everything still pending.
+     */
+    public void shutdown() {
+        running = false;
+        LockSupport.unpark(flusher);
+        try {
+            flusher.join(TimeUnit.SECONDS.toMillis(DBConfig.QUERY_TIMEOUT));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public int getPendingCount() {
+        return size.get();
+    }
+
+    private boolean reserveSlot() {
+        long deadline = System.nanoTime() + flushIntervalNanos * 2;
+        while (true) {
+            int current = size.get();
+            if (current < capacity) {
+                if (size.compareAndSet(current, current + 1)) {
+                    return true;
+                }
+                continue;
+            }
+            // Backpressure: nudge the writer and wait briefly for room
+            LockSupport.unpark(flusher);
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+    }
+
+    private boolean writeDirect(Entry entry) {
+        List<Entry> single = new ArrayList<>(1);
+        single.add(entry);
+        return writeBatch(single);
+    }
+
+    private void run() {
+        List<Entry> batch = new ArrayList<>(batchSize);
+        while (running || size.get() > 0) {
+            if (running && size.get() < batchSize) {
+                LockSupport.parkNanos(this, flushIntervalNanos);
+            }
+
+            Entry entry;
+            while ((entry = queue.poll()) != null) {
+                batch.add(entry);
+                if (batch.size() == batchSize) {
+                    writeAndRelease(batch);
+                }
+            }
+            if (!batch.isEmpty()) {
+                writeAndRelease(batch);
+            }
+        }
+    }
+
+    private void writeAndRelease(List<Entry> batch) {
+        writeBatch(batch);
+        size.addAndGet(-batch.size());
+        markWritten(batch);
+        batch.clear();
+    }
+
+    /**
+     * Advance writtenThrough past the batch. Concurrent enqueues can reach the
+     * queue slightly out of number order, so numbers past a gap wait in writtenAhead.
+     */
+    private void markWritten(List<Entry> batch) {
+        for (Entry entry : batch) {
+            writtenAhead.add(entry.sequence);
+        }
+        long through = writtenThrough;
+        while (!writtenAhead.isEmpty() && writtenAhead.peek() == through + 1) {
+            writtenAhead.poll();
+            through++;
+        }
+        writtenThrough = through;
+    }
+
+    private boolean writeBatch(List<Entry> batch) {
+        try {
+            auditLogDAO.insertBatch(batch);
+        } catch (SQLException e) {
+            if (batch.size() > 1) {
+                // The batch was rolled back as a whole; find the rows that fail on their own
+                System.err.println("Error writing " + batch.size() + " audit log entries, retrying one at a time: "
+                        + e.getMessage());
+                return writeEach(batch);
+            }
+            System.err.println("Error writing audit log entry: " + e.getMessage());
+            e.printStackTrace();
+            complete(batch.get(0), false);
+            return false;
+        }
+
+        for (Entry entry : batch) {
+            complete(entry, true);
+        }
+        return true;
+    }
+
+    private boolean writeEach(List<Entry> batch) {
+        boolean allWritten = true;
+        List<Entry> single = new ArrayList<>(1);
+        for (Entry entry : batch) {
+            single.add(entry);
+            allWritten &= writeBatch(single);
+            single.clear();
+        }
+        return allWritten;
+    }
+
+    private static void complete(Entry entry, boolean success) {
+        if (entry.committed != null) {
+            entry.committed.complete(success);
+        }
+    }
+
+    /**
+     * A queued audit log row
+     */
+    static class Entry {
+        final int staffId;
+        final String actionType;
+        final String actionDetails;
+        final Timestamp timestamp;
+        final CompletableFuture<Boolean> committed;
+        // Set when the entry is queued; 0 for entries written directly
+        long sequence;
+
+        Entry(int staffId, String actionType, String actionDetails, Timestamp timestamp,
+              CompletableFuture<Boolean> committed) {
+            this.staffId = staffId;
+            this.actionType = actionType;
+            this.actionDetails = actionDetails;
+            this.timestamp = timestamp;
+            this.committed = committed;
+        }
+    }
+}
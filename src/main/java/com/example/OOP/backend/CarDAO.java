@@ -1,11 +1,14 @@
 package com.example.OOP.backend;
 
 
+import com.example.Database.DBConfig;
 import com.example.Database.DatabaseConnection;
 import java.math.BigDecimal;
 import java.sql.*;
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Data Access Object for Car entity
@@ -15,6 +18,25 @@ public class CarDAO {
     
     private DatabaseConnection dbConnection;
     
+    // Cars whose manufacturer, model, VIN or color contains the search pattern
+    // (bound four times), also explained by QueryPlanCheck
+    static final String SEARCH_CARS_SQL = """
+        SELECT c.*, cm.model_name, cm.category, m.name as manufacturer_name
+        FROM (
+            SELECT c1.car_id
+            FROM car_models cm1
+            JOIN manufacturers m1 ON cm1.manufacturer_id = m1.manufacturer_id
+            JOIN cars c1 ON c1.model_id = cm1.model_id
+            WHERE m1.name LIKE ? OR cm1.model_name LIKE ?
+            UNION
+            SELECT car_id FROM cars WHERE vin LIKE ? OR color LIKE ?
+        ) hits
+        JOIN cars c ON c.car_id = hits.car_id
+        LEFT JOIN car_models cm ON c.model_id = cm.model_id
+        LEFT JOIN manufacturers m ON cm.manufacturer_id = m.manufacturer_id
+        ORDER BY c.date_added DESC
+        """;
+    
     public CarDAO() {
         this.dbConnection = DatabaseConnection.getInstance();
     }
@@ -51,6 +73,8 @@ public class CarDAO {
                 try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
                     if (generatedKeys.next()) {
                         car.setCarId(generatedKeys.getInt(1));
+                        reindexAfterCommit(car.getCarId());
+                        DataChangeEvents.publishAfterCommit(DataChangeEvents.Topic.CARS, car.getCarId());
                         return true;
                     }
                 }
@@ -98,6 +122,36 @@ public class CarDAO {
         return null;
     }
     
+    /**
+     * Get car by ID and lock its row until the current transaction ends.
+     * Must be called inside DatabaseConnection.inTransaction; errors are thrown
+     * rather than logged so the transaction can roll back.
+     */
+    public Car getCarByIdForUpdate(int carId) throws SQLException {
+        String sql = """
+            SELECT c.*, cm.model_name, cm.category, m.name as manufacturer_name
+            FROM cars c
+            LEFT JOIN car_models cm ON c.model_id = cm.model_id
+            LEFT JOIN manufacturers m ON cm.manufacturer_id = m.manufacturer_id
+            WHERE c.car_id = ?
+            FOR UPDATE OF c
+            """;
+        
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setInt(1, carId);
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return mapResultSetToCar(rs);
+                }
+            }
+        }
+        
+        return null;
+    }
+    
     /**
      * Get car by VIN
      */
@@ -130,9 +184,98 @@ public class CarDAO {
     }
     
     /**
-     * Get all cars with optional filtering
+     * Get all cars with optional filtering.
+     * If the filter has a page size, only that many cars are returned, starting
+     * after the filter's cursor (see CarFilter.setCursorAfter).
      */
     public List<Car> getCars(CarFilter filter) {
+        if (DBConfig.INVENTORY_INDEX_ENABLED) {
+            InventoryIndex index = InventoryIndex.getInstance();
+            if (index.isLoaded()) {
+                return index.query(filter);
+            }
+        }
+        
+        List<Object> parameters = new ArrayList<>();
+        String sql = buildCarsQuery(filter, parameters);
+        
+        List<Car> cars = new ArrayList<>();
+        
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            // Set parameters
+            for (int i = 0; i < parameters.size(); i++) {
+                pstmt.setObject(i + 1, parameters.get(i));
+            }
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    cars.add(mapResultSetToCar(rs));
+                }
+            }
+            
+        } catch (SQLException e) {
+            System.err.println("Error getting cars: " + e.getMessage());
+            e.printStackTrace();
+        }
+        
+        return cars;
+    }
+    
+    /**
+     * Stream cars matching the filter to a consumer one row at a time.
+     * Rows are fetched from a server-side cursor in batches of DBConfig.STREAM_FETCH_SIZE,
+     * so memory stays flat however many cars match.
+     * @return number of cars passed to the consumer
+     */
+    public int streamCars(CarFilter filter, Consumer<Car> consumer) {
+        try {
+            return streamCarsChecked(filter, consumer);
+        } catch (SQLException e) {
+            System.err.println("Error streaming cars: " + e.getMessage());
+            e.printStackTrace();
+        }
+        
+        return 0;
+    }
+    
+    /**
+     * streamCars that throws instead of logging, for callers that must know the stream was incomplete
+     */
+    int streamCarsChecked(CarFilter filter, Consumer<Car> consumer) throws SQLException {
+        List<Object> parameters = new ArrayList<>();
+        String sql = buildCarsQuery(filter, parameters);
+        int count = 0;
+        
+        // Not taken from the statement cache, since the fetch size is statement state
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql,
+                     ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            
+            pstmt.setFetchSize(DBConfig.STREAM_FETCH_SIZE);
+            
+            // Set parameters
+            for (int i = 0; i < parameters.size(); i++) {
+                pstmt.setObject(i + 1, parameters.get(i));
+            }
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    consumer.accept(mapResultSetToCar(rs));
+                    count++;
+                }
+            }
+        }
+        
+        return count;
+    }
+    
+    /**
+     * Build the filtered cars query, ordered newest first with car_id as tie-breaker
+     * so the (date_added, car_id) cursor is stable between pages
+     */
+    String buildCarsQuery(CarFilter filter, List<Object> parameters) {
         StringBuilder sql = new StringBuilder("""
             SELECT c.*, cm.model_name, cm.category, m.name as manufacturer_name
             FROM cars c
@@ -141,8 +284,6 @@ public class CarDAO {
             WHERE 1=1
             """);
         
-        List<Object> parameters = new ArrayList<>();
-        
         // Apply filters
         if (filter != null) {
             if (filter.getStatus() != null) {
@@ -189,32 +330,24 @@ public class CarDAO {
                 sql.append(" AND c.color LIKE ?");
                 parameters.add("%" + filter.getColor() + "%");
             }
+            
+            // Seek past the last row of the previous page
+            if (filter.getAfterDateAdded() != null && filter.getAfterCarId() != null) {
+                sql.append(" AND (c.date_added < ? OR (c.date_added = ? AND c.car_id < ?))");
+                parameters.add(filter.getAfterDateAdded());
+                parameters.add(filter.getAfterDateAdded());
+                parameters.add(filter.getAfterCarId());
+            }
         }
         
-        sql.append(" ORDER BY c.date_added DESC");
-        
-        List<Car> cars = new ArrayList<>();
+        sql.append(" ORDER BY c.date_added DESC, c.car_id DESC");
         
-        try (Connection conn = dbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
-            
-            // Set parameters
-            for (int i = 0; i < parameters.size(); i++) {
-                pstmt.setObject(i + 1, parameters.get(i));
-            }
-            
-            try (ResultSet rs = pstmt.executeQuery()) {
-                while (rs.next()) {
-                    cars.add(mapResultSetToCar(rs));
-                }
-            }
-            
-        } catch (SQLException e) {
-            System.err.println("Error getting cars: " + e.getMessage());
-            e.printStackTrace();
+        if (filter != null && filter.getPageSize() > 0) {
+            sql.append(" LIMIT ?");
+            parameters.add(filter.getPageSize());
         }
         
-        return cars;
+        return sql.toString();
     }
     
     /**
@@ -246,23 +379,46 @@ public class CarDAO {
             WHERE car_id = ?
             """;
         
-        try (Connection conn = dbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setInt(1, car.getModelId());
-            pstmt.setString(2, car.getVin());
-            pstmt.setString(3, car.getColor());
-            pstmt.setInt(4, car.getManufactureYear());
-            pstmt.setInt(5, car.getMileage());
-            pstmt.setBigDecimal(6, car.getPrice());
-            pstmt.setBigDecimal(7, car.getCost());
-            pstmt.setString(8, car.getStatus().getValue());
-            pstmt.setString(9, car.getLocation());
-            pstmt.setString(10, car.getImageUrl());
-            pstmt.setString(11, car.getNotes());
-            pstmt.setInt(12, car.getCarId());
-            
-            return pstmt.executeUpdate() > 0;
+        // Profit in the daily sales rollup and the economic reports uses the cost.
+        // When it changes, the car's sales are taken out of the rollup and put
+        // back with the new cost in the same transaction, and the change event
+        // carries the day of the first sale so reports from then on are redone.
+        SalesDAO salesDAO = new SalesDAO();
+        try {
+            return dbConnection.inTransaction(conn -> {
+                boolean costChanged = !sameAmount(lockCarCost(conn, car.getCarId()), car.getCost());
+                if (costChanged) {
+                    salesDAO.applyCarRollupDelta(car.getCarId(), -1);
+                }
+                
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    
+                    pstmt.setInt(1, car.getModelId());
+                    pstmt.setString(2, car.getVin());
+                    pstmt.setString(3, car.getColor());
+                    pstmt.setInt(4, car.getManufactureYear());
+                    pstmt.setInt(5, car.getMileage());
+                    pstmt.setBigDecimal(6, car.getPrice());
+                    pstmt.setBigDecimal(7, car.getCost());
+                    pstmt.setString(8, car.getStatus().getValue());
+                    pstmt.setString(9, car.getLocation());
+                    pstmt.setString(10, car.getImageUrl());
+                    pstmt.setString(11, car.getNotes());
+                    pstmt.setInt(12, car.getCarId());
+                    
+                    boolean updated = pstmt.executeUpdate() > 0;
+                    LocalDate firstSaleDay = null;
+                    if (costChanged) {
+                        salesDAO.applyCarRollupDelta(car.getCarId(), 1);
+                        firstSaleDay = salesDAO.getFirstSaleDay(car.getCarId());
+                    }
+                    if (updated) {
+                        reindexAfterCommit(car.getCarId());
+                        DataChangeEvents.publishAfterCommit(DataChangeEvents.Topic.CARS, car.getCarId(), firstSaleDay);
+                    }
+                    return updated;
+                }
+            });
             
         } catch (SQLException e) {
             System.err.println("Error updating car: " + e.getMessage());
@@ -272,6 +428,25 @@ public class CarDAO {
         return false;
     }
     
+    /**
+     * Read and lock a car's current cost on the transaction connection
+     */
+    private static BigDecimal lockCarCost(Connection conn, int carId) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT cost FROM cars WHERE car_id = ? FOR UPDATE")) {
+            pstmt.setInt(1, carId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getBigDecimal(1) : null;
+            }
+        }
+    }
+    
+    private static boolean sameAmount(BigDecimal first, BigDecimal second) {
+        if (first == null || second == null) {
+            return first == second;
+        }
+        return first.compareTo(second) == 0;
+    }
+    
     /**
      * Update car status
      */
@@ -284,7 +459,11 @@ public class CarDAO {
             pstmt.setString(1, status.getValue());
             pstmt.setInt(2, carId);
             
-            return pstmt.executeUpdate() > 0;
+            if (pstmt.executeUpdate() > 0) {
+                InventoryIndex.afterCommit(index -> index.updateStatus(carId, status));
+                DataChangeEvents.publishAfterCommit(DataChangeEvents.Topic.CARS, carId);
+                return true;
+            }
             
         } catch (SQLException e) {
             System.err.println("Error updating car status: " + e.getMessage());
@@ -294,6 +473,29 @@ public class CarDAO {
         return false;
     }
     
+    /**
+     * Change a car's status only if it currently has the expected status.
+     * Returns false if another transaction changed it first.
+     */
+    public boolean compareAndSetStatus(int carId, Car.CarStatus expected, Car.CarStatus status) throws SQLException {
+        String sql = "UPDATE cars SET status = ? WHERE car_id = ? AND status = ?";
+        
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setString(1, status.getValue());
+            pstmt.setInt(2, carId);
+            pstmt.setString(3, expected.getValue());
+            
+            if (pstmt.executeUpdate() > 0) {
+                InventoryIndex.afterCommit(index -> index.updateStatus(carId, status));
+                DataChangeEvents.publishAfterCommit(DataChangeEvents.Topic.CARS, carId);
+                return true;
+            }
+            return false;
+        }
+    }
+    
     /**
      * Delete car
      */
@@ -304,7 +506,11 @@ public class CarDAO {
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setInt(1, carId);
-            return pstmt.executeUpdate() > 0;
+            if (pstmt.executeUpdate() > 0) {
+                InventoryIndex.afterCommit(index -> index.delete(carId));
+                DataChangeEvents.publishAfterCommit(DataChangeEvents.Topic.CARS, carId);
+                return true;
+            }
             
         } catch (SQLException e) {
             System.err.println("Error deleting car: " + e.getMessage());
@@ -387,6 +593,48 @@ public class CarDAO {
         return 0;
     }
     
+    /**
+     * Get all status counts plus the number of cars added in the last N days
+     * in a single query
+     */
+    public InventoryCounts getInventoryCounts(int recentDays) {
+        String sql = """
+            SELECT
+                COUNT(*) as total_cars,
+                COALESCE(SUM(status = 'available'), 0) as available_cars,
+                COALESCE(SUM(status = 'sold'), 0) as sold_cars,
+                COALESCE(SUM(status = 'reserved'), 0) as reserved_cars,
+                COALESCE(SUM(status = 'maintenance'), 0) as maintenance_cars,
+                COALESCE(SUM(date_added >= DATE_SUB(NOW(), INTERVAL ? DAY)), 0) as recent_cars
+            FROM cars
+            """;
+        
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setInt(1, recentDays);
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    InventoryCounts counts = new InventoryCounts();
+                    counts.setTotalCars(rs.getInt("total_cars"));
+                    counts.setAvailableCars(rs.getInt("available_cars"));
+                    counts.setSoldCars(rs.getInt("sold_cars"));
+                    counts.setReservedCars(rs.getInt("reserved_cars"));
+                    counts.setMaintenanceCars(rs.getInt("maintenance_cars"));
+                    counts.setRecentCars(rs.getInt("recent_cars"));
+                    return counts;
+                }
+            }
+            
+        } catch (SQLException e) {
+            System.err.println("Error getting inventory counts: " + e.getMessage());
+            e.printStackTrace();
+        }
+        
+        return new InventoryCounts();
+    }
+    
     /**
      * Get recent cars (added in last N days)
      */
@@ -422,28 +670,31 @@ public class CarDAO {
     }
     
     /**
-     * Search cars by keyword (searches in model name, manufacturer, color, VIN)
+     * Search cars by keyword; manufacturer, model, VIN and color all match
+     * anywhere in the value.
+     * Answered from the inventory index's trigram index when it is loaded.
+     * Otherwise the names are matched on the small model/manufacturer tables
+     * and cars found by model_id, and VIN and color are matched by reading the
+     * covering idx_cars_vin_color index, so the cars rows are never scanned.
      */
     public List<Car> searchCars(String keyword) {
-        String sql = """
-            SELECT c.*, cm.model_name, cm.category, m.name as manufacturer_name
-            FROM cars c
-            LEFT JOIN car_models cm ON c.model_id = cm.model_id
-            LEFT JOIN manufacturers m ON cm.manufacturer_id = m.manufacturer_id
-            WHERE m.name LIKE ? OR cm.model_name LIKE ? OR c.color LIKE ? OR c.vin LIKE ?
-            ORDER BY c.date_added DESC
-            """;
+        if (DBConfig.INVENTORY_INDEX_ENABLED) {
+            InventoryIndex index = InventoryIndex.getInstance();
+            if (index.isLoaded()) {
+                return index.search(keyword);
+            }
+        }
         
         List<Car> cars = new ArrayList<>();
-        String searchPattern = "%" + keyword + "%";
+        String containsPattern = "%" + escapeLike(keyword) + "%";
         
         try (Connection conn = dbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+             PreparedStatement pstmt = conn.prepareStatement(SEARCH_CARS_SQL)) {
             
-            pstmt.setString(1, searchPattern);
-            pstmt.setString(2, searchPattern);
-            pstmt.setString(3, searchPattern);
-            pstmt.setString(4, searchPattern);
+            pstmt.setString(1, containsPattern);
+            pstmt.setString(2, containsPattern);
+            pstmt.setString(3, containsPattern);
+            pstmt.setString(4, containsPattern);
             
             try (ResultSet rs = pstmt.executeQuery()) {
                 while (rs.next()) {
@@ -459,6 +710,26 @@ public class CarDAO {
         return cars;
     }
     
+    /**
+     * Refresh one car in the inventory index once the write commits.
+     * Re-read from the database so the model and manufacturer names are current.
+     */
+    private void reindexAfterCommit(int carId) {
+        InventoryIndex.afterCommit(index -> {
+            Car car = getCarById(carId);
+            if (car != null) {
+                index.put(car);
+            }
+        });
+    }
+    
+    /**
+     * Escape LIKE wildcards so a keyword is matched literally
+     */
+    private static String escapeLike(String keyword) {
+        return keyword.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+    
     /**
      * Helper method to map ResultSet to Car object
      */
@@ -526,6 +797,9 @@ public class CarDAO {
         private Integer yearTo;
         private String color;
         private Integer addedBy;
+        private int pageSize;
+        private Timestamp afterDateAdded;
+        private Integer afterCarId;
         
         // Getters and Setters
         public Car.CarStatus getStatus() { return status; }
@@ -557,5 +831,54 @@ public class CarDAO {
         
         public Integer getAddedBy() { return addedBy; }
         public void setAddedBy(Integer addedBy) { this.addedBy = addedBy; }
+        
+        public int getPageSize() { return pageSize; }
+        public void setPageSize(int pageSize) { this.pageSize = pageSize; }
+        
+        public Timestamp getAfterDateAdded() { return afterDateAdded; }
+        public void setAfterDateAdded(Timestamp afterDateAdded) { this.afterDateAdded = afterDateAdded; }
+        
+        public Integer getAfterCarId() { return afterCarId; }
+        public void setAfterCarId(Integer afterCarId) { this.afterCarId = afterCarId; }
+        
+        /**
+         * Move the cursor so the next page starts after the given car,
+         * normally the last car of the current page
+         */
+        public void setCursorAfter(Car lastCar) {
+            this.afterDateAdded = lastCar.getDateAdded();
+            this.afterCarId = lastCar.getCarId();
+        }
+    }
+    
+    /**
+     * Car counts by status from a single aggregate query
+     */
+    public static class InventoryCounts {
+        private int totalCars;
+        private int availableCars;
+        private int soldCars;
+        private int reservedCars;
+        private int maintenanceCars;
+        private int recentCars;
+        
+        // Getters and Setters
+        public int getTotalCars() { return totalCars; }
+        public void setTotalCars(int totalCars) { this.totalCars = totalCars; }
+        
+        public int getAvailableCars() { return availableCars; }
+        public void setAvailableCars(int availableCars) { this.availableCars = availableCars; }
+        
+        public int getSoldCars() { return soldCars; }
+        public void setSoldCars(int soldCars) { this.soldCars = soldCars; }
+        
+        public int getReservedCars() { return reservedCars; }
+        public void setReservedCars(int reservedCars) { this.reservedCars = reservedCars; }
+        
+        public int getMaintenanceCars() { return maintenanceCars; }
+        public void setMaintenanceCars(int maintenanceCars) { this.maintenanceCars = maintenanceCars; }
+        
+        public int getRecentCars() { return recentCars; }
+        public void setRecentCars(int recentCars) { this.recentCars = recentCars; }
     }
-}
+}
\ No newline at end of file
@@ -2,7 +2,9 @@ package com.example.OOP.backend;
 
 
 
+import com.example.Database.DatabaseConnection;
 import java.math.BigDecimal;
+import java.sql.SQLException;
 import java.util.List;
 
 /**
@@ -113,70 +115,76 @@ public class CarService {
     }
     
     /**
-     * Sell a car - creates sale record and updates car status
+     * Sell a car - creates sale record and updates car status.
+     * The car row is locked, the sale inserted and the status changed in one
+     * transaction, so a failure leaves no orphaned sale and two clerks selling
+     * the same car cannot both succeed.
      */
     public ServiceResult<Sale> sellCar(int carId, Sale saleInfo, int staffId) {
+        // Validate sale information
+        if (saleInfo.getBuyerName() == null || saleInfo.getBuyerName().trim().isEmpty()) {
+            return ServiceResult.failure("Buyer name is required.");
+        }
+        
+        if (saleInfo.getBuyerContact() == null || saleInfo.getBuyerContact().trim().isEmpty()) {
+            return ServiceResult.failure("Buyer contact is required.");
+        }
+        
+        if (saleInfo.getSalePrice() == null || saleInfo.getSalePrice().compareTo(BigDecimal.ZERO) <= 0) {
+            return ServiceResult.failure("Valid sale price is required.");
+        }
+        
         try {
-            // Get the car
-            Car car = carDAO.getCarById(carId);
-            if (car == null) {
-                return ServiceResult.failure("Car not found with ID: " + carId);
-            }
-            
-            // Check if car is available for sale
-            if (car.getStatus() != Car.CarStatus.AVAILABLE && car.getStatus() != Car.CarStatus.RESERVED) {
-                return ServiceResult.failure("Car is not available for sale. Current status: " + car.getStatus());
-            }
-            
-            // Validate sale information
-            if (saleInfo.getBuyerName() == null || saleInfo.getBuyerName().trim().isEmpty()) {
-                return ServiceResult.failure("Buyer name is required.");
-            }
-            
-            if (saleInfo.getBuyerContact() == null || saleInfo.getBuyerContact().trim().isEmpty()) {
-                return ServiceResult.failure("Buyer contact is required.");
-            }
-            
-            if (saleInfo.getSalePrice() == null || saleInfo.getSalePrice().compareTo(BigDecimal.ZERO) <= 0) {
-                return ServiceResult.failure("Valid sale price is required.");
-            }
-            
-            // Set sale details
-            saleInfo.setCarId(carId);
-            saleInfo.setHandledBy(staffId);
-            
-            // Calculate tax and total (assuming 8% tax rate)
-            BigDecimal taxRate = new BigDecimal("0.08");
-            BigDecimal taxAmount = saleInfo.getSalePrice().multiply(taxRate);
-            BigDecimal totalAmount = saleInfo.getSalePrice().add(taxAmount);
-            
-            saleInfo.setTaxAmount(taxAmount);
-            saleInfo.setTotalAmount(totalAmount);
-            
-            if (saleInfo.getPaymentStatus() == null) {
-                saleInfo.setPaymentStatus(Sale.PaymentStatus.COMPLETED);
-            }
-            
-            // Create sale record
-            boolean saleCreated = salesDAO.createSale(saleInfo);
-            if (!saleCreated) {
-                return ServiceResult.failure("Failed to create sale record.");
-            }
-            
-            // Update car status to sold
-            boolean carUpdated = carDAO.updateCarStatus(carId, Car.CarStatus.SOLD);
-            if (!carUpdated) {
-                // If car update fails, we should ideally rollback the sale, but for simplicity we'll log the error
-                System.err.println("Warning: Sale created but failed to update car status for car ID: " + carId);
+            ServiceResult<Sale> result = DatabaseConnection.getInstance().inTransaction(conn -> {
+                // Lock the car so a concurrent sale waits until this one commits
+                Car car = carDAO.getCarByIdForUpdate(carId);
+                if (car == null) {
+                    return ServiceResult.failure("Car not found with ID: " + carId);
+                }
+                
+                // Check if car is available for sale
+                if (car.getStatus() != Car.CarStatus.AVAILABLE && car.getStatus() != Car.CarStatus.RESERVED) {
+                    return ServiceResult.failure("Car is not available for sale. Current status: " + car.getStatus());
+                }
+                
+                // Set sale details
+                saleInfo.setCarId(carId);
+                saleInfo.setHandledBy(staffId);
+                
+                // Calculate tax and total in whole cents
+                Money price = Money.of(saleInfo.getSalePrice());
+                Money tax = price.salesTax();
+                
+                saleInfo.setTaxAmount(tax.toBigDecimal());
+                saleInfo.setTotalAmount(price.plus(tax).toBigDecimal());
+                
+                if (saleInfo.getPaymentStatus() == null) {
+                    saleInfo.setPaymentStatus(Sale.PaymentStatus.COMPLETED);
+                }
+                
+                // Create sale record
+                if (!salesDAO.createSale(saleInfo)) {
+                    throw new SQLException("Failed to create sale record.");
+                }
+                
+                // Update car status to sold, only if nobody changed it since it was locked
+                if (!carDAO.compareAndSetStatus(carId, car.getStatus(), Car.CarStatus.SOLD)) {
+                    throw new SQLException("Car status changed while the sale was in progress.");
+                }
+                
+                saleInfo.setCar(car);
+                return ServiceResult.success(saleInfo, "Car sold successfully!");
+            });
+            
+            if (result.isSuccess()) {
+                // Log the action once the sale is committed
+                auditLogDAO.logAction(staffId, "Car Sold", 
+                    "Sold car: " + saleInfo.getCar().getDisplayName() + " to " + saleInfo.getBuyerName() + 
+                    " for " + saleInfo.getSalePrice(), 
+                    "success");
             }
             
-            // Log the action
-            auditLogDAO.logAction(staffId, "Car Sold", 
-                "Sold car: " + car.getDisplayName() + " to " + saleInfo.getBuyerName() + 
-                " for " + saleInfo.getSalePrice(), 
-                "success");
-            
-            return ServiceResult.success(saleInfo, "Car sold successfully!");
+            return result;
             
         } catch (Exception e) {
             System.err.println("Error in sellCar: " + e.getMessage());
@@ -346,16 +354,16 @@ public class CarService {
      */
     public InventoryStats getInventoryStats() {
         try {
-            InventoryStats stats = new InventoryStats();
-            stats.setTotalCars(carDAO.getTotalCarCount());
-            stats.setAvailableCars(carDAO.getCarCountByStatus(Car.CarStatus.AVAILABLE));
-            stats.setSoldCars(carDAO.getCarCountByStatus(Car.CarStatus.SOLD));
-            stats.setReservedCars(carDAO.getCarCountByStatus(Car.CarStatus.RESERVED));
-            stats.setMaintenanceCars(carDAO.getCarCountByStatus(Car.CarStatus.MAINTENANCE));
+            // All counts, including cars added in the last 30 days, come from one query
+            CarDAO.InventoryCounts counts = carDAO.getInventoryCounts(30);
             
-            // Get recent cars (last 30 days)
-            List<Car> recentCars = carDAO.getRecentCars(30);
-            stats.setRecentCars(recentCars.size());
+            InventoryStats stats = new InventoryStats();
+            stats.setTotalCars(counts.getTotalCars());
+            stats.setAvailableCars(counts.getAvailableCars());
+            stats.setSoldCars(counts.getSoldCars());
+            stats.setReservedCars(counts.getReservedCars());
+            stats.setMaintenanceCars(counts.getMaintenanceCars());
+            stats.setRecentCars(counts.getRecentCars());
             
             return stats;
         } catch (Exception e) {
@@ -0,0 +1,121 @@
+package com.example.OOP.backend;
+
+import com.example.Database.DatabaseConnection;
+import java.time.LocalDate;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Notifies listeners when stored data changes, so caches and views built on
+ * top of it can be invalidated or patched. Each event names the row that
+ * changed. DAO events are delivered after the write commits (straight away
+ * outside a transaction), on the writing thread.
+ */
+public final class DataChangeEvents {
+    
+    /**
+     * What kind of data changed
+     */
+    public enum Topic {
+        CARS,
+        SALES,
+        EXPENSES
+    }
+    
+    /**
+     * One changed row: a car ID for CARS, a sale ID for SALES, an expense
+     * ID for EXPENSES.
+     * Inserts, updates and deletes are not told apart; listeners re-read the
+     * row and treat a missing one as deleted.
+     * A write whose effect on daily totals can't be seen by re-reading the
+     * row (a delete, a sale or expense moved to another day, a sold car's
+     * cost edit) also gives the earliest day it affected.
+     */
+    public static final class Change {
+        private final Topic topic;
+        private final int id;
+        private final LocalDate affectedDay;
+        
+        public Change(Topic topic, int id) {
+            this(topic, id, null);
+        }
+        
+        public Change(Topic topic, int id, LocalDate affectedDay) {
+            this.topic = topic;
+            this.id = id;
+            this.affectedDay = affectedDay;
+        }
+        
+        public Topic getTopic() { return topic; }
+        public int getId() { return id; }
+        
+        /**
+         * Earliest day whose totals the write changed, or null if not given
+         */
+        public LocalDate getAffectedDay() { return affectedDay; }
+        
+        @Override
+        public String toString() {
+            return topic + "#" + id;
+        }
+    }
+    
+    private static final CopyOnWriteArrayList<Consumer<Change>> listeners = new CopyOnWriteArrayList<>();
+    
+    private DataChangeEvents() {
+    }
+    
+    public static void addListener(Consumer<Change> listener) {
+        listeners.add(listener);
+    }
+    
+    public static void removeListener(Consumer<Change> listener) {
+        listeners.remove(listener);
+    }
+    
+    /**
+     * Publish a change once the current transaction commits
+     */
+    static void publishAfterCommit(Topic topic, int id) {
+        publishAfterCommit(topic, id, null);
+    }
+    
+    /**
+     * Publish a change, with the earliest day it affected, once the current transaction commits
+     */
+    static void publishAfterCommit(Topic topic, int id, LocalDate affectedDay) {
+        Change change = new Change(topic, id, affectedDay);
+        DatabaseConnection.getInstance().afterCommit(() -> publish(change));
+    }
+    
+    /**
+     * The earlier of two days, ignoring nulls
+     */
+    static LocalDate earliest(LocalDate first, LocalDate second) {
+        if (first == null) {
+            return second;
+        }
+        if (second == null) {
+            return first;
+        }
+        return first.isBefore(second) ? first : second;
+    }
+    
+    /**
+     * Publish a change right away. For in-memory stores that have no transaction.
+     */
+    public static void publish(Topic topic, int id) {
+        publish(new Change(topic, id));
+    }
+    
+    private static void publish(Change change) {
+        for (Consumer<Change> listener : listeners) {
+            try {
+                listener.accept(change);
+            } catch (RuntimeException e) {
+                System.err.println("Error in data change listener: " + e.getMessage());
+                e.printStackTrace();
+            }
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package com.example.OOP.backend;
+
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.temporal.IsoFields;
+import java.time.temporal.TemporalAdjusters;
+import java.time.DayOfWeek;
+
+/**
+ * Economic report entity: the finalized totals of one closed period
+ * Maps to the economic_reports table in the database
+ */
+public class EconomicReport {
+    
+    // Primary key
+    private int reportId;
+    
+    // Foreign keys
+    private int generatedBy;
+    
+    // Report details
+    private Date reportDate;
+    private ReportType reportType;
+    private Date startPeriod;
+    // Last day of the period, inclusive
+    private Date endPeriod;
+    private BigDecimal totalSales;
+    private BigDecimal totalExpenses;
+    private BigDecimal profit;
+    private int carsSold;
+    private BigDecimal averageSalePrice;
+    
+    /**
+     * Report period enumeration
+     */
+    public enum ReportType {
+        DAILY("daily"),
+        WEEKLY("weekly"),
+        MONTHLY("monthly"),
+        QUARTERLY("quarterly"),
+        ANNUAL("annual");
+        
+        private final String value;
+        
+        ReportType(String value) {
+            this.value = value;
+        }
+        
+        public String getValue() {
+            return value;
+        }
+        
+        public static ReportType fromString(String value) {
+            for (ReportType type : ReportType.values()) {
+                if (type.value.equalsIgnoreCase(value)) {
+                    return type;
+                }
+            }
+            return MONTHLY; // default
+        }
+        
+        /**
+         * First day of the period of this type that contains the day.
+         * Weeks start on Monday.
+         */
+        public LocalDate periodStart(LocalDate day) {
+            switch (this) {
+                case DAILY: return day;
+                case WEEKLY: return day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+                case MONTHLY: return day.withDayOfMonth(1);
+                case QUARTERLY: return day.with(IsoFields.DAY_OF_QUARTER, 1);
+                default: return day.withDayOfYear(1);
+            }
+        }
+        
+        /**
+         * First day of the period after the one starting on periodStart
+         */
+        public LocalDate nextPeriodStart(LocalDate periodStart) {
+            switch (this) {
+                case DAILY: return periodStart.plusDays(1);
+                case WEEKLY: return periodStart.plusWeeks(1);
+                case MONTHLY: return periodStart.plusMonths(1);
+                case QUARTERLY: return periodStart.plusMonths(3);
+                default: return periodStart.plusYears(1);
+            }
+        }
+        
+        @Override
+        public String toString() {
+            return value.substring(0, 1).toUpperCase() + value.substring(1);
+        }
+    }
+    
+    /**
+     * Default constructor
+     */
+    public EconomicReport() {
+        this.reportDate = new Date(System.currentTimeMillis());
+        this.totalSales = BigDecimal.ZERO;
+        this.totalExpenses = BigDecimal.ZERO;
+        this.profit = BigDecimal.ZERO;
+        this.averageSalePrice = BigDecimal.ZERO;
+    }
+    
+    /**
+     * Constructor for the period of the given type starting on periodStart
+     */
+    public EconomicReport(ReportType reportType, LocalDate periodStart, int generatedBy) {
+        this();
+        this.reportType = reportType;
+        this.startPeriod = Date.valueOf(periodStart);
+        this.endPeriod = Date.valueOf(reportType.nextPeriodStart(periodStart).minusDays(1));
+        this.generatedBy = generatedBy;
+    }
+    
+    // Getters and Setters
+    
+    public int getReportId() {
+        return reportId;
+    }
+    
+    public void setReportId(int reportId) {
+        this.reportId = reportId;
+    }
+    
+    public int getGeneratedBy() {
+        return generatedBy;
+    }
+    
+    public void setGeneratedBy(int generatedBy) {
+        this.generatedBy = generatedBy;
+    }
+    
+    public Date getReportDate() {
+        return reportDate;
+    }
+    
+    public void setReportDate(Date reportDate) {
+        this.reportDate = reportDate;
+    }
+    
+    public ReportType getReportType() {
+        return reportType;
+    }
+    
+    public void setReportType(ReportType reportType) {
+        this.reportType = reportType;
+    }
+    
+    public Date getStartPeriod() {
+        return startPeriod;
+    }
+    
+    public void setStartPeriod(Date startPeriod) {
+        this.startPeriod = startPeriod;
+    }
+    
+    public Date getEndPeriod() {
+        return endPeriod;
+    }
+    
+    public void setEndPeriod(Date endPeriod) {
+        this.endPeriod = endPeriod;
+    }
+    
+    public BigDecimal getTotalSales() {
+        return totalSales;
+    }
+    
+    public void setTotalSales(BigDecimal totalSales) {
+        this.totalSales = totalSales;
+    }
+    
+    public BigDecimal getTotalExpenses() {
+        return totalExpenses;
+    }
+    
+    public void setTotalExpenses(BigDecimal totalExpenses) {
+        this.totalExpenses = totalExpenses;
+    }
+    
+    public BigDecimal getProfit() {
+        return profit;
+    }
+    
+    public void setProfit(BigDecimal profit) {
+        this.profit = profit;
+    }
+    
+    public int getCarsSold() {
+        return carsSold;
+    }
+    
+    public void setCarsSold(int carsSold) {
+        this.carsSold = carsSold;
+    }
+    
+    public BigDecimal getAverageSalePrice() {
+        return averageSalePrice;
+    }
+    
+    public void setAverageSalePrice(BigDecimal averageSalePrice) {
+        this.averageSalePrice = averageSalePrice;
+    }
+    
+    // Utility methods
+    
+    /**
+     * Day after the period, i.e. the exclusive end of its date range
+     */
+    public LocalDate getPeriodEndExclusive() {
+        return endPeriod.toLocalDate().plusDays(1);
+    }
+    
+    @Override
+    public String toString() {
+        return "EconomicReport{" +
+                "reportType=" + reportType +
+                ", startPeriod=" + startPeriod +
+                ", endPeriod=" + endPeriod +
+                ", totalSales=" + totalSales +
+                ", totalExpenses=" + totalExpenses +
+                ", profit=" + profit +
+                ", carsSold=" + carsSold +
+                '}';
+    }
+}
@@ -0,0 +1,205 @@
+package com.example.OOP.backend;
+
+
+import com.example.Database.DatabaseConnection;
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Data Access Object for EconomicReport entity
+ * Handles all database operations related to the economic_reports snapshots.
+ * There is at most one report per type and start day
+ * (uq_economic_reports_period), so saving a period again replaces it.
+ * The methods used by EconomicReportScheduler throw SQLException instead of
+ * returning an empty result, so a failed read is never mistaken for a
+ * period with no activity.
+ */
+public class EconomicReportDAO {
+    
+    private DatabaseConnection dbConnection;
+    
+    public EconomicReportDAO() {
+        this.dbConnection = DatabaseConnection.getInstance();
+    }
+    
+    /**
+     * Insert or replace reports with one JDBC batch in one transaction
+     */
+    public void saveReports(List<EconomicReport> reports) throws SQLException {
+        if (reports.isEmpty()) {
+            return;
+        }
+        
+        String sql = """
+            INSERT INTO economic_reports (report_date, report_type, start_period, end_period,
+                                          total_sales, total_expenses, profit, cars_sold,
+                                          average_sale_price, generated_by)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            ON DUPLICATE KEY UPDATE
+                report_date = VALUES(report_date),
+                end_period = VALUES(end_period),
+                total_sales = VALUES(total_sales),
+                total_expenses = VALUES(total_expenses),
+                profit = VALUES(profit),
+                cars_sold = VALUES(cars_sold),
+                average_sale_price = VALUES(average_sale_price),
+                generated_by = VALUES(generated_by)
+            """;
+        
+        dbConnection.inTransaction(conn -> {
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                for (EconomicReport report : reports) {
+                    pstmt.setDate(1, report.getReportDate());
+                    pstmt.setString(2, report.getReportType().getValue());
+                    pstmt.setDate(3, report.getStartPeriod());
+                    pstmt.setDate(4, report.getEndPeriod());
+                    pstmt.setBigDecimal(5, report.getTotalSales());
+                    pstmt.setBigDecimal(6, report.getTotalExpenses());
+                    pstmt.setBigDecimal(7, report.getProfit());
+                    pstmt.setInt(8, report.getCarsSold());
+                    pstmt.setBigDecimal(9, report.getAverageSalePrice());
+                    pstmt.setInt(10, report.getGeneratedBy());
+                    pstmt.addBatch();
+                }
+                pstmt.executeBatch();
+            }
+            return null;
+        });
+    }
+    
+    /**
+     * Get the report for the period of the given type starting on periodStart
+     * @return the report, or null if that period has not been finalized
+     */
+    public EconomicReport getReport(EconomicReport.ReportType reportType, LocalDate periodStart) {
+        String sql = "SELECT * FROM economic_reports WHERE report_type = ? AND start_period = ?";
+        
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setString(1, reportType.getValue());
+            pstmt.setDate(2, Date.valueOf(periodStart));
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return mapResultSetToReport(rs);
+                }
+            }
+        
+        } catch (SQLException e) {
+            System.err.println("Error getting economic report: " + e.getMessage());
+            e.printStackTrace();
+        }
+        
+        return null;
+    }
+    
+    /**
+     * Get the reports of a type whose periods start in [startDate, endDate), oldest first
+     */
+    public List<EconomicReport> getReports(EconomicReport.ReportType reportType,
+                                           LocalDate startDate, LocalDate endDate) throws SQLException {
+        String sql = """
+            SELECT * FROM economic_reports
+            WHERE report_type = ? AND start_period >= ? AND start_period < ?
+            ORDER BY start_period
+            """;
+        
+        List<EconomicReport> reports = new ArrayList<>();
+        
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setString(1, reportType.getValue());
+            pstmt.setDate(2, Date.valueOf(startDate));
+            pstmt.setDate(3, Date.valueOf(endDate));
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    reports.add(mapResultSetToReport(rs));
+                }
+            }
+        }
+        
+        return reports;
+    }
+    
+    /**
+     * Get the earliest report of a type, or null if there is none
+     */
+    public EconomicReport getFirstReport(EconomicReport.ReportType reportType) throws SQLException {
+        return getEdgeReport(reportType, "ASC");
+    }
+    
+    /**
+     * Get the latest report of a type, or null if there is none
+     */
+    public EconomicReport getLatestReport(EconomicReport.ReportType reportType) throws SQLException {
+        return getEdgeReport(reportType, "DESC");
+    }
+    
+    private EconomicReport getEdgeReport(EconomicReport.ReportType reportType, String order) throws SQLException {
+        String sql = "SELECT * FROM economic_reports WHERE report_type = ? ORDER BY start_period " + order + " LIMIT 1";
+        
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setString(1, reportType.getValue());
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return mapResultSetToReport(rs);
+                }
+            }
+        }
+        
+        return null;
+    }
+    
+    /**
+     * Delete the reports of every type whose period ends on or after the
+     * day, so they are finalized again from that day on
+     * @return number of reports deleted
+     */
+    public int deleteReportsFrom(LocalDate day) throws SQLException {
+        String sql = "DELETE FROM economic_reports WHERE end_period >= ?";
+        
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setDate(1, Date.valueOf(day));
+            return pstmt.executeUpdate();
+        }
+    }
+    
+    /**
+     * Delete every report
+     */
+    public void deleteAllReports() throws SQLException {
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement("DELETE FROM economic_reports")) {
+            pstmt.executeUpdate();
+        }
+    }
+    
+    /**
+     * Helper method to map ResultSet to EconomicReport object
+     */
+    private EconomicReport mapResultSetToReport(ResultSet rs) throws SQLException {
+        EconomicReport report = new EconomicReport();
+        report.setReportId(rs.getInt("report_id"));
+        report.setReportDate(rs.getDate("report_date"));
+        report.setReportType(EconomicReport.ReportType.fromString(rs.getString("report_type")));
+        report.setStartPeriod(rs.getDate("start_period"));
+        report.setEndPeriod(rs.getDate("end_period"));
+        report.setTotalSales(rs.getBigDecimal("total_sales"));
+        report.setTotalExpenses(rs.getBigDecimal("total_expenses"));
+        report.setProfit(rs.getBigDecimal("profit"));
+        report.setCarsSold(rs.getInt("cars_sold"));
+        report.setAverageSalePrice(rs.getBigDecimal("average_sale_price"));
+        report.setGeneratedBy(rs.getInt("generated_by"));
+        return report;
+    }
+}
@@ -0,0 +1,299 @@
+package com.example.OOP.backend;
+
+
+import com.example.Database.DBConfig;
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Finalizes closed periods into economic_reports rows on a background thread.
+ * Each pass only computes the periods after the last finalized one of each
+ * type: new days come from one ledger query over the days not yet finalized,
+ * and weeks and months are summed from their daily reports, quarters from
+ * their months and years from their quarters. A pass over a year already
+ * finalized up to yesterday therefore reads one day of sales.
+ * When a sale or expense dated in a finalized period is written, deleted or
+ * moved, or the cost of a car sold in one changes, the reports from the
+ * earliest affected day on are deleted and finalized again. Changes made to
+ * the database by other programs are not seen; rebuild() recomputes every report.
+ */
+public class EconomicReportScheduler {
+    
+    private static EconomicReportScheduler instance;
+    
+    private final EconomicReportDAO reportDAO;
+    private final FinancialLedgerDAO ledgerDAO;
+    private final SalesDAO salesDAO;
+    private final ExpenseDAO expenseDAO;
+    private final int generatedBy;
+    private final ScheduledExecutorService executor;
+    private final Consumer<DataChangeEvents.Change> changeListener = this::onDataChanged;
+    
+    EconomicReportScheduler(int generatedBy) {
+        this.reportDAO = new EconomicReportDAO();
+        this.ledgerDAO = new FinancialLedgerDAO();
+        this.salesDAO = new SalesDAO();
+        this.expenseDAO = new ExpenseDAO();
+        this.generatedBy = generatedBy;
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "economic-report-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    /**
+     * Get the shared scheduler, starting it on first use
+     */
+    public static synchronized EconomicReportScheduler getInstance() {
+        if (instance == null) {
+            instance = new EconomicReportScheduler(DBConfig.ECONOMIC_REPORT_STAFF_ID);
+            instance.start();
+        }
+        return instance;
+    }
+    
+    private void start() {
+        DataChangeEvents.addListener(changeListener);
+        executor.scheduleWithFixedDelay(this::runPass, 0,
+            DBConfig.ECONOMIC_REPORT_INTERVAL_MINUTES, TimeUnit.MINUTES);
+    }
+    
+    /**
+     * Stop scheduling passes
+     */
+    public void shutdown() {
+        DataChangeEvents.removeListener(changeListener);
+        executor.shutdownNow();
+    }
+    
+    /**
+     * Run a pass on the scheduler thread now, e.g. before reading a period
+     * that has just closed
+     * @return the number of reports written
+     */
+    public Future<Integer> finalizeNow() {
+        return executor.submit(this::finalizeClosedPeriods);
+    }
+    
+    private void runPass() {
+        try {
+            int written = finalizeClosedPeriods();
+            if (written > 0) {
+                System.out.println("Economic reports finalized: " + written);
+            }
+        } catch (RuntimeException e) {
+            // Keep the schedule alive; the next pass retries
+            System.err.println("Error finalizing economic reports: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+    
+    /**
+     * Finalize every period that ended before today
+     * @return the number of reports written; 0 if the database could not be read
+     */
+    public synchronized int finalizeClosedPeriods() {
+        LocalDate today = LocalDate.now();
+        try {
+            int written = finalizeDays(today);
+            written += rollUp(EconomicReport.ReportType.WEEKLY, EconomicReport.ReportType.DAILY, today);
+            written += rollUp(EconomicReport.ReportType.MONTHLY, EconomicReport.ReportType.DAILY, today);
+            written += rollUp(EconomicReport.ReportType.QUARTERLY, EconomicReport.ReportType.MONTHLY, today);
+            written += rollUp(EconomicReport.ReportType.ANNUAL, EconomicReport.ReportType.QUARTERLY, today);
+            return written;
+        } catch (SQLException e) {
+            System.err.println("Error finalizing economic reports: " + e.getMessage());
+            e.printStackTrace();
+            return 0;
+        }
+    }
+    
+    /**
+     * Delete every report and finalize all closed periods again
+     * @return the number of reports written
+     */
+    public synchronized int rebuild() {
+        try {
+            reportDAO.deleteAllReports();
+        } catch (SQLException e) {
+            System.err.println("Error deleting economic reports: " + e.getMessage());
+            e.printStackTrace();
+            return 0;
+        }
+        return finalizeClosedPeriods();
+    }
+    
+    /**
+     * Write a daily report for each day from the last finalized one up to
+     * yesterday, including days with no activity so the sequence has no gaps
+     */
+    private int finalizeDays(LocalDate today) throws SQLException {
+        EconomicReport latest = reportDAO.getLatestReport(EconomicReport.ReportType.DAILY);
+        LocalDate from = latest != null ? latest.getPeriodEndExclusive() : ledgerDAO.getFirstActivityDate();
+        if (from == null || !from.isBefore(today)) {
+            return 0;
+        }
+        
+        // One query for all the days to finalize; its rows come ordered by day
+        Iterator<FinancialLedgerDAO.LedgerRow> rows = ledgerDAO.queryLedger(from, today).getRows().iterator();
+        FinancialLedgerDAO.LedgerRow row = rows.hasNext() ? rows.next() : null;
+        
+        List<EconomicReport> reports = new ArrayList<>();
+        for (LocalDate day = from; day.isBefore(today); day = day.plusDays(1)) {
+            PeriodTotals totals = new PeriodTotals();
+            while (row != null && row.getDay().equals(day)) {
+                totals.add(row);
+                row = rows.hasNext() ? rows.next() : null;
+            }
+            reports.add(totals.toReport(EconomicReport.ReportType.DAILY, day, generatedBy));
+        }
+        
+        reportDAO.saveReports(reports);
+        return reports.size();
+    }
+    
+    /**
+     * Write a report for each closed period of the type after the last
+     * finalized one, summed from the reports of the finer source type
+     */
+    private int rollUp(EconomicReport.ReportType type, EconomicReport.ReportType source,
+                       LocalDate today) throws SQLException {
+        EconomicReport latest = reportDAO.getLatestReport(type);
+        LocalDate from;
+        if (latest != null) {
+            from = latest.getPeriodEndExclusive();
+        } else {
+            EconomicReport first = reportDAO.getFirstReport(source);
+            if (first == null) {
+                return 0;
+            }
+            from = type.periodStart(first.getStartPeriod().toLocalDate());
+        }
+        
+        // Only periods that have ended
+        LocalDate to = from;
+        while (!type.nextPeriodStart(to).isAfter(today)) {
+            to = type.nextPeriodStart(to);
+        }
+        if (!to.isAfter(from)) {
+            return 0;
+        }
+        
+        Iterator<EconomicReport> sources = reportDAO.getReports(source, from, to).iterator();
+        EconomicReport sourceReport = sources.hasNext() ? sources.next() : null;
+        
+        List<EconomicReport> reports = new ArrayList<>();
+        for (LocalDate start = from; start.isBefore(to); start = type.nextPeriodStart(start)) {
+            LocalDate end = type.nextPeriodStart(start);
+            PeriodTotals totals = new PeriodTotals();
+            while (sourceReport != null && sourceReport.getStartPeriod().toLocalDate().isBefore(end)) {
+                totals.add(sourceReport);
+                sourceReport = sources.hasNext() ? sources.next() : null;
+            }
+            reports.add(totals.toReport(type, start, generatedBy));
+        }
+        
+        reportDAO.saveReports(reports);
+        return reports.size();
+    }
+    
+    /**
+     * Drop the reports a backdated sale or expense, or a sold car's new cost,
+     * makes stale. Runs the lookup on the scheduler thread, not on the writing thread.
+     */
+    private void onDataChanged(DataChangeEvents.Change change) {
+        // Car changes only matter when they carry a day, i.e. a sold car's cost changed
+        if (change.getTopic() == DataChangeEvents.Topic.CARS && change.getAffectedDay() == null) {
+            return;
+        }
+        executor.execute(() -> invalidate(change));
+    }
+    
+    private synchronized void invalidate(DataChangeEvents.Change change) {
+        // Deletes and moves name the earliest day; otherwise the row's own day is the one affected
+        LocalDate day = change.getAffectedDay();
+        if (day == null) {
+            day = currentDay(change);
+        }
+        if (day == null || !day.isBefore(LocalDate.now())) {
+            return;
+        }
+        
+        try {
+            int deleted = reportDAO.deleteReportsFrom(day);
+            if (deleted > 0) {
+                System.out.println("Economic reports from " + day + " invalidated: " + deleted);
+                finalizeClosedPeriods();
+            }
+        } catch (SQLException e) {
+            System.err.println("Error invalidating economic reports: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+    
+    /**
+     * Day the changed sale or expense is dated, or null if it no longer exists
+     */
+    private LocalDate currentDay(DataChangeEvents.Change change) {
+        if (change.getTopic() == DataChangeEvents.Topic.SALES) {
+            Sale sale = salesDAO.getSaleById(change.getId());
+            if (sale != null && sale.getSaleDate() != null) {
+                return sale.getSaleDate().toLocalDateTime().toLocalDate();
+            }
+        } else if (change.getTopic() == DataChangeEvents.Topic.EXPENSES) {
+            Expense expense = expenseDAO.getExpenseById(change.getId());
+            if (expense != null && expense.getExpenseDate() != null) {
+                return expense.getExpenseDate().toLocalDate();
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Running totals of one period, in cents
+     */
+    private static class PeriodTotals {
+        long revenueCents;
+        long expenseCents;
+        long profitCents;
+        int carsSold;
+        
+        void add(FinancialLedgerDAO.LedgerRow row) {
+            revenueCents += row.getRevenueCents();
+            expenseCents += row.getExpenseCents();
+            profitCents += row.getRevenueCents() - row.getCarCostCents() - row.getTaxCents() - row.getExpenseCents();
+            if (row.isSales()) {
+                carsSold += row.getEntries();
+            }
+        }
+        
+        void add(EconomicReport report) {
+            revenueCents += Money.toCents(report.getTotalSales());
+            expenseCents += Money.toCents(report.getTotalExpenses());
+            profitCents += Money.toCents(report.getProfit());
+            carsSold += report.getCarsSold();
+        }
+        
+        EconomicReport toReport(EconomicReport.ReportType type, LocalDate start, int generatedBy) {
+            EconomicReport report = new EconomicReport(type, start, generatedBy);
+            report.setTotalSales(BigDecimal.valueOf(revenueCents, 2));
+            report.setTotalExpenses(BigDecimal.valueOf(expenseCents, 2));
+            report.setProfit(BigDecimal.valueOf(profitCents, 2));
+            report.setCarsSold(carsSold);
+            if (carsSold > 0) {
+                report.setAverageSalePrice(Money.ofCents(revenueCents).dividedBy(carsSold).toBigDecimal());
+            }
+            return report;
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package com.example.OOP.backend;
+
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.text.SimpleDateFormat;
+
+/**
+ * Expense entity model representing one business expense
+ * Maps to the expenses table in the database
+ */
+public class Expense {
+    
+    // Primary key
+    private int expenseId;
+    
+    // Foreign keys
+    private Integer carId;
+    private int recordedBy;
+    
+    // Expense details
+    private Date expenseDate;
+    private ExpenseType expenseType;
+    private BigDecimal amount;
+    private String description;
+    private ExpenseStatus status;
+    private String notes;
+    
+    /**
+     * Expense type enumeration
+     */
+    public enum ExpenseType {
+        PURCHASE("purchase"),
+        REPAIR("repair"),
+        MARKETING("marketing"),
+        UTILITIES("utilities"),
+        RENT("rent"),
+        SALARY("salary"),
+        INSURANCE("insurance"),
+        TAX("tax"),
+        OTHER("other");
+        
+        private final String value;
+        
+        ExpenseType(String value) {
+            this.value = value;
+        }
+        
+        public String getValue() {
+            return value;
+        }
+        
+        public static ExpenseType fromString(String value) {
+            for (ExpenseType type : ExpenseType.values()) {
+                if (type.value.equalsIgnoreCase(value)) {
+                    return type;
+                }
+            }
+            return OTHER; // default
+        }
+        
+        @Override
+        public String toString() {
+            return value.substring(0, 1).toUpperCase() + value.substring(1);
+        }
+    }
+    
+    /**
+     * Expense payment status enumeration
+     */
+    public enum ExpenseStatus {
+        PENDING("pending"),
+        PAID("paid"),
+        OVERDUE("overdue");
+        
+        private final String value;
+        
+        ExpenseStatus(String value) {
+            this.value = value;
+        }
+        
+        public String getValue() {
+            return value;
+        }
+        
+        public static ExpenseStatus fromString(String value) {
+            for (ExpenseStatus status : ExpenseStatus.values()) {
+                if (status.value.equalsIgnoreCase(value)) {
+                    return status;
+                }
+            }
+            return PAID; // default
+        }
+        
+        @Override
+        public String toString() {
+            return value.substring(0, 1).toUpperCase() + value.substring(1);
+        }
+    }
+    
+    /**
+     * Default constructor
+     */
+    public Expense() {
+        this.expenseDate = new Date(System.currentTimeMillis());
+        this.expenseType = ExpenseType.OTHER;
+        this.status = ExpenseStatus.PAID;
+    }
+    
+    /**
+     * Constructor with basic details
+     */
+    public Expense(Date expenseDate, ExpenseType expenseType, BigDecimal amount,
+                   String description, int recordedBy) {
+        this();
+        this.expenseDate = expenseDate;
+        this.expenseType = expenseType;
+        this.amount = amount;
+        this.description = description;
+        this.recordedBy = recordedBy;
+    }
+    
+    // Getters and Setters
+    
+    public int getExpenseId() {
+        return expenseId;
+    }
+    
+    public void setExpenseId(int expenseId) {
+        this.expenseId = expenseId;
+    }
+    
+    public Integer getCarId() {
+        return carId;
+    }
+    
+    public void setCarId(Integer carId) {
+        this.carId = carId;
+    }
+    
+    public int getRecordedBy() {
+        return recordedBy;
+    }
+    
+    public void setRecordedBy(int recordedBy) {
+        this.recordedBy = recordedBy;
+    }
+    
+    public Date getExpenseDate() {
+        return expenseDate;
+    }
+    
+    public void setExpenseDate(Date expenseDate) {
+        this.expenseDate = expenseDate;
+    }
+    
+    public ExpenseType getExpenseType() {
+        return expenseType;
+    }
+    
+    public void setExpenseType(ExpenseType expenseType) {
+        this.expenseType = expenseType;
+    }
+    
+    public BigDecimal getAmount() {
+        return amount;
+    }
+    
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+    
+    public String getDescription() {
+        return description;
+    }
+    
+    public void setDescription(String description) {
+        this.description = description;
+    }
+    
+    public ExpenseStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(ExpenseStatus status) {
+        this.status = status;
+    }
+    
+    public String getNotes() {
+        return notes;
+    }
+    
+    public void setNotes(String notes) {
+        this.notes = notes;
+    }
+    
+    // Utility methods
+    
+    /**
+     * Get formatted expense date
+     */
+    public String getFormattedExpenseDate() {
+        if (expenseDate != null) {
+            SimpleDateFormat sdf = new SimpleDateFormat("MMM dd, yyyy");
+            return sdf.format(expenseDate);
+        }
+        return "N/A";
+    }
+    
+    /**
+     * Get formatted amount
+     */
+    public String getFormattedAmount() {
+        if (amount != null) {
+            return String.format("$%,.2f", amount);
+        }
+        return "$0.00";
+    }
+    
+    @Override
+    public String toString() {
+        return "Expense{" +
+                "expenseId=" + expenseId +
+                ", expenseDate=" + getFormattedExpenseDate() +
+                ", expenseType=" + expenseType +
+                ", amount=" + getFormattedAmount() +
+                ", status=" + status +
+                ", description='" + description + '\'' +
+                '}';
+    }
+}
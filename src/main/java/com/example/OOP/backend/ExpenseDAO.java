@@ -0,0 +1,474 @@
+package com.example.OOP.backend;
+
+
+import com.example.Database.DBConfig;
+import com.example.Database.DatabaseConnection;
+import java.math.BigDecimal;
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Data Access Object for Expense entity
+ * Handles all database operations related to expenses.
+ * Totals are aggregated by MySQL over half-open date ranges on the bare
+ * expense_date column, so idx_expenses_date_cover answers them without
+ * reading the rows.
+ */
+public class ExpenseDAO {
+    
+    private DatabaseConnection dbConnection;
+    
+    // Expense totals per type over a [from, to) date range, also explained by QueryPlanCheck
+    static final String TOTALS_BY_TYPE_SQL = """
+        SELECT expense_type, SUM(amount) as total_amount
+        FROM expenses
+        WHERE expense_date >= ? AND expense_date < ?
+        GROUP BY expense_type
+        """;
+    
+    public ExpenseDAO() {
+        this.dbConnection = DatabaseConnection.getInstance();
+    }
+    
+    /**
+     * Create a new expense record
+     */
+    public boolean createExpense(Expense expense) {
+        List<Expense> single = new ArrayList<>();
+        single.add(expense);
+        return createExpenses(single) == 1;
+    }
+    
+    /**
+     * Insert several expenses with one JDBC batch in one transaction, so a
+     * bulk entry costs one round trip instead of one per row. The generated
+     * IDs are set on the expenses.
+     * @return number of expenses inserted; 0 if the batch failed and was rolled back
+     */
+    public int createExpenses(List<Expense> expenses) {
+        if (expenses.isEmpty()) {
+            return 0;
+        }
+        
+        String sql = """
+            INSERT INTO expenses (expense_date, expense_type, amount, car_id,
+                                description, recorded_by, status, notes)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+        
+        try {
+            return dbConnection.inTransaction(conn -> {
+                try (PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                    
+                    for (Expense expense : expenses) {
+                        pstmt.setDate(1, expense.getExpenseDate());
+                        pstmt.setString(2, expense.getExpenseType().getValue());
+                        pstmt.setBigDecimal(3, expense.getAmount());
+                        pstmt.setObject(4, expense.getCarId());
+                        pstmt.setString(5, expense.getDescription());
+                        pstmt.setInt(6, expense.getRecordedBy());
+                        pstmt.setString(7, expense.getStatus().getValue());
+                        pstmt.setString(8, expense.getNotes());
+                        pstmt.addBatch();
+                    }
+                    pstmt.executeBatch();
+                    
+                    int inserted = 0;
+                    try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
+                        while (generatedKeys.next() && inserted < expenses.size()) {
+                            Expense expense = expenses.get(inserted++);
+                            expense.setExpenseId(generatedKeys.getInt(1));
+                            DataChangeEvents.publishAfterCommit(DataChangeEvents.Topic.EXPENSES, expense.getExpenseId());
+                        }
+                    }
+                    return inserted;
+                }
+            });
+        
+        } catch (SQLException e) {
+            System.err.println("Error creating expenses: " + e.getMessage());
+            e.printStackTrace();
+        }
+        
+        return 0;
+    }
+    
+    /**
+     * Get expense by ID
+     */
+    public Expense getExpenseById(int expenseId) {
+        String sql = "SELECT * FROM expenses WHERE expense_id = ?";
+        
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setInt(1, expenseId);
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return mapResultSetToExpense(rs);
+                }
+            }
+            
+        } catch (SQLException e) {
+            System.err.println("Error getting expense by ID: " + e.getMessage());
+            e.printStackTrace();
+        }
+        
+        return null;
+    }
+    
+    /**
+     * Update an expense
+     */
+    public boolean updateExpense(Expense expense) {
+        String sql = """
+            UPDATE expenses
+            SET expense_date = ?, expense_type = ?, amount = ?, car_id = ?,
+                description = ?, status = ?, notes = ?
+            WHERE expense_id = ?
+            """;
+        
+        // Read the current date first: moving an expense changes the totals of both days
+        try {
+            return dbConnection.inTransaction(conn -> {
+                LocalDate previousDay = lockExpenseDay(conn, expense.getExpenseId());
+                
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    
+                    pstmt.setDate(1, expense.getExpenseDate());
+                    pstmt.setString(2, expense.getExpenseType().getValue());
+                    pstmt.setBigDecimal(3, expense.getAmount());
+                    pstmt.setObject(4, expense.getCarId());
+                    pstmt.setString(5, expense.getDescription());
+                    pstmt.setString(6, expense.getStatus().getValue());
+                    pstmt.setString(7, expense.getNotes());
+                    pstmt.setInt(8, expense.getExpenseId());
+                    
+                    if (pstmt.executeUpdate() > 0) {
+                        LocalDate newDay = expense.getExpenseDate() != null ? expense.getExpenseDate().toLocalDate() : null;
+                        DataChangeEvents.publishAfterCommit(DataChangeEvents.Topic.EXPENSES, expense.getExpenseId(),
+                            DataChangeEvents.earliest(previousDay, newDay));
+                        return true;
+                    }
+                }
+                return false;
+            });
+        
+        } catch (SQLException e) {
+            System.err.println("Error updating expense: " + e.getMessage());
+            e.printStackTrace();
+        }
+        
+        return false;
+    }
+    
+    /**
+     * Delete an expense
+     */
+    public boolean deleteExpense(int expenseId) {
+        String sql = "DELETE FROM expenses WHERE expense_id = ?";
+        
+        // The row is gone once the event is delivered, so it carries the day
+        try {
+            return dbConnection.inTransaction(conn -> {
+                LocalDate day = lockExpenseDay(conn, expenseId);
+                
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    pstmt.setInt(1, expenseId);
+                    if (pstmt.executeUpdate() > 0) {
+                        DataChangeEvents.publishAfterCommit(DataChangeEvents.Topic.EXPENSES, expenseId, day);
+                        return true;
+                    }
+                }
+                return false;
+            });
+        
+        } catch (SQLException e) {
+            System.err.println("Error deleting expense: " + e.getMessage());
+            e.printStackTrace();
+        }
+        
+        return false;
+    }
+    
+    /**
+     * Read and lock an expense's current date on the transaction connection
+     * @return the date, or null if there is no such expense
+     */
+    private static LocalDate lockExpenseDay(Connection conn, int expenseId) throws SQLException {
+        String sql = "SELECT expense_date FROM expenses WHERE expense_id = ? FOR UPDATE";
+        
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, expenseId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next() && rs.getDate(1) != null) {
+                    return rs.getDate(1).toLocalDate();
+                }
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Get expenses with filtering, newest first
+     */
+    public List<Expense> getExpenses(ExpenseFilter filter) {
+        StringBuilder sql = new StringBuilder("""
+            SELECT e.*
+            FROM expenses e
+            WHERE 1=1
+            """);
+        
+        List<Object> parameters = new ArrayList<>();
+        
+        // Apply filters
+        if (filter != null) {
+            if (filter.getStartDate() != null) {
+                sql.append(" AND e.expense_date >= ?");
+                parameters.add(Date.valueOf(filter.getStartDate()));
+            }
+            
+            if (filter.getEndDate() != null) {
+                sql.append(" AND e.expense_date < ?");
+                parameters.add(Date.valueOf(filter.getEndDate()));
+            }
+            
+            if (filter.getExpenseType() != null) {
+                sql.append(" AND e.expense_type = ?");
+                parameters.add(filter.getExpenseType().getValue());
+            }
+            
+            if (filter.getStatus() != null) {
+                sql.append(" AND e.status = ?");
+                parameters.add(filter.getStatus().getValue());
+            }
+        }
+        
+        sql.append(" ORDER BY e.expense_date DESC, e.expense_id DESC");
+        
+        // Apply limit if specified
+        if (filter != null && filter.getLimit() > 0) {
+            sql.append(" LIMIT ?");
+            parameters.add(filter.getLimit());
+        }
+        
+        List<Expense> expenses = new ArrayList<>();
+        
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
+            
+            // Set parameters
+            for (int i = 0; i < parameters.size(); i++) {
+                pstmt.setObject(i + 1, parameters.get(i));
+            }
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    expenses.add(mapResultSetToExpense(rs));
+                }
+            }
+        
+        } catch (SQLException e) {
+            System.err.println("Error getting expenses: " + e.getMessage());
+            e.printStackTrace();
+        }
+        
+        return expenses;
+    }
+    
+    /**
+     * Stream the expenses dated in [startDate, endDate), oldest first, from a
+     * forward-only cursor that holds one fetch batch at a time
+     * @return number of expenses passed to the consumer
+     */
+    public long streamExpenses(LocalDate startDate, LocalDate endDate, Consumer<Expense> consumer) throws SQLException {
+        String sql = """
+            SELECT e.*
+            FROM expenses e
+            WHERE e.expense_date >= ? AND e.expense_date < ?
+            ORDER BY e.expense_date, e.expense_id
+            """;
+        long count = 0;
+        
+        // Not taken from the statement cache, since the fetch size is statement state
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql,
+                     ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            
+            pstmt.setFetchSize(DBConfig.STREAM_FETCH_SIZE);
+            pstmt.setDate(1, Date.valueOf(startDate));
+            pstmt.setDate(2, Date.valueOf(endDate));
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    consumer.accept(mapResultSetToExpense(rs));
+                    count++;
+                }
+            }
+        }
+        
+        return count;
+    }
+    
+    /**
+     * Get the total of all expenses dated on or after startDate and before endDate
+     */
+    public BigDecimal getTotalExpenses(LocalDate startDate, LocalDate endDate) {
+        BigDecimal total = BigDecimal.ZERO;
+        for (BigDecimal amount : getTotalsByType(startDate, endDate).values()) {
+            total = total.add(amount);
+        }
+        return total;
+    }
+    
+    /**
+     * Get expense totals per type for [startDate, endDate); types with no
+     * expenses are left out
+     */
+    public Map<Expense.ExpenseType, BigDecimal> getTotalsByType(LocalDate startDate, LocalDate endDate) {
+        Map<Expense.ExpenseType, BigDecimal> totals = new EnumMap<>(Expense.ExpenseType.class);
+        
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(TOTALS_BY_TYPE_SQL)) {
+            
+            pstmt.setDate(1, Date.valueOf(startDate));
+            pstmt.setDate(2, Date.valueOf(endDate));
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    totals.merge(Expense.ExpenseType.fromString(rs.getString("expense_type")),
+                                 rs.getBigDecimal("total_amount"), BigDecimal::add);
+                }
+            }
+        
+        } catch (SQLException e) {
+            System.err.println("Error getting expense totals: " + e.getMessage());
+            e.printStackTrace();
+        }
+        
+        return totals;
+    }
+    
+    /**
+     * Get expense totals per calendar month for [startDate, endDate), oldest
+     * first; months with no expenses are left out
+     */
+    public List<MonthlyExpenses> getMonthlyExpenses(LocalDate startDate, LocalDate endDate) {
+        String sql = """
+            SELECT
+                YEAR(expense_date) as year,
+                MONTH(expense_date) as month,
+                COUNT(*) as expense_count,
+                SUM(amount) as total_amount
+            FROM expenses
+            WHERE expense_date >= ? AND expense_date < ?
+            GROUP BY YEAR(expense_date), MONTH(expense_date)
+            ORDER BY YEAR(expense_date), MONTH(expense_date)
+            """;
+        
+        List<MonthlyExpenses> monthlyExpenses = new ArrayList<>();
+        
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setDate(1, Date.valueOf(startDate));
+            pstmt.setDate(2, Date.valueOf(endDate));
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    MonthlyExpenses monthly = new MonthlyExpenses();
+                    monthly.setYear(rs.getInt("year"));
+                    monthly.setMonth(rs.getInt("month"));
+                    monthly.setExpenseCount(rs.getInt("expense_count"));
+                    monthly.setTotalAmount(rs.getBigDecimal("total_amount"));
+                    monthlyExpenses.add(monthly);
+                }
+            }
+        
+        } catch (SQLException e) {
+            System.err.println("Error getting monthly expenses: " + e.getMessage());
+            e.printStackTrace();
+        }
+        
+        return monthlyExpenses;
+    }
+    
+    /**
+     * Helper method to map ResultSet to Expense object
+     */
+    private Expense mapResultSetToExpense(ResultSet rs) throws SQLException {
+        Expense expense = new Expense();
+        expense.setExpenseId(rs.getInt("expense_id"));
+        expense.setExpenseDate(rs.getDate("expense_date"));
+        expense.setExpenseType(Expense.ExpenseType.fromString(rs.getString("expense_type")));
+        expense.setAmount(rs.getBigDecimal("amount"));
+        int carId = rs.getInt("car_id");
+        expense.setCarId(rs.wasNull() ? null : carId);
+        expense.setDescription(rs.getString("description"));
+        expense.setRecordedBy(rs.getInt("recorded_by"));
+        expense.setStatus(Expense.ExpenseStatus.fromString(rs.getString("status")));
+        expense.setNotes(rs.getString("notes"));
+        return expense;
+    }
+    
+    /**
+     * Expense filter class for filtering expenses.
+     * Dates are a half-open range: startDate inclusive, endDate exclusive.
+     */
+    public static class ExpenseFilter {
+        private LocalDate startDate;
+        private LocalDate endDate;
+        private Expense.ExpenseType expenseType;
+        private Expense.ExpenseStatus status;
+        private int limit;
+        
+        // Getters and Setters
+        public LocalDate getStartDate() { return startDate; }
+        public void setStartDate(LocalDate startDate) { this.startDate = startDate; }
+        
+        public LocalDate getEndDate() { return endDate; }
+        public void setEndDate(LocalDate endDate) { this.endDate = endDate; }
+        
+        public Expense.ExpenseType getExpenseType() { return expenseType; }
+        public void setExpenseType(Expense.ExpenseType expenseType) { this.expenseType = expenseType; }
+        
+        public Expense.ExpenseStatus getStatus() { return status; }
+        public void setStatus(Expense.ExpenseStatus status) { this.status = status; }
+        
+        public int getLimit() { return limit; }
+        public void setLimit(int limit) { this.limit = limit; }
+    }
+    
+    /**
+     * Expense total for one calendar month
+     */
+    public static class MonthlyExpenses {
+        private int year;
+        private int month;
+        private int expenseCount;
+        private BigDecimal totalAmount;
+        
+        public MonthlyExpenses() {
+            this.totalAmount = BigDecimal.ZERO;
+        }
+        
+        // Getters and Setters
+        public int getYear() { return year; }
+        public void setYear(int year) { this.year = year; }
+        
+        public int getMonth() { return month; }
+        public void setMonth(int month) { this.month = month; }
+        
+        public int getExpenseCount() { return expenseCount; }
+        public void setExpenseCount(int expenseCount) { this.expenseCount = expenseCount; }
+        
+        public BigDecimal getTotalAmount() { return totalAmount; }
+        public void setTotalAmount(BigDecimal totalAmount) { this.totalAmount = totalAmount; }
+    }
+}
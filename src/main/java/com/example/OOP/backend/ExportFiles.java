@@ -0,0 +1,86 @@
+package com.example.OOP.backend;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.SQLException;
+
+/**
+ * File writing shared by AuditLogExporter and FinancialReportGenerator: the
+ * write buffer size, CSV headers and fields, and writing a file under a
+ * temporary name that is moved into place only when complete.
+ */
+final class ExportFiles {
+
+    static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Writes a file's content to the temporary file it is given
+     */
+    interface ContentWriter<T> {
+        T write(Path temp) throws IOException, SQLException;
+    }
+
+    private ExportFiles() {
+    }
+
+    /**
+     * Create or replace target with what the writer puts in a temporary file
+     * in the same directory. The temporary file replaces target atomically
+     * once the writer returns, and is deleted if the writer fails or is
+     * cancelled, so target is never left half-written.
+     * @param tempPrefix start of the temporary file's name
+     * @return what the writer returned
+     */
+    static <T> T writeAtomically(Path target, String tempPrefix, ContentWriter<T> writer)
+            throws IOException, SQLException {
+        Path directory = target.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, tempPrefix, ".tmp");
+
+        try {
+            T result = writer.write(temp);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return result;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Write a CSV header line
+     */
+    static void writeCsvHeader(Writer out, String[] header) throws IOException {
+        for (int i = 0; i < header.length; i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            out.write(header[i]);
+        }
+        out.write("\r\n");
+    }
+
+    /**
+     * Write a CSV field, quoted only if it contains a separator, quote or line
+     * break; null is written as an empty field
+     */
+    static void writeCsvField(Writer out, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            out.write(value);
+            return;
+        }
+        out.write('"');
+        out.write(value.replace("\"", "\"\""));
+        out.write('"');
+    }
+}
@@ -0,0 +1,231 @@
+package com.example.OOP.backend;
+
+
+import com.example.Database.DatabaseConnection;
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Profit and loss figures for a date range, computed by one query.
+ * Sales (joined to their cars for the purchase cost) are summed per day and
+ * expenses per day, type and status in the same statement, so a period costs
+ * one round trip and returns at most a few rows per day however many sales
+ * it holds. Amounts are whole cents; formatting is left to the caller.
+ */
+public class FinancialLedgerDAO {
+    
+    private DatabaseConnection dbConnection;
+    
+    public FinancialLedgerDAO() {
+        this.dbConnection = DatabaseConnection.getInstance();
+    }
+    
+    /**
+     * Get the ledger for [startDate, endDate), ordered by day with the sales
+     * row first. An empty ledger is returned if the query fails.
+     */
+    public Ledger getLedger(LocalDate startDate, LocalDate endDate) {
+        try {
+            return queryLedger(startDate, endDate);
+        } catch (SQLException e) {
+            System.err.println("Error getting financial ledger: " + e.getMessage());
+            e.printStackTrace();
+        }
+        
+        return new Ledger(new ArrayList<>());
+    }
+    
+    /**
+     * Get the ledger for [startDate, endDate), failing rather than returning
+     * an empty ledger, for callers that store the result
+     */
+    Ledger queryLedger(LocalDate startDate, LocalDate endDate) throws SQLException {
+        // Half-open ranges on the bare date columns so idx_sales_date_cover and
+        // idx_expenses_date_cover drive both branches
+        String sql = """
+            SELECT day, expense_type, status, entries,
+                   revenue_cents, car_cost_cents, tax_cents, expense_cents
+            FROM (
+                SELECT
+                    DATE(s.sale_date) as day,
+                    NULL as expense_type,
+                    NULL as status,
+                    COUNT(*) as entries,
+                    CAST(ROUND(SUM(s.total_amount) * 100) AS SIGNED) as revenue_cents,
+                    CAST(ROUND(SUM(COALESCE(c.cost, 0)) * 100) AS SIGNED) as car_cost_cents,
+                    CAST(ROUND(SUM(s.total_amount - s.sale_price) * 100) AS SIGNED) as tax_cents,
+                    0 as expense_cents
+                FROM sales s
+                LEFT JOIN cars c ON s.car_id = c.car_id
+                WHERE s.sale_date >= ? AND s.sale_date < ?
+                GROUP BY DATE(s.sale_date)
+
+                UNION ALL
+
+                SELECT
+                    e.expense_date,
+                    e.expense_type,
+                    e.status,
+                    COUNT(*),
+                    0,
+                    0,
+                    0,
+                    CAST(ROUND(SUM(e.amount) * 100) AS SIGNED)
+                FROM expenses e
+                WHERE e.expense_date >= ? AND e.expense_date < ?
+                GROUP BY e.expense_date, e.expense_type, e.status
+            ) ledger
+            ORDER BY day, expense_type IS NOT NULL, expense_type, status
+            """;
+        
+        List<LedgerRow> rows = new ArrayList<>();
+        
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setTimestamp(1, Timestamp.valueOf(startDate.atStartOfDay()));
+            pstmt.setTimestamp(2, Timestamp.valueOf(endDate.atStartOfDay()));
+            pstmt.setDate(3, Date.valueOf(startDate));
+            pstmt.setDate(4, Date.valueOf(endDate));
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    String expenseType = rs.getString("expense_type");
+                    rows.add(new LedgerRow(
+                        rs.getDate("day").toLocalDate(),
+                        expenseType != null ? Expense.ExpenseType.fromString(expenseType) : null,
+                        expenseType != null ? Expense.ExpenseStatus.fromString(rs.getString("status")) : null,
+                        rs.getInt("entries"),
+                        rs.getLong("revenue_cents"),
+                        rs.getLong("car_cost_cents"),
+                        rs.getLong("tax_cents"),
+                        rs.getLong("expense_cents")));
+                }
+            }
+        }
+        
+        return new Ledger(rows);
+    }
+    
+    /**
+     * Day of the earliest sale or expense, or null if there are none
+     */
+    LocalDate getFirstActivityDate() throws SQLException {
+        // Each MIN is read from the end of its date index
+        String sql = """
+            SELECT MIN(day) as first_day
+            FROM (
+                SELECT DATE(MIN(sale_date)) as day FROM sales
+                UNION ALL
+                SELECT MIN(expense_date) FROM expenses
+            ) first_days
+            """;
+        
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql);
+             ResultSet rs = pstmt.executeQuery()) {
+            
+            if (rs.next()) {
+                Date firstDay = rs.getDate("first_day");
+                return firstDay != null ? firstDay.toLocalDate() : null;
+            }
+        }
+        
+        return null;
+    }
+    
+    /**
+     * One day's sales, or one day's expenses of one type and status
+     */
+    public static final class LedgerRow {
+        private final LocalDate day;
+        private final Expense.ExpenseType expenseType;
+        private final Expense.ExpenseStatus expenseStatus;
+        private final int entries;
+        private final long revenueCents;
+        private final long carCostCents;
+        private final long taxCents;
+        private final long expenseCents;
+        
+        public LedgerRow(LocalDate day, Expense.ExpenseType expenseType, Expense.ExpenseStatus expenseStatus,
+                         int entries, long revenueCents, long carCostCents, long taxCents, long expenseCents) {
+            this.day = day;
+            this.expenseType = expenseType;
+            this.expenseStatus = expenseStatus;
+            this.entries = entries;
+            this.revenueCents = revenueCents;
+            this.carCostCents = carCostCents;
+            this.taxCents = taxCents;
+            this.expenseCents = expenseCents;
+        }
+        
+        /**
+         * True for a sales row, false for an expense row
+         */
+        public boolean isSales() { return expenseType == null; }
+        
+        public LocalDate getDay() { return day; }
+        /** Null for a sales row */
+        public Expense.ExpenseType getExpenseType() { return expenseType; }
+        /** Null for a sales row */
+        public Expense.ExpenseStatus getExpenseStatus() { return expenseStatus; }
+        /** Number of sales or expenses summed into this row */
+        public int getEntries() { return entries; }
+        public long getRevenueCents() { return revenueCents; }
+        public long getCarCostCents() { return carCostCents; }
+        public long getTaxCents() { return taxCents; }
+        public long getExpenseCents() { return expenseCents; }
+    }
+    
+    /**
+     * Ledger rows for a period and their totals
+     */
+    public static final class Ledger {
+        private final List<LedgerRow> rows;
+        private final int salesCount;
+        private final long revenueCents;
+        private final long carCostCents;
+        private final long taxCents;
+        private final long expenseCents;
+        
+        public Ledger(List<LedgerRow> rows) {
+            this.rows = Collections.unmodifiableList(rows);
+            int sales = 0;
+            long revenue = 0;
+            long carCost = 0;
+            long tax = 0;
+            long expenses = 0;
+            for (LedgerRow row : rows) {
+                if (row.isSales()) {
+                    sales += row.getEntries();
+                }
+                revenue += row.getRevenueCents();
+                carCost += row.getCarCostCents();
+                tax += row.getTaxCents();
+                expenses += row.getExpenseCents();
+            }
+            this.salesCount = sales;
+            this.revenueCents = revenue;
+            this.carCostCents = carCost;
+            this.taxCents = tax;
+            this.expenseCents = expenses;
+        }
+        
+        public List<LedgerRow> getRows() { return rows; }
+        public int getSalesCount() { return salesCount; }
+        public long getRevenueCents() { return revenueCents; }
+        public long getCarCostCents() { return carCostCents; }
+        public long getTaxCents() { return taxCents; }
+        public long getExpenseCents() { return expenseCents; }
+        
+        /**
+         * Revenue less car costs, sales tax and expenses
+         */
+        public long getProfitCents() {
+            return revenueCents - carCostCents - taxCents - expenseCents;
+        }
+    }
+}
@@ -0,0 +1,488 @@
+package com.example.OOP.backend;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.concurrent.CancellationException;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Writes the sales and expenses of a period to a paginated PDF report or to
+ * a CSV file. Rows are streamed from the SalesDAO and ExpenseDAO cursors
+ * straight into the writer, which holds one PDF page or one CSV line, so a
+ * full year of sales is written in bounded memory. The summary and the row
+ * count come from one ledger query made first, which also lets progress be
+ * reported against a known total. As with AuditLogExporter, the file is
+ * written under a temporary name and moved into place when complete.
+ */
+public class FinancialReportGenerator {
+
+    public enum Format {
+        PDF, CSV
+    }
+
+    /**
+     * Told the number of rows written out of the total expected
+     */
+    public interface ProgressListener {
+        void onProgress(long rowsWritten, long totalRows);
+    }
+
+    private static final String[] CSV_HEADER = {
+        "date", "record_type", "record_id", "description", "buyer", "category", "status", "amount", "tax", "total"
+    };
+
+    private static final DateTimeFormatter DISPLAY_DATE_FORMAT = DateTimeFormatter.ofPattern("MMM dd, yyyy", Locale.ENGLISH);
+
+    private final FinancialLedgerDAO ledgerDAO;
+    private final SalesDAO salesDAO;
+    private final ExpenseDAO expenseDAO;
+
+    public FinancialReportGenerator() {
+        this.ledgerDAO = new FinancialLedgerDAO();
+        this.salesDAO = new SalesDAO();
+        this.expenseDAO = new ExpenseDAO();
+    }
+
+    /**
+     * Write the report for [startDate, endDate).
+     * @param title period name shown in the PDF, e.g. "May 2025"
+     * @param target file to create or replace
+     * @param progress told the rows written whenever the percentage changes, and at the end; may be null
+     * @param cancelled checked before each row; when it returns true the report stops; may be null
+     * @return number of sales and expenses written
+     * @throws CancellationException if the report was cancelled
+     */
+    public long generate(String title, LocalDate startDate, LocalDate endDate, Path target, Format format,
+                         ProgressListener progress, BooleanSupplier cancelled) throws IOException, SQLException {
+        FinancialLedgerDAO.Ledger ledger = ledgerDAO.queryLedger(startDate, endDate);
+        long totalRows = 0;
+        for (FinancialLedgerDAO.LedgerRow row : ledger.getRows()) {
+            totalRows += row.getEntries();
+        }
+
+        RowCounter counter = new RowCounter(totalRows, progress, cancelled);
+        long rows = ExportFiles.writeAtomically(target, "financial_report", temp -> {
+            try (ReportSink sink = format == Format.PDF
+                    ? new PdfReportSink(temp, title, startDate, endDate, ledger)
+                    : new CsvReportSink(temp)) {
+                try {
+                    salesDAO.streamSales(startDate, endDate, sale -> {
+                        counter.next();
+                        try {
+                            sink.sale(sale);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+                    sink.beginExpenses();
+                    expenseDAO.streamExpenses(startDate, endDate, expense -> {
+                        counter.next();
+                        try {
+                            sink.expense(expense);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+                } catch (UncheckedIOException e) {
+                    throw e.getCause();
+                }
+                sink.finish();
+            }
+            return counter.rows;
+        });
+
+        if (progress != null) {
+            progress.onProgress(rows, Math.max(rows, totalRows));
+        }
+        return rows;
+    }
+
+    private static LocalDate saleDay(Sale sale) {
+        return sale.getSaleDate() != null ? sale.getSaleDate().toLocalDateTime().toLocalDate() : null;
+    }
+
+    /**
+     * Counts written rows, reports progress and checks for cancellation
+     */
+    private static class RowCounter {
+        private final long totalRows;
+        private final ProgressListener progress;
+        private final BooleanSupplier cancelled;
+        private long rows;
+        private long reportedPercent = -1;
+
+        RowCounter(long totalRows, ProgressListener progress, BooleanSupplier cancelled) {
+            this.totalRows = totalRows;
+            this.progress = progress;
+            this.cancelled = cancelled;
+        }
+
+        void next() {
+            if (cancelled != null && cancelled.getAsBoolean()) {
+                throw new CancellationException("Financial report cancelled");
+            }
+            rows++;
+
+            // Rows written since the ledger query can take the count past the total
+            long total = Math.max(rows, totalRows);
+            long percent = rows * 100 / total;
+            if (progress != null && percent != reportedPercent) {
+                reportedPercent = percent;
+                progress.onProgress(rows, total);
+            }
+        }
+    }
+
+    /**
+     * Receives the streamed rows: every sale, then every expense
+     */
+    private interface ReportSink extends Closeable {
+        void sale(Sale sale) throws IOException;
+
+        void beginExpenses() throws IOException;
+
+        void expense(Expense expense) throws IOException;
+
+        /**
+         * Write whatever follows the last row; close() alone leaves the file incomplete
+         */
+        void finish() throws IOException;
+    }
+
+    /**
+     * One CSV line per sale or expense. Expense amounts are negative, so the
+     * total column sums to the period's net revenue after expenses.
+     */
+    private static class CsvReportSink implements ReportSink {
+        private final Writer out;
+
+        CsvReportSink(Path file) throws IOException {
+            this.out = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(file), StandardCharsets.UTF_8),
+                ExportFiles.WRITE_BUFFER_SIZE);
+            ExportFiles.writeCsvHeader(out, CSV_HEADER);
+        }
+
+        @Override
+        public void sale(Sale sale) throws IOException {
+            LocalDate day = saleDay(sale);
+            writeRow(day != null ? day.toString() : null, "sale", sale.getSaleId(),
+                sale.getCarDisplayName(), sale.getBuyerName(), "Car Sales",
+                sale.getPaymentStatus() != null ? sale.getPaymentStatus().getValue() : null,
+                Money.toCents(sale.getSalePrice()), Money.toCents(sale.getTaxAmount()), Money.toCents(sale.getTotalAmount()));
+        }
+
+        @Override
+        public void beginExpenses() {
+            // Expenses follow the sales in the same table
+        }
+
+        @Override
+        public void expense(Expense expense) throws IOException {
+            long cents = Money.toCents(expense.getAmount());
+            writeRow(expense.getExpenseDate() != null ? expense.getExpenseDate().toString() : null, "expense",
+                expense.getExpenseId(), expense.getDescription(), null,
+                expense.getExpenseType() != null ? expense.getExpenseType().getValue() : null,
+                expense.getStatus() != null ? expense.getStatus().getValue() : null,
+                -cents, 0, -cents);
+        }
+
+        @Override
+        public void finish() throws IOException {
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+
+        private void writeRow(String date, String recordType, int recordId, String description, String buyer,
+                              String category, String status, long amountCents, long taxCents, long totalCents)
+                throws IOException {
+            ExportFiles.writeCsvField(out, date);
+            out.write(',');
+            out.write(recordType);
+            out.write(',');
+            out.write(Integer.toString(recordId));
+            out.write(',');
+            ExportFiles.writeCsvField(out, description);
+            out.write(',');
+            ExportFiles.writeCsvField(out, buyer);
+            out.write(',');
+            ExportFiles.writeCsvField(out, category);
+            out.write(',');
+            ExportFiles.writeCsvField(out, status);
+            out.write(',');
+            out.write(BigDecimal.valueOf(amountCents, 2).toPlainString());
+            out.write(',');
+            out.write(BigDecimal.valueOf(taxCents, 2).toPlainString());
+            out.write(',');
+            out.write(BigDecimal.valueOf(totalCents, 2).toPlainString());
+            out.write("\r\n");
+        }
+    }
+
+    /**
+     * Column of a PDF table
+     */
+    private static final class Column {
+        final String name;
+        final float x;
+        final float width;
+        final boolean rightAligned;
+
+        Column(String name, float x, float width, boolean rightAligned) {
+            this.name = name;
+            this.x = x;
+            this.width = width;
+            this.rightAligned = rightAligned;
+        }
+    }
+
+    /**
+     * A title page summary from the ledger, then a sales table and an
+     * expenses table with totals. Tables break across pages with their
+     * column headings repeated.
+     */
+    private static class PdfReportSink implements ReportSink {
+        private static final float MARGIN = 40;
+        private static final float RIGHT = PdfWriter.PAGE_WIDTH - MARGIN;
+        private static final float TOP = PdfWriter.PAGE_HEIGHT - 50;
+        private static final float BOTTOM = 60;
+        private static final float ROW_HEIGHT = 14;
+        private static final float FONT_SIZE = 8.5f;
+        private static final float CELL_PADDING = 4;
+
+        private static final Column[] SALE_COLUMNS = {
+            new Column("Date", MARGIN, 62, false),
+            new Column("Sale #", 102, 40, false),
+            new Column("Vehicle", 142, 125, false),
+            new Column("Buyer", 267, 100, false),
+            new Column("Payment", 367, 50, false),
+            new Column("Price", 417, 55, true),
+            new Column("Tax", 472, 45, true),
+            new Column("Total", 517, 55, true)
+        };
+
+        private static final Column[] EXPENSE_COLUMNS = {
+            new Column("Date", MARGIN, 62, false),
+            new Column("Type", 102, 80, false),
+            new Column("Description", 182, 220, false),
+            new Column("Status", 402, 70, false),
+            new Column("Amount", 472, 100, true)
+        };
+
+        private final PdfWriter pdf;
+        private final String footer;
+        private final String[] cells = new String[SALE_COLUMNS.length];
+        private float y;
+        private String section;
+        private Column[] columns;
+        private int sectionRows;
+        private long priceCents;
+        private long taxCents;
+        private long totalCents;
+
+        PdfReportSink(Path file, String title, LocalDate startDate, LocalDate endDate,
+                      FinancialLedgerDAO.Ledger ledger) throws IOException {
+            this.pdf = new PdfWriter(new BufferedOutputStream(Files.newOutputStream(file), ExportFiles.WRITE_BUFFER_SIZE),
+                "Financial Report - " + title);
+            this.footer = "Financial Report - " + title;
+
+            startPage();
+            pdf.text(MARGIN, y, 18, true, "Financial Report");
+            y -= 20;
+            pdf.text(MARGIN, y, 11, false, title + "  (" + DISPLAY_DATE_FORMAT.format(startDate)
+                + " - " + DISPLAY_DATE_FORMAT.format(endDate.minusDays(1)) + ")");
+            y -= 14;
+            pdf.text(MARGIN, y, FONT_SIZE, false, "Generated " + LocalDateTime.now().format(
+                DateTimeFormatter.ofPattern("MMM dd, yyyy HH:mm", Locale.ENGLISH)));
+            y -= 28;
+
+            pdf.text(MARGIN, y, 12, true, "Summary");
+            y -= 6;
+            pdf.line(MARGIN, y, RIGHT, y, 0.75f, 0.6f);
+            y -= 16;
+            summaryLine("Revenue", Money.format(ledger.getRevenueCents()), false);
+            summaryLine("Car Costs", Money.format(-ledger.getCarCostCents()), false);
+            summaryLine("Sales Tax", Money.format(-ledger.getTaxCents()), false);
+            summaryLine("Expenses", Money.format(-ledger.getExpenseCents()), false);
+            summaryLine("Net Profit", Money.format(ledger.getProfitCents()), true);
+            summaryLine("Cars Sold", Integer.toString(ledger.getSalesCount()), false);
+            y -= 16;
+
+            beginSection("Sales", SALE_COLUMNS);
+        }
+
+        @Override
+        public void sale(Sale sale) throws IOException {
+            LocalDate day = saleDay(sale);
+            cells[0] = day != null ? DISPLAY_DATE_FORMAT.format(day) : "";
+            cells[1] = Integer.toString(sale.getSaleId());
+            cells[2] = sale.getCarDisplayName();
+            cells[3] = sale.getBuyerName();
+            cells[4] = sale.getPaymentStatus() != null ? sale.getPaymentStatus().toString() : "";
+            long price = Money.toCents(sale.getSalePrice());
+            long tax = Money.toCents(sale.getTaxAmount());
+            long total = Money.toCents(sale.getTotalAmount());
+            cells[5] = Money.format(price);
+            cells[6] = Money.format(tax);
+            cells[7] = Money.format(total);
+            row(false);
+
+            priceCents += price;
+            taxCents += tax;
+            totalCents += total;
+        }
+
+        @Override
+        public void beginExpenses() throws IOException {
+            if (sectionRows == 0) {
+                emptySection("No sales in this period.");
+            } else {
+                cells[0] = "Total";
+                cells[1] = "";
+                cells[2] = sectionRows == 1 ? "1 sale" : sectionRows + " sales";
+                cells[3] = "";
+                cells[4] = "";
+                cells[5] = Money.format(priceCents);
+                cells[6] = Money.format(taxCents);
+                cells[7] = Money.format(totalCents);
+                row(true);
+            }
+
+            y -= 16;
+            totalCents = 0;
+            beginSection("Expenses", EXPENSE_COLUMNS);
+        }
+
+        @Override
+        public void expense(Expense expense) throws IOException {
+            cells[0] = expense.getExpenseDate() != null ? DISPLAY_DATE_FORMAT.format(expense.getExpenseDate().toLocalDate()) : "";
+            cells[1] = expense.getExpenseType() != null ? expense.getExpenseType().toString() : "";
+            cells[2] = expense.getDescription();
+            cells[3] = expense.getStatus() != null ? expense.getStatus().toString() : "";
+            long amount = Money.toCents(expense.getAmount());
+            cells[4] = Money.format(amount);
+            row(false);
+
+            totalCents += amount;
+        }
+
+        @Override
+        public void finish() throws IOException {
+            if (sectionRows == 0) {
+                emptySection("No expenses in this period.");
+            } else {
+                cells[0] = "Total";
+                cells[1] = "";
+                cells[2] = sectionRows == 1 ? "1 expense" : sectionRows + " expenses";
+                cells[3] = "";
+                cells[4] = Money.format(totalCents);
+                row(true);
+            }
+            endPage();
+        }
+
+        @Override
+        public void close() throws IOException {
+            pdf.close();
+        }
+
+        private void summaryLine(String label, String value, boolean bold) {
+            pdf.text(MARGIN, y, 10, bold, label);
+            pdf.textRight(MARGIN + 240, y, 10, bold, value);
+            y -= 16;
+        }
+
+        private void beginSection(String name, Column[] sectionColumns) throws IOException {
+            // Keep the heading with the column headings and at least one row
+            if (y - 40 - 2 * ROW_HEIGHT < BOTTOM) {
+                endPage();
+                startPage();
+            }
+            section = name;
+            columns = sectionColumns;
+            sectionRows = 0;
+            sectionHeading(name);
+        }
+
+        private void sectionHeading(String heading) {
+            pdf.text(MARGIN, y, 12, true, heading);
+            y -= 8;
+            pdf.fillRect(MARGIN, y - ROW_HEIGHT + 4, RIGHT - MARGIN, ROW_HEIGHT, 0.85f);
+            y -= ROW_HEIGHT - 7;
+            for (Column column : columns) {
+                drawCell(column, column.name, true);
+            }
+            y -= ROW_HEIGHT;
+        }
+
+        private void row(boolean total) throws IOException {
+            if (y - ROW_HEIGHT < BOTTOM) {
+                endPage();
+                startPage();
+                sectionHeading(section + " (continued)");
+            }
+
+            if (total) {
+                pdf.line(MARGIN, y + ROW_HEIGHT - 4, RIGHT, y + ROW_HEIGHT - 4, 0.75f, 0.3f);
+            } else {
+                if (sectionRows % 2 == 1) {
+                    pdf.fillRect(MARGIN, y - 4, RIGHT - MARGIN, ROW_HEIGHT, 0.95f);
+                }
+                sectionRows++;
+            }
+            for (int i = 0; i < columns.length; i++) {
+                drawCell(columns[i], cells[i], total);
+            }
+            y -= ROW_HEIGHT;
+        }
+
+        private void emptySection(String message) throws IOException {
+            if (y - ROW_HEIGHT < BOTTOM) {
+                endPage();
+                startPage();
+            }
+            pdf.text(MARGIN + CELL_PADDING, y, FONT_SIZE, false, message);
+            y -= ROW_HEIGHT;
+        }
+
+        private void drawCell(Column column, String value, boolean bold) {
+            // Bold text is set a little wider than the Helvetica metrics used to fit it
+            String text = PdfWriter.fit(value, FONT_SIZE, column.width - 2 * CELL_PADDING - (bold ? 4 : 0));
+            if (column.rightAligned) {
+                pdf.textRight(column.x + column.width - CELL_PADDING - (bold ? 2 : 0), y, FONT_SIZE, bold, text);
+            } else {
+                pdf.text(column.x + CELL_PADDING, y, FONT_SIZE, bold, text);
+            }
+        }
+
+        private void startPage() {
+            pdf.beginPage();
+            y = TOP;
+        }
+
+        private void endPage() throws IOException {
+            float footerY = BOTTOM - 30;
+            pdf.line(MARGIN, footerY + 12, RIGHT, footerY + 12, 0.5f, 0.6f);
+            pdf.text(MARGIN, footerY, 7.5f, false, footer);
+            pdf.textRight(RIGHT, footerY, 7.5f, false, "Page " + (pdf.getPageCount() + 1));
+            pdf.endPage();
+        }
+    }
+}
@@ -0,0 +1,478 @@
+package com.example.OOP.backend;
+
+import com.example.Database.DBConfig;
+import com.example.Database.DatabaseConnection;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * In-memory copy of the cars inventory with secondary indexes, used by
+ * CarDAO.getCars and CarDAO.searchCars so filter changes and searches don't
+ * go back to MySQL.
+ * Each index maps a value to a BitSet of car IDs; a filter is answered by
+ * intersecting the postings of its conditions and then sorting the survivors
+ * the same way as the SQL query (newest first, car_id as tie-breaker).
+ * CarDAO updates the index after each committed write. Changes made to the
+ * database by other programs are only picked up by reload().
+ * The first getInstance() call starts the load on a background thread; until
+ * it finishes, isLoaded() is false and CarDAO queries MySQL. A failed load is
+ * retried after a delay that doubles with each failure.
+ */
+public class InventoryIndex {
+    
+    private static final InventoryIndex instance = new InventoryIndex();
+    
+    private static final Comparator<Car> NEWEST_FIRST = Comparator
+        .comparing(Car::getDateAdded, Comparator.nullsLast(Comparator.reverseOrder()))
+        .thenComparing(Comparator.comparingInt(Car::getCarId).reversed());
+    
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Integer, Car> byId = new HashMap<>();
+    private final BitSet all = new BitSet();
+    private final EnumMap<Car.CarStatus, BitSet> byStatus = new EnumMap<>(Car.CarStatus.class);
+    private final EnumMap<CarModel.CarCategory, BitSet> byCategory = new EnumMap<>(CarModel.CarCategory.class);
+    // Keyed by lower-case manufacturer name
+    private final Map<String, BitSet> byManufacturer = new HashMap<>();
+    private final TreeMap<Integer, BitSet> byYear = new TreeMap<>();
+    // Keyed by price in cents so the keys compare exactly
+    private final TreeMap<Long, BitSet> byPrice = new TreeMap<>();
+    // Manufacturer, model name, VIN and color, in that order, for keyword search
+    private final NGramIndex text = new NGramIndex();
+    
+    private volatile boolean loaded;
+    
+    // Guards loading and pending. Updates committed while a load runs are held
+    // in pending and applied once it finishes, since the load may have read
+    // those cars before the change.
+    private final Object loadState = new Object();
+    private boolean loading;
+    private final List<Consumer<InventoryIndex>> pending = new ArrayList<>();
+    // Only one reload runs at a time
+    private final Object reloadLock = new Object();
+    private volatile long retryAtNanos;
+    private long retryDelayMs = DBConfig.INVENTORY_INDEX_RETRY_MS;
+    
+    private InventoryIndex() {
+    }
+    
+    /**
+     * Get the shared index, starting a background load if it isn't loaded.
+     * Never waits for the load; check isLoaded() before querying.
+     */
+    public static InventoryIndex getInstance() {
+        if (!instance.loaded && System.nanoTime() - instance.retryAtNanos >= 0) {
+            instance.startBackgroundLoad();
+        }
+        return instance;
+    }
+    
+    private void startBackgroundLoad() {
+        synchronized (loadState) {
+            if (loading || loaded) {
+                return;
+            }
+            loading = true;
+        }
+        
+        Thread loader = new Thread(() -> {
+            if (reload()) {
+                retryDelayMs = DBConfig.INVENTORY_INDEX_RETRY_MS;
+            } else {
+                retryAtNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(retryDelayMs);
+                retryDelayMs = Math.min(retryDelayMs * 2, DBConfig.INVENTORY_INDEX_MAX_RETRY_MS);
+            }
+        }, "inventory-index-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+    
+    /**
+     * Reload every car from the database, replacing the current contents
+     * @return true if the load succeeded
+     */
+    public boolean reload() {
+        synchronized (reloadLock) {
+            synchronized (loadState) {
+                loading = true;
+            }
+            
+            List<Car> cars = new ArrayList<>();
+            try {
+                new CarDAO().streamCarsChecked(null, cars::add);
+            } catch (SQLException e) {
+                System.err.println("Error loading inventory index: " + e.getMessage());
+                finishLoad(false);
+                return false;
+            }
+            
+            replaceContents(cars);
+            finishLoad(true);
+            System.out.println("Inventory index loaded with " + cars.size() + " cars");
+            return true;
+        }
+    }
+    
+    /**
+     * Apply the updates held during the load and mark the index loaded.
+     * After a failed load they still apply to the previous contents, if any.
+     */
+    private void finishLoad(boolean succeeded) {
+        synchronized (loadState) {
+            if (succeeded) {
+                loaded = true;
+            }
+            if (loaded) {
+                for (Consumer<InventoryIndex> update : pending) {
+                    update.accept(this);
+                }
+            }
+            pending.clear();
+            loading = false;
+        }
+    }
+    
+    private void replaceContents(List<Car> cars) {
+        lock.writeLock().lock();
+        try {
+            byId.clear();
+            all.clear();
+            byStatus.clear();
+            byCategory.clear();
+            byManufacturer.clear();
+            byYear.clear();
+            byPrice.clear();
+            text.clear();
+            for (Car car : cars) {
+                add(car);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public boolean isLoaded() {
+        return loaded;
+    }
+    
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return byId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Get cars matching the filter, in the same order and with the same paging
+     * as CarDAO's SQL query. The returned cars are copies and may be modified.
+     */
+    public List<Car> query(CarDAO.CarFilter filter) {
+        List<Car> matches = new ArrayList<>();
+        
+        lock.readLock().lock();
+        try {
+            BitSet candidates = (BitSet) all.clone();
+            
+            if (filter != null) {
+                if (filter.getStatus() != null) {
+                    candidates.and(postings(byStatus.get(filter.getStatus())));
+                }
+                if (filter.getCategory() != null) {
+                    candidates.and(postings(byCategory.get(filter.getCategory())));
+                }
+                if (filter.getManufacturerName() != null && !filter.getManufacturerName().isEmpty()) {
+                    // Same contains-match as the SQL LIKE '%name%'
+                    String name = filter.getManufacturerName().toLowerCase();
+                    BitSet manufacturers = new BitSet();
+                    for (Map.Entry<String, BitSet> entry : byManufacturer.entrySet()) {
+                        if (entry.getKey().contains(name)) {
+                            manufacturers.or(entry.getValue());
+                        }
+                    }
+                    candidates.and(manufacturers);
+                }
+                if (filter.getYearFrom() != null || filter.getYearTo() != null) {
+                    int from = filter.getYearFrom() != null ? filter.getYearFrom() : Integer.MIN_VALUE;
+                    int to = filter.getYearTo() != null ? filter.getYearTo() : Integer.MAX_VALUE;
+                    candidates.and(from <= to ? union(byYear.subMap(from, true, to, true)) : new BitSet());
+                }
+                if (filter.getMinPrice() != null || filter.getMaxPrice() != null) {
+                    long from = filter.getMinPrice() != null ? ceilCents(filter.getMinPrice()) : Long.MIN_VALUE;
+                    long to = filter.getMaxPrice() != null ? floorCents(filter.getMaxPrice()) : Long.MAX_VALUE;
+                    candidates.and(from <= to ? union(byPrice.subMap(from, true, to, true)) : new BitSet());
+                }
+            }
+            
+            for (int id = candidates.nextSetBit(0); id >= 0; id = candidates.nextSetBit(id + 1)) {
+                Car car = byId.get(id);
+                if (matchesUnindexed(car, filter)) {
+                    matches.add(car);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        
+        matches.sort(NEWEST_FIRST);
+        
+        int limit = filter != null && filter.getPageSize() > 0 ? filter.getPageSize() : Integer.MAX_VALUE;
+        List<Car> page = new ArrayList<>(Math.min(matches.size(), limit));
+        for (Car car : matches) {
+            if (page.size() == limit) {
+                break;
+            }
+            if (isAfterCursor(car, filter)) {
+                page.add(copyOf(car));
+            }
+        }
+        return page;
+    }
+    
+    /**
+     * Search cars by keyword: every word of the keyword must be contained in
+     * the manufacturer, model name, VIN or color, so a one-word keyword matches
+     * the same cars as CarDAO's SQL search. Newest first; the returned cars
+     * are copies.
+     */
+    public List<Car> search(String keyword) {
+        List<Car> matches = new ArrayList<>();
+        
+        lock.readLock().lock();
+        try {
+            BitSet hits = text.search(keyword);
+            for (int id = hits.nextSetBit(0); id >= 0; id = hits.nextSetBit(id + 1)) {
+                matches.add(byId.get(id));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        
+        matches.sort(NEWEST_FIRST);
+        List<Car> result = new ArrayList<>(matches.size());
+        for (Car car : matches) {
+            result.add(copyOf(car));
+        }
+        return result;
+    }
+    
+    /**
+     * Add or replace a car
+     */
+    void put(Car car) {
+        lock.writeLock().lock();
+        try {
+            Car previous = byId.get(car.getCarId());
+            if (previous != null) {
+                remove(previous);
+            }
+            add(copyOf(car));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Move a car to a different status bucket
+     */
+    void updateStatus(int carId, Car.CarStatus status) {
+        lock.writeLock().lock();
+        try {
+            Car car = byId.get(carId);
+            if (car != null) {
+                postings(byStatus.get(car.getStatus())).clear(carId);
+                car.setStatus(status);
+                byStatus.computeIfAbsent(status, s -> new BitSet()).set(carId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Remove a car
+     */
+    void delete(int carId) {
+        lock.writeLock().lock();
+        try {
+            Car car = byId.get(carId);
+            if (car != null) {
+                remove(car);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    private void add(Car car) {
+        int id = car.getCarId();
+        byId.put(id, car);
+        all.set(id);
+        byStatus.computeIfAbsent(car.getStatus(), s -> new BitSet()).set(id);
+        CarModel.CarCategory category = categoryOf(car);
+        if (category != null) {
+            byCategory.computeIfAbsent(category, c -> new BitSet()).set(id);
+        }
+        String manufacturer = manufacturerOf(car);
+        if (manufacturer != null) {
+            byManufacturer.computeIfAbsent(manufacturer, m -> new BitSet()).set(id);
+        }
+        byYear.computeIfAbsent(car.getManufactureYear(), y -> new BitSet()).set(id);
+        if (car.getPrice() != null) {
+            byPrice.computeIfAbsent(floorCents(car.getPrice()), p -> new BitSet()).set(id);
+        }
+        text.put(id, manufacturerOf(car),
+                car.getCarModel() != null ? car.getCarModel().getModelName() : null,
+                car.getVin(), car.getColor());
+    }
+    
+    private void remove(Car car) {
+        int id = car.getCarId();
+        byId.remove(id);
+        all.clear(id);
+        clearPosting(byStatus, car.getStatus(), id);
+        clearPosting(byCategory, categoryOf(car), id);
+        clearPosting(byManufacturer, manufacturerOf(car), id);
+        clearPosting(byYear, car.getManufactureYear(), id);
+        if (car.getPrice() != null) {
+            clearPosting(byPrice, floorCents(car.getPrice()), id);
+        }
+        text.remove(id);
+    }
+    
+    private static <K> void clearPosting(Map<K, BitSet> index, K key, int id) {
+        if (key == null) {
+            return;
+        }
+        BitSet posting = index.get(key);
+        if (posting != null) {
+            posting.clear(id);
+            if (posting.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+    
+    private static BitSet postings(BitSet posting) {
+        return posting != null ? posting : new BitSet();
+    }
+    
+    private static BitSet union(NavigableMap<?, BitSet> range) {
+        BitSet result = new BitSet();
+        for (BitSet posting : range.values()) {
+            result.or(posting);
+        }
+        return result;
+    }
+    
+    /**
+     * Filter conditions that have no index: model name and color (contains-match,
+     * case-insensitive like the SQL LIKE)
+     */
+    private static boolean matchesUnindexed(Car car, CarDAO.CarFilter filter) {
+        if (filter == null) {
+            return true;
+        }
+        if (filter.getModelName() != null && !filter.getModelName().isEmpty()) {
+            String modelName = car.getCarModel() != null ? car.getCarModel().getModelName() : null;
+            if (modelName == null || !modelName.toLowerCase().contains(filter.getModelName().toLowerCase())) {
+                return false;
+            }
+        }
+        if (filter.getColor() != null && !filter.getColor().isEmpty()) {
+            if (car.getColor() == null || !car.getColor().toLowerCase().contains(filter.getColor().toLowerCase())) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private static boolean isAfterCursor(Car car, CarDAO.CarFilter filter) {
+        if (filter == null || filter.getAfterDateAdded() == null || filter.getAfterCarId() == null) {
+            return true;
+        }
+        if (car.getDateAdded() == null) {
+            return false;
+        }
+        int cmp = car.getDateAdded().compareTo(filter.getAfterDateAdded());
+        return cmp < 0 || (cmp == 0 && car.getCarId() < filter.getAfterCarId());
+    }
+    
+    private static CarModel.CarCategory categoryOf(Car car) {
+        return car.getCarModel() != null ? car.getCarModel().getCategory() : null;
+    }
+    
+    private static String manufacturerOf(Car car) {
+        if (car.getCarModel() == null || car.getCarModel().getManufacturer() == null
+                || car.getCarModel().getManufacturer().getName() == null) {
+            return null;
+        }
+        return car.getCarModel().getManufacturer().getName().toLowerCase();
+    }
+    
+    private static long floorCents(BigDecimal amount) {
+        return amount.movePointRight(2).setScale(0, RoundingMode.FLOOR).longValueExact();
+    }
+    
+    private static long ceilCents(BigDecimal amount) {
+        return amount.movePointRight(2).setScale(0, RoundingMode.CEILING).longValueExact();
+    }
+    
+    /**
+     * Copy a car so callers can't change the indexed instance behind the index's back.
+     * The model is shared; it is only replaced, never modified, by the DAO.
+     */
+    private static Car copyOf(Car car) {
+        Car copy = new Car();
+        copy.setCarId(car.getCarId());
+        copy.setModelId(car.getModelId());
+        copy.setVin(car.getVin());
+        copy.setColor(car.getColor());
+        copy.setManufactureYear(car.getManufactureYear());
+        copy.setMileage(car.getMileage());
+        copy.setPrice(car.getPrice());
+        copy.setCost(car.getCost());
+        copy.setStatus(car.getStatus());
+        copy.setDateAdded(car.getDateAdded());
+        copy.setLocation(car.getLocation());
+        copy.setImageUrl(car.getImageUrl());
+        copy.setAddedBy(car.getAddedBy());
+        copy.setNotes(car.getNotes());
+        copy.setCarModel(car.getCarModel());
+        return copy;
+    }
+    
+    /**
+     * Queue an index update to run when the current transaction commits
+     * (immediately outside a transaction). Held until a running load finishes;
+     * does nothing if the index isn't loaded or loading.
+     */
+    static void afterCommit(Consumer<InventoryIndex> update) {
+        DatabaseConnection.getInstance().afterCommit(() -> instance.apply(update));
+    }
+    
+    private void apply(Consumer<InventoryIndex> update) {
+        synchronized (loadState) {
+            if (loading) {
+                pending.add(update);
+                return;
+            }
+        }
+        if (loaded) {
+            update.accept(this);
+        }
+    }
+}
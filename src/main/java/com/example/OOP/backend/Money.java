@@ -0,0 +1,243 @@
+package com.example.OOP.backend;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * An amount of money as a whole number of cents.
+ * Values are immutable. Code that sums many amounts keeps a long total of
+ * getCents() and wraps it once at the end, so the loop itself neither
+ * allocates nor parses; the static methods work on raw cents for that.
+ * Rounding is half-up, as in BigDecimal's HALF_UP, and arithmetic that
+ * overflows a long throws ArithmeticException.
+ */
+public final class Money implements Comparable<Money> {
+
+    public static final Money ZERO = new Money(0);
+
+    // Sales tax charged on car sales, in basis points (1/100 of a percent)
+    public static final int SALES_TAX_BASIS_POINTS = 800;
+
+    private final long cents;
+
+    private Money(long cents) {
+        this.cents = cents;
+    }
+
+    public static Money ofCents(long cents) {
+        return cents == 0 ? ZERO : new Money(cents);
+    }
+
+    /**
+     * Amount rounded to whole cents; null is treated as zero
+     */
+    public static Money of(BigDecimal amount) {
+        return ofCents(toCents(amount));
+    }
+
+    /**
+     * Parse an amount such as "$28,500", "28500.5" or "-$12.99".
+     * Digits after the second decimal are rounded.
+     * @throws NumberFormatException if the text is not an amount
+     */
+    public static Money parse(CharSequence text) {
+        return ofCents(parseCents(text));
+    }
+
+    public long getCents() {
+        return cents;
+    }
+
+    public Money plus(Money other) {
+        return ofCents(Math.addExact(cents, other.cents));
+    }
+
+    public Money minus(Money other) {
+        return ofCents(Math.subtractExact(cents, other.cents));
+    }
+
+    public Money times(long quantity) {
+        return ofCents(Math.multiplyExact(cents, quantity));
+    }
+
+    /**
+     * This amount split into count equal parts, e.g. an average
+     */
+    public Money dividedBy(long count) {
+        return ofCents(divideRounded(cents, count));
+    }
+
+    /**
+     * The given share of this amount, e.g. 800 basis points for 8%
+     */
+    public Money applyRate(int basisPoints) {
+        return ofCents(rateOf(cents, basisPoints));
+    }
+
+    /**
+     * Sales tax due on a sale at this price
+     */
+    public Money salesTax() {
+        return applyRate(SALES_TAX_BASIS_POINTS);
+    }
+
+    public boolean isPositive() {
+        return cents > 0;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    /**
+     * Amount in dollars, for display code and statistics kept as double
+     */
+    public double toDouble() {
+        return cents / 100.0;
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(cents, other.cents);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof Money && ((Money) obj).cents == cents;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(cents);
+    }
+
+    /**
+     * Formatted like "$1,234.56" or "-$12.00"
+     */
+    @Override
+    public String toString() {
+        return format(cents);
+    }
+
+    // Raw cents helpers
+
+    /**
+     * Amount rounded to whole cents; null is treated as zero
+     */
+    public static long toCents(BigDecimal amount) {
+        if (amount == null) {
+            return 0;
+        }
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    /**
+     * The given share of an amount in cents, rounded half-up
+     */
+    public static long rateOf(long cents, int basisPoints) {
+        return divideRounded(Math.multiplyExact(cents, basisPoints), 10_000);
+    }
+
+    /**
+     * Parse an amount into cents without creating intermediate strings
+     * @throws NumberFormatException if the text is not an amount
+     */
+    public static long parseCents(CharSequence text) {
+        int start = 0;
+        int end = text.length();
+        while (start < end && Character.isWhitespace(text.charAt(start))) {
+            start++;
+        }
+        while (end > start && Character.isWhitespace(text.charAt(end - 1))) {
+            end--;
+        }
+
+        boolean negative = false;
+        if (start < end && text.charAt(start) == '-') {
+            negative = true;
+            start++;
+        }
+        if (start < end && text.charAt(start) == '$') {
+            start++;
+        }
+
+        long units = 0;
+        long fraction = 0;
+        int fractionDigits = 0;
+        boolean roundUp = false;
+        boolean inFraction = false;
+        boolean anyDigit = false;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                anyDigit = true;
+                if (!inFraction) {
+                    units = Math.addExact(Math.multiplyExact(units, 10), c - '0');
+                } else if (fractionDigits < 2) {
+                    fraction = fraction * 10 + (c - '0');
+                    fractionDigits++;
+                } else if (fractionDigits == 2) {
+                    // Only the first dropped digit decides half-up rounding
+                    roundUp = c >= '5';
+                    fractionDigits++;
+                }
+            } else if (c == ',' && !inFraction) {
+                // Grouping separator
+            } else if (c == '.' && !inFraction) {
+                inFraction = true;
+            } else {
+                throw new NumberFormatException("Not an amount: \"" + text + "\"");
+            }
+        }
+        if (!anyDigit) {
+            throw new NumberFormatException("Not an amount: \"" + text + "\"");
+        }
+
+        if (fractionDigits == 1) {
+            fraction *= 10;
+        }
+        long result = Math.addExact(Math.multiplyExact(units, 100), fraction + (roundUp ? 1 : 0));
+        return negative ? -result : result;
+    }
+
+    /**
+     * Format cents like "$1,234.56"
+     */
+    public static String format(long cents) {
+        StringBuilder text = new StringBuilder(24);
+        if (cents < 0) {
+            text.append('-');
+        }
+        // Long.MIN_VALUE has no positive counterpart, so work on the negative side
+        long negated = cents > 0 ? -cents : cents;
+        long units = -(negated / 100);
+        int fraction = (int) -(negated % 100);
+
+        text.append('$');
+        String digits = Long.toString(units);
+        for (int i = 0; i < digits.length(); i++) {
+            if (i > 0 && (digits.length() - i) % 3 == 0) {
+                text.append(',');
+            }
+            text.append(digits.charAt(i));
+        }
+        text.append('.');
+        if (fraction < 10) {
+            text.append('0');
+        }
+        text.append(fraction);
+        return text.toString();
+    }
+
+    /**
+     * Divide, rounding half away from zero
+     */
+    private static long divideRounded(long dividend, long divisor) {
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+        if (Math.abs(remainder) * 2 >= Math.abs(divisor)) {
+            quotient += (dividend < 0) == (divisor < 0) ? 1 : -1;
+        }
+        return quotient;
+    }
+}
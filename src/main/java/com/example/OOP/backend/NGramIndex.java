@@ -0,0 +1,185 @@
+package com.example.OOP.backend;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * N-gram index for substring search over a few text fields per document.
+ * Every slice of one to three characters of every field maps to a BitSet of
+ * document IDs. A term of up to three characters is answered by its own
+ * posting; a longer term by intersecting the postings of its trigrams and
+ * checking the few survivors against the stored text, so the cost depends
+ * on the number of candidates, not on the number of documents.
+ * Matching is case-insensitive.
+ * Document IDs must not be negative. Not thread-safe; callers guard it.
+ */
+public class NGramIndex {
+
+    private static final int MAX_GRAM_LENGTH = 3;
+
+    private final Map<String, BitSet> postings = new HashMap<>();
+    // Lower-cased field values by document ID, used to verify candidates
+    private String[][] documents = new String[64][];
+    private final BitSet all = new BitSet();
+
+    /**
+     * Add or replace a document. Null fields are ignored.
+     */
+    public void put(int id, String... fields) {
+        remove(id);
+
+        String[] normalized = new String[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+            normalized[i] = normalize(fields[i]);
+            for (String gram : grams(normalized[i])) {
+                postings.computeIfAbsent(gram, g -> new BitSet()).set(id);
+            }
+        }
+        if (id >= documents.length) {
+            documents = Arrays.copyOf(documents, Math.max(id + 1, documents.length * 2));
+        }
+        documents[id] = normalized;
+        all.set(id);
+    }
+
+    /**
+     * Remove a document
+     */
+    public void remove(int id) {
+        String[] fields = fields(id);
+        if (fields == null) {
+            return;
+        }
+        documents[id] = null;
+        all.clear(id);
+        for (String field : fields) {
+            for (String gram : grams(field)) {
+                BitSet posting = postings.get(gram);
+                if (posting != null) {
+                    posting.clear(id);
+                    if (posting.isEmpty()) {
+                        postings.remove(gram);
+                    }
+                }
+            }
+        }
+    }
+
+    public void clear() {
+        postings.clear();
+        documents = new String[64][];
+        all.clear();
+    }
+
+    public int size() {
+        return all.cardinality();
+    }
+
+    /**
+     * Documents that may contain the term in some field. Every match is
+     * included; for terms longer than three characters the result can also
+     * hold documents that only contain the term's trigrams in a different
+     * order, so check those with fields(id).
+     */
+    public BitSet candidates(String term) {
+        String normalized = normalize(term);
+        if (normalized.isEmpty()) {
+            return (BitSet) all.clone();
+        }
+        if (normalized.length() <= MAX_GRAM_LENGTH) {
+            BitSet posting = postings.get(normalized);
+            return posting != null ? (BitSet) posting.clone() : new BitSet();
+        }
+
+        BitSet result = null;
+        for (String gram : trigrams(normalized)) {
+            BitSet posting = postings.get(gram);
+            if (posting == null) {
+                return new BitSet();
+            }
+            if (result == null) {
+                result = (BitSet) posting.clone();
+            } else {
+                result.and(posting);
+            }
+            if (result.isEmpty()) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Lower-cased field values of a document, in the order they were put,
+     * or null if the document is not in the index
+     */
+    public String[] fields(int id) {
+        return id < documents.length ? documents[id] : null;
+    }
+
+    /**
+     * Documents where every whitespace-separated word of the query appears
+     * somewhere in one of the fields. An empty query matches every document.
+     */
+    public BitSet search(String query) {
+        BitSet result = (BitSet) all.clone();
+        for (String term : normalize(query).split("\\s+")) {
+            if (term.isEmpty()) {
+                continue;
+            }
+            BitSet matches = candidates(term);
+            matches.and(result);
+            if (term.length() > MAX_GRAM_LENGTH) {
+                for (int id = matches.nextSetBit(0); id >= 0; id = matches.nextSetBit(id + 1)) {
+                    if (!anyFieldContains(documents[id], term)) {
+                        matches.clear(id);
+                    }
+                }
+            }
+            result = matches;
+            if (result.isEmpty()) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    private static boolean anyFieldContains(String[] fields, String term) {
+        for (String field : fields) {
+            if (field.contains(term)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String normalize(String value) {
+        return value != null ? value.toLowerCase(Locale.ROOT) : "";
+    }
+
+    /**
+     * Every slice of one to three characters
+     */
+    private static Set<String> grams(String value) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i < value.length(); i++) {
+            for (int end = i + 1; end <= Math.min(value.length(), i + MAX_GRAM_LENGTH); end++) {
+                grams.add(value.substring(i, end));
+            }
+        }
+        return grams;
+    }
+
+    private static Set<String> trigrams(String value) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + MAX_GRAM_LENGTH <= value.length(); i++) {
+            grams.add(value.substring(i, i + MAX_GRAM_LENGTH));
+        }
+        return grams;
+    }
+}
@@ -0,0 +1,297 @@
+package com.example.OOP.backend;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Minimal PDF 1.4 writer for text-and-rule documents on US Letter pages,
+ * using the standard Helvetica fonts so nothing has to be embedded.
+ * Pages are written to the stream as soon as they are finished: only the
+ * page being drawn is held in memory, plus an offset per object for the
+ * cross-reference table, so a document of any length is written in
+ * bounded memory. Text outside Latin-1 is written as '?'.
+ */
+class PdfWriter implements AutoCloseable {
+
+    public static final float PAGE_WIDTH = 612;
+    public static final float PAGE_HEIGHT = 792;
+
+    // Reserved object numbers; the page tree is written last, once every page is known
+    private static final int CATALOG_ID = 1;
+    private static final int PAGES_ID = 2;
+    private static final int FONT_ID = 3;
+    private static final int BOLD_FONT_ID = 4;
+
+    // Helvetica advance widths for ' ' to '~', in 1/1000 of the font size
+    private static final short[] HELVETICA_WIDTHS = {
+        278, 278, 355, 556, 556, 889, 667, 191, 333, 333, 389, 584, 278, 333, 278, 278,
+        556, 556, 556, 556, 556, 556, 556, 556, 556, 556, 278, 278, 584, 584, 584, 556,
+        1015, 667, 667, 722, 722, 667, 611, 778, 722, 278, 500, 667, 556, 833, 722, 778,
+        667, 778, 722, 667, 611, 722, 667, 944, 667, 667, 611, 278, 278, 278, 469, 556,
+        333, 556, 556, 500, 556, 556, 278, 556, 556, 222, 222, 500, 222, 833, 556, 556,
+        556, 556, 333, 500, 278, 556, 500, 722, 500, 500, 500, 334, 260, 334, 584
+    };
+
+    private final CountingOutputStream out;
+    // Byte offset of each object, indexed by object number - 1
+    private final List<Long> offsets = new ArrayList<>();
+    private final List<Integer> pageIds = new ArrayList<>();
+    private final ByteArrayOutputStream content = new ByteArrayOutputStream(16 * 1024);
+    private final String title;
+    private boolean pageOpen;
+
+    /**
+     * Start a document on the stream, which is closed by close()
+     * @param title document title shown by PDF viewers; may be null
+     */
+    PdfWriter(OutputStream stream, String title) throws IOException {
+        this.out = new CountingOutputStream(stream);
+        this.title = title;
+        for (int id = 1; id <= BOLD_FONT_ID; id++) {
+            offsets.add(0L);
+        }
+
+        // The binary comment marks the file as binary for transfer tools
+        write("%PDF-1.4\n%âãÏÓ\n");
+        writeObject(FONT_ID, "<< /Type /Font /Subtype /Type1 /BaseFont /Helvetica /Encoding /WinAnsiEncoding >>");
+        writeObject(BOLD_FONT_ID, "<< /Type /Font /Subtype /Type1 /BaseFont /Helvetica-Bold /Encoding /WinAnsiEncoding >>");
+    }
+
+    /**
+     * Start a new page; the previous one must have been ended
+     */
+    void beginPage() {
+        if (pageOpen) {
+            throw new IllegalStateException("Page already open");
+        }
+        content.reset();
+        pageOpen = true;
+    }
+
+    /**
+     * Compress the page content and write the page to the stream
+     */
+    void endPage() throws IOException {
+        if (!pageOpen) {
+            throw new IllegalStateException("No page open");
+        }
+        pageOpen = false;
+
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(content.size() / 3 + 64);
+        try (DeflaterOutputStream deflater = new DeflaterOutputStream(compressed)) {
+            content.writeTo(deflater);
+        }
+
+        int contentId = nextId();
+        startObject(contentId);
+        write("<< /Length " + compressed.size() + " /Filter /FlateDecode >>\nstream\n");
+        compressed.writeTo(out);
+        write("\nendstream\nendobj\n");
+
+        int pageId = nextId();
+        writeObject(pageId, "<< /Type /Page /Parent " + PAGES_ID + " 0 R"
+            + " /MediaBox [0 0 " + number(PAGE_WIDTH) + " " + number(PAGE_HEIGHT) + "]"
+            + " /Resources << /Font << /F1 " + FONT_ID + " 0 R /F2 " + BOLD_FONT_ID + " 0 R >> >>"
+            + " /Contents " + contentId + " 0 R >>");
+        pageIds.add(pageId);
+    }
+
+    /**
+     * Number of pages ended so far
+     */
+    int getPageCount() {
+        return pageIds.size();
+    }
+
+    /**
+     * Draw text with its baseline starting at (x, y), in points from the bottom left
+     */
+    void text(float x, float y, float size, boolean bold, String text) {
+        contentAscii("BT /" + (bold ? "F2 " : "F1 ") + number(size) + " Tf "
+            + number(x) + " " + number(y) + " Td (");
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '(' || c == ')' || c == '\\') {
+                content.write('\\');
+                content.write(c);
+            } else if (c < 0x20) {
+                content.write(' ');
+            } else if (c > 0xFF) {
+                content.write('?');
+            } else {
+                content.write(c);
+            }
+        }
+        contentAscii(") Tj ET\n");
+    }
+
+    /**
+     * Draw text ending at rightX
+     */
+    void textRight(float rightX, float y, float size, boolean bold, String text) {
+        text(rightX - textWidth(text, size), y, size, bold, text);
+    }
+
+    /**
+     * Draw a line
+     * @param gray 0 for black to 1 for white
+     */
+    void line(float x1, float y1, float x2, float y2, float width, float gray) {
+        contentAscii(number(gray) + " G " + number(width) + " w "
+            + number(x1) + " " + number(y1) + " m " + number(x2) + " " + number(y2) + " l S 0 G\n");
+    }
+
+    /**
+     * Fill a rectangle whose bottom left corner is (x, y)
+     * @param gray 0 for black to 1 for white
+     */
+    void fillRect(float x, float y, float width, float height, float gray) {
+        contentAscii(number(gray) + " g " + number(x) + " " + number(y) + " "
+            + number(width) + " " + number(height) + " re f 0 g\n");
+    }
+
+    /**
+     * Width of text set in Helvetica. Helvetica-Bold is a little wider, so
+     * leave some slack when fitting bold text.
+     */
+    static float textWidth(String text, float size) {
+        int units = 0;
+        for (int i = 0; i < text.length(); i++) {
+            units += charUnits(text.charAt(i));
+        }
+        return units * size / 1000f;
+    }
+
+    private static int charUnits(char c) {
+        return c >= ' ' && c <= '~' ? HELVETICA_WIDTHS[c - ' '] : 556;
+    }
+
+    /**
+     * Shorten text with "..." so it fits in width
+     */
+    static String fit(String text, float size, float width) {
+        if (text == null) {
+            return "";
+        }
+        if (textWidth(text, size) <= width) {
+            return text;
+        }
+        float available = (width - textWidth("...", size)) * 1000f / size;
+        int end = 0;
+        int used = 0;
+        while (end < text.length() && used + charUnits(text.charAt(end)) <= available) {
+            used += charUnits(text.charAt(end));
+            end++;
+        }
+        return text.substring(0, end) + "...";
+    }
+
+    /**
+     * Write the page tree, catalog and cross-reference table, and close the stream
+     */
+    @Override
+    public void close() throws IOException {
+        if (pageOpen) {
+            endPage();
+        }
+        if (pageIds.isEmpty()) {
+            // A PDF needs at least one page
+            beginPage();
+            endPage();
+        }
+
+        StringBuilder kids = new StringBuilder();
+        for (int pageId : pageIds) {
+            kids.append(pageId).append(" 0 R ");
+        }
+        writeObject(PAGES_ID, "<< /Type /Pages /Kids [" + kids + "] /Count " + pageIds.size() + " >>");
+        writeObject(CATALOG_ID, "<< /Type /Catalog /Pages " + PAGES_ID + " 0 R >>");
+
+        int infoId = nextId();
+        String info = "<< /Producer (Car Store Management)";
+        if (title != null) {
+            info += " /Title (" + title.replace("\\", "\\\\").replace("(", "\\(").replace(")", "\\)") + ")";
+        }
+        writeObject(infoId, info + " >>");
+
+        long xref = out.getCount();
+        StringBuilder table = new StringBuilder();
+        table.append("xref\n0 ").append(offsets.size() + 1).append('\n');
+        table.append("0000000000 65535 f \n");
+        for (long offset : offsets) {
+            table.append(String.format(Locale.ROOT, "%010d 00000 n \n", offset));
+        }
+        table.append("trailer\n<< /Size ").append(offsets.size() + 1)
+            .append(" /Root ").append(CATALOG_ID).append(" 0 R /Info ").append(infoId).append(" 0 R >>\n")
+            .append("startxref\n").append(xref).append("\n%%EOF\n");
+        write(table.toString());
+        out.close();
+    }
+
+    private int nextId() {
+        offsets.add(0L);
+        return offsets.size();
+    }
+
+    private void startObject(int id) throws IOException {
+        offsets.set(id - 1, out.getCount());
+        write(id + " 0 obj\n");
+    }
+
+    private void writeObject(int id, String body) throws IOException {
+        startObject(id);
+        write(body + "\nendobj\n");
+    }
+
+    private void write(String text) throws IOException {
+        out.write(text.getBytes(StandardCharsets.ISO_8859_1));
+    }
+
+    private void contentAscii(String text) {
+        content.writeBytes(text.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Format a coordinate with at most two decimals and no exponent
+     */
+    private static String number(float value) {
+        if (value == Math.rint(value)) {
+            return Long.toString((long) value);
+        }
+        return String.format(Locale.ROOT, "%.2f", value);
+    }
+
+    /**
+     * Counts the bytes written, for the cross-reference offsets
+     */
+    private static class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+
+        long getCount() {
+            return count;
+        }
+    }
+}
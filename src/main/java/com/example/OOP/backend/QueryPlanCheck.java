@@ -0,0 +1,156 @@
+package com.example.OOP.backend;
+
+import com.example.Database.DatabaseConnection;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Runs EXPLAIN on the SQL the DAOs send on their hot paths and reports any
+ * full table scan of a large table. The probes are built from the DAOs' own
+ * query text and builders, so the check follows the queries as they change.
+ */
+public final class QueryPlanCheck {
+
+    // Tables that grow with the business and must always be reached through an index
+    private static final Set<String> LARGE_TABLES = Set.of("cars", "sales", "audit_logs", "expenses");
+
+    // A table reference with an optional alias, e.g. "FROM sales s" or "JOIN audit_logs AS al2"
+    private static final Pattern TABLE_REFERENCE = Pattern.compile(
+        "\\b(?:FROM|JOIN)\\s+(\\w+)(?:\\s+(?:AS\\s+)?(\\w+))?", Pattern.CASE_INSENSITIVE);
+
+    // Words that can follow a table name and are not an alias
+    private static final Set<String> NOT_ALIASES = Set.of(
+        "where", "on", "using", "left", "right", "inner", "outer", "cross", "join",
+        "group", "order", "having", "limit", "union", "for");
+
+    /**
+     * One query to explain, with the parameters the DAO would bind
+     */
+    private static final class Probe {
+        final String name;
+        final String sql;
+        final List<Object> parameters;
+
+        Probe(String name, String sql, List<Object> parameters) {
+            this.name = name;
+            this.sql = sql;
+            this.parameters = parameters;
+        }
+    }
+
+    private QueryPlanCheck() {
+    }
+
+    /**
+     * Explain every probe and list the full scans of large tables (access type
+     * ALL), one line per scan, plus any probe MySQL could not explain. An empty
+     * list means every plan uses an index. Note that on a nearly empty database
+     * MySQL may choose a scan anyway.
+     */
+    public static List<String> findFullScans() throws SQLException {
+        List<String> problems = new ArrayList<>();
+
+        try (Connection conn = DatabaseConnection.getInstance().getConnection()) {
+            for (Probe probe : buildProbes()) {
+                Map<String, String> tablesByAlias = tablesByAlias(probe.sql);
+
+                try (PreparedStatement pstmt = conn.prepareStatement("EXPLAIN " + probe.sql)) {
+                    for (int i = 0; i < probe.parameters.size(); i++) {
+                        pstmt.setObject(i + 1, probe.parameters.get(i));
+                    }
+
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        while (rs.next()) {
+                            // EXPLAIN names the alias; derived tables (<derived2>) map to null
+                            String shown = rs.getString("table");
+                            String table = shown != null ? tablesByAlias.get(shown.toLowerCase(Locale.ROOT)) : null;
+                            if ("ALL".equals(rs.getString("type")) && LARGE_TABLES.contains(table)) {
+                                problems.add("Full scan of " + table + " (as " + shown + ") in " + probe.name);
+                            }
+                        }
+                    }
+                } catch (SQLException e) {
+                    problems.add("Could not explain " + probe.name + ": " + e.getMessage());
+                }
+            }
+        }
+
+        return problems;
+    }
+
+    /**
+     * The hot-path queries, each over a one-month range
+     */
+    private static List<Probe> buildProbes() {
+        Timestamp from = Timestamp.valueOf("2024-01-01 00:00:00");
+        Timestamp to = Timestamp.valueOf("2024-02-01 00:00:00");
+        List<Probe> probes = new ArrayList<>();
+
+        probes.add(new Probe("SalesDAO.getSalesStats", SalesDAO.SALES_STATS_SQL, List.of(from, to)));
+        probes.add(new Probe("SalesDAO.getMonthlySales", SalesDAO.MONTHLY_SALES_SQL, List.of(from, to)));
+        probes.add(new Probe("ExpenseDAO.getTotalsByType", ExpenseDAO.TOTALS_BY_TYPE_SQL,
+                             List.of(Date.valueOf("2024-01-01"), Date.valueOf("2024-02-01"))));
+
+        CarDAO carDAO = new CarDAO();
+        CarDAO.CarFilter carFilter = new CarDAO.CarFilter();
+        carFilter.setStatus(Car.CarStatus.AVAILABLE);
+        carFilter.setPageSize(50);
+        List<Object> carParameters = new ArrayList<>();
+        String carsSql = carDAO.buildCarsQuery(carFilter, carParameters);
+        probes.add(new Probe("CarDAO.getCars (available, first page)", carsSql, carParameters));
+
+        String pattern = "%Bl%";
+        probes.add(new Probe("CarDAO.searchCars", CarDAO.SEARCH_CARS_SQL,
+                             List.of(pattern, pattern, pattern, pattern)));
+
+        AuditLogDAO auditLogDAO = new AuditLogDAO();
+        AuditLogDAO.AuditLogFilter staffFilter = new AuditLogDAO.AuditLogFilter();
+        staffFilter.setStaffId(1);
+        staffFilter.setStartDate(from);
+        staffFilter.setEndDate(to);
+        staffFilter.setLimit(100);
+        List<Object> staffParameters = new ArrayList<>();
+        String staffSql = auditLogDAO.buildAuditLogsQuery(staffFilter, staffParameters);
+        probes.add(new Probe("AuditLogDAO.getAuditLogs (staff and dates)", staffSql, staffParameters));
+
+        AuditLogDAO.AuditLogFilter keywordFilter = new AuditLogDAO.AuditLogFilter();
+        keywordFilter.setSearchKeyword("sold");
+        keywordFilter.setFullTextSearch(true);
+        keywordFilter.setLimit(100);
+        List<Object> keywordParameters = new ArrayList<>();
+        String keywordSql = auditLogDAO.buildAuditLogsQuery(keywordFilter, keywordParameters);
+        probes.add(new Probe("AuditLogDAO.getAuditLogs (keyword)", keywordSql, keywordParameters));
+
+        return probes;
+    }
+
+    /**
+     * Map each table name and alias in the query (lower case) to its table
+     */
+    private static Map<String, String> tablesByAlias(String sql) {
+        Map<String, String> tables = new HashMap<>();
+        Matcher matcher = TABLE_REFERENCE.matcher(sql);
+        while (matcher.find()) {
+            String table = matcher.group(1).toLowerCase(Locale.ROOT);
+            tables.put(table, table);
+
+            String alias = matcher.group(2);
+            if (alias != null && !NOT_ALIASES.contains(alias.toLowerCase(Locale.ROOT))) {
+                tables.put(alias.toLowerCase(Locale.ROOT), table);
+            }
+        }
+        return tables;
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.OOP.backend;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Writes a one-page PDF receipt for a sale
+ */
+public class SaleReceiptWriter {
+
+    private static final float MARGIN = 60;
+    private static final float RIGHT = PdfWriter.PAGE_WIDTH - MARGIN;
+    private static final float VALUE_X = MARGIN + 130;
+
+    private float y;
+
+    /**
+     * Write the receipt, replacing the file if it exists
+     */
+    public void write(Sale sale, Path target) throws IOException {
+        try (PdfWriter pdf = new PdfWriter(new BufferedOutputStream(Files.newOutputStream(target)),
+                "Receipt #" + sale.getSaleId())) {
+            pdf.beginPage();
+            y = PdfWriter.PAGE_HEIGHT - 70;
+
+            pdf.text(MARGIN, y, 20, true, "Car Store Management");
+            pdf.textRight(RIGHT, y, 12, true, "SALES RECEIPT");
+            y -= 18;
+            pdf.text(MARGIN, y, 9, false, "Erbil, Iraq");
+            pdf.textRight(RIGHT, y, 9, false, String.format("Receipt #%06d", sale.getSaleId()));
+            y -= 13;
+            pdf.textRight(RIGHT, y, 9, false, sale.getFormattedSaleDate());
+            y -= 14;
+            pdf.line(MARGIN, y, RIGHT, y, 1, 0.3f);
+            y -= 28;
+
+            heading(pdf, "Sold To");
+            field(pdf, "Name", sale.getBuyerName());
+            field(pdf, "Contact", sale.getBuyerContact());
+            y -= 12;
+
+            Car car = sale.getCar();
+            heading(pdf, "Vehicle");
+            field(pdf, "Vehicle", sale.getCarDisplayName());
+            if (car != null) {
+                field(pdf, "VIN", car.getVin());
+                field(pdf, "Color", car.getColor());
+                field(pdf, "Year", car.getManufactureYear() > 0 ? Integer.toString(car.getManufactureYear()) : null);
+            }
+            y -= 12;
+
+            heading(pdf, "Payment");
+            field(pdf, "Method", sale.getPaymentMethod() != null ? sale.getPaymentMethod().toString() : null);
+            field(pdf, "Status", sale.getPaymentStatus() != null ? sale.getPaymentStatus().toString() : null);
+            field(pdf, "Handled By", sale.getHandledByStaff() != null ? sale.getHandledByStaff().getFullName() : null);
+            y -= 12;
+
+            heading(pdf, "Amount");
+            amount(pdf, "Sale Price", sale.getFormattedSalePrice(), false);
+            amount(pdf, "Sales Tax", sale.getFormattedTaxAmount(), false);
+            pdf.line(RIGHT - 200, y + 10, RIGHT, y + 10, 0.75f, 0.3f);
+            y -= 4;
+            amount(pdf, "Total", sale.getFormattedTotalAmount(), true);
+
+            if (sale.getSaleNotes() != null && !sale.getSaleNotes().isBlank()) {
+                y -= 16;
+                heading(pdf, "Notes");
+                pdf.text(MARGIN, y, 10, false, PdfWriter.fit(sale.getSaleNotes(), 10, RIGHT - MARGIN));
+                y -= 16;
+            }
+
+            float footerY = 70;
+            pdf.line(MARGIN, footerY + 14, RIGHT, footerY + 14, 0.5f, 0.6f);
+            pdf.text(MARGIN, footerY, 9, false, "Thank you for your purchase.");
+            pdf.endPage();
+        }
+    }
+
+    private void heading(PdfWriter pdf, String text) {
+        pdf.text(MARGIN, y, 11, true, text);
+        y -= 6;
+        pdf.line(MARGIN, y, RIGHT, y, 0.5f, 0.75f);
+        y -= 16;
+    }
+
+    private void field(PdfWriter pdf, String label, String value) {
+        pdf.text(MARGIN, y, 10, false, label);
+        pdf.text(VALUE_X, y, 10, false, PdfWriter.fit(value != null ? value : "N/A", 10, RIGHT - VALUE_X));
+        y -= 15;
+    }
+
+    private void amount(PdfWriter pdf, String label, String value, boolean bold) {
+        pdf.text(RIGHT - 200, y, 10, bold, label);
+        pdf.textRight(RIGHT, y, 10, bold, value);
+        y -= 15;
+    }
+}
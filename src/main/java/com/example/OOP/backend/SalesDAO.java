@@ -2,11 +2,17 @@ package com.example.OOP.backend;
 
 
 
+import com.example.Database.DBConfig;
 import com.example.Database.DatabaseConnection;
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.sql.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Data Access Object for Sale entity
@@ -16,6 +22,34 @@ public class SalesDAO {
     
     private DatabaseConnection dbConnection;
     
+    // Whether the sales_daily_rollup table exists and has been filled; checked once per run
+    private static volatile Boolean rollupAvailable;
+    
+    // Sales totals over a [from, to) timestamp range, also explained by QueryPlanCheck.
+    // Half-open range on the bare column so idx_sales_date_cover can drive the scan
+    static final String SALES_STATS_SQL = """
+        SELECT 
+            COUNT(*) as total_sales,
+            COALESCE(SUM(s.total_amount), 0) as total_revenue,
+            COALESCE(AVG(s.total_amount), 0) as average_sale,
+            COALESCE(SUM(s.sale_price - c.cost), 0) as total_profit
+        FROM sales s
+        LEFT JOIN cars c ON s.car_id = c.car_id
+        WHERE s.sale_date >= ? AND s.sale_date < ?
+        """;
+    
+    // Sales per month over a [from, to) timestamp range, also explained by QueryPlanCheck
+    static final String MONTHLY_SALES_SQL = """
+        SELECT 
+            MONTH(s.sale_date) as month,
+            COUNT(*) as sales_count,
+            COALESCE(SUM(s.total_amount), 0) as total_revenue
+        FROM sales s
+        WHERE s.sale_date >= ? AND s.sale_date < ?
+        GROUP BY MONTH(s.sale_date)
+        ORDER BY MONTH(s.sale_date)
+        """;
+    
     public SalesDAO() {
         this.dbConnection = DatabaseConnection.getInstance();
     }
@@ -31,31 +65,41 @@ public class SalesDAO {
             VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
             """;
         
-        try (Connection conn = dbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            
-            pstmt.setInt(1, sale.getCarId());
-            pstmt.setString(2, sale.getBuyerName());
-            pstmt.setString(3, sale.getBuyerContact());
-            pstmt.setTimestamp(4, sale.getSaleDate());
-            pstmt.setBigDecimal(5, sale.getSalePrice());
-            pstmt.setBigDecimal(6, sale.getTaxAmount());
-            pstmt.setBigDecimal(7, sale.getTotalAmount());
-            pstmt.setString(8, sale.getPaymentMethod().getValue());
-            pstmt.setString(9, sale.getPaymentStatus().getValue());
-            pstmt.setInt(10, sale.getHandledBy());
-            pstmt.setString(11, sale.getSaleNotes());
-            
-            int affectedRows = pstmt.executeUpdate();
-            
-            if (affectedRows > 0) {
-                try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
-                    if (generatedKeys.next()) {
-                        sale.setSaleId(generatedKeys.getInt(1));
-                        return true;
+        // The sale and its daily rollup row are written in one transaction
+        try {
+            return dbConnection.inTransaction(conn -> {
+                // Decide before the insert, so the new sale alone does not make an unfilled rollup look usable
+                isRollupAvailable();
+                
+                try (PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                    
+                    pstmt.setInt(1, sale.getCarId());
+                    pstmt.setString(2, sale.getBuyerName());
+                    pstmt.setString(3, sale.getBuyerContact());
+                    pstmt.setTimestamp(4, sale.getSaleDate());
+                    pstmt.setBigDecimal(5, sale.getSalePrice());
+                    pstmt.setBigDecimal(6, sale.getTaxAmount());
+                    pstmt.setBigDecimal(7, sale.getTotalAmount());
+                    pstmt.setString(8, sale.getPaymentMethod().getValue());
+                    pstmt.setString(9, sale.getPaymentStatus().getValue());
+                    pstmt.setInt(10, sale.getHandledBy());
+                    pstmt.setString(11, sale.getSaleNotes());
+                    
+                    int affectedRows = pstmt.executeUpdate();
+                    
+                    if (affectedRows > 0) {
+                        try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
+                            if (generatedKeys.next()) {
+                                sale.setSaleId(generatedKeys.getInt(1));
+                                applyRollupDelta(sale.getSaleId(), 1);
+                                DataChangeEvents.publishAfterCommit(DataChangeEvents.Topic.SALES, sale.getSaleId());
+                                return true;
+                            }
+                        }
                     }
                 }
-            }
+                return false;
+            });
             
         } catch (SQLException e) {
             System.err.println("Error creating sale: " + e.getMessage());
@@ -159,6 +203,11 @@ public class SalesDAO {
                 sql.append(" AND s.handled_by = ?");
                 parameters.add(filter.getHandledBy());
             }
+            
+            if (filter.getCarId() != null) {
+                sql.append(" AND s.car_id = ?");
+                parameters.add(filter.getCarId());
+            }
         }
         
         sql.append(" ORDER BY s.sale_date DESC");
@@ -196,6 +245,47 @@ public class SalesDAO {
         return getSales(filter);
     }
     
+    /**
+     * Get every sold car joined with its most recent sale in one query,
+     * ordered like CarDAO.getSoldCars() (newest car first)
+     */
+    public List<Sale> getSoldCarSales() {
+        String sql = """
+            SELECT s.*, c.vin, c.color, c.manufacture_year, c.cost,
+                   cm.model_name, cm.category, m.name as manufacturer_name,
+                   st.full_name as staff_name
+            FROM cars c
+            JOIN sales s ON s.sale_id = (
+                SELECT s2.sale_id FROM sales s2
+                WHERE s2.car_id = c.car_id
+                ORDER BY s2.sale_date DESC, s2.sale_id DESC
+                LIMIT 1)
+            LEFT JOIN car_models cm ON c.model_id = cm.model_id
+            LEFT JOIN manufacturers m ON cm.manufacturer_id = m.manufacturer_id
+            LEFT JOIN staff st ON s.handled_by = st.staff_id
+            WHERE c.status = 'sold'
+            ORDER BY c.date_added DESC, c.car_id DESC
+            """;
+        
+        List<Sale> sales = new ArrayList<>();
+        
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    sales.add(mapResultSetToSale(rs));
+                }
+            }
+            
+        } catch (SQLException e) {
+            System.err.println("Error getting sold car sales: " + e.getMessage());
+            e.printStackTrace();
+        }
+        
+        return sales;
+    }
+    
     /**
      * Get recent sales (last N days)
      */
@@ -221,20 +311,29 @@ public class SalesDAO {
             WHERE sale_id = ?
             """;
         
-        try (Connection conn = dbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setString(1, sale.getBuyerName());
-            pstmt.setString(2, sale.getBuyerContact());
-            pstmt.setBigDecimal(3, sale.getSalePrice());
-            pstmt.setBigDecimal(4, sale.getTaxAmount());
-            pstmt.setBigDecimal(5, sale.getTotalAmount());
-            pstmt.setString(6, sale.getPaymentMethod().getValue());
-            pstmt.setString(7, sale.getPaymentStatus().getValue());
-            pstmt.setString(8, sale.getSaleNotes());
-            pstmt.setInt(9, sale.getSaleId());
-            
-            return pstmt.executeUpdate() > 0;
+        // Swap the old amounts out of the rollup and the new ones in, atomically with the update
+        try {
+            return dbConnection.inTransaction(conn -> {
+                applyRollupDelta(sale.getSaleId(), -1);
+                
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    
+                    pstmt.setString(1, sale.getBuyerName());
+                    pstmt.setString(2, sale.getBuyerContact());
+                    pstmt.setBigDecimal(3, sale.getSalePrice());
+                    pstmt.setBigDecimal(4, sale.getTaxAmount());
+                    pstmt.setBigDecimal(5, sale.getTotalAmount());
+                    pstmt.setString(6, sale.getPaymentMethod().getValue());
+                    pstmt.setString(7, sale.getPaymentStatus().getValue());
+                    pstmt.setString(8, sale.getSaleNotes());
+                    pstmt.setInt(9, sale.getSaleId());
+                    
+                    boolean updated = pstmt.executeUpdate() > 0;
+                    applyRollupDelta(sale.getSaleId(), 1);
+                    DataChangeEvents.publishAfterCommit(DataChangeEvents.Topic.SALES, sale.getSaleId());
+                    return updated;
+                }
+            });
             
         } catch (SQLException e) {
             System.err.println("Error updating sale: " + e.getMessage());
@@ -272,11 +371,17 @@ public class SalesDAO {
     public boolean deleteSale(int saleId) {
         String sql = "DELETE FROM sales WHERE sale_id = ?";
         
-        try (Connection conn = dbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setInt(1, saleId);
-            return pstmt.executeUpdate() > 0;
+        try {
+            return dbConnection.inTransaction(conn -> {
+                applyRollupDelta(saleId, -1);
+                // The row is gone once the event is delivered, so it carries the day
+                DataChangeEvents.publishAfterCommit(DataChangeEvents.Topic.SALES, saleId, getSaleDay(saleId));
+                
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    pstmt.setInt(1, saleId);
+                    return pstmt.executeUpdate() > 0;
+                }
+            });
             
         } catch (SQLException e) {
             System.err.println("Error deleting sale: " + e.getMessage());
@@ -287,22 +392,22 @@ public class SalesDAO {
     }
     
     /**
-     * Get sales statistics
+     * Get sales statistics for sales on or after startDate and before endDate.
+     * A null startDate means from the first sale.
+     * Ranges that start and end on a midnight boundary are summed from the
+     * daily rollup instead of scanning the sales table.
      */
     public SalesStats getSalesStats(Timestamp startDate, Timestamp endDate) {
-        String sql = """
-            SELECT 
-                COUNT(*) as total_sales,
-                COALESCE(SUM(s.total_amount), 0) as total_revenue,
-                COALESCE(AVG(s.total_amount), 0) as average_sale,
-                COALESCE(SUM(s.sale_price - c.cost), 0) as total_profit
-            FROM sales s
-            LEFT JOIN cars c ON s.car_id = c.car_id
-            WHERE s.sale_date BETWEEN ? AND ?
-            """;
+        if (startDate == null) {
+            startDate = new Timestamp(0);
+        }
+        if (isDayAligned(startDate) && isDayAligned(endDate) && isRollupAvailable()) {
+            return getRollupStats(startDate.toLocalDateTime().toLocalDate(),
+                                  endDate.toLocalDateTime().toLocalDate());
+        }
         
         try (Connection conn = dbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+             PreparedStatement pstmt = conn.prepareStatement(SALES_STATS_SQL)) {
             
             pstmt.setTimestamp(1, startDate);
             pstmt.setTimestamp(2, endDate);
@@ -330,15 +435,90 @@ public class SalesDAO {
      * Get monthly sales summary
      */
     public List<MonthlySales> getMonthlySales(int year) {
+        if (isRollupAvailable()) {
+            return getRollupMonthlySales(year);
+        }
+        
+        List<MonthlySales> monthlySales = new ArrayList<>();
+        
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(MONTHLY_SALES_SQL)) {
+            
+            pstmt.setTimestamp(1, Timestamp.valueOf(LocalDate.of(year, 1, 1).atStartOfDay()));
+            pstmt.setTimestamp(2, Timestamp.valueOf(LocalDate.of(year + 1, 1, 1).atStartOfDay()));
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    MonthlySales monthly = new MonthlySales();
+                    monthly.setMonth(rs.getInt("month"));
+                    monthly.setSalesCount(rs.getInt("sales_count"));
+                    monthly.setTotalRevenue(rs.getBigDecimal("total_revenue"));
+                    monthlySales.add(monthly);
+                }
+            }
+            
+        } catch (SQLException e) {
+            System.err.println("Error getting monthly sales: " + e.getMessage());
+            e.printStackTrace();
+        }
+        
+        return monthlySales;
+    }
+    
+    /**
+     * Sum sales statistics for [startDay, endDay) from the daily rollup
+     */
+    private SalesStats getRollupStats(LocalDate startDay, LocalDate endDay) {
         String sql = """
-            SELECT 
-                MONTH(s.sale_date) as month,
-                COUNT(*) as sales_count,
-                COALESCE(SUM(s.total_amount), 0) as total_revenue
-            FROM sales s
-            WHERE YEAR(s.sale_date) = ?
-            GROUP BY MONTH(s.sale_date)
-            ORDER BY MONTH(s.sale_date)
+            SELECT
+                COALESCE(SUM(sales_count), 0) as total_sales,
+                COALESCE(SUM(revenue), 0) as total_revenue,
+                COALESCE(SUM(profit), 0) as total_profit
+            FROM sales_daily_rollup
+            WHERE sale_day >= ? AND sale_day < ?
+            """;
+        
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setDate(1, Date.valueOf(startDay));
+            pstmt.setDate(2, Date.valueOf(endDay));
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    SalesStats stats = new SalesStats();
+                    stats.setTotalSales(rs.getInt("total_sales"));
+                    stats.setTotalRevenue(rs.getBigDecimal("total_revenue"));
+                    stats.setTotalProfit(rs.getBigDecimal("total_profit"));
+                    if (stats.getTotalSales() > 0) {
+                        stats.setAverageSale(stats.getTotalRevenue().divide(
+                            BigDecimal.valueOf(stats.getTotalSales()), 2, RoundingMode.HALF_UP));
+                    }
+                    return stats;
+                }
+            }
+            
+        } catch (SQLException e) {
+            System.err.println("Error getting rollup sales stats: " + e.getMessage());
+            e.printStackTrace();
+        }
+        
+        return new SalesStats();
+    }
+    
+    /**
+     * Monthly sales summary for a year from the daily rollup
+     */
+    private List<MonthlySales> getRollupMonthlySales(int year) {
+        String sql = """
+            SELECT
+                MONTH(sale_day) as month,
+                SUM(sales_count) as sales_count,
+                COALESCE(SUM(revenue), 0) as total_revenue
+            FROM sales_daily_rollup
+            WHERE sale_day >= ? AND sale_day < ?
+            GROUP BY MONTH(sale_day)
+            ORDER BY MONTH(sale_day)
             """;
         
         List<MonthlySales> monthlySales = new ArrayList<>();
@@ -346,7 +526,8 @@ public class SalesDAO {
         try (Connection conn = dbConnection.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
-            pstmt.setInt(1, year);
+            pstmt.setDate(1, Date.valueOf(LocalDate.of(year, 1, 1)));
+            pstmt.setDate(2, Date.valueOf(LocalDate.of(year + 1, 1, 1)));
             
             try (ResultSet rs = pstmt.executeQuery()) {
                 while (rs.next()) {
@@ -359,13 +540,220 @@ public class SalesDAO {
             }
             
         } catch (SQLException e) {
-            System.err.println("Error getting monthly sales: " + e.getMessage());
+            System.err.println("Error getting rollup monthly sales: " + e.getMessage());
             e.printStackTrace();
         }
         
         return monthlySales;
     }
     
+    /**
+     * Add (sign = 1) or remove (sign = -1) one sale's amounts in its day's rollup row.
+     * Runs on the caller's transaction connection.
+     */
+    private void applyRollupDelta(int saleId, int sign) throws SQLException {
+        applyRollupDelta("s.sale_id = ?", saleId, sign);
+    }
+    
+    /**
+     * Add (sign = 1) or remove (sign = -1) the amounts of every sale of a car.
+     * The rollup's profit depends on the car's cost, so CarDAO removes the
+     * car's sales before changing the cost and adds them back after, on the
+     * same transaction connection.
+     */
+    void applyCarRollupDelta(int carId, int sign) throws SQLException {
+        applyRollupDelta("s.car_id = ?", carId, sign);
+    }
+    
+    /**
+     * Day of a sale, or null if there is no such sale
+     */
+    private LocalDate getSaleDay(int saleId) throws SQLException {
+        String sql = "SELECT DATE(sale_date) FROM sales WHERE sale_id = ?";
+        
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setInt(1, saleId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next() && rs.getDate(1) != null) {
+                    return rs.getDate(1).toLocalDate();
+                }
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Day of a car's first sale, or null if it has none
+     */
+    LocalDate getFirstSaleDay(int carId) throws SQLException {
+        String sql = "SELECT MIN(DATE(sale_date)) FROM sales WHERE car_id = ?";
+        
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setInt(1, carId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next() && rs.getDate(1) != null) {
+                    return rs.getDate(1).toLocalDate();
+                }
+            }
+        }
+        return null;
+    }
+    
+    private void applyRollupDelta(String condition, int id, int sign) throws SQLException {
+        if (!isRollupAvailable()) {
+            return;
+        }
+        
+        String sql = """
+            INSERT INTO sales_daily_rollup (sale_day, payment_method, sales_count, revenue, tax, profit)
+            SELECT DATE(s.sale_date), s.payment_method, ? * COUNT(*), ? * SUM(s.total_amount),
+                   ? * SUM(s.tax_amount), ? * COALESCE(SUM(s.sale_price - c.cost), 0)
+            FROM sales s
+            LEFT JOIN cars c ON s.car_id = c.car_id
+            WHERE %s
+            GROUP BY DATE(s.sale_date), s.payment_method
+            ON DUPLICATE KEY UPDATE
+                sales_count = sales_count + VALUES(sales_count),
+                revenue = revenue + VALUES(revenue),
+                tax = tax + VALUES(tax),
+                profit = profit + VALUES(profit)
+            """.formatted(condition);
+        
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setInt(1, sign);
+            pstmt.setInt(2, sign);
+            pstmt.setInt(3, sign);
+            pstmt.setInt(4, sign);
+            pstmt.setInt(5, id);
+            pstmt.executeUpdate();
+        }
+    }
+    
+    /**
+     * Rebuild the whole daily rollup from the sales table.
+     * Use after loading sales outside the application.
+     * @return number of rollup rows written, or -1 on error
+     */
+    public int rebuildDailyRollup() {
+        String deleteSql = "DELETE FROM sales_daily_rollup";
+        String insertSql = """
+            INSERT INTO sales_daily_rollup (sale_day, payment_method, sales_count, revenue, tax, profit)
+            SELECT DATE(s.sale_date), s.payment_method, COUNT(*),
+                   SUM(s.total_amount), SUM(s.tax_amount), COALESCE(SUM(s.sale_price - c.cost), 0)
+            FROM sales s
+            LEFT JOIN cars c ON s.car_id = c.car_id
+            GROUP BY DATE(s.sale_date), s.payment_method
+            """;
+        
+        try {
+            return dbConnection.inTransaction(conn -> {
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.executeUpdate(deleteSql);
+                    int rows = stmt.executeUpdate(insertSql);
+                    rollupAvailable = true;
+                    return rows;
+                }
+            });
+        } catch (SQLException e) {
+            System.err.println("Error rebuilding sales rollup: " + e.getMessage());
+            e.printStackTrace();
+        }
+        
+        return -1;
+    }
+    
+    /**
+     * Whether the rollup can be read and maintained. A rollup that is empty
+     * while sales exist was created without the migration's backfill; it is
+     * left alone, and stats are read from the sales table, until
+     * rebuildDailyRollup fills it.
+     */
+    private boolean isRollupAvailable() {
+        Boolean available = rollupAvailable;
+        if (available == null) {
+            available = dbConnection.tableExists("sales_daily_rollup") && !isRollupUnfilled();
+            rollupAvailable = available;
+        }
+        return available;
+    }
+    
+    private boolean isRollupUnfilled() {
+        String sql = "SELECT EXISTS(SELECT 1 FROM sales) AND NOT EXISTS(SELECT 1 FROM sales_daily_rollup)";
+        
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql);
+             ResultSet rs = pstmt.executeQuery()) {
+            
+            if (rs.next() && rs.getBoolean(1)) {
+                System.err.println("sales_daily_rollup is empty; reading sales stats from the sales table."
+                    + " Fill it with: App --rebuild-sales-rollup");
+                return true;
+            }
+            
+        } catch (SQLException e) {
+            // Keep maintaining the rollup; skipping its updates would leave it stale
+            System.err.println("Error checking sales rollup: " + e.getMessage());
+            e.printStackTrace();
+        }
+        
+        return false;
+    }
+    
+    private static boolean isDayAligned(Timestamp timestamp) {
+        if (timestamp == null) {
+            return false;
+        }
+        LocalDateTime dateTime = timestamp.toLocalDateTime();
+        return dateTime.toLocalTime().equals(LocalTime.MIDNIGHT);
+    }
+    
+    /**
+     * Stream the sales made in [startDate, endDate), oldest first, with their
+     * cars, from a forward-only cursor that holds one fetch batch at a time
+     * @return number of sales passed to the consumer
+     */
+    public long streamSales(LocalDate startDate, LocalDate endDate, Consumer<Sale> consumer) throws SQLException {
+        // category is selected so mapResultSetToSale finds every column it reads
+        String sql = """
+            SELECT s.*, c.vin, c.color, c.manufacture_year, c.cost,
+                   cm.model_name, cm.category, m.name as manufacturer_name,
+                   st.full_name as staff_name
+            FROM sales s
+            LEFT JOIN cars c ON s.car_id = c.car_id
+            LEFT JOIN car_models cm ON c.model_id = cm.model_id
+            LEFT JOIN manufacturers m ON cm.manufacturer_id = m.manufacturer_id
+            LEFT JOIN staff st ON s.handled_by = st.staff_id
+            WHERE s.sale_date >= ? AND s.sale_date < ?
+            ORDER BY s.sale_date, s.sale_id
+            """;
+        long count = 0;
+        
+        // Not taken from the statement cache, since the fetch size is statement state
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql,
+                     ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            
+            pstmt.setFetchSize(DBConfig.STREAM_FETCH_SIZE);
+            pstmt.setTimestamp(1, Timestamp.valueOf(startDate.atStartOfDay()));
+            pstmt.setTimestamp(2, Timestamp.valueOf(endDate.atStartOfDay()));
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    consumer.accept(mapResultSetToSale(rs));
+                    count++;
+                }
+            }
+        }
+        
+        return count;
+    }
+    
     /**
      * Search sales by buyer name or car details
      */
@@ -447,6 +835,16 @@ public class SalesDAO {
                     CarModel carModel = new CarModel();
                     carModel.setModelName(modelName);
                     
+                    // Category is only selected by some queries
+                    try {
+                        String categoryStr = rs.getString("category");
+                        if (categoryStr != null) {
+                            carModel.setCategory(CarModel.CarCategory.fromString(categoryStr));
+                        }
+                    } catch (SQLException e) {
+                        // Column not in this query, ignore
+                    }
+                    
                     // Create and set Manufacturer if available
                     String manufacturerName = rs.getString("manufacturer_name");
                     if (manufacturerName != null) {